@@ -0,0 +1,19 @@
+package com.example.expensetracker.analytics;
+
+/**
+ * Материализованные представления аналитики для администраторов.
+ */
+public enum AnalyticsView {
+    SPENDING_BY_CATEGORY("mv_spending_by_category"),
+    SPENDING_BY_MONTH("mv_spending_by_month");
+
+    private final String viewName;
+
+    AnalyticsView(String viewName) {
+        this.viewName = viewName;
+    }
+
+    public String viewName() {
+        return viewName;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.expensetracker.analytics;
+
+import com.example.expensetracker.config.ExpenseAnalyticsProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Периодически обновляет материализованные представления аналитики (REFRESH ... CONCURRENTLY).
+ * Каждое представление обновляется в своей транзакции вместе с записью времени обновления;
+ * временем считается начало обновления — данные представления актуальны на этот момент.
+ * Пока один экземпляр приложения обновляет представления, остальные пропускают свой запуск.
+ */
+@Component
+public class ExpenseAnalyticsRefresher {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseAnalyticsRefresher.class);
+
+    private final ExpenseAnalyticsRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ExpenseAnalyticsProperties props;
+    private final MeterRegistry registry;
+    private final Clock clock;
+
+    public ExpenseAnalyticsRefresher(ExpenseAnalyticsRepository repository, TransactionTemplate transactionTemplate,
+                                     ExpenseAnalyticsProperties props, MeterRegistry registry) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.props = props;
+        this.registry = registry;
+        this.clock = Clock.systemUTC();
+    }
+
+    @Scheduled(fixedDelayString = "${app.expenses.analytics.refresh-interval}",
+            initialDelayString = "${app.expenses.analytics.refresh-interval}")
+    public void scheduledRefresh() {
+        if (props.refreshEnabled()) {
+            refresh();
+        }
+    }
+
+    /**
+     * Обновляет все представления.
+     *
+     * @return число обновлённых представлений
+     */
+    public int refresh() {
+        int refreshed = 0;
+        for (AnalyticsView view : AnalyticsView.values()) {
+            try {
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> refresh(view)))) {
+                    refreshed++;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Не удалось обновить представление {}: {}", view.viewName(), e.getMessage());
+            }
+        }
+        return refreshed;
+    }
+
+    private boolean refresh(AnalyticsView view) {
+        if (!repository.tryLockRefresh()) {
+            log.debug("Представление {} обновляет другой экземпляр", view.viewName());
+            return false;
+        }
+        Instant start = clock.instant();
+        long started = System.nanoTime();
+        repository.refresh(view);
+        long nanos = System.nanoTime() - started;
+        repository.logRefresh(view, start, TimeUnit.NANOSECONDS.toMillis(nanos));
+        Timer.builder("expenses.analytics.refresh")
+                .tag("view", view.viewName())
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        log.info("Представление {} обновлено за {} мс", view.viewName(), TimeUnit.NANOSECONDS.toMillis(nanos));
+        return true;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.expensetracker.analytics;
+
+import com.example.expensetracker.dto.CategorySpendingDto;
+import com.example.expensetracker.dto.MonthSpendingDto;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Чтение и обновление материализованных представлений аналитики. Запросы к expenses здесь не выполняются.
+ */
+@Repository
+public class ExpenseAnalyticsRepository {
+
+    private static final String BY_CATEGORY_SQL = """
+            SELECT category_id, category_name, total, expense_count, user_count
+            FROM mv_spending_by_category
+            ORDER BY total DESC
+            """;
+
+    private static final String BY_MONTH_SQL = """
+            SELECT month, total, expense_count, user_count
+            FROM mv_spending_by_month
+            ORDER BY month
+            """;
+
+    private static final String LOG_REFRESH_SQL = """
+            INSERT INTO analytics_refresh_log (view_name, refreshed_at, duration_ms)
+            VALUES (?, ?, ?)
+            ON CONFLICT (view_name) DO UPDATE SET refreshed_at = EXCLUDED.refreshed_at,
+                                                  duration_ms = EXCLUDED.duration_ms
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ExpenseAnalyticsRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<CategorySpendingDto> spendingByCategory() {
+        return jdbcTemplate.query(BY_CATEGORY_SQL, (rs, rowNum) -> {
+            long categoryId = rs.getLong("category_id");
+            return new CategorySpendingDto(rs.wasNull() ? null : categoryId, rs.getString("category_name"),
+                    rs.getBigDecimal("total"), rs.getLong("expense_count"), rs.getLong("user_count"));
+        });
+    }
+
+    public List<MonthSpendingDto> spendingByMonth() {
+        return jdbcTemplate.query(BY_MONTH_SQL, (rs, rowNum) -> new MonthSpendingDto(
+                YearMonth.from(rs.getObject("month", LocalDate.class)), rs.getBigDecimal("total"),
+                rs.getLong("expense_count"), rs.getLong("user_count")));
+    }
+
+    /**
+     * Время последнего обновления представления или null, если оно не записано.
+     */
+    public Instant refreshedAt(AnalyticsView view) {
+        try {
+            Timestamp refreshedAt = jdbcTemplate.queryForObject(
+                    "SELECT refreshed_at FROM analytics_refresh_log WHERE view_name = ?", Timestamp.class,
+                    view.viewName());
+            return refreshedAt == null ? null : refreshedAt.toInstant();
+        } catch (EmptyResultDataAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Берёт транзакционную advisory-блокировку обновления, чтобы несколько экземпляров приложения
+     * не обновляли представления одновременно. Вызывать в транзакции.
+     *
+     * @return false, если обновление уже выполняет другой экземпляр
+     */
+    public boolean tryLockRefresh() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(hashtext('analytics_refresh'))", Boolean.class));
+    }
+
+    /**
+     * Обновляет представление без блокировки читателей.
+     */
+    public void refresh(AnalyticsView view) {
+        jdbcTemplate.execute("REFRESH MATERIALIZED VIEW CONCURRENTLY " + view.viewName());
+    }
+
+    public void logRefresh(AnalyticsView view, Instant refreshedAt, long durationMillis) {
+        jdbcTemplate.update(LOG_REFRESH_SQL, view.viewName(), Timestamp.from(refreshedAt), durationMillis);
+    }
+}
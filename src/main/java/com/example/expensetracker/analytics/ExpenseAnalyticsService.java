@@ -0,0 +1,43 @@
+package com.example.expensetracker.analytics;
+
+import com.example.expensetracker.dto.AnalyticsDto;
+import com.example.expensetracker.dto.CategorySpendingDto;
+import com.example.expensetracker.dto.MonthSpendingDto;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Сводные расходы всех пользователей для администраторов. Данные читаются только из материализованных
+ * представлений, поэтому запросы не нагружают expenses; цена — задержка до refresh-interval,
+ * которую ответ сообщает явно.
+ */
+@Service
+public class ExpenseAnalyticsService {
+
+    private final ExpenseAnalyticsRepository repository;
+    private final Clock clock;
+
+    public ExpenseAnalyticsService(ExpenseAnalyticsRepository repository) {
+        this.repository = repository;
+        this.clock = Clock.systemUTC();
+    }
+
+    public AnalyticsDto<CategorySpendingDto> spendingByCategory() {
+        return withFreshness(repository.spendingByCategory(), AnalyticsView.SPENDING_BY_CATEGORY);
+    }
+
+    public AnalyticsDto<MonthSpendingDto> spendingByMonth() {
+        return withFreshness(repository.spendingByMonth(), AnalyticsView.SPENDING_BY_MONTH);
+    }
+
+    private <T> AnalyticsDto<T> withFreshness(List<T> items, AnalyticsView view) {
+        Instant refreshedAt = repository.refreshedAt(view);
+        Long staleSeconds = refreshedAt == null ? null
+                : Math.max(0, Duration.between(refreshedAt, clock.instant()).toSeconds());
+        return new AnalyticsDto<>(items, refreshedAt, staleSeconds);
+    }
+}
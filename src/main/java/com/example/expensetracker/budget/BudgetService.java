@@ -0,0 +1,117 @@
+package com.example.expensetracker.budget;
+
+import com.example.expensetracker.details.UserDetailsImpl;
+import com.example.expensetracker.dto.BudgetDto;
+import com.example.expensetracker.dto.BudgetRequestDto;
+import com.example.expensetracker.model.Budget;
+import com.example.expensetracker.model.Category;
+import com.example.expensetracker.money.Money;
+import com.example.expensetracker.repository.BudgetRepository;
+import com.example.expensetracker.repository.CategoryRepository;
+import com.example.expensetracker.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Месячные бюджеты по категориям. Потраченное за текущий месяц берётся из {@link BudgetTracker},
+ * поэтому ни список бюджетов, ни проверка при добавлении расхода не агрегируют расходы в БД.
+ * Месяц — календарный месяц в зоне JVM, как и день в expense_daily_rollup.
+ */
+@Service
+public class BudgetService {
+
+    private final BudgetRepository budgetRepository;
+    private final CategoryRepository categoryRepository;
+    private final UserRepository userRepository;
+    private final BudgetSpendingRepository spendingRepository;
+    private final BudgetTracker tracker;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    public BudgetService(BudgetRepository budgetRepository, CategoryRepository categoryRepository,
+                         UserRepository userRepository, BudgetSpendingRepository spendingRepository,
+                         BudgetTracker tracker) {
+        this.budgetRepository = budgetRepository;
+        this.categoryRepository = categoryRepository;
+        this.userRepository = userRepository;
+        this.spendingRepository = spendingRepository;
+        this.tracker = tracker;
+    }
+
+    @Transactional(readOnly = true)
+    public List<BudgetDto> getBudgets(UserDetailsImpl currentUser) {
+        Long userId = currentUser.getDomainUser().getId();
+        YearMonth month = YearMonth.now(zone);
+        Map<Long, BudgetUsage> usage = tracker.usage(userId, month);
+        List<BudgetDto> result = new ArrayList<>();
+        for (Budget budget : budgetRepository.findAllWithCategoryByUserId(userId)) {
+            Category category = budget.getCategory();
+            BudgetUsage categoryUsage = usage.getOrDefault(category.getId(),
+                    new BudgetUsage(Money.of(budget.getMonthlyLimit()), Money.ZERO));
+            result.add(toDto(category, month, categoryUsage));
+        }
+        return result;
+    }
+
+    /**
+     * Создаёт бюджет категории или меняет его лимит. Состояние {@link BudgetTracker} пользователя
+     * сбрасывается после коммита, поэтому потраченное в ответе считается запросом в обход трекера:
+     * загрузка внутри транзакции закэшировала бы ещё не закоммиченный лимит.
+     */
+    @Transactional
+    public BudgetDto putBudget(UserDetailsImpl currentUser, BudgetRequestDto dto) {
+        Long userId = currentUser.getDomainUser().getId();
+        Category category = categoryRepository.findById(dto.categoryId())
+                .orElseThrow(() -> new IllegalArgumentException("Category not found"));
+        Budget budget = budgetRepository.findByUser_IdAndCategory_Id(userId, category.getId())
+                .orElseGet(() -> new Budget(userRepository.getReferenceById(userId), category, null));
+        budget.setMonthlyLimit(dto.limit());
+        budgetRepository.saveAndFlush(budget);
+        tracker.invalidate(userId);
+
+        YearMonth month = YearMonth.now(zone);
+        long spent = spendingRepository.spent(userId, month).getOrDefault(category.getId(), 0L);
+        return toDto(category, month, new BudgetUsage(Money.of(dto.limit()), Money.ofCents(spent)));
+    }
+
+    @Transactional
+    public void deleteBudget(UserDetailsImpl currentUser, Long categoryId) {
+        Long userId = currentUser.getDomainUser().getId();
+        Budget budget = budgetRepository.findByUser_IdAndCategory_Id(userId, categoryId)
+                .orElseThrow(() -> new IllegalArgumentException("Budget not found"));
+        budgetRepository.delete(budget);
+        tracker.invalidate(userId);
+    }
+
+    /**
+     * Бюджет категории за текущий месяц так, как если бы расход amount уже был записан. Вызывается
+     * до записи расхода: загрузка состояния в {@link BudgetTracker} не должна увидеть незакоммиченную строку,
+     * иначе расход учёлся бы ещё раз дельтой после коммита.
+     *
+     * @return пусто, если категории нет, у неё нет бюджета или расход не в текущем месяце
+     */
+    public Optional<BudgetDto> projected(Long userId, Category category, BigDecimal amount, Instant occurredAt) {
+        if (category == null) {
+            return Optional.empty();
+        }
+        YearMonth month = YearMonth.now(zone);
+        if (!YearMonth.from(occurredAt.atZone(zone)).equals(month)) {
+            return Optional.empty();
+        }
+        return tracker.usage(userId, category.getId(), month)
+                .map(usage -> toDto(category, month, usage.plus(Money.of(amount))));
+    }
+
+    private static BudgetDto toDto(Category category, YearMonth month, BudgetUsage usage) {
+        return new BudgetDto(category.getId(), category.getName(), month, usage.limit().toBigDecimal(),
+                usage.spent().toBigDecimal(), usage.remaining().toBigDecimal(), usage.overBudget());
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.expensetracker.budget;
+
+import com.example.expensetracker.money.Money;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Map;
+
+@Repository
+public class BudgetSpendingRepository {
+
+    static final String LIMITS_SQL = """
+            SELECT category_id, monthly_limit FROM budgets WHERE user_id = ?
+            """;
+
+    static final String SPENT_SQL = """
+            SELECT r.category_id, SUM(r.amount) AS spent
+            FROM expense_daily_rollup r
+            JOIN budgets b ON b.user_id = r.user_id AND b.category_id = r.category_id
+            WHERE r.user_id = ? AND r.day >= ? AND r.day < ?
+            GROUP BY r.category_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BudgetSpendingRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Лимиты пользователя в копейках по категории.
+     */
+    public Map<Long, Long> limits(Long userId) {
+        Map<Long, Long> limits = new HashMap<>();
+        jdbcTemplate.query(LIMITS_SQL, rs -> {
+            limits.put(rs.getLong("category_id"), Money.toCents(rs.getBigDecimal("monthly_limit")));
+        }, userId);
+        return limits;
+    }
+
+    /**
+     * Потрачено за месяц в копейках по категориям с бюджетом. Считается по дневным агрегатам,
+     * а не по expenses, и только при загрузке состояния пользователя в {@link BudgetTracker}.
+     */
+    public Map<Long, Long> spent(Long userId, YearMonth month) {
+        Map<Long, Long> spent = new HashMap<>();
+        jdbcTemplate.query(SPENT_SQL, rs -> {
+            spent.put(rs.getLong("category_id"), Money.toCents(rs.getBigDecimal("spent")));
+        }, userId, month.atDay(1), month.plusMonths(1).atDay(1));
+        return spent;
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.expensetracker.budget;
+
+import com.example.expensetracker.config.ExpenseBudgetProperties;
+import com.example.expensetracker.money.Money;
+import com.example.expensetracker.money.MoneySum;
+import com.example.expensetracker.rollup.DailyRollupDeltas;
+import com.example.expensetracker.tx.InFlightWrites;
+import com.example.expensetracker.write.ExpenseWriteListener;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Состояние бюджетов пользователей за текущий месяц в памяти: лимит и потраченная сумма в копейках
+ * на каждую категорию с бюджетом.
+ * <p>
+ * Состояние пользователя загружается лениво, при первой проверке его бюджета: лимиты — из budgets,
+ * потраченное — из expense_daily_rollup. Дальше проверка — это поиск в хэш-таблице без запросов к БД,
+ * а каждое добавление или удаление расхода после коммита за O(1) сдвигает счётчик своей категории.
+ * Дельты других месяцев и категорий без бюджета отбрасываются.
+ * <p>
+ * Состояние хранится за один месяц. Проверка другого месяца (в том числе наступившего следующего)
+ * загружает его заново, так что смена месяца обнуляет счётчики без отдельного планировщика.
+ * Изменение бюджетов пользователя сбрасывает его состояние после коммита.
+ * <p>
+ * Как и в {@link com.example.expensetracker.report.MonthlyReportCache}, записи проходят через
+ * {@link InFlightWrites}: загруженное состояние кладётся в кэш, только если за время загрузки у пользователя
+ * не было ни одной записи, иначе потраченное, уже включающее расход, получило бы его дельту ещё раз.
+ */
+@Component
+public class BudgetTracker implements ExpenseWriteListener {
+
+    private final Cache<Long, UserBudgets> users;
+    private final BudgetSpendingRepository repository;
+    private final InFlightWrites writes = new InFlightWrites();
+    private final Counter loads;
+    private final Counter deltas;
+
+    public BudgetTracker(BudgetSpendingRepository repository, ExpenseBudgetProperties props,
+                         MeterRegistry registry) {
+        this.repository = repository;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(props.cacheMaxUsers())
+                .expireAfterAccess(props.cacheExpireAfterAccess())
+                .build();
+        Gauge.builder("expenses.budgets.cache.users", users, Cache::estimatedSize)
+                .description("Пользователи с загруженным состоянием бюджетов")
+                .register(registry);
+        this.loads = Counter.builder("expenses.budgets.cache.loads")
+                .description("Загрузки состояния бюджетов из БД")
+                .register(registry);
+        this.deltas = Counter.builder("expenses.budgets.cache.deltas")
+                .description("Дельты, применённые к счётчикам бюджетов")
+                .register(registry);
+    }
+
+    /**
+     * Использование бюджета категории за месяц; пусто, если бюджета у категории нет.
+     */
+    public Optional<BudgetUsage> usage(Long userId, Long categoryId, YearMonth month) {
+        return Optional.ofNullable(state(userId, month).usage(categoryId));
+    }
+
+    /**
+     * Использование всех бюджетов пользователя за месяц по категории.
+     */
+    public Map<Long, BudgetUsage> usage(Long userId, YearMonth month) {
+        return state(userId, month).usage();
+    }
+
+    /**
+     * Принимает изменения дневных агрегатов. Счётчики меняются только после коммита;
+     * при откате дельты отбрасываются. Расходы без категории бюджетов не касаются.
+     */
+    @Override
+    public void record(DailyRollupDeltas rollup) {
+        Map<Long, Map<YearMonth, Map<Long, MoneySum>>> byUser = new HashMap<>();
+        rollup.asMap().forEach((key, delta) -> {
+            if (key.categoryId() != null) {
+                byUser.computeIfAbsent(key.userId(), id -> new HashMap<>())
+                        .computeIfAbsent(YearMonth.from(key.day()), m -> new HashMap<>())
+                        .computeIfAbsent(key.categoryId(), id -> new MoneySum())
+                        .add(delta);
+            }
+        });
+        writes.write(byUser.keySet(), userId -> {
+            UserBudgets budgets = users.getIfPresent(userId);
+            if (budgets != null) {
+                deltas.increment(budgets.apply(byUser.get(userId)));
+            }
+        });
+    }
+
+    /**
+     * Сбрасывает состояние пользователя после коммита: следующая проверка загрузит новые лимиты.
+     */
+    public void invalidate(Long userId) {
+        writes.write(Set.of(userId), users::invalidate);
+    }
+
+    private MonthState state(Long userId, YearMonth month) {
+        UserBudgets budgets = users.get(userId, id -> new UserBudgets());
+        MonthState state = budgets.current(month);
+        if (state != null) {
+            return state;
+        }
+        loads.increment();
+        long stamp = writes.stamp(userId);
+        MonthState loaded = new MonthState(month, repository.limits(userId), repository.spent(userId, month));
+        writes.putIfQuiet(userId, stamp, () -> budgets.put(loaded));
+        return loaded;
+    }
+
+    /**
+     * Состояние одного пользователя: загруженный месяц.
+     */
+    private static final class UserBudgets {
+
+        private MonthState state;
+
+        synchronized MonthState current(YearMonth month) {
+            return state != null && state.month.equals(month) ? state : null;
+        }
+
+        synchronized void put(MonthState loaded) {
+            state = loaded;
+        }
+
+        /**
+         * @return число категорий с бюджетом, чьи счётчики изменились
+         */
+        synchronized int apply(Map<YearMonth, Map<Long, MoneySum>> months) {
+            if (state == null) {
+                return 0;
+            }
+            Map<Long, MoneySum> categories = months.get(state.month);
+            return categories == null ? 0 : state.add(categories);
+        }
+    }
+
+    /**
+     * Лимиты и потраченное за месяц в копейках. Меняется под монитором {@link UserBudgets},
+     * читается под своим: загруженное, но не попавшее в кэш состояние читается без гонок.
+     */
+    private static final class MonthState {
+
+        private final YearMonth month;
+        private final Map<Long, Long> limits;
+        private final Map<Long, MoneySum> spent;
+
+        MonthState(YearMonth month, Map<Long, Long> limits, Map<Long, Long> spent) {
+            this.month = month;
+            this.limits = limits;
+            this.spent = new HashMap<>(limits.size());
+            limits.keySet().forEach(categoryId ->
+                    this.spent.put(categoryId, new MoneySum(spent.getOrDefault(categoryId, 0L), 0)));
+        }
+
+        synchronized BudgetUsage usage(Long categoryId) {
+            Long limit = limits.get(categoryId);
+            return limit == null ? null : usage(limit, spent.get(categoryId));
+        }
+
+        synchronized Map<Long, BudgetUsage> usage() {
+            Map<Long, BudgetUsage> usage = new LinkedHashMap<>(limits.size());
+            limits.forEach((categoryId, limit) ->
+                    usage.put(categoryId, usage(limit, spent.get(categoryId))));
+            return usage;
+        }
+
+        private static BudgetUsage usage(long limit, MoneySum spent) {
+            return new BudgetUsage(Money.ofCents(limit), Money.ofCents(spent.cents()));
+        }
+
+        synchronized int add(Map<Long, MoneySum> categories) {
+            int applied = 0;
+            for (Map.Entry<Long, MoneySum> delta : categories.entrySet()) {
+                MoneySum counter = spent.get(delta.getKey());
+                if (counter != null) {
+                    counter.add(delta.getValue());
+                    applied++;
+                }
+            }
+            return applied;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.expensetracker.budget;
+
+import com.example.expensetracker.money.Money;
+
+/**
+ * Лимит категории и сумма, потраченная в ней за месяц.
+ */
+public record BudgetUsage(Money limit, Money spent) {
+
+    public Money remaining() {
+        return limit.minus(spent);
+    }
+
+    public boolean overBudget() {
+        return spent.compareTo(limit) > 0;
+    }
+
+    /**
+     * То же использование с ещё не записанной суммой amount.
+     */
+    public BudgetUsage plus(Money amount) {
+        return new BudgetUsage(limit, spent.plus(amount));
+    }
+}
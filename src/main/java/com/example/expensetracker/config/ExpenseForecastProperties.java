@@ -0,0 +1,9 @@
+package com.example.expensetracker.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.expenses.forecast")
+public record ExpenseForecastProperties(int cacheMaxUsers, Duration cacheExpireAfterAccess) {
+}
@@ -0,0 +1,10 @@
+package com.example.expensetracker.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.expenses.ingest")
+public record ExpenseIngestProperties(int capacity, int maxBatch, Duration maxLinger, Duration enqueueTimeout,
+                                      boolean awaitCommit) {
+}
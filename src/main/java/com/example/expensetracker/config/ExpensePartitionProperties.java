@@ -0,0 +1,7 @@
+package com.example.expensetracker.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.expenses.partitions")
+public record ExpensePartitionProperties(int monthsAhead, int retentionMonths) {
+}
@@ -0,0 +1,11 @@
+package com.example.expensetracker.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.expenses.recurring")
+public record ExpenseRecurringProperties(int chunkSize, int workers, Duration leaseTimeout,
+                                         boolean catchUp, boolean timerEnabled, Duration timerTick,
+                                         Duration timerSpread, Duration timerSweepInterval) {
+}
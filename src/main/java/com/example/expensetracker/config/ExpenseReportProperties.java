@@ -0,0 +1,10 @@
+package com.example.expensetracker.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.expenses.reports")
+public record ExpenseReportProperties(boolean useRollup, int cacheMaxUsers, int cacheMonthsPerUser,
+                                      Duration cacheExpireAfterAccess) {
+}
@@ -0,0 +1,10 @@
+package com.example.expensetracker.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.expenses.search")
+public record ExpenseSearchProperties(int queueCapacity, int maxBatch, Duration maxLinger, Duration retryInterval,
+                                      int reindexBatchSize, int fetchSize) {
+}
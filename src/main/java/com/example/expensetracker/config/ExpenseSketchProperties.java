@@ -0,0 +1,10 @@
+package com.example.expensetracker.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.expenses.sketches")
+public record ExpenseSketchProperties(double compression, Duration flushInterval, int fetchSize,
+                                      int rebuildBatchSize) {
+}
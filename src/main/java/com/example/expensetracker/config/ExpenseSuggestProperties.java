@@ -0,0 +1,8 @@
+package com.example.expensetracker.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@ConfigurationProperties(prefix = "app.expenses.suggest")
+public record ExpenseSuggestProperties(int recentExpenses, int maxDescriptions, DataSize memoryBudget) {
+}
@@ -0,0 +1,21 @@
+package com.example.expensetracker.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.time.ZoneId;
+
+/**
+ * Часы в зоне spring.scheduler.zone: по ним повторяющиеся расходы определяют «сегодня» и время создаваемых
+ * расходов — та же зона, в которой срабатывает cron.
+ */
+@Configuration
+public class SchedulerClockConfig {
+
+    @Bean
+    public Clock schedulerClock(@Value("${spring.scheduler.zone}") String zone) {
+        return Clock.system(ZoneId.of(zone));
+    }
+}
@@ -3,6 +3,7 @@ package com.example.expensetracker.config;
 import com.example.expensetracker.security.CustomAccessDeniedHandler;
 import com.example.expensetracker.security.CustomAuthEntryPoint;
 import com.example.expensetracker.security.JwtAuthFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -33,6 +34,9 @@ public class SecurityConfig {
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http.csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
+                        // async-диспетчеризация потоковых ответов (выгрузка) проверена при исходном запросе,
+                        // а JWT при ней заново не разбирается
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(
                                 "/api/auth/register",
                                 "/api/auth/login",
@@ -44,6 +48,7 @@ public class SecurityConfig {
                         .requestMatchers("/api/users/me").hasAnyRole("USER", "MODERATOR", "ADMIN")
                         .requestMatchers("/api/mod/**").hasRole("MODERATOR")
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated())
                 .exceptionHandling(e -> e
                         .authenticationEntryPoint(customAuthEntryPoint)
@@ -1,9 +1,14 @@
 package com.example.expensetracker.controller;
 
+import com.example.expensetracker.analytics.ExpenseAnalyticsService;
 import com.example.expensetracker.controller.base.ControllerSupport;
 import com.example.expensetracker.details.UserDetailsImpl;
 import com.example.expensetracker.dto.*;
+import com.example.expensetracker.search.ExpenseSearchIndexer;
 import com.example.expensetracker.service.AdminService;
+import com.example.expensetracker.service.RecurringTransactionService;
+import com.example.expensetracker.sketch.ExpenseSketchFlusher;
+import com.example.expensetracker.totals.TotalExpensesFlusher;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -22,17 +27,30 @@ import org.springframework.web.bind.annotation.*;
 
 @Tag(name = "admin.tag.name", description = "admin.tag.desc")
 @RestController
-@RequestMapping("/api/admin/users")
+@RequestMapping("/api/admin")
 @Validated
 @PreAuthorize("hasRole('ADMIN')")
 public class AdminController implements ControllerSupport {
 
     private final AdminService adminService;
+    private final ExpenseAnalyticsService analyticsService;
+    private final ExpenseSearchIndexer searchIndexer;
+    private final RecurringTransactionService recurringService;
+    private final TotalExpensesFlusher totalsFlusher;
+    private final ExpenseSketchFlusher sketchFlusher;
     private final MessageSource messageSource;
 
 
-    public AdminController(AdminService adminService, MessageSource messageSource) {
+    public AdminController(AdminService adminService, ExpenseAnalyticsService analyticsService,
+                           ExpenseSearchIndexer searchIndexer, RecurringTransactionService recurringService,
+                           TotalExpensesFlusher totalsFlusher, ExpenseSketchFlusher sketchFlusher,
+                           MessageSource messageSource) {
         this.adminService = adminService;
+        this.analyticsService = analyticsService;
+        this.searchIndexer = searchIndexer;
+        this.recurringService = recurringService;
+        this.totalsFlusher = totalsFlusher;
+        this.sketchFlusher = sketchFlusher;
         this.messageSource = messageSource;
     }
 
@@ -41,7 +59,7 @@ public class AdminController implements ControllerSupport {
         return messageSource;
     }
 
-    @GetMapping
+    @GetMapping("/users")
     @Operation(
             summary = "admin.get.all.users.sum",
             description = "admin.get.all.users.desc")
@@ -52,7 +70,7 @@ public class AdminController implements ControllerSupport {
         return ResponseEntity.ok(ApiResponseFactory.success(users, msg("get.all.users"), request));
     }
 
-    @GetMapping("/{id}")
+    @GetMapping("/users/{id}")
     @Operation(
             summary = "admin.get.by.id.sum",
             description = "admin.get.by.id.desc")
@@ -62,7 +80,7 @@ public class AdminController implements ControllerSupport {
         return ResponseEntity.ok(ApiResponseFactory.success(response, msg("get.user.by.id"), request));
     }
 
-    @PutMapping("/{id}/ban")
+    @PutMapping("/users/{id}/ban")
     @Operation(
             summary = "admin.ban.user.sum",
             description = "admin.ban.user.desc")
@@ -73,7 +91,7 @@ public class AdminController implements ControllerSupport {
         return ResponseEntity.ok(ApiResponseFactory.success(response, msg("ban.user"), request));
     }
 
-    @PutMapping("/{id}/unban")
+    @PutMapping("/users/{id}/unban")
     @Operation(
             summary = "admin.unban.user.sum",
             description = "admin.unban.user.desc")
@@ -84,7 +102,7 @@ public class AdminController implements ControllerSupport {
         return ResponseEntity.ok(ApiResponseFactory.success(response, msg("unban.user"), request));
     }
 
-    @PutMapping("/{id}/promote")
+    @PutMapping("/users/{id}/promote")
     @Operation(
             summary = "admin.promote.user.sum",
             description = "admin.promote.user.desc")
@@ -95,7 +113,7 @@ public class AdminController implements ControllerSupport {
         return ResponseEntity.ok(ApiResponseFactory.success(response, msg("promote.user"), request));
     }
 
-    @PutMapping("/{id}/demote")
+    @PutMapping("/users/{id}/demote")
     @Operation(
             summary = "admin.demote.user.sum",
             description = "admin.demote.user.desc")
@@ -106,7 +124,7 @@ public class AdminController implements ControllerSupport {
         return ResponseEntity.ok(ApiResponseFactory.success(response, msg("demote.user"), request));
     }
 
-    @DeleteMapping("/{id}/delete")
+    @DeleteMapping("/users/{id}/delete")
     @Operation(
             summary = "admin.delete.user.sum",
             description = "admin.delete.user.desc")
@@ -117,7 +135,7 @@ public class AdminController implements ControllerSupport {
         return ResponseEntity.ok(ApiResponseFactory.success(response, msg("delete.user"), request));
     }
 
-    @PostMapping("/create/administrator")
+    @PostMapping("/users/create/administrator")
     @Operation(
             summary = "admin.create.admin.sum",
             description = "admin.create.admin.desc")
@@ -128,7 +146,7 @@ public class AdminController implements ControllerSupport {
         return ResponseEntity.ok(ApiResponseFactory.success(response, msg("create.admin"), request));
     }
 
-    @PostMapping("/create/moderator")
+    @PostMapping("/users/create/moderator")
     @Operation(
             summary = "admin.create.moder.sum",
             description = "admin.create.moder.desc")
@@ -138,4 +156,61 @@ public class AdminController implements ControllerSupport {
         AdminUserDto response = adminService.createModerator(dto, currentUser);
         return ResponseEntity.ok(ApiResponseFactory.success(response, msg("create.moder"), request));
     }
+
+    @GetMapping("/analytics/spending/categories")
+    @Operation(
+            summary = "admin.analytics.categories.sum",
+            description = "admin.analytics.categories.desc")
+    public ResponseEntity<ApiResponse<AnalyticsDto<CategorySpendingDto>>> spendingByCategory(
+            HttpServletRequest request) {
+        AnalyticsDto<CategorySpendingDto> response = analyticsService.spendingByCategory();
+        return ResponseEntity.ok(ApiResponseFactory.success(response, msg("admin.analytics.categories"), request));
+    }
+
+    @GetMapping("/analytics/spending/months")
+    @Operation(
+            summary = "admin.analytics.months.sum",
+            description = "admin.analytics.months.desc")
+    public ResponseEntity<ApiResponse<AnalyticsDto<MonthSpendingDto>>> spendingByMonth(HttpServletRequest request) {
+        AnalyticsDto<MonthSpendingDto> response = analyticsService.spendingByMonth();
+        return ResponseEntity.ok(ApiResponseFactory.success(response, msg("admin.analytics.months"), request));
+    }
+
+    @PostMapping("/search/reindex")
+    @Operation(
+            summary = "admin.search.reindex.sum",
+            description = "admin.search.reindex.desc")
+    public ResponseEntity<ApiResponse<ExpenseReindexResultDto>> reindexSearch(HttpServletRequest request) {
+        ExpenseReindexResultDto response = searchIndexer.rebuild().join();
+        return ResponseEntity.ok(ApiResponseFactory.success(response, msg("admin.search.reindex"), request));
+    }
+
+    @PostMapping("/recurring/catch-up")
+    @Operation(
+            summary = "admin.recurring.catch.up.sum",
+            description = "admin.recurring.catch.up.desc")
+    public ResponseEntity<ApiResponse<RecurringCatchUpDto>> catchUpRecurring(
+            @RequestParam(defaultValue = "false") boolean dryRun, HttpServletRequest request) {
+        RecurringCatchUpDto response = recurringService.catchUp(dryRun);
+        return ResponseEntity.ok(ApiResponseFactory.success(response, msg("admin.recurring.catch.up"), request));
+    }
+
+    @PostMapping("/totals/reconcile")
+    @Operation(
+            summary = "admin.totals.reconcile.sum",
+            description = "admin.totals.reconcile.desc")
+    public ResponseEntity<ApiResponse<ExpenseTotalsReconcileDto>> reconcileTotals(HttpServletRequest request) {
+        int users = totalsFlusher.reconcile();
+        ExpenseTotalsReconcileDto response = new ExpenseTotalsReconcileDto(users >= 0, Math.max(users, 0));
+        return ResponseEntity.ok(ApiResponseFactory.success(response, msg("admin.totals.reconcile"), request));
+    }
+
+    @PostMapping("/sketches/rebuild")
+    @Operation(
+            summary = "admin.sketches.rebuild.sum",
+            description = "admin.sketches.rebuild.desc")
+    public ResponseEntity<ApiResponse<ExpenseSketchRebuildDto>> rebuildSketches(HttpServletRequest request) {
+        ExpenseSketchRebuildDto response = new ExpenseSketchRebuildDto(sketchFlusher.rebuildAll());
+        return ResponseEntity.ok(ApiResponseFactory.success(response, msg("admin.sketches.rebuild"), request));
+    }
 }
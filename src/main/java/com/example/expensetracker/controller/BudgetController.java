@@ -0,0 +1,72 @@
+package com.example.expensetracker.controller;
+
+import com.example.expensetracker.budget.BudgetService;
+import com.example.expensetracker.controller.base.ControllerSupport;
+import com.example.expensetracker.details.UserDetailsImpl;
+import com.example.expensetracker.dto.ApiResponse;
+import com.example.expensetracker.dto.ApiResponseFactory;
+import com.example.expensetracker.dto.BudgetDto;
+import com.example.expensetracker.dto.BudgetRequestDto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.springframework.context.MessageSource;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@Tag(name = "budget.tag.name", description = "budget.tag.desc")
+@RestController
+@RequestMapping("/api/budgets")
+public class BudgetController implements ControllerSupport {
+
+    private final BudgetService budgetService;
+    private final MessageSource messageSource;
+
+    public BudgetController(BudgetService budgetService, MessageSource messageSource) {
+        this.budgetService = budgetService;
+        this.messageSource = messageSource;
+    }
+
+    @Override
+    public MessageSource getMessageSource() {
+        return messageSource;
+    }
+
+    @GetMapping
+    @Operation(
+            summary = "budget.get.all.sum",
+            description = "budget.get.all.desc")
+    public ResponseEntity<ApiResponse<List<BudgetDto>>> getAll(
+            @AuthenticationPrincipal UserDetailsImpl currentUser, HttpServletRequest request) {
+        List<BudgetDto> budgets = budgetService.getBudgets(currentUser);
+        return ResponseEntity.ok(ApiResponseFactory.success(budgets, msg("budget.controller.get.all"), request));
+    }
+
+    @PutMapping
+    @Operation(
+            summary = "budget.put.sum",
+            description = "budget.put.desc")
+    public ResponseEntity<ApiResponse<BudgetDto>> put(
+            @AuthenticationPrincipal UserDetailsImpl currentUser,
+            @Valid @RequestBody BudgetRequestDto dto,
+            HttpServletRequest request) {
+        BudgetDto budget = budgetService.putBudget(currentUser, dto);
+        return ResponseEntity.ok(ApiResponseFactory.success(budget, msg("budget.controller.put"), request));
+    }
+
+    @DeleteMapping("/{categoryId}")
+    @Operation(
+            summary = "budget.delete.sum",
+            description = "budget.delete.desc")
+    public ResponseEntity<ApiResponse<Void>> delete(
+            @AuthenticationPrincipal UserDetailsImpl currentUser,
+            @PathVariable Long categoryId,
+            HttpServletRequest request) {
+        budgetService.deleteBudget(currentUser, categoryId);
+        return ResponseEntity.ok(ApiResponseFactory.success(null, msg("budget.controller.delete"), request));
+    }
+}
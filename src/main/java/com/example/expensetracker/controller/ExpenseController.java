@@ -5,24 +5,57 @@ import com.example.expensetracker.details.UserDetailsImpl;
 import com.example.expensetracker.dto.ApiResponse;
 import com.example.expensetracker.dto.ApiResponseFactory;
 import com.example.expensetracker.dto.DateRangeDto;
+import com.example.expensetracker.dto.ExpenseAddedDto;
+import com.example.expensetracker.dto.ExpenseBatchRequestDto;
+import com.example.expensetracker.dto.ExpenseBatchResultDto;
+import com.example.expensetracker.dto.ExpenseDistributionDto;
+import com.example.expensetracker.dto.ExpenseDistributionRequestDto;
+import com.example.expensetracker.dto.ExpenseExportRequestDto;
+import com.example.expensetracker.dto.ExpenseFilterDto;
+import com.example.expensetracker.dto.ExpensePageDto;
+import com.example.expensetracker.dto.ExpenseRequestDto;
+import com.example.expensetracker.dto.ExpenseSearchRequestDto;
+import com.example.expensetracker.dto.ExpenseSeriesDto;
+import com.example.expensetracker.dto.ExpenseSeriesRequestDto;
 import com.example.expensetracker.dto.ExpensesReportDto;
+import com.example.expensetracker.dto.MonthlyReportDto;
+import com.example.expensetracker.export.ExpenseExportFormat;
+import com.example.expensetracker.export.ExpenseExportService;
 import com.example.expensetracker.model.Month;
+import com.example.expensetracker.search.ExpenseSearchService;
+import com.example.expensetracker.series.ExpenseSeriesService;
 import com.example.expensetracker.service.ExpenseService;
 import com.example.expensetracker.service.UserService;
+import com.example.expensetracker.sketch.ExpenseDistributionService;
+import com.example.expensetracker.suggest.DescriptionSuggestCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import org.springframework.context.MessageSource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+import java.util.List;
 
 @Tag(name = "expense.tag.name", description = "expense.tag.desc")
 @RestController
@@ -32,11 +65,24 @@ public class ExpenseController implements ControllerSupport {
     private final ExpenseService expenseService;
     private final MessageSource messageSource;
     private final UserService userService;
+    private final ExpenseExportService expenseExportService;
+    private final ExpenseSeriesService expenseSeriesService;
+    private final ExpenseDistributionService expenseDistributionService;
+    private final ExpenseSearchService expenseSearchService;
+    private final DescriptionSuggestCache suggestCache;
 
-    public ExpenseController(ExpenseService expenseService, MessageSource messageSource, UserService userService) {
+    public ExpenseController(ExpenseService expenseService, MessageSource messageSource, UserService userService,
+                             ExpenseExportService expenseExportService, ExpenseSeriesService expenseSeriesService,
+                             ExpenseDistributionService expenseDistributionService,
+                             ExpenseSearchService expenseSearchService, DescriptionSuggestCache suggestCache) {
         this.expenseService = expenseService;
         this.messageSource = messageSource;
         this.userService = userService;
+        this.expenseExportService = expenseExportService;
+        this.expenseSeriesService = expenseSeriesService;
+        this.expenseDistributionService = expenseDistributionService;
+        this.expenseSearchService = expenseSearchService;
+        this.suggestCache = suggestCache;
     }
 
     @Override
@@ -44,6 +90,66 @@ public class ExpenseController implements ControllerSupport {
         return messageSource;
     }
 
+    @GetMapping
+    @Operation(
+            summary = "expense.list.sum",
+            description = "expense.list.desc")
+    public ResponseEntity<ApiResponse<ExpensePageDto>> list(
+            @Valid ExpenseFilterDto filter,
+            @AuthenticationPrincipal UserDetailsImpl currentUser,
+            HttpServletRequest request) {
+        ExpensePageDto page = expenseService.listExpenses(currentUser, filter);
+        return ResponseEntity.ok(ApiResponseFactory.success(page, msg("expense.controller.list.ok"), request));
+    }
+
+    @GetMapping("/search")
+    @Operation(
+            summary = "expense.search.sum",
+            description = "expense.search.desc")
+    public ResponseEntity<ApiResponse<ExpensePageDto>> search(
+            @Valid ExpenseSearchRequestDto searchRequest,
+            @AuthenticationPrincipal UserDetailsImpl currentUser,
+            HttpServletRequest request) {
+        ExpensePageDto page = expenseSearchService.search(currentUser, searchRequest);
+        return ResponseEntity.ok(ApiResponseFactory.success(page, msg("expense.controller.search.ok"), request));
+    }
+
+    @GetMapping("/suggestions")
+    @Operation(
+            summary = "expense.suggestions.sum",
+            description = "expense.suggestions.desc")
+    public ResponseEntity<ApiResponse<List<String>>> suggestions(
+            @RequestParam(name = "prefix")
+            @NotBlank(message = "{expense.suggestions.prefix.not.blank}")
+            @Size(max = 100, message = "{expense.suggestions.prefix.size}") String prefix,
+            @RequestParam(name = "limit", defaultValue = "10")
+            @Min(value = 1, message = "{expense.suggestions.limit.min}")
+            @Max(value = 20, message = "{expense.suggestions.limit.max}") int limit,
+            @AuthenticationPrincipal UserDetailsImpl currentUser,
+            HttpServletRequest request) {
+        List<String> suggestions = suggestCache.suggest(currentUser.getDomainUser().getId(), prefix, limit);
+        return ResponseEntity.ok(ApiResponseFactory.success(suggestions, msg("expense.controller.suggestions.ok"),
+                request));
+    }
+
+    @GetMapping(value = "/export", produces = {"text/csv", "application/x-ndjson"})
+    @Operation(
+            summary = "expense.export.sum",
+            description = "expense.export.desc")
+    public ResponseEntity<StreamingResponseBody> export(
+            @Valid ExpenseExportRequestDto range,
+            @AuthenticationPrincipal UserDetailsImpl currentUser,
+            HttpServletRequest request) {
+        ExpenseExportFormat format = ExpenseExportFormat.fromAccept(request.getHeader(HttpHeaders.ACCEPT));
+        StreamingResponseBody body = out -> expenseExportService.export(currentUser, range.getFrom(), range.getTo(),
+                format, out);
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.parseMediaType(format.getMediaType()), StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("expenses." + format.getExtension()).build().toString())
+                .body(body);
+    }
+
     @GetMapping("/report")
     @Operation(
             summary = "expense.report.sum",
@@ -69,6 +175,45 @@ public class ExpenseController implements ControllerSupport {
         return ResponseEntity.ok(ApiResponseFactory.success(dto, msg("expense.controller.report.monthly"), request));
     }
 
+    @GetMapping("/stats/monthly/range")
+    @Operation(
+            summary = "expense.report.monthly.range.sum",
+            description = "expense.report.monthly.range.desc")
+    public ResponseEntity<ApiResponse<List<MonthlyReportDto>>> reportMonthlyRange(
+            @RequestParam(name = "from") @NotNull(message = "{expense.report.monthly.range.from.not.null}") YearMonth from,
+            @RequestParam(name = "months")
+            @Min(value = 1, message = "{expense.report.monthly.range.months.min}")
+            @Max(value = 36, message = "{expense.report.monthly.range.months.max}") int months,
+            @AuthenticationPrincipal UserDetailsImpl currentUser,
+            HttpServletRequest request) {
+        List<MonthlyReportDto> dto = expenseService.getReportMonthlyRange(currentUser, from, months);
+        return ResponseEntity.ok(ApiResponseFactory.success(dto, msg("expense.controller.report.monthly.range"), request));
+    }
+
+    @GetMapping("/stats/series")
+    @Operation(
+            summary = "expense.series.sum",
+            description = "expense.series.desc")
+    public ResponseEntity<ApiResponse<ExpenseSeriesDto>> series(
+            @Valid ExpenseSeriesRequestDto seriesRequest,
+            @AuthenticationPrincipal UserDetailsImpl currentUser,
+            HttpServletRequest request) {
+        ExpenseSeriesDto dto = expenseSeriesService.series(currentUser, seriesRequest);
+        return ResponseEntity.ok(ApiResponseFactory.success(dto, msg("expense.controller.series.ok"), request));
+    }
+
+    @GetMapping("/stats/distribution")
+    @Operation(
+            summary = "expense.distribution.sum",
+            description = "expense.distribution.desc")
+    public ResponseEntity<ApiResponse<ExpenseDistributionDto>> distribution(
+            @Valid ExpenseDistributionRequestDto distributionRequest,
+            @AuthenticationPrincipal UserDetailsImpl currentUser,
+            HttpServletRequest request) {
+        ExpenseDistributionDto dto = expenseDistributionService.distribution(currentUser, distributionRequest);
+        return ResponseEntity.ok(ApiResponseFactory.success(dto, msg("expense.controller.distribution.ok"), request));
+    }
+
     @GetMapping("/total")
     @Operation(
             summary = "expense.get.total.sum",
@@ -79,5 +224,41 @@ public class ExpenseController implements ControllerSupport {
         var total = userService.getTotalExpenses(currentUser.getDomainUser().getId());
         return ResponseEntity.ok(ApiResponseFactory.success(total, msg("expense.controller.total.ok"), request));
     }
-}
 
+    @PostMapping
+    @Operation(
+            summary = "expense.add.sum",
+            description = "expense.add.desc")
+    public ResponseEntity<ApiResponse<ExpenseAddedDto>> add(
+            @Valid @RequestBody ExpenseRequestDto dto,
+            @AuthenticationPrincipal UserDetailsImpl currentUser,
+            HttpServletRequest request) {
+        ExpenseAddedDto result = expenseService.addExpense(currentUser, dto);
+        return ResponseEntity.ok(ApiResponseFactory.success(result, msg("expense.controller.add.ok"), request));
+    }
+
+    @PostMapping("/batch")
+    @Operation(
+            summary = "expense.add.batch.sum",
+            description = "expense.add.batch.desc")
+    public ResponseEntity<ApiResponse<ExpenseBatchResultDto>> addBatch(
+            @Valid @RequestBody ExpenseBatchRequestDto dto,
+            @AuthenticationPrincipal UserDetailsImpl currentUser,
+            HttpServletRequest request) {
+        ExpenseBatchResultDto result = expenseService.addExpenses(currentUser, dto.expenses());
+        return ResponseEntity.ok(ApiResponseFactory.success(result, msg("expense.controller.batch.ok"), request));
+    }
+
+    @PostMapping("/queue")
+    @Operation(
+            summary = "expense.queue.sum",
+            description = "expense.queue.desc")
+    public ResponseEntity<ApiResponse<Void>> queue(
+            @Valid @RequestBody ExpenseRequestDto dto,
+            @AuthenticationPrincipal UserDetailsImpl currentUser,
+            HttpServletRequest request) {
+        expenseService.queueExpense(currentUser, dto);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponseFactory.success(null,
+                msg("expense.controller.queued"), request));
+    }
+}
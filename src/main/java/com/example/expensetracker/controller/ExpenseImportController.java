@@ -0,0 +1,81 @@
+package com.example.expensetracker.controller;
+
+import com.example.expensetracker.controller.base.ControllerSupport;
+import com.example.expensetracker.details.UserDetailsImpl;
+import com.example.expensetracker.dto.ApiResponse;
+import com.example.expensetracker.dto.ApiResponseFactory;
+import com.example.expensetracker.imports.ExpenseImportFormat;
+import com.example.expensetracker.imports.ExpenseImportService;
+import com.example.expensetracker.imports.ExpenseImportStatusDto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.context.MessageSource;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.List;
+
+@Tag(name = "expense.import.tag.name", description = "expense.import.tag.desc")
+@RestController
+@RequestMapping("/api/expenses/import")
+public class ExpenseImportController implements ControllerSupport {
+
+    private final ExpenseImportService expenseImportService;
+    private final MessageSource messageSource;
+
+    public ExpenseImportController(ExpenseImportService expenseImportService, MessageSource messageSource) {
+        this.expenseImportService = expenseImportService;
+        this.messageSource = messageSource;
+    }
+
+    @Override
+    public MessageSource getMessageSource() {
+        return messageSource;
+    }
+
+    @PostMapping(consumes = {"text/csv", "application/x-ndjson"})
+    @Operation(
+            summary = "expense.import.sum",
+            description = "expense.import.desc")
+    public ResponseEntity<ApiResponse<ExpenseImportStatusDto>> importExpenses(
+            @AuthenticationPrincipal UserDetailsImpl currentUser,
+            HttpServletRequest request) throws IOException {
+        ExpenseImportFormat format = ExpenseImportFormat.fromContentType(request.getContentType());
+        ExpenseImportStatusDto status = expenseImportService.importExpenses(currentUser, format,
+                request.getInputStream());
+        return ResponseEntity.ok(ApiResponseFactory.success(status, msg("expense.import.controller.finished"),
+                request));
+    }
+
+    @GetMapping
+    @Operation(
+            summary = "expense.import.get.all.sum",
+            description = "expense.import.get.all.desc")
+    public ResponseEntity<ApiResponse<List<ExpenseImportStatusDto>>> getAll(
+            @AuthenticationPrincipal UserDetailsImpl currentUser,
+            HttpServletRequest request) {
+        List<ExpenseImportStatusDto> statuses = expenseImportService.getStatuses(currentUser);
+        return ResponseEntity.ok(ApiResponseFactory.success(statuses, msg("expense.import.controller.get.all"),
+                request));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(
+            summary = "expense.import.get.status.sum",
+            description = "expense.import.get.status.desc")
+    public ResponseEntity<ApiResponse<ExpenseImportStatusDto>> getStatus(
+            @PathVariable String id,
+            @AuthenticationPrincipal UserDetailsImpl currentUser,
+            HttpServletRequest request) {
+        ExpenseImportStatusDto status = expenseImportService.getStatus(currentUser, id);
+        return ResponseEntity.ok(ApiResponseFactory.success(status, msg("expense.import.controller.get.status"),
+                request));
+    }
+}
@@ -3,6 +3,7 @@ package com.example.expensetracker.controller;
 import com.example.expensetracker.controller.base.ControllerSupport;
 import com.example.expensetracker.dto.ApiResponse;
 import com.example.expensetracker.dto.ApiResponseFactory;
+import com.example.expensetracker.dto.RecurringForecastDto;
 import com.example.expensetracker.dto.RecurringTransactionDto;
 import com.example.expensetracker.dto.RecurringTransactionRequestDto;
 import com.example.expensetracker.service.RecurringTransactionService;
@@ -10,10 +11,13 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import org.springframework.context.MessageSource;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -21,6 +25,7 @@ import java.util.List;
 @Tag(name = "recurring.transaction.tag.name", description = "recurring.transaction.tag.desc")
 @RestController
 @RequestMapping("/api/recurring-transaction")
+@Validated
 public class RecurringTransactionController implements ControllerSupport {
 
     private final RecurringTransactionService recurringTransactionService;
@@ -71,5 +76,19 @@ public class RecurringTransactionController implements ControllerSupport {
         return ResponseEntity.ok(ApiResponseFactory.success(update, msg("recurring.transaction.controller.toggle.active"),
                 request));
     }
-}
 
+    @GetMapping("/forecast")
+    @Operation(
+            summary = "recurring.transaction.forecast.sum",
+            description = "recurring.transaction.forecast.desc")
+    public ResponseEntity<ApiResponse<RecurringForecastDto>> forecast(
+            @RequestParam(name = "months", defaultValue = "12")
+            @Min(value = 1, message = "{recurring.transaction.forecast.months.min}")
+            @Max(value = 120, message = "{recurring.transaction.forecast.months.max}") int months,
+            @AuthenticationPrincipal UserDetails currentUser,
+            HttpServletRequest request) {
+        RecurringForecastDto forecast = recurringTransactionService.forecast(currentUser, months);
+        return ResponseEntity.ok(ApiResponseFactory.success(forecast, msg("recurring.transaction.controller.forecast"),
+                request));
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.expensetracker.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Строки материализованного представления и его свежесть: refreshedAt — время последнего обновления,
+ * staleSeconds — сколько секунд прошло с него. Если время обновления неизвестно, оба поля null.
+ */
+public record AnalyticsDto<T>(List<T> items, Instant refreshedAt, Long staleSeconds) {
+}
@@ -0,0 +1,8 @@
+package com.example.expensetracker.dto;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+public record BudgetDto(Long categoryId, String categoryName, YearMonth month, BigDecimal limit, BigDecimal spent,
+                        BigDecimal remaining, boolean overBudget) {
+}
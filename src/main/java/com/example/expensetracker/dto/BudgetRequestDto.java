@@ -0,0 +1,16 @@
+package com.example.expensetracker.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.math.BigDecimal;
+
+public record BudgetRequestDto(
+        @NotNull(message = "{budget.request.category.id.not.null}")
+        Long categoryId,
+
+        @NotNull(message = "{budget.request.limit.not.null}")
+        @Positive(message = "{budget.request.limit.positive}")
+        BigDecimal limit
+) {
+}
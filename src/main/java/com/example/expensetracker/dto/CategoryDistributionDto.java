@@ -0,0 +1,7 @@
+package com.example.expensetracker.dto;
+
+import java.math.BigDecimal;
+
+public record CategoryDistributionDto(Long categoryId, String categoryName, long count, BigDecimal min,
+                                      BigDecimal p50, BigDecimal p90, BigDecimal p99, BigDecimal max) {
+}
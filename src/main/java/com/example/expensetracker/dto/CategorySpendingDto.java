@@ -0,0 +1,7 @@
+package com.example.expensetracker.dto;
+
+import java.math.BigDecimal;
+
+public record CategorySpendingDto(Long categoryId, String categoryName, BigDecimal total, long expenseCount,
+                                  long userCount) {
+}
@@ -0,0 +1,8 @@
+package com.example.expensetracker.dto;
+
+/**
+ * Добавленный расход и бюджет его категории за текущий месяц с учётом этого расхода;
+ * budget == null, если бюджета нет или расход относится к другому месяцу.
+ */
+public record ExpenseAddedDto(ExpenseDto expense, BudgetDto budget) {
+}
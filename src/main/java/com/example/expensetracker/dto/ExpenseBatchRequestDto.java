@@ -0,0 +1,14 @@
+package com.example.expensetracker.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record ExpenseBatchRequestDto(
+        @NotEmpty(message = "{expense.batch.request.expenses.not.empty}")
+        @Size(max = 5000, message = "{expense.batch.request.expenses.size}")
+        List<@Valid ExpenseRequestDto> expenses
+) {
+}
@@ -0,0 +1,6 @@
+package com.example.expensetracker.dto;
+
+import java.math.BigDecimal;
+
+public record ExpenseBatchResultDto(int saved, BigDecimal total) {
+}
@@ -0,0 +1,7 @@
+package com.example.expensetracker.dto;
+
+import java.time.YearMonth;
+import java.util.List;
+
+public record ExpenseDistributionDto(YearMonth from, YearMonth to, List<CategoryDistributionDto> categories) {
+}
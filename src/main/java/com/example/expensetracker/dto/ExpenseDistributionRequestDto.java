@@ -0,0 +1,49 @@
+package com.example.expensetracker.dto;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.YearMonth;
+
+/**
+ * Месяцы [from, to] включительно и необязательный фильтр по категории.
+ */
+public class ExpenseDistributionRequestDto {
+
+    @NotNull(message = "{date.range.dto.from.not.null}")
+    private YearMonth from;
+
+    @NotNull(message = "{date.range.dto.to.not.null}")
+    private YearMonth to;
+
+    private Long categoryId;
+
+    @AssertTrue(message = "{expense.filter.date.range}")
+    public boolean isValidRange() {
+        return from == null || to == null || !from.isAfter(to);
+    }
+
+    public YearMonth getFrom() {
+        return from;
+    }
+
+    public void setFrom(YearMonth from) {
+        this.from = from;
+    }
+
+    public YearMonth getTo() {
+        return to;
+    }
+
+    public void setTo(YearMonth to) {
+        this.to = to;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.expensetracker.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record ExpenseDto(Long id, BigDecimal amount, Instant occurredAt, Long categoryId, String categoryName,
+                         String description) {
+}
@@ -0,0 +1,36 @@
+package com.example.expensetracker.dto;
+
+import jakarta.validation.constraints.AssertTrue;
+
+import java.time.Instant;
+
+/**
+ * Период выгрузки [from, to). Обе границы необязательны: без них выгружается вся история.
+ */
+public class ExpenseExportRequestDto {
+
+    private Instant from;
+
+    private Instant to;
+
+    @AssertTrue(message = "{date.range.dto.from.is.valid.range}")
+    public boolean isValidRange() {
+        return from == null || to == null || from.isBefore(to);
+    }
+
+    public Instant getFrom() {
+        return from;
+    }
+
+    public void setFrom(Instant from) {
+        this.from = from;
+    }
+
+    public Instant getTo() {
+        return to;
+    }
+
+    public void setTo(Instant to) {
+        this.to = to;
+    }
+}
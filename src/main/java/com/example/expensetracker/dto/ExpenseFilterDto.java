@@ -0,0 +1,95 @@
+package com.example.expensetracker.dto;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public class ExpenseFilterDto {
+
+    public static final int DEFAULT_LIMIT = 50;
+
+    private Long categoryId;
+
+    private BigDecimal minAmount;
+
+    private BigDecimal maxAmount;
+
+    private Instant from;
+
+    private Instant to;
+
+    private String cursor;
+
+    @Min(value = 1, message = "{expense.filter.limit.min}")
+    @Max(value = 500, message = "{expense.filter.limit.max}")
+    private int limit = DEFAULT_LIMIT;
+
+    @AssertTrue(message = "{expense.filter.amount.range}")
+    public boolean isValidAmountRange() {
+        return minAmount == null || maxAmount == null || minAmount.compareTo(maxAmount) <= 0;
+    }
+
+    @AssertTrue(message = "{expense.filter.date.range}")
+    public boolean isValidDateRange() {
+        return from == null || to == null || !from.isAfter(to);
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public BigDecimal getMinAmount() {
+        return minAmount;
+    }
+
+    public void setMinAmount(BigDecimal minAmount) {
+        this.minAmount = minAmount;
+    }
+
+    public BigDecimal getMaxAmount() {
+        return maxAmount;
+    }
+
+    public void setMaxAmount(BigDecimal maxAmount) {
+        this.maxAmount = maxAmount;
+    }
+
+    public Instant getFrom() {
+        return from;
+    }
+
+    public void setFrom(Instant from) {
+        this.from = from;
+    }
+
+    public Instant getTo() {
+        return to;
+    }
+
+    public void setTo(Instant to) {
+        this.to = to;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+}
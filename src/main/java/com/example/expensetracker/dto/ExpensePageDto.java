@@ -0,0 +1,9 @@
+package com.example.expensetracker.dto;
+
+import java.util.List;
+
+/**
+ * Страница списка расходов. nextCursor == null — страница последняя.
+ */
+public record ExpensePageDto(List<ExpenseDto> items, String nextCursor) {
+}
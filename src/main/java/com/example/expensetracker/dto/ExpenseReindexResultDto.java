@@ -0,0 +1,7 @@
+package com.example.expensetracker.dto;
+
+/**
+ * Итог полной переиндексации расходов: версия индекса, на которую переключён алиас, и число документов.
+ */
+public record ExpenseReindexResultDto(String index, long documents, long durationMillis) {
+}
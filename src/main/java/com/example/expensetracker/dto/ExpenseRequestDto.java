@@ -0,0 +1,23 @@
+package com.example.expensetracker.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record ExpenseRequestDto(
+        @NotNull(message = "{expense.request.amount.not.null}")
+        @Positive(message = "{expense.request.amount.positive}")
+        BigDecimal amount,
+
+        @NotNull(message = "{expense.request.occurred.at.not.null}")
+        Instant occurredAt,
+
+        Long categoryId,
+
+        @Size(max = 1000, message = "{expense.request.description.size}")
+        String description
+) {
+}
@@ -0,0 +1,85 @@
+package com.example.expensetracker.dto;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+
+import java.time.Instant;
+
+/**
+ * Поиск расходов по тексту описания с фильтрами по категории и периоду [from, to).
+ * Без q результаты идут от новых к старым, с q — по релевантности.
+ */
+public class ExpenseSearchRequestDto {
+
+    public static final int DEFAULT_LIMIT = 20;
+
+    @Size(max = 200, message = "{expense.search.query.size}")
+    private String q;
+
+    private Long categoryId;
+
+    private Instant from;
+
+    private Instant to;
+
+    private String cursor;
+
+    @Min(value = 1, message = "{expense.filter.limit.min}")
+    @Max(value = 100, message = "{expense.search.limit.max}")
+    private int limit = DEFAULT_LIMIT;
+
+    @AssertTrue(message = "{expense.filter.date.range}")
+    public boolean isValidDateRange() {
+        return from == null || to == null || !from.isAfter(to);
+    }
+
+    public String getQ() {
+        return q;
+    }
+
+    public void setQ(String q) {
+        this.q = q;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public Instant getFrom() {
+        return from;
+    }
+
+    public void setFrom(Instant from) {
+        this.from = from;
+    }
+
+    public Instant getTo() {
+        return to;
+    }
+
+    public void setTo(Instant to) {
+        this.to = to;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.expensetracker.dto;
+
+import com.example.expensetracker.series.ExpenseSeriesGranularity;
+import com.example.expensetracker.series.ExpenseSeriesSerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Плотный временной ряд: i-я корзина начинается в granularity.plus(firstBucket, i), её сумма — cents[i] копеек,
+ * число расходов — counts[i]. Корзины без расходов присутствуют с нулями.
+ */
+@JsonSerialize(using = ExpenseSeriesSerializer.class)
+public record ExpenseSeriesDto(LocalDate from, LocalDate to, ExpenseSeriesGranularity granularity, Long categoryId,
+                               LocalDate firstBucket, long[] cents, long[] counts) {
+
+    public int size() {
+        return cents.length;
+    }
+
+    public LocalDate bucket(int index) {
+        return granularity.plus(firstBucket, index);
+    }
+
+    public BigDecimal amount(int index) {
+        return BigDecimal.valueOf(cents[index], 2);
+    }
+}
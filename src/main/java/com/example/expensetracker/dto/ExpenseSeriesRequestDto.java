@@ -0,0 +1,64 @@
+package com.example.expensetracker.dto;
+
+import com.example.expensetracker.series.ExpenseSeriesGranularity;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Период временного ряда — дни [from, to), шаг и необязательный фильтр по категории.
+ */
+public class ExpenseSeriesRequestDto {
+
+    @NotNull(message = "{date.range.dto.from.not.null}")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    @NotNull(message = "{date.range.dto.to.not.null}")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+
+    @NotNull(message = "{expense.series.granularity.not.null}")
+    private ExpenseSeriesGranularity granularity;
+
+    private Long categoryId;
+
+    @AssertTrue(message = "{date.range.dto.from.is.valid.range}")
+    public boolean isValidRange() {
+        return from == null || to == null || from.isBefore(to);
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public ExpenseSeriesGranularity getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(ExpenseSeriesGranularity granularity) {
+        this.granularity = granularity;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+}
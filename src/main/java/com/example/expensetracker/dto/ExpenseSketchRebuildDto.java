@@ -0,0 +1,7 @@
+package com.example.expensetracker.dto;
+
+/**
+ * Итог пересборки скетчей сумм расходов из expenses: число пересобранных пользователей.
+ */
+public record ExpenseSketchRebuildDto(int users) {
+}
@@ -0,0 +1,7 @@
+package com.example.expensetracker.dto;
+
+/**
+ * Итог пересчёта users.total_expenses из expenses; reconciled = false — пересчёт уже выполнял другой экземпляр.
+ */
+public record ExpenseTotalsReconcileDto(boolean reconciled, int users) {
+}
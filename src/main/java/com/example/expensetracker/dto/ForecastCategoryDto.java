@@ -0,0 +1,6 @@
+package com.example.expensetracker.dto;
+
+import java.math.BigDecimal;
+
+public record ForecastCategoryDto(Long categoryId, String categoryName, BigDecimal amount, long occurrences) {
+}
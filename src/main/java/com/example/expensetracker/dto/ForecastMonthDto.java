@@ -0,0 +1,9 @@
+package com.example.expensetracker.dto;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+public record ForecastMonthDto(YearMonth month, BigDecimal total, long occurrences,
+                               List<ForecastCategoryDto> categories) {
+}
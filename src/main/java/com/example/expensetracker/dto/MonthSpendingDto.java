@@ -0,0 +1,7 @@
+package com.example.expensetracker.dto;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+public record MonthSpendingDto(YearMonth month, BigDecimal total, long expenseCount, long userCount) {
+}
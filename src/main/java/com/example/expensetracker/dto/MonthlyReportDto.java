@@ -0,0 +1,6 @@
+package com.example.expensetracker.dto;
+
+import java.time.YearMonth;
+
+public record MonthlyReportDto(YearMonth month, ExpensesReportDto report) {
+}
@@ -0,0 +1,16 @@
+package com.example.expensetracker.dto;
+
+import com.example.expensetracker.model.RecurrenceFrequency;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Расписание правила; шаг — intervalDays правила в единицах frequency.
+ *
+ * @param occurrences сколько расходов уже создано по правилу
+ */
+public record RecurrenceDto(RecurrenceFrequency frequency, Set<DayOfWeek> weekdays, Integer monthDay,
+                            LocalDate until, Integer count, int occurrences) {
+}
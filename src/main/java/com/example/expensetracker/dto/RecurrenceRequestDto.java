@@ -0,0 +1,57 @@
+package com.example.expensetracker.dto;
+
+import com.example.expensetracker.model.RecurrenceFrequency;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Расписание повторяющегося расхода; шаг — intervalDays запроса в единицах frequency. Сетка дат
+ * отсчитывается от startDate (по умолчанию сегодня): weekdays для WEEKLY и monthDay для MONTHLY
+ * по умолчанию берутся из неё, YEARLY повторяет её число и месяц.
+ *
+ * @param monthDay день месяца для MONTHLY, -1 — последний день
+ * @param until    последний день, в который правило ещё исполняется
+ * @param count    сколько всего расходов создать по правилу
+ */
+public record RecurrenceRequestDto(
+        @NotNull(message = "{recurrence.request.frequency.not.null}")
+        RecurrenceFrequency frequency,
+
+        Set<DayOfWeek> weekdays,
+
+        @Min(value = -1, message = "{recurrence.request.month.day.range}")
+        @Max(value = 31, message = "{recurrence.request.month.day.range}")
+        Integer monthDay,
+
+        @FutureOrPresent(message = "{recurrence.request.start.date.future.or.present}")
+        LocalDate startDate,
+
+        LocalDate until,
+
+        @Min(value = 1, message = "{recurrence.request.count.positive}")
+        Integer count
+) {
+
+    @AssertTrue(message = "{recurrence.request.month.day.range}")
+    public boolean isValidMonthDay() {
+        return monthDay == null || monthDay != 0;
+    }
+
+    @AssertTrue(message = "{recurrence.request.fields.match.frequency}")
+    public boolean isMatchingFrequency() {
+        return (weekdays == null || weekdays.isEmpty() || frequency == RecurrenceFrequency.WEEKLY)
+                && (monthDay == null || frequency == RecurrenceFrequency.MONTHLY);
+    }
+
+    @AssertTrue(message = "{recurrence.request.until.after.start}")
+    public boolean isValidUntil() {
+        return until == null || !until.isBefore(startDate == null ? LocalDate.now() : startDate);
+    }
+}
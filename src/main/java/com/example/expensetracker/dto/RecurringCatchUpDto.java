@@ -0,0 +1,8 @@
+package com.example.expensetracker.dto;
+
+/**
+ * Итог догоняющего прохода по повторяющимся правилам. rules и expenses — объём на момент запуска;
+ * при dryRun ничего не записывается, created и failed равны нулю.
+ */
+public record RecurringCatchUpDto(boolean dryRun, long rules, long expenses, int created, int failed) {
+}
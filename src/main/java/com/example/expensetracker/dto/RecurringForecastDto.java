@@ -0,0 +1,12 @@
+package com.example.expensetracker.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Прогноз расходов по активным повторяющимся правилам на даты from..to включительно.
+ */
+public record RecurringForecastDto(LocalDate from, LocalDate to, BigDecimal total, long occurrences,
+                                   List<ForecastMonthDto> months) {
+}
@@ -21,8 +21,11 @@ public final class RecurringTransactionDto {
 
     private final boolean active;
 
+    private final RecurrenceDto recurrence;
+
     public RecurringTransactionDto(Long id, BigDecimal amount, String description, Long categoryId,
-                                   String categoryName, int intervalDays, LocalDate nextExecutionDate, boolean active) {
+                                   String categoryName, int intervalDays, LocalDate nextExecutionDate, boolean active,
+                                   RecurrenceDto recurrence) {
         if (amount == null || description == null || categoryId == null || nextExecutionDate == null) {
             throw new IllegalArgumentException("RecurringTransactionDto: mandatory field is null");
         }
@@ -34,6 +37,7 @@ public final class RecurringTransactionDto {
         this.intervalDays = intervalDays;
         this.nextExecutionDate = nextExecutionDate;
         this.active = active;
+        this.recurrence = recurrence;
     }
 
     public Long getId() {
@@ -67,4 +71,8 @@ public final class RecurringTransactionDto {
     public boolean isActive() {
         return active;
     }
+
+    public RecurrenceDto getRecurrence() {
+        return recurrence;
+    }
 }
@@ -1,5 +1,6 @@
 package com.example.expensetracker.dto;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -7,6 +8,10 @@ import jakarta.validation.constraints.Positive;
 
 import java.math.BigDecimal;
 
+/**
+ * @param intervalDays шаг расписания в единицах recurrence.frequency, без recurrence — в днях
+ * @param recurrence   расписание; null — каждые intervalDays дней
+ */
 public record RecurringTransactionRequestDto(
         @NotNull(message = "{recurring.transaction.request.amount.not.null}")
         @Positive(message = "{recurring.transaction.request.amount.positive}")
@@ -19,6 +24,13 @@ public record RecurringTransactionRequestDto(
         Long categoryId,
         
         @Min(1)
-        int intervalDays
+        int intervalDays,
+
+        @Valid
+        RecurrenceRequestDto recurrence
 ) {
+
+    public RecurringTransactionRequestDto(BigDecimal amount, String description, Long categoryId, int intervalDays) {
+        this(amount, description, categoryId, intervalDays, null);
+    }
 }
@@ -0,0 +1,7 @@
+package com.example.expensetracker.exception;
+
+public class ExpenseQueueFullException extends RuntimeException {
+    public ExpenseQueueFullException(String message) {
+        super(message);
+    }
+}
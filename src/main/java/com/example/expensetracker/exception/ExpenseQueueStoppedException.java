@@ -0,0 +1,7 @@
+package com.example.expensetracker.exception;
+
+public class ExpenseQueueStoppedException extends RuntimeException {
+    public ExpenseQueueStoppedException(String message) {
+        super(message);
+    }
+}
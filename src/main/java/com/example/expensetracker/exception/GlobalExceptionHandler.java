@@ -94,6 +94,18 @@ public class GlobalExceptionHandler {
         return buildResponse(HttpStatus.CONFLICT, msg("handle.entity.exists"), request, ex);
     }
 
+    @ExceptionHandler(ExpenseQueueFullException.class)
+    public ResponseEntity<ApiResponse<UserDto>> handleExpenseQueueFull(ExpenseQueueFullException ex,
+                                                                       HttpServletRequest request) {
+        return buildResponse(HttpStatus.TOO_MANY_REQUESTS, msg("handle.expense.queue.full"), request, ex);
+    }
+
+    @ExceptionHandler(ExpenseQueueStoppedException.class)
+    public ResponseEntity<ApiResponse<UserDto>> handleExpenseQueueStopped(ExpenseQueueStoppedException ex,
+                                                                          HttpServletRequest request) {
+        return buildResponse(HttpStatus.SERVICE_UNAVAILABLE, msg("handle.expense.queue.stopped"), request, ex);
+    }
+
     @ExceptionHandler(HandlerMethodValidationException.class)
     public ResponseEntity<ApiResponse<UserDto>> handleHandlerMethodValidation(HandlerMethodValidationException ex,
                                                                    HttpServletRequest request) {
@@ -0,0 +1,68 @@
+package com.example.expensetracker.export;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * CSV вида {@code amount,occurred_at,category,description} с заголовком, как у импорта.
+ * Поля с запятой, кавычкой или переводом строки берутся в двойные кавычки.
+ */
+public class CsvExpenseExportWriter implements ExpenseExportWriter {
+
+    static final String HEADER = "amount,occurred_at,category,description\n";
+
+    private final Writer writer;
+
+    public CsvExpenseExportWriter(Writer writer) throws IOException {
+        this.writer = writer;
+        writer.write(HEADER);
+    }
+
+    @Override
+    public void write(BigDecimal amount, Instant occurredAt, String category, String description) throws IOException {
+        writer.write(amount.toPlainString());
+        writer.write(',');
+        writer.write(occurredAt.toString());
+        writer.write(',');
+        writeField(category);
+        writer.write(',');
+        writeField(description);
+        writer.write('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (!needsQuotes(value)) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
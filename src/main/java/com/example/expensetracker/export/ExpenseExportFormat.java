@@ -0,0 +1,61 @@
+package com.example.expensetracker.export;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Формат выгрузки совпадает с форматом импорта, поэтому выгруженный файл можно загрузить обратно.
+ */
+public enum ExpenseExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String mediaType;
+    private final String extension;
+
+    ExpenseExportFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Выбирает формат по заголовку Accept с учётом q-весов: при равном весе выигрывает более конкретный тип.
+     * Без заголовка или при {@code *}/{@code *} — CSV.
+     */
+    public static ExpenseExportFormat fromAccept(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return CSV;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            throw new IllegalArgumentException("Unsupported export format: " + accept);
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            for (ExpenseExportFormat format : values()) {
+                if (type.isCompatibleWith(MediaType.parseMediaType(format.mediaType))) {
+                    return format;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unsupported export format: " + accept);
+    }
+}
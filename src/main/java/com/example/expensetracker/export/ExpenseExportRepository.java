@@ -0,0 +1,70 @@
+package com.example.expensetracker.export;
+
+import com.example.expensetracker.config.ExpenseExportProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Чтение расходов пользователя однонаправленным курсором. PostgreSQL отдаёт строки порциями по fetchSize
+ * только внутри транзакции, поэтому вызывать нужно из транзакционного метода — иначе драйвер
+ * прочитает весь результат в память.
+ */
+@Repository
+public class ExpenseExportRepository {
+
+    private static final String SELECT = """
+            SELECT e.amount, e.occurred_at, c.name AS category_name, e.description
+            FROM expenses e
+            LEFT JOIN categories c ON c.id = e.category_id
+            WHERE e.user_id = ?""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ExpenseExportProperties props;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    public ExpenseExportRepository(JdbcTemplate jdbcTemplate, ExpenseExportProperties props) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.props = props;
+    }
+
+    /**
+     * Передаёт handler расходы пользователя за [from, to) по возрастанию времени; null-граница не ограничивает.
+     * Исключение handler прерывает чтение: курсор и statement закрываются, исключение пробрасывается дальше.
+     */
+    public void stream(Long userId, Instant from, Instant to, RowCallbackHandler handler) {
+        StringBuilder sql = new StringBuilder(SELECT);
+        if (from != null) {
+            sql.append(" AND e.occurred_at >= ?");
+        }
+        if (to != null) {
+            sql.append(" AND e.occurred_at < ?");
+        }
+        sql.append(" ORDER BY e.occurred_at, e.id");
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(Math.max(1, props.fetchSize()));
+            int index = 1;
+            ps.setLong(index++, userId);
+            if (from != null) {
+                ps.setTimestamp(index++, Timestamp.valueOf(LocalDateTime.ofInstant(from, zone)));
+            }
+            if (to != null) {
+                ps.setTimestamp(index, Timestamp.valueOf(LocalDateTime.ofInstant(to, zone)));
+            }
+            return ps;
+        }, handler);
+    }
+
+    public ZoneId zone() {
+        return zone;
+    }
+}
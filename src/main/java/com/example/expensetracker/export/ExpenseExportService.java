@@ -0,0 +1,98 @@
+package com.example.expensetracker.export;
+
+import com.example.expensetracker.config.ExpenseExportProperties;
+import com.example.expensetracker.details.UserDetailsImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Потоковая выгрузка расходов пользователя. Строки идут из курсора БД через буфер bufferSize прямо в ответ:
+ * память не зависит от числа строк. Если клиент отключился, запись в ответ падает с IOException,
+ * чтение прекращается и курсор закрывается; выгрузка возвращает -1, а читающая транзакция завершается
+ * обычным образом — изменений в ней нет — и соединение возвращается в пул.
+ */
+@Service
+public class ExpenseExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseExportService.class);
+
+    private final ExpenseExportRepository exportRepository;
+    private final ObjectMapper objectMapper;
+    private final ExpenseExportProperties props;
+    private final Counter exportedRows;
+    private final Counter cancelled;
+
+    public ExpenseExportService(ExpenseExportRepository exportRepository, ObjectMapper objectMapper,
+                                ExpenseExportProperties props, MeterRegistry registry) {
+        this.exportRepository = exportRepository;
+        this.objectMapper = objectMapper;
+        this.props = props;
+        this.exportedRows = Counter.builder("expenses.export.rows")
+                .description("Выгруженные строки расходов")
+                .register(registry);
+        this.cancelled = Counter.builder("expenses.export.cancelled")
+                .description("Выгрузки, прерванные клиентом")
+                .register(registry);
+    }
+
+    /**
+     * Пишет расходы пользователя за [from, to) в out.
+     *
+     * @return число записанных строк или -1, если клиент отключился до конца выгрузки
+     */
+    @Transactional(readOnly = true)
+    public long export(UserDetailsImpl currentUser, Instant from, Instant to, ExpenseExportFormat format,
+                       OutputStream out) {
+        Long userId = currentUser.getDomainUser().getId();
+        ZoneId zone = exportRepository.zone();
+        long[] rows = {0};
+        try {
+            Writer buffer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8),
+                    Math.max(1, props.bufferSize()));
+            ExpenseExportWriter writer = writer(format, buffer);
+            exportRepository.stream(userId, from, to, rs -> {
+                try {
+                    writer.write(rs.getBigDecimal("amount"),
+                            rs.getObject("occurred_at", LocalDateTime.class).atZone(zone).toInstant(),
+                            rs.getString("category_name"), rs.getString("description"));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            });
+            writer.flush();
+        } catch (IOException | UncheckedIOException e) {
+            cancelled.increment();
+            exportedRows.increment(rows[0]);
+            log.info("Выгрузка расходов пользователя {} прервана клиентом после {} строк: {}", userId, rows[0],
+                    e.getMessage());
+            return -1;
+        }
+        exportedRows.increment(rows[0]);
+        log.info("Выгрузка расходов пользователя {} в {}: {} строк", userId, format, rows[0]);
+        return rows[0];
+    }
+
+    private ExpenseExportWriter writer(ExpenseExportFormat format, Writer out) throws IOException {
+        return switch (format) {
+            case CSV -> new CsvExpenseExportWriter(out);
+            case NDJSON -> new NdjsonExpenseExportWriter(out, objectMapper.getFactory());
+        };
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.expensetracker.export;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Построчная запись выгрузки. Строка пишется в буфер сразу из ResultSet, в памяти ничего не копится.
+ */
+public interface ExpenseExportWriter extends Flushable {
+
+    void write(BigDecimal amount, Instant occurredAt, String category, String description) throws IOException;
+}
@@ -0,0 +1,40 @@
+package com.example.expensetracker.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * NDJSON: по одному объекту {@code {"amount":..,"occurredAt":..,"category":..,"description":..}} на строку.
+ * Объекты пишутся потоковым JsonGenerator без промежуточных DTO.
+ */
+public class NdjsonExpenseExportWriter implements ExpenseExportWriter {
+
+    private final JsonGenerator generator;
+
+    public NdjsonExpenseExportWriter(Writer writer, JsonFactory jsonFactory) throws IOException {
+        this.generator = jsonFactory.createGenerator(writer);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void write(BigDecimal amount, Instant occurredAt, String category, String description) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("amount", amount);
+        generator.writeStringField("occurredAt", occurredAt.toString());
+        generator.writeStringField("category", category);
+        generator.writeStringField("description", description);
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        generator.flush();
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.expensetracker.forecast;
+
+import com.example.expensetracker.recurring.Recurrence;
+
+/**
+ * Активное правило повторяющегося расхода в виде, нужном для прогноза.
+ *
+ * @param cents сумма одного исполнения в копейках
+ */
+public record ForecastRule(long cents, Long categoryId, String categoryName, Recurrence recurrence) {
+}
@@ -0,0 +1,98 @@
+package com.example.expensetracker.forecast;
+
+import com.example.expensetracker.config.ExpenseForecastProperties;
+import com.example.expensetracker.config.ExpenseRecurringProperties;
+import com.example.expensetracker.dto.RecurringForecastDto;
+import com.example.expensetracker.report.CategoryNameCache;
+import com.example.expensetracker.tx.AfterCommit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Прогнозы по повторяющимся правилам на пользователя: правила, прочитанные из БД, и готовые ответы
+ * на каждую запрошенную длину прогноза. Записи действительны в пределах дня, на который посчитаны,
+ * и сбрасываются после коммита любого изменения правил пользователя — создания, включения/выключения
+ * и исполнения, переносящего next_execution_date. Переименование или удаление категории сбрасывает
+ * все прогнозы: в правилах лежат имена категорий.
+ * <p>
+ * Правила, прочитанные параллельно со сбросом, могли его не увидеть, поэтому они кладутся в кэш,
+ * только если за время чтения не было ни одного сброса.
+ */
+@Component
+public class RecurringForecastCache implements CategoryNameCache {
+
+    private final RecurringForecastRepository repository;
+    private final boolean catchUp;
+    private final Cache<Long, UserForecasts> users;
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+
+    public RecurringForecastCache(RecurringForecastRepository repository, ExpenseForecastProperties props,
+                                  ExpenseRecurringProperties recurringProps, MeterRegistry registry) {
+        this.repository = repository;
+        this.catchUp = recurringProps.catchUp();
+        this.users = Caffeine.newBuilder()
+                .maximumSize(props.cacheMaxUsers())
+                .expireAfterAccess(props.cacheExpireAfterAccess())
+                .build();
+        Gauge.builder("expenses.forecast.cache.users", users, Cache::estimatedSize)
+                .description("Пользователи с закэшированным прогнозом")
+                .register(registry);
+        this.hits = Counter.builder("expenses.forecast.cache.requests").tag("result", "hit").register(registry);
+        this.misses = Counter.builder("expenses.forecast.cache.requests").tag("result", "miss").register(registry);
+    }
+
+    public RecurringForecastDto get(Long userId, LocalDate from, int months) {
+        UserForecasts cached = users.getIfPresent(userId);
+        if (cached == null || !cached.from().equals(from)) {
+            misses.increment();
+            long before = invalidations.get();
+            cached = new UserForecasts(from, repository.activeRules(userId), new ConcurrentHashMap<>());
+            if (invalidations.get() == before) {
+                users.put(userId, cached);
+            }
+        } else {
+            hits.increment();
+        }
+        UserForecasts forecasts = cached;
+        return forecasts.byMonths().computeIfAbsent(months,
+                m -> RecurringForecastCalculator.forecast(forecasts.rules(), from, m, catchUp));
+    }
+
+    /**
+     * Сбрасывает прогнозы пользователей после коммита текущей транзакции.
+     */
+    public void invalidate(Collection<Long> userIds) {
+        AfterCommit.run(() -> {
+            invalidations.incrementAndGet();
+            users.invalidateAll(userIds);
+        });
+    }
+
+    /**
+     * Категория переименована или удалена: после коммита сбрасываются прогнозы всех пользователей.
+     */
+    @Override
+    public void categoryChanged(Long categoryId) {
+        AfterCommit.run(() -> {
+            invalidations.incrementAndGet();
+            users.invalidateAll();
+        });
+    }
+
+    private record UserForecasts(LocalDate from, List<ForecastRule> rules,
+                                 Map<Integer, RecurringForecastDto> byMonths) {
+    }
+}
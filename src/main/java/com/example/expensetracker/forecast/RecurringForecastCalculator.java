@@ -0,0 +1,111 @@
+package com.example.expensetracker.forecast;
+
+import com.example.expensetracker.dto.ForecastCategoryDto;
+import com.example.expensetracker.dto.ForecastMonthDto;
+import com.example.expensetracker.dto.RecurringForecastDto;
+import com.example.expensetracker.money.Money;
+import com.example.expensetracker.recurring.Recurrence;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Прогноз по правилам без перебора дней. Число исполнений правила по день включительно
+ * {@link Recurrence#countThrough} считает по расписанию за O(1), на месяц приходится разность двух
+ * таких значений, поэтому весь прогноз стоит O(правила × месяцы). Просроченное правило ближайший проход
+ * исполнит в from: обычный — один раз, после чего правило идёт по {@link Recurrence#resumedAfter},
+ * догоняющий — по всем пропущенным датам, не сдвигая расписание.
+ */
+public final class RecurringForecastCalculator {
+
+    private RecurringForecastCalculator() {
+    }
+
+    /**
+     * @param from    первый день прогноза
+     * @param months  число календарных месяцев, начиная с месяца from
+     * @param catchUp исполняются ли правила в догоняющем режиме (catch-up)
+     */
+    public static RecurringForecastDto forecast(List<ForecastRule> rules, LocalDate from, int months,
+                                                boolean catchUp) {
+        YearMonth first = YearMonth.from(from);
+        LocalDate to = first.plusMonths(months - 1L).atEndOfMonth();
+        LocalDate[] bounds = new LocalDate[months + 1];
+        bounds[0] = from.minusDays(1);
+        for (int i = 0; i < months; i++) {
+            bounds[i + 1] = first.plusMonths(i).atEndOfMonth();
+        }
+
+        Map<Long, Integer> slots = new HashMap<>();
+        List<ForecastRule> categories = new ArrayList<>();
+        for (ForecastRule rule : rules) {
+            slots.computeIfAbsent(rule.categoryId(), id -> {
+                categories.add(rule);
+                return categories.size() - 1;
+            });
+        }
+        long[][] cents = new long[months][categories.size()];
+        long[][] counts = new long[months][categories.size()];
+
+        for (ForecastRule rule : rules) {
+            Recurrence recurrence = rule.recurrence();
+            int slot = slots.get(rule.categoryId());
+            if (recurrence.start().isBefore(from)) {
+                long overdue = recurrence.countThrough(bounds[0]);
+                if (overdue == 0) {
+                    continue;
+                }
+                long pending = catchUp ? overdue : 1;
+                cents[0][slot] = Money.add(cents[0][slot], Math.multiplyExact(rule.cents(), pending));
+                counts[0][slot] += pending;
+                if (!catchUp) {
+                    recurrence = recurrence.resumedAfter(from);
+                    if (recurrence == null) {
+                        continue;
+                    }
+                }
+            }
+            long before = recurrence.countThrough(bounds[0]);
+            for (int i = 0; i < months; i++) {
+                long until = recurrence.countThrough(bounds[i + 1]);
+                long count = until - before;
+                before = until;
+                if (count > 0) {
+                    cents[i][slot] = Money.add(cents[i][slot], Math.multiplyExact(rule.cents(), count));
+                    counts[i][slot] += count;
+                }
+            }
+        }
+
+        List<ForecastMonthDto> result = new ArrayList<>(months);
+        long totalCents = 0;
+        long totalCount = 0;
+        for (int i = 0; i < months; i++) {
+            List<ForecastCategoryDto> monthCategories = new ArrayList<>();
+            long monthCents = 0;
+            long monthCount = 0;
+            for (int slot = 0; slot < categories.size(); slot++) {
+                if (counts[i][slot] == 0) {
+                    continue;
+                }
+                ForecastRule category = categories.get(slot);
+                monthCategories.add(new ForecastCategoryDto(category.categoryId(), category.categoryName(),
+                        Money.fromCents(cents[i][slot]), counts[i][slot]));
+                monthCents = Money.add(monthCents, cents[i][slot]);
+                monthCount += counts[i][slot];
+            }
+            monthCategories.sort(Comparator.comparing(ForecastCategoryDto::amount).reversed()
+                    .thenComparing(ForecastCategoryDto::categoryName));
+            result.add(new ForecastMonthDto(first.plusMonths(i), Money.fromCents(monthCents), monthCount,
+                    monthCategories));
+            totalCents = Money.add(totalCents, monthCents);
+            totalCount += monthCount;
+        }
+        return new RecurringForecastDto(from, to, Money.fromCents(totalCents), totalCount, result);
+    }
+}
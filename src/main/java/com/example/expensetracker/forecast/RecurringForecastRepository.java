@@ -0,0 +1,32 @@
+package com.example.expensetracker.forecast;
+
+import com.example.expensetracker.money.Money;
+import com.example.expensetracker.recurring.RecurringScheduleRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public class RecurringForecastRepository {
+
+    static final String RULES_SQL = """
+            SELECT r.amount, r.category_id, c.name AS category_name, r.frequency, r.interval_days, r.by_weekdays,
+                   r.by_month_day, r.next_execution_date, r.until_date, r.max_occurrences, r.occurrences
+            FROM recurring_transactions r
+            JOIN categories c ON c.id = r.category_id
+            WHERE r.user_id = ? AND r.active AND r.interval_days > 0
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RecurringForecastRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<ForecastRule> activeRules(Long userId) {
+        return jdbcTemplate.query(RULES_SQL, (rs, rowNum) -> new ForecastRule(
+                Money.toCents(rs.getBigDecimal("amount")), rs.getObject("category_id", Long.class),
+                rs.getString("category_name"), RecurringScheduleRepository.recurrence(rs)), userId);
+    }
+}
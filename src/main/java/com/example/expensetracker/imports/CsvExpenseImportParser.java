@@ -0,0 +1,102 @@
+package com.example.expensetracker.imports;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSV вида {@code amount,occurred_at,category,description}. Строка заголовка необязательна,
+ * поля можно брать в двойные кавычки, перевод строки внутри поля не поддерживается.
+ */
+public class CsvExpenseImportParser implements ExpenseImportParser {
+
+    private static final int COLUMNS = 4;
+
+    private final BufferedReader reader;
+    private long lineNumber;
+
+    public CsvExpenseImportParser(InputStream in) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public ExpenseImportRow next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+        } while (line.isBlank() || (lineNumber == 1 && isHeader(line)));
+
+        List<String> fields = split(line);
+        if (fields.size() < 2 || fields.size() > COLUMNS) {
+            throw new ExpenseImportRowException("Line " + lineNumber + ": expected 2-4 columns");
+        }
+        try {
+            return new ExpenseImportRow(
+                    new BigDecimal(fields.get(0).trim()),
+                    Instant.parse(fields.get(1).trim()),
+                    fields.size() > 2 ? blankToNull(fields.get(2)) : null,
+                    fields.size() > 3 ? blankToNull(fields.get(3)) : null);
+        } catch (RuntimeException e) {
+            throw new ExpenseImportRowException("Line " + lineNumber + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long lineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private static boolean isHeader(String line) {
+        return line.trim().toLowerCase().startsWith("amount");
+    }
+
+    private static String blankToNull(String value) {
+        return value.isBlank() ? null : value.trim();
+    }
+
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>(COLUMNS);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new ExpenseImportRowException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
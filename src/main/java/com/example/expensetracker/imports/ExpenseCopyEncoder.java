@@ -0,0 +1,127 @@
+package com.example.expensetracker.imports;
+
+import com.example.expensetracker.money.Money;
+import com.example.expensetracker.rollup.DailyRollupDeltas;
+import com.example.expensetracker.sketch.SketchKey;
+import com.example.expensetracker.sketch.SketchSamples;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Превращает строки парсера в строки COPY CSV. Невалидные строки пропускаются и учитываются в job как rejected.
+ * occurred_at — timestamp без зоны, поэтому пишется локальное время в той же зоне, что и через Hibernate.
+ */
+public class ExpenseCopyEncoder implements ExpenseCopySource {
+
+    private final ExpenseImportParser parser;
+    private final Long userId;
+    private final Map<String, Long> categoryIds;
+    private final ExpenseImportJob job;
+    private final ZoneId zone;
+    private final StringBuilder buffer = new StringBuilder(128);
+    private long cents;
+    private DailyRollupDeltas rollup = new DailyRollupDeltas();
+    private SketchSamples samples = new SketchSamples();
+    private boolean exhausted;
+
+    public ExpenseCopyEncoder(ExpenseImportParser parser, Long userId, Map<String, Long> categoryIds,
+                              ExpenseImportJob job, ZoneId zone) {
+        this.parser = parser;
+        this.userId = userId;
+        this.categoryIds = categoryIds;
+        this.job = job;
+        this.zone = zone;
+    }
+
+    public boolean isExhausted() {
+        return exhausted;
+    }
+
+    /**
+     * Сумма строк, выданных с прошлого вызова; счётчик обнуляется.
+     */
+    public Money takeAmount() {
+        Money result = Money.ofCents(cents);
+        cents = 0;
+        return result;
+    }
+
+    /**
+     * Дневные агрегаты строк, выданных с прошлого вызова; накопление начинается заново.
+     */
+    public DailyRollupDeltas takeRollup() {
+        DailyRollupDeltas result = rollup;
+        rollup = new DailyRollupDeltas();
+        return result;
+    }
+
+    /**
+     * Суммы строк для скетчей распределения, выданных с прошлого вызова; накопление начинается заново.
+     */
+    public SketchSamples takeSamples() {
+        SketchSamples result = samples;
+        samples = new SketchSamples();
+        return result;
+    }
+
+    @Override
+    public byte[] nextLine() throws IOException {
+        while (true) {
+            ExpenseImportRow row;
+            try {
+                row = parser.next();
+            } catch (ExpenseImportRowException e) {
+                job.reject(e.getMessage());
+                continue;
+            }
+            if (row == null) {
+                exhausted = true;
+                return null;
+            }
+            if (row.amount().signum() <= 0) {
+                job.reject("Line " + parser.lineNumber() + ": amount must be positive");
+                continue;
+            }
+            Long categoryId = null;
+            if (row.category() != null) {
+                categoryId = categoryIds.get(normalize(row.category()));
+                if (categoryId == null) {
+                    job.reject("Line " + parser.lineNumber() + ": unknown category " + row.category());
+                    continue;
+                }
+            }
+            cents = Money.add(cents, Money.toCents(row.amount()));
+            LocalDate day = LocalDate.ofInstant(row.occurredAt(), zone);
+            rollup.add(userId, day, categoryId, row.amount());
+            samples.add(new SketchKey(userId, categoryId, YearMonth.from(day)), row.amount());
+            return encode(row, categoryId);
+        }
+    }
+
+    public static String normalize(String categoryName) {
+        return categoryName.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private byte[] encode(ExpenseImportRow row, Long categoryId) {
+        buffer.setLength(0);
+        buffer.append(userId).append(',')
+                .append(row.amount().toPlainString()).append(',')
+                .append(LocalDateTime.ofInstant(row.occurredAt(), zone)).append(',');
+        if (categoryId != null) {
+            buffer.append(categoryId);
+        }
+        buffer.append(',');
+        if (row.description() != null) {
+            buffer.append('"').append(row.description().replace("\"", "\"\"")).append('"');
+        }
+        buffer.append('\n');
+        return buffer.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.expensetracker.imports;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+@Repository
+public class ExpenseCopyRepository {
+
+    static final String COPY_SQL = "COPY expenses (user_id, amount, occurred_at, category_id, description) " +
+            "FROM STDIN WITH (FORMAT csv)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ExpenseCopyRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Передаёт строки из source в один COPY, пока source не закончится или не наберётся maxRows.
+     * Вызывается внутри транзакции — соединение берётся из неё.
+     *
+     * @return число записанных строк
+     */
+    public long copyIn(ExpenseCopySource source, int maxRows) {
+        Long copied = jdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+            CopyIn copy = con.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+            try {
+                int rows = 0;
+                byte[] line;
+                while (rows < maxRows && (line = source.nextLine()) != null) {
+                    copy.writeToCopy(line, 0, line.length);
+                    rows++;
+                }
+                return copy.endCopy();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                if (copy.isActive()) {
+                    copy.cancelCopy();
+                }
+            }
+        });
+        return copied == null ? 0 : copied;
+    }
+}
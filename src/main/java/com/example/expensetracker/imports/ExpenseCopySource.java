@@ -0,0 +1,12 @@
+package com.example.expensetracker.imports;
+
+import java.io.IOException;
+
+@FunctionalInterface
+public interface ExpenseCopySource {
+
+    /**
+     * @return очередная строка в формате COPY CSV (с переводом строки) или null, если строк больше нет
+     */
+    byte[] nextLine() throws IOException;
+}
@@ -0,0 +1,30 @@
+package com.example.expensetracker.imports;
+
+import org.springframework.http.MediaType;
+
+public enum ExpenseImportFormat {
+    CSV("text/csv"),
+    NDJSON("application/x-ndjson");
+
+    private final String mediaType;
+
+    ExpenseImportFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public static ExpenseImportFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            MediaType type = MediaType.parseMediaType(contentType);
+            for (ExpenseImportFormat format : values()) {
+                if (type.isCompatibleWith(MediaType.parseMediaType(format.mediaType))) {
+                    return format;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unsupported import format: " + contentType);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.expensetracker.imports;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Состояние одного импорта. Счётчики обновляет поток запроса, читают — запросы статуса.
+ */
+public class ExpenseImportJob {
+
+    private final String id;
+    private final Long userId;
+    private final ExpenseImportFormat format;
+    private final Instant startedAt = Instant.now();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile ExpenseImportState state = ExpenseImportState.RUNNING;
+    private volatile String lastError;
+    private volatile Instant finishedAt;
+
+    public ExpenseImportJob(String id, Long userId, ExpenseImportFormat format) {
+        this.id = id;
+        this.userId = userId;
+        this.format = format;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public ExpenseImportState getState() {
+        return state;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void addImported(long rows) {
+        imported.addAndGet(rows);
+    }
+
+    public void reject(String error) {
+        rejected.incrementAndGet();
+        lastError = error;
+    }
+
+    public void complete() {
+        finishedAt = Instant.now();
+        state = ExpenseImportState.COMPLETED;
+    }
+
+    public void fail(String error) {
+        lastError = error;
+        finishedAt = Instant.now();
+        state = ExpenseImportState.FAILED;
+    }
+
+    public ExpenseImportStatusDto toDto() {
+        return new ExpenseImportStatusDto(id, format, state, imported.get(), rejected.get(), lastError, startedAt,
+                finishedAt);
+    }
+}
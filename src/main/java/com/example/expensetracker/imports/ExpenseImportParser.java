@@ -0,0 +1,21 @@
+package com.example.expensetracker.imports;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Построчный разбор тела запроса импорта. В памяти держится только текущая строка.
+ */
+public interface ExpenseImportParser extends Closeable {
+
+    /**
+     * @return следующая строка импорта или null, если поток закончился
+     * @throws ExpenseImportRowException если строка не разбирается; следующий вызов продолжит со следующей строки
+     */
+    ExpenseImportRow next() throws IOException;
+
+    /**
+     * @return номер последней прочитанной строки, начиная с 1
+     */
+    long lineNumber();
+}
@@ -0,0 +1,7 @@
+package com.example.expensetracker.imports;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record ExpenseImportRow(BigDecimal amount, Instant occurredAt, String category, String description) {
+}
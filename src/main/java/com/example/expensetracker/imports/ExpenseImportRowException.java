@@ -0,0 +1,11 @@
+package com.example.expensetracker.imports;
+
+public class ExpenseImportRowException extends RuntimeException {
+    public ExpenseImportRowException(String message) {
+        super(message);
+    }
+
+    public ExpenseImportRowException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.expensetracker.imports;
+
+import com.example.expensetracker.config.ExpenseImportProperties;
+import com.example.expensetracker.details.UserDetailsImpl;
+import com.example.expensetracker.model.Category;
+import com.example.expensetracker.repository.CategoryRepository;
+import com.example.expensetracker.sketch.ExpenseSketchAccumulator;
+import com.example.expensetracker.totals.TotalExpensesAccumulator;
+import com.example.expensetracker.write.ExpenseWriteEvents;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Потоковый импорт расходов через COPY. Тело запроса читается построчно и порциями по chunkSize строк
+ * уходит в COPY; каждая порция коммитится отдельно, поэтому прогресс виден через статус.
+ * Дневные агрегаты порции обновляются в её транзакции, сумма закоммиченной порции передаётся
+ * в накопитель total_expenses одной дельтой. COPY идёт мимо сущностей, поэтому после коммита порции
+ * получатели {@link com.example.expensetracker.write.ExpenseWriteListener} сбрасывают данные пользователя,
+ * а поиск переиндексирует его целиком. Суммы порции уходят в скетчи распределения отдельно.
+ */
+@Service
+public class ExpenseImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseImportService.class);
+
+    private final ExpenseCopyRepository copyRepository;
+    private final CategoryRepository categoryRepository;
+    private final TotalExpensesAccumulator totalExpensesAccumulator;
+    private final ExpenseWriteEvents writeEvents;
+    private final ExpenseSketchAccumulator sketchAccumulator;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ExpenseImportProperties props;
+    private final Map<String, ExpenseImportJob> jobs = new ConcurrentHashMap<>();
+
+    public ExpenseImportService(ExpenseCopyRepository copyRepository, CategoryRepository categoryRepository,
+                                TotalExpensesAccumulator totalExpensesAccumulator, ExpenseWriteEvents writeEvents,
+                                ExpenseSketchAccumulator sketchAccumulator, TransactionTemplate transactionTemplate,
+                                ObjectMapper objectMapper, ExpenseImportProperties props) {
+        this.copyRepository = copyRepository;
+        this.categoryRepository = categoryRepository;
+        this.totalExpensesAccumulator = totalExpensesAccumulator;
+        this.writeEvents = writeEvents;
+        this.sketchAccumulator = sketchAccumulator;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.props = props;
+    }
+
+    public ExpenseImportStatusDto importExpenses(UserDetailsImpl currentUser, ExpenseImportFormat format,
+                                                 InputStream body) {
+        Long userId = currentUser.getDomainUser().getId();
+        purgeFinished();
+        ExpenseImportJob job = new ExpenseImportJob(UUID.randomUUID().toString(), userId, format);
+        jobs.put(job.getId(), job);
+
+        try (ExpenseImportParser parser = parser(format, body)) {
+            ExpenseCopyEncoder encoder = new ExpenseCopyEncoder(parser, userId, loadCategoryIds(), job,
+                    ZoneId.systemDefault());
+            while (!encoder.isExhausted()) {
+                Long copied = transactionTemplate.execute(status -> {
+                    long rows = copyRepository.copyIn(encoder, Math.max(1, props.chunkSize()));
+                    writeEvents.apply(encoder.takeRollup());
+                    sketchAccumulator.record(encoder.takeSamples());
+                    return rows;
+                });
+                job.addImported(copied == null ? 0 : copied);
+                totalExpensesAccumulator.add(userId, encoder.takeAmount());
+            }
+            job.complete();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Импорт {} пользователя {} прерван: {}", job.getId(), userId, e.getMessage());
+            job.fail(e.getMessage());
+        }
+        ExpenseImportStatusDto result = job.toDto();
+        log.info("Импорт {} пользователя {}: {} строк загружено, {} отклонено", result.id(), userId,
+                result.imported(), result.rejected());
+        return result;
+    }
+
+    public ExpenseImportStatusDto getStatus(UserDetailsImpl currentUser, String id) {
+        ExpenseImportJob job = jobs.get(id);
+        if (job == null || !job.getUserId().equals(currentUser.getDomainUser().getId())) {
+            throw new IllegalArgumentException("Import not found");
+        }
+        return job.toDto();
+    }
+
+    public List<ExpenseImportStatusDto> getStatuses(UserDetailsImpl currentUser) {
+        Long userId = currentUser.getDomainUser().getId();
+        return jobs.values().stream()
+                .filter(job -> job.getUserId().equals(userId))
+                .map(ExpenseImportJob::toDto)
+                .sorted(Comparator.comparing(ExpenseImportStatusDto::startedAt).reversed())
+                .toList();
+    }
+
+    private ExpenseImportParser parser(ExpenseImportFormat format, InputStream body) {
+        return switch (format) {
+            case CSV -> new CsvExpenseImportParser(body);
+            case NDJSON -> new NdjsonExpenseImportParser(body, objectMapper);
+        };
+    }
+
+    private Map<String, Long> loadCategoryIds() {
+        return categoryRepository.findAll().stream()
+                .collect(Collectors.toMap(c -> ExpenseCopyEncoder.normalize(c.getName()), Category::getId,
+                        (first, second) -> first));
+    }
+
+    private void purgeFinished() {
+        Instant threshold = Instant.now().minus(props.statusRetention());
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(threshold));
+    }
+}
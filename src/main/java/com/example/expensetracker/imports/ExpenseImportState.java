@@ -0,0 +1,7 @@
+package com.example.expensetracker.imports;
+
+public enum ExpenseImportState {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,13 @@
+package com.example.expensetracker.imports;
+
+import java.time.Instant;
+
+public record ExpenseImportStatusDto(String id,
+                                     ExpenseImportFormat format,
+                                     ExpenseImportState state,
+                                     long imported,
+                                     long rejected,
+                                     String lastError,
+                                     Instant startedAt,
+                                     Instant finishedAt) {
+}
@@ -0,0 +1,59 @@
+package com.example.expensetracker.imports;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * NDJSON: по одному объекту {@code {"amount":..,"occurredAt":..,"category":..,"description":..}} на строку.
+ */
+public class NdjsonExpenseImportParser implements ExpenseImportParser {
+
+    private final BufferedReader reader;
+    private final ObjectReader rowReader;
+    private long lineNumber;
+
+    public NdjsonExpenseImportParser(InputStream in, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.rowReader = objectMapper.readerFor(ExpenseImportRow.class);
+    }
+
+    @Override
+    public ExpenseImportRow next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+        } while (line.isBlank());
+
+        ExpenseImportRow row;
+        try {
+            row = rowReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            throw new ExpenseImportRowException("Line " + lineNumber + ": " + e.getOriginalMessage(), e);
+        }
+        if (row.amount() == null || row.occurredAt() == null) {
+            throw new ExpenseImportRowException("Line " + lineNumber + ": amount and occurredAt are required");
+        }
+        return row;
+    }
+
+    @Override
+    public long lineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
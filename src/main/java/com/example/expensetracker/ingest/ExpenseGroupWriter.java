@@ -0,0 +1,67 @@
+package com.example.expensetracker.ingest;
+
+import com.example.expensetracker.mapper.ExpenseMapper;
+import com.example.expensetracker.model.Category;
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.money.Money;
+import com.example.expensetracker.money.MoneySum;
+import com.example.expensetracker.repository.CategoryRepository;
+import com.example.expensetracker.repository.ExpenseRepository;
+import com.example.expensetracker.repository.UserRepository;
+import com.example.expensetracker.totals.TotalExpensesAccumulator;
+import com.example.expensetracker.write.ExpenseWriteEvents;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Записывает пакет расходов из очереди одной транзакцией: INSERT-ы уходят JDBC-батчем,
+ * в накопитель total_expenses — одна дельта на пользователя, дневные агрегаты обновляются в той же транзакции.
+ */
+@Component
+public class ExpenseGroupWriter {
+
+    private final ExpenseRepository expenseRepository;
+    private final UserRepository userRepository;
+    private final CategoryRepository categoryRepository;
+    private final ExpenseMapper expenseMapper;
+    private final TotalExpensesAccumulator totalExpensesAccumulator;
+    private final ExpenseWriteEvents writeEvents;
+
+    public ExpenseGroupWriter(ExpenseRepository expenseRepository, UserRepository userRepository,
+                              CategoryRepository categoryRepository, ExpenseMapper expenseMapper,
+                              TotalExpensesAccumulator totalExpensesAccumulator, ExpenseWriteEvents writeEvents) {
+        this.expenseRepository = expenseRepository;
+        this.userRepository = userRepository;
+        this.categoryRepository = categoryRepository;
+        this.expenseMapper = expenseMapper;
+        this.totalExpensesAccumulator = totalExpensesAccumulator;
+        this.writeEvents = writeEvents;
+    }
+
+    @Transactional
+    public void write(List<QueuedExpense> batch) {
+        Map<Long, User> users = new HashMap<>();
+        Map<Long, Category> categories = new HashMap<>();
+        Map<Long, MoneySum> deltas = new HashMap<>();
+        List<Expense> expenses = new ArrayList<>(batch.size());
+        for (QueuedExpense queued : batch) {
+            Long categoryId = queued.request().categoryId();
+            Category category = categoryId == null ? null
+                    : categories.computeIfAbsent(categoryId, categoryRepository::getReferenceById);
+            Expense expense = expenseMapper.fromRequest(queued.request(), category);
+            expense.setUser(users.computeIfAbsent(queued.userId(), userRepository::getReferenceById));
+            expenses.add(expense);
+            deltas.computeIfAbsent(queued.userId(), id -> new MoneySum())
+                    .add(Money.toCents(queued.request().amount()), 1);
+        }
+        expenseRepository.saveAll(expenses);
+        writeEvents.added(expenses);
+        deltas.forEach((userId, sum) -> totalExpensesAccumulator.add(userId, Money.ofCents(sum.cents())));
+    }
+}
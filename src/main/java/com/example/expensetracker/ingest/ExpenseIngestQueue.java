@@ -0,0 +1,205 @@
+package com.example.expensetracker.ingest;
+
+import com.example.expensetracker.config.ExpenseIngestProperties;
+import com.example.expensetracker.exception.ExpenseQueueFullException;
+import com.example.expensetracker.exception.ExpenseQueueStoppedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Очередь отложенной записи расходов (write-behind) с групповым коммитом.
+ * <p>
+ * Производители кладут расходы в ограниченный кольцевой буфер; если он заполнен дольше enqueue-timeout,
+ * бросается {@link ExpenseQueueFullException} (HTTP 429). Единственный поток-писатель забирает до max-batch
+ * расходов, ожидая добора не дольше max-linger после первого, и коммитит их одной транзакцией.
+ * Если пакет не записался, расходы пишутся по одному, чтобы одна плохая строка не отбрасывала весь пакет.
+ * <p>
+ * Буфер живёт в памяти: расходы, ещё не закоммиченные к аварийному завершению JVM, теряются.
+ * При штатной остановке очередь дописывается до конца. Кому нужна гарантия записи — ждёт
+ * {@link QueuedExpense#committed()} (await-commit), по-прежнему экономя на общем коммите.
+ * <p>
+ * Очередь останавливается после graceful shutdown веб-сервера, то есть после того, как завершились запросы,
+ * ещё кладущие в неё расходы. Расход, поставленный после начала остановки, отклоняется
+ * {@link ExpenseQueueStoppedException} (HTTP 503), а не молча теряется после выхода потока-писателя.
+ */
+@Component
+public class ExpenseIngestQueue implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseIngestQueue.class);
+
+    private static final long POLL_MILLIS = 100;
+
+    private final ExpenseGroupWriter writer;
+    private final ExpenseIngestProperties props;
+    private final BlockingQueue<QueuedExpense> queue;
+    private final Timer commitTimer;
+    private final DistributionSummary batchSize;
+    private final Counter rejected;
+    private final Counter failed;
+    private volatile boolean running;
+    private volatile boolean stopping;
+    private Thread writerThread;
+
+    public ExpenseIngestQueue(ExpenseGroupWriter writer, ExpenseIngestProperties props, MeterRegistry registry) {
+        this.writer = writer;
+        this.props = props;
+        this.queue = new ArrayBlockingQueue<>(props.capacity());
+        Gauge.builder("expenses.ingest.queue.depth", queue, BlockingQueue::size)
+                .description("Расходы, ожидающие записи")
+                .register(registry);
+        Gauge.builder("expenses.ingest.queue.capacity", queue, q -> props.capacity())
+                .register(registry);
+        this.commitTimer = Timer.builder("expenses.ingest.commit.latency")
+                .description("Время записи и коммита одного пакета")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.batchSize = DistributionSummary.builder("expenses.ingest.batch.size")
+                .register(registry);
+        this.rejected = Counter.builder("expenses.ingest.rejected")
+                .description("Отказы из-за заполненной очереди")
+                .register(registry);
+        this.failed = Counter.builder("expenses.ingest.failed")
+                .description("Расходы, которые не удалось записать")
+                .register(registry);
+    }
+
+    /**
+     * Ставит расход в очередь, ожидая свободного места не дольше enqueue-timeout.
+     *
+     * @return future, завершающийся после коммита пакета с этим расходом
+     */
+    public CompletableFuture<Void> submit(QueuedExpense expense) {
+        if (stopping) {
+            throw new ExpenseQueueStoppedException("Expense queue is stopped");
+        }
+        boolean offered;
+        try {
+            offered = queue.offer(expense, props.enqueueTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            offered = false;
+        }
+        if (!offered) {
+            rejected.increment();
+            throw new ExpenseQueueFullException("Expense queue is full");
+        }
+        // Остановка началась во время offer: писатель мог уже выйти, и расход, который он не забрал, отклоняется.
+        if (stopping && queue.remove(expense)) {
+            throw new ExpenseQueueStoppedException("Expense queue is stopped");
+        }
+        return expense.committed();
+    }
+
+    public int depth() {
+        return queue.size();
+    }
+
+    @Override
+    public void start() {
+        stopping = false;
+        running = true;
+        writerThread = new Thread(this::drainLoop, "expense-ingest-writer");
+        writerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        stopping = true;
+        running = false;
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Останавливается после graceful shutdown веб-сервера, но раньше поисковой индексации.
+     */
+    @Override
+    public int getPhase() {
+        return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 1;
+    }
+
+    private void drainLoop() {
+        int maxBatch = Math.max(1, props.maxBatch());
+        List<QueuedExpense> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                QueuedExpense first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fill(batch, maxBatch);
+                commit(batch);
+            } catch (InterruptedException e) {
+                log.warn("Поток записи очереди расходов прерван, в очереди осталось {}", queue.size());
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void fill(List<QueuedExpense> batch, int maxBatch) throws InterruptedException {
+        long deadline = System.nanoTime() + props.maxLinger().toNanos();
+        while (batch.size() < maxBatch) {
+            queue.drainTo(batch, maxBatch - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatch || remaining <= 0) {
+                return;
+            }
+            QueuedExpense next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void commit(List<QueuedExpense> batch) {
+        batchSize.record(batch.size());
+        long start = System.nanoTime();
+        try {
+            writer.write(batch);
+            commitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batch.forEach(expense -> expense.committed().complete(null));
+        } catch (RuntimeException e) {
+            log.warn("Пакет из {} расходов не записан, запись по одному: {}", batch.size(), e.getMessage());
+            batch.forEach(this::commitSingle);
+        }
+    }
+
+    private void commitSingle(QueuedExpense expense) {
+        try {
+            writer.write(List.of(expense));
+            expense.committed().complete(null);
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.error("Расход пользователя {} не записан: {}", expense.userId(), e.getMessage());
+            expense.committed().completeExceptionally(e);
+        }
+    }
+}
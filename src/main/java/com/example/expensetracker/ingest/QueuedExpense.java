@@ -0,0 +1,15 @@
+package com.example.expensetracker.ingest;
+
+import com.example.expensetracker.dto.ExpenseRequestDto;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Расход в очереди на запись. committed завершается после коммита пакета, в который попал расход.
+ */
+public record QueuedExpense(Long userId, ExpenseRequestDto request, CompletableFuture<Void> committed) {
+
+    public QueuedExpense(Long userId, ExpenseRequestDto request) {
+        this(userId, request, new CompletableFuture<>());
+    }
+}
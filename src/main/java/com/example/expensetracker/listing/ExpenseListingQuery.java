@@ -0,0 +1,60 @@
+package com.example.expensetracker.listing;
+
+import com.example.expensetracker.dto.ExpenseFilterDto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SQL одной страницы списка расходов методом поиска (seek): вместо OFFSET — условие
+ * (occurred_at, id) &lt; курсор, которое индекс (user_id, occurred_at, id) отрабатывает спуском
+ * к позиции курсора. Поэтому страница из глубины истории стоит столько же, сколько первая.
+ * COUNT не выполняется: о следующей странице говорит лишняя (limit + 1)-я строка.
+ */
+public record ExpenseListingQuery(String sql, Object[] args) {
+
+    private static final String SELECT = """
+            SELECT e.id, e.amount, e.occurred_at, e.category_id, c.name AS category_name, e.description
+            FROM expenses e
+            LEFT JOIN categories c ON c.id = e.category_id
+            WHERE e.user_id = ?""";
+
+    private static final String ORDER = "\nORDER BY e.occurred_at DESC, e.id DESC\nLIMIT ?";
+
+    public static ExpenseListingQuery of(Long userId, ExpenseFilterDto filter, ExpenseCursor cursor, int rows,
+                                         ZoneId zone) {
+        StringBuilder sql = new StringBuilder(SELECT);
+        List<Object> args = new ArrayList<>();
+        args.add(userId);
+        if (filter.getCategoryId() != null) {
+            sql.append("\n  AND e.category_id = ?");
+            args.add(filter.getCategoryId());
+        }
+        if (filter.getMinAmount() != null) {
+            sql.append("\n  AND e.amount >= ?");
+            args.add(filter.getMinAmount());
+        }
+        if (filter.getMaxAmount() != null) {
+            sql.append("\n  AND e.amount <= ?");
+            args.add(filter.getMaxAmount());
+        }
+        if (filter.getFrom() != null) {
+            sql.append("\n  AND e.occurred_at >= ?");
+            args.add(LocalDateTime.ofInstant(filter.getFrom(), zone));
+        }
+        if (filter.getTo() != null) {
+            sql.append("\n  AND e.occurred_at <= ?");
+            args.add(LocalDateTime.ofInstant(filter.getTo(), zone));
+        }
+        if (cursor != null) {
+            sql.append("\n  AND (e.occurred_at, e.id) < (?, ?)");
+            args.add(cursor.occurredAt());
+            args.add(cursor.id());
+        }
+        sql.append(ORDER);
+        args.add(rows);
+        return new ExpenseListingQuery(sql.toString(), args.toArray());
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.expensetracker.listing;
+
+import com.example.expensetracker.dto.ExpenseDto;
+import com.example.expensetracker.dto.ExpenseFilterDto;
+import com.example.expensetracker.dto.ExpensePageDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+@Repository
+public class ExpenseListingRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    public ExpenseListingRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Возвращает страницу расходов пользователя от новых к старым, начиная после cursor (null — с начала).
+     * Строки читаются без загрузки сущностей.
+     */
+    public ExpensePageDto findPage(Long userId, ExpenseFilterDto filter, ExpenseCursor cursor) {
+        int limit = filter.getLimit();
+        ExpenseListingQuery query = ExpenseListingQuery.of(userId, filter, cursor, limit + 1, zone);
+        List<LocalDateTime> occurredAt = new ArrayList<>(limit + 1);
+        List<ExpenseDto> rows = jdbcTemplate.query(query.sql(), (rs, rowNum) -> {
+            LocalDateTime time = rs.getObject("occurred_at", LocalDateTime.class);
+            occurredAt.add(time);
+            return new ExpenseDto(rs.getLong("id"), rs.getBigDecimal("amount"), time.atZone(zone).toInstant(),
+                    rs.getObject("category_id", Long.class), rs.getString("category_name"),
+                    rs.getString("description"));
+        }, query.args());
+        if (rows.size() <= limit) {
+            return new ExpensePageDto(rows, null);
+        }
+        ExpenseDto last = rows.get(limit - 1);
+        String next = new ExpenseCursor(occurredAt.get(limit - 1), last.id()).encode();
+        return new ExpensePageDto(List.copyOf(rows.subList(0, limit)), next);
+    }
+}
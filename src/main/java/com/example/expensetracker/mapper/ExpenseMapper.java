@@ -0,0 +1,17 @@
+package com.example.expensetracker.mapper;
+
+import com.example.expensetracker.dto.ExpenseRequestDto;
+import com.example.expensetracker.model.Category;
+import com.example.expensetracker.model.Expense;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface ExpenseMapper {
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "user", ignore = true)
+    @Mapping(target = "category", source = "category")
+    @Mapping(target = "description", source = "dto.description")
+    Expense fromRequest(ExpenseRequestDto dto, Category category);
+}
@@ -1,23 +1,76 @@
 package com.example.expensetracker.mapper;
 
+import com.example.expensetracker.dto.RecurrenceDto;
+import com.example.expensetracker.dto.RecurrenceRequestDto;
 import com.example.expensetracker.dto.RecurringTransactionDto;
 import com.example.expensetracker.dto.RecurringTransactionRequestDto;
 import com.example.expensetracker.model.Category;
+import com.example.expensetracker.model.RecurrenceFrequency;
 import com.example.expensetracker.model.RecurringTransaction;
+import com.example.expensetracker.recurring.Recurrence;
+import org.mapstruct.AfterMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+
+import java.time.LocalDate;
+import java.util.Set;
 
 @Mapper(componentModel = "spring")
 public interface RecurringTransactionMapper {
-    
+
     @Mapping(target = "categoryId", source = "category.id")
     @Mapping(target = "categoryName", source = "category.name")
+    @Mapping(target = "recurrence", source = "entity")
     RecurringTransactionDto toDto(RecurringTransaction entity);
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "category", source = "category")
     @Mapping(target = "user", ignore = true)
-    @Mapping(target = "nextExecutionDate", expression = "java(java.time.LocalDate.now())")
+    @Mapping(target = "nextExecutionDate", ignore = true)
     @Mapping(target = "active", constant = "true")
+    @Mapping(target = "frequency", ignore = true)
+    @Mapping(target = "byWeekdays", ignore = true)
+    @Mapping(target = "byMonthDay", ignore = true)
+    @Mapping(target = "untilDate", ignore = true)
+    @Mapping(target = "maxOccurrences", ignore = true)
+    @Mapping(target = "occurrences", ignore = true)
     RecurringTransaction fromRequest(RecurringTransactionRequestDto dto, Category category);
+
+    default RecurrenceDto toRecurrenceDto(RecurringTransaction entity) {
+        return new RecurrenceDto(entity.getFrequency(),
+                entity.getByWeekdays() == null ? Set.of() : Recurrence.weekdays(entity.getByWeekdays()),
+                entity.getByMonthDay(), entity.getUntilDate(), entity.getMaxOccurrences(), entity.getOccurrences());
+    }
+
+    /**
+     * Переносит расписание из запроса и ставит первое исполнение на первую дату сетки, начиная со startDate
+     * или сегодняшнего дня.
+     */
+    @AfterMapping
+    default void applyRecurrence(RecurringTransactionRequestDto dto, @MappingTarget RecurringTransaction entity) {
+        RecurrenceRequestDto recurrence = dto.recurrence();
+        LocalDate start = recurrence == null || recurrence.startDate() == null ? LocalDate.now()
+                : recurrence.startDate();
+        if (recurrence != null) {
+            RecurrenceFrequency frequency = recurrence.frequency();
+            entity.setFrequency(frequency);
+            if (frequency == RecurrenceFrequency.WEEKLY) {
+                entity.setByWeekdays(Recurrence.weekdays(recurrence.weekdays() == null || recurrence.weekdays().isEmpty()
+                        ? Set.of(start.getDayOfWeek()) : recurrence.weekdays()));
+            } else if (frequency == RecurrenceFrequency.MONTHLY) {
+                entity.setByMonthDay(recurrence.monthDay() == null ? start.getDayOfMonth() : recurrence.monthDay());
+            } else if (frequency == RecurrenceFrequency.YEARLY) {
+                entity.setByMonthDay(start.getDayOfMonth());
+            }
+            entity.setUntilDate(recurrence.until());
+            entity.setMaxOccurrences(recurrence.count());
+        }
+        entity.setNextExecutionDate(start);
+        LocalDate first = Recurrence.of(entity).after(start.minusDays(1));
+        if (first == null) {
+            throw new IllegalArgumentException("Recurrence has no occurrences");
+        }
+        entity.setNextExecutionDate(first);
+    }
 }
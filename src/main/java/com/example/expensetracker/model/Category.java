@@ -1,11 +1,13 @@
 package com.example.expensetracker.model;
 
+import com.example.expensetracker.report.CategoryChangeListener;
 import jakarta.persistence.*;
 
 import java.util.Objects;
 
 @Entity
 @Table(name = "categories")
+@EntityListeners(CategoryChangeListener.class)
 public class Category {
     
     @Id
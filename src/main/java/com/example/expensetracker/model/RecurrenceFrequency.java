@@ -0,0 +1,11 @@
+package com.example.expensetracker.model;
+
+/**
+ * Единица шага расписания повторяющегося расхода; сам шаг — intervalDays правила.
+ */
+public enum RecurrenceFrequency {
+    DAILY,
+    WEEKLY,
+    MONTHLY,
+    YEARLY
+}
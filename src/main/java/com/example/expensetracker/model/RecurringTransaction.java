@@ -37,6 +37,21 @@ public class RecurringTransaction {
     @Column(nullable = false)
     private boolean active = true;
 
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private RecurrenceFrequency frequency = RecurrenceFrequency.DAILY;
+
+    private Integer byWeekdays;
+
+    private Integer byMonthDay;
+
+    private LocalDate untilDate;
+
+    private Integer maxOccurrences;
+
+    @Column(nullable = false)
+    private int occurrences;
+
     public RecurringTransaction() {}
 
     public RecurringTransaction(BigDecimal amount, String description, Category category, User user, int intervalDays,
@@ -113,6 +128,54 @@ public class RecurringTransaction {
         this.active = active;
     }
 
+    public RecurrenceFrequency getFrequency() {
+        return frequency;
+    }
+
+    public void setFrequency(RecurrenceFrequency frequency) {
+        this.frequency = frequency;
+    }
+
+    public Integer getByWeekdays() {
+        return byWeekdays;
+    }
+
+    public void setByWeekdays(Integer byWeekdays) {
+        this.byWeekdays = byWeekdays;
+    }
+
+    public Integer getByMonthDay() {
+        return byMonthDay;
+    }
+
+    public void setByMonthDay(Integer byMonthDay) {
+        this.byMonthDay = byMonthDay;
+    }
+
+    public LocalDate getUntilDate() {
+        return untilDate;
+    }
+
+    public void setUntilDate(LocalDate untilDate) {
+        this.untilDate = untilDate;
+    }
+
+    public Integer getMaxOccurrences() {
+        return maxOccurrences;
+    }
+
+    public void setMaxOccurrences(Integer maxOccurrences) {
+        this.maxOccurrences = maxOccurrences;
+    }
+
+    public int getOccurrences() {
+        return occurrences;
+    }
+
+    public void setOccurrences(int occurrences) {
+        this.occurrences = occurrences;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -38,7 +38,11 @@ public class User {
     @Column(name = "deleted", nullable = false)
     private boolean deleted = false;
 
-    @Column(name = "total_expenses", nullable = false, precision = 19, scale = 2)
+    /**
+     * Меняется только относительным UPDATE из TotalExpensesFlusher; save() не перезаписывает его значением,
+     * загруженным вместе с сущностью.
+     */
+    @Column(name = "total_expenses", nullable = false, updatable = false, precision = 19, scale = 2)
     private BigDecimal totalExpenses = BigDecimal.ZERO;
 
     public User() {}
@@ -107,16 +111,6 @@ public class User {
         this.totalExpenses = totalExpenses;
     }
 
-    public void increaseTotalExpenses(BigDecimal amount) {
-        if (amount.signum() < 0) throw new IllegalArgumentException("Cannot be less than zero");
-        this.totalExpenses = this.totalExpenses.add(amount);
-    }
-
-    public void decreaseTotalExpenses(BigDecimal amount) {
-        if (amount.signum() < 0) throw new IllegalArgumentException("Cannot be less than zero");
-        this.totalExpenses = this.totalExpenses.subtract(amount);
-    }
-
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,76 @@
+package com.example.expensetracker.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Денежная сумма в копейках на long. Внутренний тип для агрегатов, кэшей и счётчиков в памяти:
+ * сложение — одна инструкция без выделения памяти, в отличие от BigDecimal. В BigDecimal сумма переводится
+ * только на границе — в DTO ответа и в параметрах SQL.
+ * <p>
+ * Арифметика проверяет переполнение и бросает ArithmeticException, а не молча переходит через ноль.
+ * Суммы с более чем двумя знаками после запятой округляются HALF_UP — как numeric(19, 2) в БД.
+ */
+public record Money(long cents) implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+
+    public static final Money ZERO = new Money(0);
+
+    public static Money of(BigDecimal amount) {
+        return new Money(toCents(amount));
+    }
+
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    public Money plus(Money other) {
+        return ofCents(add(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    public Money negate() {
+        return ofCents(Math.negateExact(cents));
+    }
+
+    public int signum() {
+        return Long.signum(cents);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return fromCents(cents);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+
+    /**
+     * Сумма копеек с проверкой переполнения.
+     */
+    public static long add(long cents, long other) {
+        return Math.addExact(cents, other);
+    }
+
+    /**
+     * Копейки суммы с округлением HALF_UP. movePointRight вместо unscaledValue: для суммы, уже имеющей
+     * масштаб 2, не создаётся BigInteger, а longValueExact читает компактное значение напрямую.
+     */
+    public static long toCents(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).movePointRight(SCALE).longValueExact();
+    }
+
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+}
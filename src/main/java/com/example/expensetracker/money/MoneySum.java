@@ -0,0 +1,43 @@
+package com.example.expensetracker.money;
+
+import java.math.BigDecimal;
+
+/**
+ * Изменяемая сумма в копейках и число слагаемых: ячейка для накопления в картах без упаковки
+ * и без нового объекта на каждое сложение. Не потокобезопасна — владелец синхронизирует доступ сам.
+ */
+public final class MoneySum {
+
+    private long cents;
+    private long count;
+
+    public MoneySum() {
+    }
+
+    public MoneySum(long cents, long count) {
+        this.cents = cents;
+        this.count = count;
+    }
+
+    public MoneySum add(long cents, long count) {
+        this.cents = Money.add(this.cents, cents);
+        this.count = Math.addExact(this.count, count);
+        return this;
+    }
+
+    public MoneySum add(MoneySum other) {
+        return add(other.cents, other.count);
+    }
+
+    public long cents() {
+        return cents;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public BigDecimal amount() {
+        return Money.fromCents(cents);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.expensetracker.partition;
+
+import com.example.expensetracker.config.ExpensePartitionProperties;
+import com.example.expensetracker.money.Money;
+import com.example.expensetracker.money.MoneySum;
+import com.example.expensetracker.rollup.DailyRollupDeltas;
+import com.example.expensetracker.sketch.ExpenseSketchAccumulator;
+import com.example.expensetracker.totals.TotalExpensesAccumulator;
+import com.example.expensetracker.write.ExpenseWriteEvents;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Заранее создаёт месячные секции expenses на months-ahead месяцев вперёд, чтобы новые расходы не падали
+ * в секцию по умолчанию. При retention-months &gt; 0 отсоединяет секции старше этого срока: данные
+ * сохраняются в архивной таблице, живые секции не затрагиваются. В той же транзакции расходы архива
+ * вычитаются из дневных агрегатов и total_expenses, а скетчи их пользователей пересобираются.
+ * <p>
+ * Месяц определяется в зоне JVM — в ней же Hibernate пишет occurred_at.
+ */
+@Component
+public class ExpensePartitionMaintenance {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpensePartitionMaintenance.class);
+
+    private final ExpensePartitionRepository repository;
+    private final ExpensePartitionProperties props;
+    private final TransactionTemplate transactionTemplate;
+    private final ExpenseWriteEvents writeEvents;
+    private final TotalExpensesAccumulator totalExpensesAccumulator;
+    private final ExpenseSketchAccumulator sketchAccumulator;
+
+    public ExpensePartitionMaintenance(ExpensePartitionRepository repository, ExpensePartitionProperties props,
+                                       TransactionTemplate transactionTemplate, ExpenseWriteEvents writeEvents,
+                                       TotalExpensesAccumulator totalExpensesAccumulator,
+                                       ExpenseSketchAccumulator sketchAccumulator) {
+        this.repository = repository;
+        this.props = props;
+        this.transactionTemplate = transactionTemplate;
+        this.writeEvents = writeEvents;
+        this.totalExpensesAccumulator = totalExpensesAccumulator;
+        this.sketchAccumulator = sketchAccumulator;
+    }
+
+    /**
+     * Ошибка обслуживания при старте не мешает экземпляру запуститься: секции досоздаст следующий проход
+     * по расписанию, а до тех пор расходы попадают в секцию по умолчанию.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            maintain();
+        } catch (RuntimeException e) {
+            log.warn("Не удалось обслужить секции expenses при старте, повтор по расписанию: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${spring.scheduler.partitions-cron}", zone = "${spring.scheduler.zone}")
+    public void maintain() {
+        maintain(YearMonth.now(ZoneId.systemDefault()));
+    }
+
+    public void maintain(YearMonth current) {
+        for (int i = 0; i <= props.monthsAhead(); i++) {
+            YearMonth month = current.plusMonths(i);
+            if (repository.ensurePartition(month)) {
+                log.info("Создана секция {}", ExpensePartitionRepository.partitionName(month));
+            }
+        }
+        if (props.retentionMonths() <= 0) {
+            return;
+        }
+        YearMonth oldestKept = current.minusMonths(props.retentionMonths());
+        for (YearMonth month : repository.findAttachedMonths()) {
+            if (month.isBefore(oldestKept) && detach(month)) {
+                log.info("Секция {} отсоединена в архив", ExpensePartitionRepository.partitionName(month));
+            }
+        }
+    }
+
+    private boolean detach(YearMonth month) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            if (!repository.detachPartition(month)) {
+                return false;
+            }
+            DailyRollupDeltas deltas = repository.archivedDeltas(month);
+            if (deltas.isEmpty()) {
+                return true;
+            }
+            Map<Long, MoneySum> totals = new HashMap<>();
+            deltas.asMap().forEach((key, sum) -> totals.computeIfAbsent(key.userId(), id -> new MoneySum()).add(sum));
+            writeEvents.apply(deltas);
+            totals.forEach((userId, sum) -> totalExpensesAccumulator.add(userId, Money.ofCents(sum.cents())));
+            sketchAccumulator.markStale(totals.keySet());
+            return true;
+        }));
+    }
+}
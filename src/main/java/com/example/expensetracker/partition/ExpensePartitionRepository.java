@@ -0,0 +1,97 @@
+package com.example.expensetracker.partition;
+
+import com.example.expensetracker.money.Money;
+import com.example.expensetracker.rollup.DailyRollupDeltas;
+import com.example.expensetracker.rollup.DailyRollupKey;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Управление месячными секциями expenses через функции ensure_expenses_partition
+ * и detach_expenses_partition из changelog 008.
+ */
+@Repository
+public class ExpensePartitionRepository {
+
+    static final String PARTITION_PREFIX = "expenses_p";
+    static final String ARCHIVE_PREFIX = "expenses_archive_";
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ExpensePartitionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return true, если секция была создана; false, если уже существовала
+     */
+    public boolean ensurePartition(YearMonth month) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT ensure_expenses_partition(?)",
+                Boolean.class, month.atDay(1)));
+    }
+
+    /**
+     * Отсоединяет секцию месяца; данные остаются в таблице expenses_archive_YYYY_MM.
+     *
+     * @return true, если секция была отсоединена
+     */
+    public boolean detachPartition(YearMonth month) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT detach_expenses_partition(?)",
+                Boolean.class, month.atDay(1)));
+    }
+
+    /**
+     * Расходы архива месяца по (пользователь, день, категория) со знаком минус — дельты, убирающие
+     * отсоединённую секцию из производных данных. Вызывать в транзакции отсоединения.
+     */
+    public DailyRollupDeltas archivedDeltas(YearMonth month) {
+        DailyRollupDeltas deltas = new DailyRollupDeltas();
+        jdbcTemplate.query("""
+                SELECT user_id, CAST(occurred_at AS date) AS day, category_id,
+                       SUM(amount) AS amount, COUNT(*) AS expenses
+                FROM %s
+                GROUP BY user_id, CAST(occurred_at AS date), category_id
+                """.formatted(archiveName(month)), (RowCallbackHandler) rs -> deltas.add(
+                new DailyRollupKey(rs.getLong("user_id"), rs.getObject("day", LocalDate.class),
+                        rs.getObject("category_id", Long.class)),
+                Math.negateExact(Money.toCents(rs.getBigDecimal("amount"))), -rs.getLong("expenses")));
+        return deltas;
+    }
+
+    /**
+     * Месяцы, для которых к expenses присоединены секции (без секции по умолчанию).
+     */
+    public List<YearMonth> findAttachedMonths() {
+        return jdbcTemplate.queryForList("""
+                        SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+                        WHERE i.inhparent = 'expenses'::regclass ORDER BY c.relname
+                        """, String.class).stream()
+                .map(ExpensePartitionRepository::parseMonth)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(SUFFIX);
+    }
+
+    static String archiveName(YearMonth month) {
+        return ARCHIVE_PREFIX + month.format(SUFFIX);
+    }
+
+    private static YearMonth parseMonth(String name) {
+        if (!name.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        return YearMonth.parse(name.substring(PARTITION_PREFIX.length()), SUFFIX);
+    }
+}
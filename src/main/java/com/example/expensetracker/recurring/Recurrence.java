@@ -0,0 +1,230 @@
+package com.example.expensetracker.recurring;
+
+import com.example.expensetracker.model.RecurrenceFrequency;
+import com.example.expensetracker.model.RecurringTransaction;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Расписание правила повторяющегося расхода — подмножество RRULE: шаг interval в днях, неделях, месяцах
+ * или годах, дни недели для WEEKLY, день месяца для MONTHLY и YEARLY (-1 — последний), UNTIL и COUNT.
+ * День, которого в месяце нет (31-е в апреле, 29 февраля), переносится на последний день месяца.
+ * <p>
+ * Сетка дат отсчитывается от start — next_execution_date правила. На каждый период (interval единиц)
+ * приходится один и тот же набор дат, поэтому число дат сетки по день включительно и дата с заданным
+ * номером считаются арифметикой за O(1). Из них без перебора дней получаются число исполнений
+ * в диапазоне ({@link #count}), следующее исполнение ({@link #after}) и сами k дат за O(k)
+ * ({@link #between}).
+ *
+ * @param weekdays  маска дней недели для WEEKLY, понедельник — бит 0
+ * @param monthDay  день месяца для MONTHLY и YEARLY, -1 — последний; месяц YEARLY — месяц start
+ * @param until     последний допустимый день, null — без ограничения
+ * @param remaining сколько исполнений осталось до max_occurrences, считая start; Long.MAX_VALUE — без ограничения
+ */
+public record Recurrence(RecurrenceFrequency frequency, int interval, int weekdays, int monthDay, LocalDate start,
+                         LocalDate until, long remaining) {
+
+    public static final int LAST_DAY = -1;
+
+    private static final int ALL_WEEKDAYS = 0b111_1111;
+
+    public Recurrence {
+        if (frequency == RecurrenceFrequency.WEEKLY && (weekdays & ALL_WEEKDAYS) == 0) {
+            weekdays = bit(start.getDayOfWeek());
+        }
+        weekdays &= ALL_WEEKDAYS;
+        if (monthDay == 0) {
+            monthDay = start.getDayOfMonth();
+        }
+        remaining = Math.max(0, remaining);
+    }
+
+    public static Recurrence of(RecurringTransaction rule) {
+        return new Recurrence(rule.getFrequency(), rule.getIntervalDays(),
+                rule.getByWeekdays() == null ? 0 : rule.getByWeekdays(),
+                rule.getByMonthDay() == null ? 0 : rule.getByMonthDay(),
+                rule.getNextExecutionDate(), rule.getUntilDate(),
+                remaining(rule.getMaxOccurrences(), rule.getOccurrences()));
+    }
+
+    public static long remaining(Integer maxOccurrences, int occurrences) {
+        return maxOccurrences == null ? Long.MAX_VALUE : (long) maxOccurrences - occurrences;
+    }
+
+    public static int weekdays(Collection<DayOfWeek> days) {
+        int mask = 0;
+        for (DayOfWeek day : days) {
+            mask |= bit(day);
+        }
+        return mask;
+    }
+
+    public static Set<DayOfWeek> weekdays(int mask) {
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if ((mask & bit(day)) != 0) {
+                days.add(day);
+            }
+        }
+        return days;
+    }
+
+    /**
+     * Число исполнений в днях [from, to] с учётом until и remaining.
+     */
+    public long count(LocalDate from, LocalDate to) {
+        return Math.max(0, countThrough(to) - countThrough(from.minusDays(1)));
+    }
+
+    /**
+     * Число исполнений с start по day включительно с учётом until и remaining.
+     */
+    public long countThrough(LocalDate day) {
+        return Math.min(countUntil(until != null && until.isBefore(day) ? until : day), remaining);
+    }
+
+    /**
+     * Даты исполнений в днях [from, to] с учётом until и remaining, по возрастанию.
+     */
+    public List<LocalDate> between(LocalDate from, LocalDate to) {
+        long first = countThrough(from.minusDays(1));
+        long last = Math.max(first, countThrough(to));
+        List<LocalDate> dates = new ArrayList<>(Math.toIntExact(last - first));
+        for (long index = first; index < last; index++) {
+            dates.add(nth(index));
+        }
+        return dates;
+    }
+
+    /**
+     * Первое исполнение позже day; null — расписание исчерпано.
+     */
+    public LocalDate after(LocalDate day) {
+        long index = countUntil(day);
+        if (index >= remaining) {
+            return null;
+        }
+        LocalDate next = nth(index);
+        return until != null && next.isAfter(until) ? null : next;
+    }
+
+    /**
+     * Расписание после того, как обычный проход исполнил правило в today, пропустив прочие просроченные даты:
+     * DAILY сдвигается на today + interval, как было до появления расписаний, остальные частоты переходят
+     * на первую дату своей сетки после today. null — исполнение в today было последним.
+     */
+    public Recurrence resumedAfter(LocalDate today) {
+        if (remaining <= 1) {
+            return null;
+        }
+        LocalDate next = frequency == RecurrenceFrequency.DAILY ? today.plusDays(interval) : nth(countUntil(today));
+        if (until != null && next.isAfter(until)) {
+            return null;
+        }
+        return new Recurrence(frequency, interval, weekdays, monthDay, next, until,
+                remaining == Long.MAX_VALUE ? remaining : remaining - 1);
+    }
+
+    /**
+     * Число дат сетки в днях [start, day].
+     */
+    private long countUntil(LocalDate day) {
+        long days = day.toEpochDay() - start.toEpochDay();
+        if (days < 0) {
+            return 0;
+        }
+        return switch (frequency) {
+            case DAILY -> days / interval + 1;
+            case WEEKLY -> {
+                long weeks = (days + ordinal(start.getDayOfWeek())) / 7;
+                int passed = weeks % interval == 0
+                        ? Integer.bitCount(weekdays & ((2 << ordinal(day.getDayOfWeek())) - 1))
+                        : Integer.bitCount(weekdays);
+                yield weeks / interval * Integer.bitCount(weekdays) + passed - skippedWeekdays();
+            }
+            case MONTHLY -> periods(12L * (day.getYear() - start.getYear()) + day.getMonthValue()
+                            - start.getMonthValue(), day.getDayOfMonth() >= dayOfMonth(day.lengthOfMonth()))
+                    - skippedPeriods();
+            case YEARLY -> {
+                int month = start.getMonthValue();
+                boolean passed = day.getMonthValue() > month || day.getMonthValue() == month
+                        && day.getDayOfMonth() >= dayOfMonth(start.getMonth().length(day.isLeapYear()));
+                yield periods(day.getYear() - start.getYear(), passed) - skippedPeriods();
+            }
+        };
+    }
+
+    /**
+     * Дата сетки с номером index, считая от нуля.
+     */
+    private LocalDate nth(long index) {
+        return switch (frequency) {
+            case DAILY -> start.plusDays(index * interval);
+            case WEEKLY -> {
+                long position = index + skippedWeekdays();
+                int perWeek = Integer.bitCount(weekdays);
+                int mask = weekdays;
+                for (long rank = position % perWeek; rank > 0; rank--) {
+                    mask &= mask - 1;
+                }
+                yield weekStart().plusWeeks(position / perWeek * interval)
+                        .plusDays(Integer.numberOfTrailingZeros(mask));
+            }
+            case MONTHLY -> monthly(YearMonth.from(start).plusMonths((index + skippedPeriods()) * interval));
+            case YEARLY -> yearly(Math.toIntExact(start.getYear() + (index + skippedPeriods()) * interval));
+        };
+    }
+
+    /**
+     * Дат сетки по единицу units (считая от start) включительно, если дата единицы units уже наступила — passed.
+     */
+    private long periods(long units, boolean passed) {
+        return units / interval + (units % interval != 0 || passed ? 1 : 0);
+    }
+
+    /**
+     * Даты первой недели сетки, которые раньше start.
+     */
+    private int skippedWeekdays() {
+        return Integer.bitCount(weekdays & ((1 << ordinal(start.getDayOfWeek())) - 1));
+    }
+
+    /**
+     * 1, если дата первого месяца (года) сетки раньше start.
+     */
+    private int skippedPeriods() {
+        return dayOfMonth(start.lengthOfMonth()) < start.getDayOfMonth() ? 1 : 0;
+    }
+
+    private LocalDate weekStart() {
+        return start.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private LocalDate monthly(YearMonth month) {
+        return month.atDay(dayOfMonth(month.lengthOfMonth()));
+    }
+
+    private int dayOfMonth(int lengthOfMonth) {
+        return monthDay == LAST_DAY ? lengthOfMonth : Math.min(monthDay, lengthOfMonth);
+    }
+
+    private LocalDate yearly(int year) {
+        return monthly(YearMonth.of(year, start.getMonth()));
+    }
+
+    private static int ordinal(DayOfWeek day) {
+        return day.getValue() - 1;
+    }
+
+    private static int bit(DayOfWeek day) {
+        return 1 << ordinal(day);
+    }
+}
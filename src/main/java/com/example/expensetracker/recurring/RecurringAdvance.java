@@ -0,0 +1,11 @@
+package com.example.expensetracker.recurring;
+
+import java.time.LocalDate;
+
+/**
+ * Новая дата исполнения правила и число созданных по нему расходов.
+ *
+ * @param nextExecutionDate null — расписание исчерпано, правило выключается
+ */
+public record RecurringAdvance(long id, LocalDate nextExecutionDate, int created) {
+}
@@ -0,0 +1,13 @@
+package com.example.expensetracker.recurring;
+
+import com.example.expensetracker.rollup.DailyRollupDeltas;
+import com.example.expensetracker.sketch.SketchSamples;
+
+/**
+ * Расходы, вставленные догоняющим проходом одним запросом.
+ *
+ * @param deltas  дельты дневных агрегатов
+ * @param samples суммы для скетчей распределения
+ */
+public record RecurringCatchUpInserted(DailyRollupDeltas deltas, SketchSamples samples) {
+}
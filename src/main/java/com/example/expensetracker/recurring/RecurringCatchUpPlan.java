@@ -0,0 +1,10 @@
+package com.example.expensetracker.recurring;
+
+/**
+ * Объём догоняющего прохода на дату.
+ *
+ * @param rules    активные правила, срок которых наступил
+ * @param expenses расходы, которые будут созданы по всем пропущенным датам этих правил
+ */
+public record RecurringCatchUpPlan(long rules, long expenses) {
+}
@@ -0,0 +1,129 @@
+package com.example.expensetracker.recurring;
+
+import com.example.expensetracker.forecast.RecurringForecastCache;
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.RecurringTransaction;
+import com.example.expensetracker.money.Money;
+import com.example.expensetracker.money.MoneySum;
+import com.example.expensetracker.repository.ExpenseRepository;
+import com.example.expensetracker.rollup.DailyRollupDeltas;
+import com.example.expensetracker.sketch.ExpenseSketchAccumulator;
+import com.example.expensetracker.sketch.SketchSamples;
+import com.example.expensetracker.totals.TotalExpensesAccumulator;
+import com.example.expensetracker.write.ExpenseWriteEvents;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Исполняет чанк правил повторяющихся расходов одной транзакцией; {@link #catchUp} вдобавок создаёт расходы
+ * на все пропущенные даты одним INSERT ... SELECT.
+ */
+@Component
+public class RecurringChunkWriter {
+
+    private final RecurringScheduleRepository scheduleRepository;
+    private final ExpenseRepository expenseRepository;
+    private final TotalExpensesAccumulator totalExpensesAccumulator;
+    private final ExpenseWriteEvents writeEvents;
+    private final ExpenseSketchAccumulator sketchAccumulator;
+    private final RecurringForecastCache forecastCache;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    public RecurringChunkWriter(RecurringScheduleRepository scheduleRepository, ExpenseRepository expenseRepository,
+                                TotalExpensesAccumulator totalExpensesAccumulator, ExpenseWriteEvents writeEvents,
+                                ExpenseSketchAccumulator sketchAccumulator, RecurringForecastCache forecastCache) {
+        this.scheduleRepository = scheduleRepository;
+        this.expenseRepository = expenseRepository;
+        this.totalExpensesAccumulator = totalExpensesAccumulator;
+        this.writeEvents = writeEvents;
+        this.sketchAccumulator = sketchAccumulator;
+        this.forecastCache = forecastCache;
+    }
+
+    /**
+     * Просроченное правило с until раньше today исполняется последней допустимой датой, а не today.
+     * Расход получает полночь этого дня в зоне, в которой хранится и агрегируется occurred_at.
+     *
+     * @param chunk правила с уже загруженными пользователем и категорией
+     * @return число созданных расходов
+     */
+    @Transactional
+    public int write(List<RecurringTransaction> chunk, LocalDate today) {
+        List<RecurringAdvance> advances = new ArrayList<>(chunk.size());
+        Map<Long, Instant> occurredAt = new HashMap<>();
+        for (RecurringTransaction recurring : chunk) {
+            Recurrence recurrence = Recurrence.of(recurring);
+            Recurrence next = recurrence.resumedAfter(today);
+            advances.add(new RecurringAdvance(recurring.getId(), next == null ? null : next.start(), 1));
+            LocalDate until = recurrence.until();
+            LocalDate day = until != null && until.isBefore(today) ? until : today;
+            occurredAt.put(recurring.getId(), day.atStartOfDay(zone).toInstant());
+        }
+        Set<Long> advanced = new HashSet<>(scheduleRepository.advance(advances, today));
+        List<Expense> expenses = new ArrayList<>(advanced.size());
+        Map<Long, MoneySum> deltas = new HashMap<>();
+        for (RecurringTransaction recurring : chunk) {
+            if (!advanced.contains(recurring.getId())) {
+                continue;
+            }
+            expenses.add(new Expense(null, recurring.getUser(), recurring.getAmount(),
+                    occurredAt.get(recurring.getId()), recurring.getCategory(), recurring.getDescription()));
+            deltas.computeIfAbsent(recurring.getUser().getId(), id -> new MoneySum())
+                    .add(Money.toCents(recurring.getAmount()), 1);
+        }
+        if (expenses.isEmpty()) {
+            return 0;
+        }
+        expenseRepository.saveAll(expenses);
+        writeEvents.added(expenses);
+        deltas.forEach((userId, sum) -> totalExpensesAccumulator.add(userId, Money.ofCents(sum.cents())));
+        forecastCache.invalidate(deltas.keySet());
+        return expenses.size();
+    }
+
+    /**
+     * @param ids захваченные правила
+     * @return число созданных расходов
+     */
+    @Transactional
+    public int catchUp(List<Long> ids, LocalDate today) {
+        List<Long> ruleIds = new ArrayList<>();
+        List<LocalDate> days = new ArrayList<>();
+        List<RecurringAdvance> advances = new ArrayList<>(ids.size());
+        scheduleRepository.recurrences(ids, today).forEach((id, recurrence) -> {
+            List<LocalDate> missed = recurrence.between(recurrence.start(), today);
+            missed.forEach(day -> {
+                ruleIds.add(id);
+                days.add(day);
+            });
+            advances.add(new RecurringAdvance(id, recurrence.after(today), missed.size()));
+        });
+        RecurringCatchUpInserted inserted = ruleIds.isEmpty()
+                ? new RecurringCatchUpInserted(new DailyRollupDeltas(), new SketchSamples())
+                : scheduleRepository.catchUp(ruleIds, days);
+        if (!advances.isEmpty()) {
+            scheduleRepository.advance(advances, today);
+        }
+        DailyRollupDeltas deltas = inserted.deltas();
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        Map<Long, MoneySum> totals = new HashMap<>();
+        deltas.asMap().forEach((key, sum) -> totals.computeIfAbsent(key.userId(), id -> new MoneySum()).add(sum));
+        writeEvents.apply(deltas);
+        sketchAccumulator.record(inserted.samples());
+        totals.forEach((userId, sum) -> totalExpensesAccumulator.add(userId, Money.ofCents(sum.cents())));
+        forecastCache.invalidate(totals.keySet());
+        return Math.toIntExact(totals.values().stream().mapToLong(MoneySum::count).sum());
+    }
+}
@@ -0,0 +1,276 @@
+package com.example.expensetracker.recurring;
+
+import com.example.expensetracker.config.ExpenseRecurringProperties;
+import com.example.expensetracker.tx.AfterCommit;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Исполняет правила повторяющихся расходов в момент наступления срока по очереди сроков в памяти,
+ * а не ежедневным проходом по таблице; включается app.expenses.recurring.timer-enabled.
+ */
+@Component
+public class RecurringDueTimer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(RecurringDueTimer.class);
+
+    private static final long MAX_SPREAD_MILLIS = Duration.ofDays(1).toMillis() - 1;
+
+    private final RecurringScheduleRepository scheduleRepository;
+    private final RecurringTransactionProcessor processor;
+    private final ExpenseRecurringProperties props;
+    private final Clock clock;
+    private final long spreadMillis;
+    private final PriorityQueue<Due> queue = new PriorityQueue<>(Comparator.comparingLong(Due::dueAt));
+    private final Map<Long, Due> scheduled = new HashMap<>();
+    private final Set<Long> firing = new HashSet<>();
+    private final AtomicInteger threads = new AtomicInteger();
+    private volatile boolean running;
+    private ScheduledExecutorService timer;
+    private ExecutorService workers;
+
+    public RecurringDueTimer(RecurringScheduleRepository scheduleRepository, RecurringTransactionProcessor processor,
+                             ExpenseRecurringProperties props, Clock clock,
+                             MeterRegistry registry) {
+        this.scheduleRepository = scheduleRepository;
+        this.processor = processor;
+        this.props = props;
+        this.clock = clock;
+        this.spreadMillis = Math.min(MAX_SPREAD_MILLIS, props.timerSpread().toMillis());
+        Gauge.builder("expenses.recurring.timer.scheduled", this, RecurringDueTimer::size)
+                .description("Правила в очереди таймера повторяющихся расходов")
+                .register(registry);
+    }
+
+    /**
+     * Ставит правило в очередь на nextExecutionDate после коммита текущей транзакции, заменяя прежний срок.
+     */
+    public void scheduled(Long id, LocalDate nextExecutionDate) {
+        afterCommit(() -> schedule(id, dueAt(id, nextExecutionDate)));
+    }
+
+    /**
+     * Убирает правило из очереди после коммита текущей транзакции.
+     */
+    public void cancelled(Long id) {
+        afterCommit(() -> cancel(id));
+    }
+
+    public synchronized int size() {
+        return scheduled.size();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        timer = Executors.newSingleThreadScheduledExecutor(task -> new Thread(task, "recurring-timer"));
+        workers = Executors.newFixedThreadPool(Math.max(1, props.workers()),
+                task -> new Thread(task, "recurring-timer-worker-" + threads.incrementAndGet()));
+        timer.execute(this::load);
+        long tick = Math.max(1, props.timerTick().toMillis());
+        timer.scheduleWithFixedDelay(this::tick, tick, tick, TimeUnit.MILLISECONDS);
+        long sweep = Math.max(tick, props.timerSweepInterval().toMillis());
+        timer.scheduleWithFixedDelay(this::sweep, sweep, sweep, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        timer.shutdownNow();
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(props.leaseTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            queue.clear();
+            scheduled.clear();
+            firing.clear();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return props.timerEnabled();
+    }
+
+    private void load() {
+        int pageSize = Math.max(1, props.chunkSize());
+        long afterId = 0;
+        int loaded = 0;
+        try {
+            List<RecurringSchedule> page;
+            do {
+                page = scheduleRepository.activeAfter(afterId, pageSize);
+                for (RecurringSchedule schedule : page) {
+                    scheduleIfAbsent(schedule.id(), dueAt(schedule.id(), schedule.nextExecutionDate()));
+                    afterId = schedule.id();
+                }
+                loaded += page.size();
+            } while (page.size() == pageSize && running);
+            log.info("Таймер повторяющихся расходов: загружено правил {}", loaded);
+        } catch (RuntimeException e) {
+            log.error("Не удалось загрузить расписание повторяющихся правил после id {}: {}", afterId,
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * Ставит в очередь активные правила со сроком не позже завтрашнего дня, которых в ней нет и которые
+     * сейчас не исполняются: созданные или включённые на других узлах.
+     */
+    private void sweep() {
+        LocalDate through = LocalDate.now(clock).plusDays(1);
+        int pageSize = Math.max(1, props.chunkSize());
+        LocalDate afterDate = LocalDate.EPOCH;
+        long afterId = 0;
+        int added = 0;
+        try {
+            List<RecurringSchedule> page;
+            do {
+                page = scheduleRepository.dueAfter(through, afterDate, afterId, pageSize);
+                for (RecurringSchedule schedule : page) {
+                    if (scheduleIfIdle(schedule.id(), dueAt(schedule.id(), schedule.nextExecutionDate()))) {
+                        added++;
+                    }
+                    afterDate = schedule.nextExecutionDate();
+                    afterId = schedule.id();
+                }
+            } while (page.size() == pageSize && running);
+            if (added > 0) {
+                log.info("Таймер повторяющихся расходов: досчёт добавил правил {}", added);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Досчёт расписания повторяющихся правил не выполнен, повтор через {}: {}",
+                    props.timerSweepInterval(), e.getMessage());
+        }
+    }
+
+    private void tick() {
+        long now = clock.millis();
+        int batchSize = Math.max(1, props.chunkSize());
+        List<Long> batch;
+        while (!(batch = takeDue(now, batchSize)).isEmpty()) {
+            List<Long> ids = batch;
+            workers.execute(() -> fire(ids));
+        }
+    }
+
+    private void fire(List<Long> ids) {
+        LocalDate today = LocalDate.now(clock);
+        try {
+            processor.processRules(ids, today);
+        } catch (RuntimeException e) {
+            log.warn("Пачка из {} повторяющихся правил не исполнена, повтор через {}: {}", ids.size(),
+                    props.leaseTimeout(), e.getMessage());
+        }
+        try {
+            long retryAt = clock.millis() + props.leaseTimeout().toMillis();
+            for (RecurringSchedule schedule : scheduleRepository.schedules(ids)) {
+                LocalDate next = schedule.nextExecutionDate();
+                scheduleIfAbsent(schedule.id(), next.isAfter(today) ? dueAt(schedule.id(), next) : retryAt);
+            }
+        } catch (RuntimeException e) {
+            log.error("Не удалось перечитать расписание {} повторяющихся правил, их подхватит досчёт: {}",
+                    ids.size(), e.getMessage());
+        } finally {
+            fired(ids);
+        }
+    }
+
+    private long dueAt(long id, LocalDate date) {
+        long offset = spreadMillis == 0 ? 0 : Math.floorMod(id * 0x9E3779B97F4A7C15L, spreadMillis);
+        return date.atStartOfDay(clock.getZone()).toInstant().toEpochMilli() + offset;
+    }
+
+    private synchronized void schedule(Long id, long dueAt) {
+        Due due = new Due(id, dueAt);
+        scheduled.put(id, due);
+        queue.add(due);
+    }
+
+    /**
+     * Ставит срок, если правило не поставлено заново, пока читалось его расписание.
+     */
+    private synchronized void scheduleIfAbsent(Long id, long dueAt) {
+        if (!scheduled.containsKey(id)) {
+            schedule(id, dueAt);
+        }
+    }
+
+    /**
+     * Ставит срок, если правила нет в очереди и оно не исполняется прямо сейчас.
+     */
+    private synchronized boolean scheduleIfIdle(Long id, long dueAt) {
+        if (scheduled.containsKey(id) || firing.contains(id)) {
+            return false;
+        }
+        schedule(id, dueAt);
+        return true;
+    }
+
+    private synchronized void fired(List<Long> ids) {
+        ids.forEach(firing::remove);
+    }
+
+    private synchronized void cancel(Long id) {
+        scheduled.remove(id);
+    }
+
+    /**
+     * Снимает с очереди до limit наступивших правил. Записи, заменённые новым сроком или отменённые,
+     * лежат в очереди до своего срока и здесь отбрасываются.
+     */
+    private synchronized List<Long> takeDue(long now, int limit) {
+        List<Long> due = new ArrayList<>();
+        while (due.size() < limit && !queue.isEmpty() && queue.peek().dueAt() <= now) {
+            Due head = queue.poll();
+            if (scheduled.get(head.id()) == head) {
+                scheduled.remove(head.id());
+                firing.add(head.id());
+                due.add(head.id());
+            }
+        }
+        return due;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!running) {
+            return;
+        }
+        AfterCommit.run(action);
+    }
+
+    private record Due(Long id, long dueAt) {
+    }
+}
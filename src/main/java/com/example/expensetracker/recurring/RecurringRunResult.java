@@ -0,0 +1,11 @@
+package com.example.expensetracker.recurring;
+
+/**
+ * Итог одного прохода по правилам повторяющихся расходов.
+ *
+ * @param created созданные расходы
+ * @param failed  правила из чанков, транзакция которых откатилась; они останутся к исполнению
+ * @param chunks  прочитанные чанки
+ */
+public record RecurringRunResult(int created, int failed, int chunks) {
+}
@@ -0,0 +1,9 @@
+package com.example.expensetracker.recurring;
+
+import java.time.LocalDate;
+
+/**
+ * Дата следующего исполнения активного правила.
+ */
+public record RecurringSchedule(long id, LocalDate nextExecutionDate) {
+}
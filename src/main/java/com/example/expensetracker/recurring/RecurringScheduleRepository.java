@@ -0,0 +1,251 @@
+package com.example.expensetracker.recurring;
+
+import com.example.expensetracker.model.RecurrenceFrequency;
+import com.example.expensetracker.money.Money;
+import com.example.expensetracker.rollup.DailyRollupDeltas;
+import com.example.expensetracker.rollup.DailyRollupKey;
+import com.example.expensetracker.sketch.SketchKey;
+import com.example.expensetracker.sketch.SketchSamples;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+public class RecurringScheduleRepository {
+
+    static final String LEASE_SQL = "SELECT set_config('idle_in_transaction_session_timeout', ?, true)";
+
+    static final String CLAIM_SQL = """
+            SELECT id
+            FROM recurring_transactions
+            WHERE active AND next_execution_date <= ? AND id <> ALL(?)
+            ORDER BY next_execution_date, id
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    static final String CLAIM_RULES_SQL = """
+            SELECT id
+            FROM recurring_transactions
+            WHERE id = ANY(?) AND active AND next_execution_date <= ?
+            ORDER BY id
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    static final String ACTIVE_AFTER_SQL = """
+            SELECT id, next_execution_date
+            FROM recurring_transactions
+            WHERE active AND id > ?
+            ORDER BY id
+            LIMIT ?
+            """;
+
+    static final String DUE_AFTER_SQL = """
+            SELECT id, next_execution_date
+            FROM recurring_transactions
+            WHERE active AND next_execution_date <= ? AND (next_execution_date, id) > (?, ?)
+            ORDER BY next_execution_date, id
+            LIMIT ?
+            """;
+
+    static final String SCHEDULES_SQL = """
+            SELECT id, next_execution_date
+            FROM recurring_transactions
+            WHERE id = ANY(?) AND active
+            """;
+
+    /**
+     * Переносит правила на даты, посчитанные по их расписаниям, одним UPDATE по массивам. Правило без новой
+     * даты исчерпало расписание и выключается.
+     */
+    static final String ADVANCE_SQL = """
+            UPDATE recurring_transactions r
+            SET next_execution_date = COALESCE(a.next_execution_date, r.next_execution_date),
+                active = a.next_execution_date IS NOT NULL,
+                occurrences = r.occurrences + a.created
+            FROM unnest(CAST(? AS bigint[]), CAST(? AS date[]), CAST(? AS int[]))
+                     AS a(id, next_execution_date, created)
+            WHERE r.id = a.id AND r.active AND r.next_execution_date <= ?
+            RETURNING r.id
+            """;
+
+    static final String RECURRENCES_SQL = """
+            SELECT id, frequency, interval_days, by_weekdays, by_month_day, next_execution_date, until_date,
+                   max_occurrences, occurrences
+            FROM recurring_transactions
+            WHERE id = ANY(?) AND active AND interval_days > 0 AND next_execution_date <= ?
+            ORDER BY id
+            """;
+
+    /**
+     * Расходы за посчитанные даты исполнения одним INSERT ... SELECT по массивам (правило, дата).
+     * Возвращает дельты дневных агрегатов вставленных строк.
+     */
+    static final String CATCH_UP_SQL = """
+            WITH inserted AS (
+                INSERT INTO expenses (user_id, amount, occurred_at, category_id, description)
+                SELECT r.user_id, r.amount, o.occurred_at, r.category_id, r.description
+                FROM unnest(CAST(? AS bigint[]), CAST(? AS timestamp[])) AS o(rule_id, occurred_at)
+                JOIN recurring_transactions r ON r.id = o.rule_id
+                RETURNING user_id, category_id, amount, occurred_at
+            )
+            SELECT user_id, CAST(occurred_at AS date) AS day, category_id, amount, COUNT(*) AS expenses
+            FROM inserted
+            GROUP BY user_id, CAST(occurred_at AS date), category_id, amount
+            """;
+
+    static final String CATCH_UP_PLAN_SQL = """
+            SELECT id, frequency, interval_days, by_weekdays, by_month_day, next_execution_date, until_date,
+                   max_occurrences, occurrences
+            FROM recurring_transactions
+            WHERE active AND interval_days > 0 AND next_execution_date <= ?
+            """;
+
+    private static final RowMapper<RecurringSchedule> SCHEDULE_MAPPER = (rs, rowNum) ->
+            new RecurringSchedule(rs.getLong("id"), rs.getObject("next_execution_date", LocalDate.class));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RecurringScheduleRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Ограничивает простой текущей транзакции между запросами: если узел, держащий захваченные правила,
+     * завис дольше timeout, сервер закрывает его сессию, транзакция откатывается и блокировки снимаются.
+     * Действует до конца транзакции.
+     */
+    public void lease(Duration timeout) {
+        jdbcTemplate.queryForObject(LEASE_SQL, String.class, String.valueOf(timeout.toMillis()));
+    }
+
+    /**
+     * Захватывает до limit правил к исполнению блокировкой строк до конца транзакции. Строки, уже
+     * захваченные другими транзакциями (другими воркерами или узлами), пропускаются, а не ожидаются.
+     *
+     * @param excluded правила, которые в этом проходе уже не удалось исполнить
+     */
+    public List<Long> claim(LocalDate today, Collection<Long> excluded, int limit) {
+        return jdbcTemplate.queryForList(CLAIM_SQL, Long.class, today, excluded.toArray(Long[]::new), limit);
+    }
+
+    /**
+     * Захватывает из ids правила, срок которых наступил, так же как {@link #claim}: занятые другими
+     * транзакциями пропускаются.
+     */
+    public List<Long> claimRules(Collection<Long> ids, LocalDate today) {
+        return jdbcTemplate.queryForList(CLAIM_RULES_SQL, Long.class, ids.toArray(Long[]::new), today);
+    }
+
+    /**
+     * Страница активных правил с id больше afterId в порядке id — для загрузки расписания по частям.
+     */
+    public List<RecurringSchedule> activeAfter(long afterId, int limit) {
+        return jdbcTemplate.query(ACTIVE_AFTER_SQL, SCHEDULE_MAPPER, afterId, limit);
+    }
+
+    /**
+     * Страница активных правил со сроком по through включительно, после (afterDate, afterId) в порядке
+     * (next_execution_date, id) — по индексу idx_recurring_transactions_due.
+     */
+    public List<RecurringSchedule> dueAfter(LocalDate through, LocalDate afterDate, long afterId, int limit) {
+        return jdbcTemplate.query(DUE_AFTER_SQL, SCHEDULE_MAPPER, through, afterDate, afterId, limit);
+    }
+
+    /**
+     * Текущие даты исполнения активных правил из ids; выключенных и удалённых в результате нет.
+     */
+    public List<RecurringSchedule> schedules(Collection<Long> ids) {
+        return jdbcTemplate.query(SCHEDULES_SQL, SCHEDULE_MAPPER, (Object) ids.toArray(Long[]::new));
+    }
+
+    /**
+     * Переносит правила на новые даты одним UPDATE. Правило, которое уже исполнено или выключено с момента
+     * чтения, не меняется и в результат не попадает.
+     *
+     * @return id перенесённых правил — по ним нужно создать расходы
+     */
+    public List<Long> advance(Collection<RecurringAdvance> advances, LocalDate today) {
+        Long[] ids = new Long[advances.size()];
+        String[] dates = new String[advances.size()];
+        Integer[] created = new Integer[advances.size()];
+        int i = 0;
+        for (RecurringAdvance advance : advances) {
+            ids[i] = advance.id();
+            dates[i] = advance.nextExecutionDate() == null ? null : advance.nextExecutionDate().toString();
+            created[i] = advance.created();
+            i++;
+        }
+        return jdbcTemplate.queryForList(ADVANCE_SQL, Long.class, ids, dates, created, today);
+    }
+
+    /**
+     * Расписания наступивших активных правил из ids в порядке id.
+     */
+    public Map<Long, Recurrence> recurrences(Collection<Long> ids, LocalDate today) {
+        Map<Long, Recurrence> recurrences = new LinkedHashMap<>();
+        jdbcTemplate.query(RECURRENCES_SQL, (RowCallbackHandler) rs -> recurrences.put(rs.getLong("id"), recurrence(rs)),
+                ids.toArray(Long[]::new), today);
+        return recurrences;
+    }
+
+    /**
+     * Создаёт по расходу на каждую пару (ruleIds[i], days[i]) с суммой, категорией и описанием правила.
+     * Вызывается в транзакции захвата, до {@link #advance}.
+     *
+     * @return дельты дневных агрегатов и суммы для скетчей созданных расходов
+     */
+    public RecurringCatchUpInserted catchUp(List<Long> ruleIds, List<LocalDate> days) {
+        DailyRollupDeltas deltas = new DailyRollupDeltas();
+        SketchSamples samples = new SketchSamples();
+        jdbcTemplate.query(CATCH_UP_SQL, (RowCallbackHandler) rs -> {
+            Long userId = rs.getLong("user_id");
+            LocalDate day = rs.getObject("day", LocalDate.class);
+            Long categoryId = rs.getObject("category_id", Long.class);
+            BigDecimal amount = rs.getBigDecimal("amount");
+            int count = rs.getInt("expenses");
+            deltas.add(new DailyRollupKey(userId, day, categoryId), Math.multiplyExact(Money.toCents(amount), count),
+                    count);
+            samples.add(new SketchKey(userId, categoryId, YearMonth.from(day)), amount, count);
+        }, ruleIds.toArray(Long[]::new), days.stream().map(LocalDate::toString).toArray(String[]::new));
+        return new RecurringCatchUpInserted(deltas, samples);
+    }
+
+    /**
+     * Сколько правил просрочено и сколько расходов создаст по ним догоняющий проход, без записи.
+     * Число расходов каждого правила считается по его расписанию без перебора дат.
+     */
+    public RecurringCatchUpPlan plan(LocalDate today) {
+        long[] plan = new long[2];
+        jdbcTemplate.query(CATCH_UP_PLAN_SQL, (RowCallbackHandler) rs -> {
+            Recurrence recurrence = recurrence(rs);
+            plan[0]++;
+            plan[1] += recurrence.count(recurrence.start(), today);
+        }, today);
+        return new RecurringCatchUpPlan(plan[0], plan[1]);
+    }
+
+    /**
+     * Расписание правила из строки с колонками frequency, interval_days, by_weekdays, by_month_day,
+     * next_execution_date, until_date, max_occurrences и occurrences.
+     */
+    public static Recurrence recurrence(ResultSet rs) throws SQLException {
+        Integer maxOccurrences = rs.getObject("max_occurrences", Integer.class);
+        return new Recurrence(RecurrenceFrequency.valueOf(rs.getString("frequency")), rs.getInt("interval_days"),
+                rs.getInt("by_weekdays"), rs.getInt("by_month_day"),
+                rs.getObject("next_execution_date", LocalDate.class), rs.getObject("until_date", LocalDate.class),
+                Recurrence.remaining(maxOccurrences, rs.getInt("occurrences")));
+    }
+}
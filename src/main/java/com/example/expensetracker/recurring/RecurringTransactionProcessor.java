@@ -0,0 +1,203 @@
+package com.example.expensetracker.recurring;
+
+import com.example.expensetracker.config.ExpenseRecurringProperties;
+import com.example.expensetracker.repository.RecurringTransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Создаёт расходы по активным правилам, срок которых наступил. Безопасен при запуске на нескольких узлах
+ * одновременно: каждый из workers воркеров в своей транзакции захватывает до chunk-size правил через
+ * SELECT ... FOR UPDATE SKIP LOCKED, исполняет их {@link RecurringChunkWriter} и коммитит. Занятые другими
+ * воркерами и узлами правила пропускаются, поэтому работа делится между ними без ожидания, а исполненное
+ * правило выходит из выборки вместе с коммитом — расход по нему создаётся ровно один раз.
+ * <p>
+ * Захват живёт столько же, сколько транзакция: при падении узла сервер откатывает её вместе с блокировками,
+ * а зависший дольше lease-timeout узел сервер отключает сам. Упавший чанк откатывается и до конца прохода
+ * не захватывается этим узлом снова; его правила исполнятся при следующем запуске.
+ * <p>
+ * В догоняющем режиме чанк исполняется {@link RecurringChunkWriter#catchUp}: по каждому правилу создаются
+ * расходы за все пропущенные даты, а не один. Плановый запуск работает в нём при catch-up: true,
+ * {@link #catchUp} включает его для одного прохода.
+ * <p>
+ * Итог прохода пишется одной строкой в лог и в метрики expenses.recurring.*.
+ */
+@Component
+public class RecurringTransactionProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(RecurringTransactionProcessor.class);
+
+    private final RecurringScheduleRepository scheduleRepository;
+    private final RecurringTransactionRepository recurringRepository;
+    private final RecurringChunkWriter chunkWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final ExpenseRecurringProperties props;
+    private final AtomicInteger threads = new AtomicInteger();
+    private final Counter created;
+    private final Counter failed;
+    private final Timer runTimer;
+
+    public RecurringTransactionProcessor(RecurringScheduleRepository scheduleRepository,
+                                         RecurringTransactionRepository recurringRepository,
+                                         RecurringChunkWriter chunkWriter, TransactionTemplate transactionTemplate,
+                                         ExpenseRecurringProperties props, MeterRegistry registry) {
+        this.scheduleRepository = scheduleRepository;
+        this.recurringRepository = recurringRepository;
+        this.chunkWriter = chunkWriter;
+        this.transactionTemplate = transactionTemplate;
+        this.props = props;
+        this.created = Counter.builder("expenses.recurring.created")
+                .description("Расходы, созданные по повторяющимся правилам")
+                .register(registry);
+        this.failed = Counter.builder("expenses.recurring.failed")
+                .description("Правила из чанков, транзакция которых откатилась")
+                .register(registry);
+        this.runTimer = Timer.builder("expenses.recurring.run")
+                .description("Длительность прохода по повторяющимся правилам")
+                .register(registry);
+    }
+
+    public RecurringRunResult process(LocalDate today) {
+        return run(today, props.catchUp());
+    }
+
+    public RecurringRunResult catchUp(LocalDate today) {
+        return run(today, true);
+    }
+
+    /**
+     * Исполняет правила из ids, срок которых наступил, одной транзакцией — для {@link RecurringDueTimer}.
+     * Правила, захваченные другим узлом, пропускаются. Ошибка транзакции пробрасывается вызывающему.
+     *
+     * @return число созданных расходов
+     */
+    public int processRules(Collection<Long> ids, LocalDate today) {
+        Integer count = transactionTemplate.execute(status -> {
+            scheduleRepository.lease(props.leaseTimeout());
+            List<Long> claimed = scheduleRepository.claimRules(ids, today);
+            if (claimed.isEmpty()) {
+                return 0;
+            }
+            return props.catchUp() ? chunkWriter.catchUp(claimed, today)
+                    : chunkWriter.write(recurringRepository.findAllWithUserAndCategory(claimed), today);
+        });
+        int result = count == null ? 0 : count;
+        created.increment(result);
+        return result;
+    }
+
+    /**
+     * Объём догоняющего прохода на today без записи.
+     */
+    public RecurringCatchUpPlan planCatchUp(LocalDate today) {
+        return scheduleRepository.plan(today);
+    }
+
+    private RecurringRunResult run(LocalDate today, boolean catchUp) {
+        long start = System.nanoTime();
+        Run run = new Run(today, catchUp);
+        if (props.workers() <= 1) {
+            work(run);
+        } else {
+            runWorkers(run);
+        }
+
+        long elapsed = System.nanoTime() - start;
+        runTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        RecurringRunResult result = new RecurringRunResult(run.created.get(), run.failedIds.size(), run.chunks.get());
+        created.increment(result.created());
+        failed.increment(result.failed());
+        log.info("Повторяющиеся расходы за {}{}: создано {}, не исполнено правил {}, чанков {}, {} мс", today,
+                catchUp ? " (догоняющий проход)" : "", result.created(), result.failed(), result.chunks(),
+                TimeUnit.NANOSECONDS.toMillis(elapsed));
+        return result;
+    }
+
+    private void runWorkers(Run run) {
+        ExecutorService pool = Executors.newFixedThreadPool(props.workers(),
+                task -> new Thread(task, "recurring-worker-" + threads.incrementAndGet()));
+        try {
+            List<Future<?>> workers = new ArrayList<>(props.workers());
+            for (int i = 0; i < props.workers(); i++) {
+                workers.add(pool.submit(() -> work(run)));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Проход по повторяющимся правилам прерван");
+        } catch (ExecutionException e) {
+            log.error("Воркер повторяющихся правил завершился с ошибкой: {}", e.getCause().getMessage());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Захватывает и исполняет чанки, пока есть свободные правила к исполнению.
+     */
+    private void work(Run run) {
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Long> claimed = new ArrayList<>();
+            try {
+                Integer count = transactionTemplate.execute(status -> {
+                    scheduleRepository.lease(props.leaseTimeout());
+                    claimed.addAll(scheduleRepository.claim(run.today, List.copyOf(run.failedIds), props.chunkSize()));
+                    if (claimed.isEmpty()) {
+                        return 0;
+                    }
+                    return run.catchUp ? chunkWriter.catchUp(claimed, run.today)
+                            : chunkWriter.write(recurringRepository.findAllWithUserAndCategory(claimed), run.today);
+                });
+                if (claimed.isEmpty()) {
+                    return;
+                }
+                run.chunks.incrementAndGet();
+                run.created.addAndGet(count == null ? 0 : count);
+            } catch (RuntimeException e) {
+                if (claimed.isEmpty()) {
+                    log.warn("Не удалось захватить повторяющиеся правила, повтор при следующем запуске: {}",
+                            e.getMessage());
+                    return;
+                }
+                run.chunks.incrementAndGet();
+                run.failedIds.addAll(claimed);
+                log.warn("Чанк из {} повторяющихся правил не исполнен, повтор при следующем запуске: {}",
+                        claimed.size(), e.getMessage());
+            }
+        }
+    }
+
+    private static final class Run {
+
+        private final LocalDate today;
+        private final boolean catchUp;
+        private final AtomicInteger created = new AtomicInteger();
+        private final AtomicInteger chunks = new AtomicInteger();
+        private final Set<Long> failedIds = ConcurrentHashMap.newKeySet();
+
+        private Run(LocalDate today, boolean catchUp) {
+            this.today = today;
+            this.catchUp = catchUp;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.expensetracker.report;
+
+import com.example.expensetracker.model.Category;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA-слушатель {@link Category}: переименование или удаление категории сбрасывает имена категорий
+ * во всех {@link CategoryNameCache}. Кэши берутся лениво — слушатель создаётся вместе
+ * с EntityManagerFactory, раньше репозиториев, от которых кэши зависят.
+ */
+@Component
+public class CategoryChangeListener {
+
+    private final ObjectProvider<CategoryNameCache> caches;
+
+    public CategoryChangeListener(ObjectProvider<CategoryNameCache> caches) {
+        this.caches = caches;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void changed(Category category) {
+        caches.orderedStream().forEach(cache -> cache.categoryChanged(category.getId()));
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.expensetracker.report;
+
+/**
+ * Кэш, в котором оседают имена категорий. {@link CategoryChangeListener} сообщает ему
+ * о переименовании или удалении категории.
+ */
+public interface CategoryNameCache {
+
+    /**
+     * Категория переименована или удалена; вызывается внутри транзакции, сбрасывать кэш нужно после коммита.
+     */
+    void categoryChanged(Long categoryId);
+}
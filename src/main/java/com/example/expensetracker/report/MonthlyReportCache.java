@@ -0,0 +1,242 @@
+package com.example.expensetracker.report;
+
+import com.example.expensetracker.config.ExpenseReportProperties;
+import com.example.expensetracker.dto.CategorySumDto;
+import com.example.expensetracker.dto.ExpensesReportDto;
+import com.example.expensetracker.model.Category;
+import com.example.expensetracker.money.Money;
+import com.example.expensetracker.money.MoneySum;
+import com.example.expensetracker.repository.CategoryRepository;
+import com.example.expensetracker.rollup.DailyRollupDeltas;
+import com.example.expensetracker.tx.AfterCommit;
+import com.example.expensetracker.tx.InFlightWrites;
+import com.example.expensetracker.write.ExpenseWriteListener;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Кэш месячных отчётов, который обновляется дельтами, а не сбрасывается.
+ * <p>
+ * Записи сгруппированы по пользователю, внутри — по месяцу. Каждое добавление или удаление расхода
+ * после коммита прибавляет сумму к закэшированной сумме категории в своём месяце, поэтому запись
+ * никогда не заставляет пересчитывать отчёт. Категория с нулевой суммой из отчёта пропадает,
+ * как и в SQL: суммы расходов всегда положительны. Суммы хранятся в копейках ({@link MoneySum}),
+ * поэтому дельта не создаёт новых объектов, а в BigDecimal они переводятся только при сборке ответа.
+ * <p>
+ * Память ограничена числом пользователей (cache-max-users) и месяцев на пользователя
+ * (cache-months-per-user, вытесняется давно не читанный месяц).
+ * <p>
+ * Отчёт, посчитанный параллельно с записью, мог как увидеть её, так и нет, а дельта после коммита
+ * добавила бы её ещё раз. Поэтому записи проходят через {@link InFlightWrites}, и отчёт кладётся в кэш,
+ * только если за время расчёта у пользователя не было ни одной записи.
+ * <p>
+ * Суммы хранятся по имени категории. Переименование или удаление категории ({@link CategoryChangeListener})
+ * сбрасывает после коммита её имя и все закэшированные отчёты; отчёт, посчитанный до этого, в кэш не попадает.
+ */
+@Component
+public class MonthlyReportCache implements ExpenseWriteListener, CategoryNameCache {
+
+    private final Cache<Long, UserReports> users;
+    private final Map<Long, String> categoryNames = new ConcurrentHashMap<>();
+    private final InFlightWrites writes = new InFlightWrites();
+    private final AtomicLong categoryChanges = new AtomicLong();
+    private final CategoryRepository categoryRepository;
+    private final int monthsPerUser;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter deltas;
+
+    public MonthlyReportCache(CategoryRepository categoryRepository, ExpenseReportProperties props,
+                              MeterRegistry registry) {
+        this.categoryRepository = categoryRepository;
+        this.monthsPerUser = Math.max(1, props.cacheMonthsPerUser());
+        this.users = Caffeine.newBuilder()
+                .maximumSize(props.cacheMaxUsers())
+                .expireAfterAccess(props.cacheExpireAfterAccess())
+                .build();
+        Gauge.builder("expenses.reports.monthly.cache.users", users, Cache::estimatedSize)
+                .description("Пользователи с закэшированными месячными отчётами")
+                .register(registry);
+        this.hits = Counter.builder("expenses.reports.monthly.cache.requests").tag("result", "hit")
+                .register(registry);
+        this.misses = Counter.builder("expenses.reports.monthly.cache.requests").tag("result", "miss")
+                .register(registry);
+        this.deltas = Counter.builder("expenses.reports.monthly.cache.deltas")
+                .description("Дельты, применённые к закэшированным отчётам")
+                .register(registry);
+    }
+
+    /**
+     * Возвращает отчёт из кэша или считает его через loader и кэширует.
+     */
+    public ExpensesReportDto get(Long userId, YearMonth month, Supplier<ExpensesReportDto> loader) {
+        UserReports reports = users.get(userId, id -> new UserReports(monthsPerUser));
+        ExpensesReportDto cached = reports.get(month);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        long stamp = writes.stamp(userId);
+        long changes = categoryChanges.get();
+        ExpensesReportDto loaded = loader.get();
+        writes.putIfQuiet(userId, stamp, () -> {
+            if (categoryChanges.get() == changes) {
+                reports.put(month, loaded);
+            }
+        });
+        return loaded;
+    }
+
+    /**
+     * Отчёты за несколько месяцев: закэшированные берутся из кэша, остальные loader считает одним вызовом
+     * и они кэшируются по отдельности. Результат упорядочен как months.
+     */
+    public Map<YearMonth, ExpensesReportDto> getAll(Long userId, List<YearMonth> months,
+                                                    Function<List<YearMonth>, Map<YearMonth, ExpensesReportDto>> loader) {
+        UserReports reports = users.get(userId, id -> new UserReports(monthsPerUser));
+        Map<YearMonth, ExpensesReportDto> result = new LinkedHashMap<>();
+        List<YearMonth> missing = new ArrayList<>();
+        for (YearMonth month : months) {
+            ExpensesReportDto cached = reports.get(month);
+            result.put(month, cached);
+            if (cached == null) {
+                missing.add(month);
+            }
+        }
+        hits.increment(months.size() - missing.size());
+        if (missing.isEmpty()) {
+            return result;
+        }
+        misses.increment(missing.size());
+        long stamp = writes.stamp(userId);
+        long changes = categoryChanges.get();
+        Map<YearMonth, ExpensesReportDto> loaded = loader.apply(missing);
+        for (YearMonth month : missing) {
+            result.put(month, loaded.get(month));
+        }
+        writes.putIfQuiet(userId, stamp, () -> {
+            if (categoryChanges.get() == changes) {
+                missing.forEach(month -> reports.put(month, loaded.get(month)));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Принимает изменения дневных агрегатов. Имена категорий разрешаются сразу, внутри транзакции,
+     * а сами суммы меняются только после коммита; при откате дельты отбрасываются.
+     * Расходы без категории копятся в {@link ReportDimension#UNCATEGORIZED}, как и в SQL-отчёте.
+     */
+    @Override
+    public void record(DailyRollupDeltas rollup) {
+        Map<Long, Map<YearMonth, Map<String, MoneySum>>> byUser = new HashMap<>();
+        rollup.asMap().forEach((key, delta) -> byUser.computeIfAbsent(key.userId(), id -> new HashMap<>())
+                .computeIfAbsent(YearMonth.from(key.day()), m -> new HashMap<>())
+                .computeIfAbsent(categoryName(key.categoryId()), name -> new MoneySum())
+                .add(delta));
+        writes.write(byUser.keySet(), userId -> {
+            UserReports reports = users.getIfPresent(userId);
+            if (reports != null) {
+                deltas.increment(reports.apply(byUser.get(userId)));
+            }
+        });
+    }
+
+    /**
+     * Категория переименована или удалена: после коммита сбрасываются её имя и все отчёты, где оно могло быть.
+     */
+    @Override
+    public void categoryChanged(Long categoryId) {
+        AfterCommit.run(() -> {
+            categoryChanges.incrementAndGet();
+            categoryNames.remove(categoryId);
+            users.invalidateAll();
+        });
+    }
+
+    private String categoryName(Long categoryId) {
+        if (categoryId == null) {
+            return ReportDimension.UNCATEGORIZED;
+        }
+        String name = categoryNames.computeIfAbsent(categoryId, id ->
+                categoryRepository.findById(id).map(Category::getName).orElse(null));
+        return name == null ? ReportDimension.UNCATEGORIZED : name;
+    }
+
+    /**
+     * Отчёты одного пользователя: месяц → сумма в копейках по имени категории, в порядке последнего чтения.
+     */
+    private static final class UserReports {
+
+        private final Map<YearMonth, Map<String, MoneySum>> months;
+
+        UserReports(int limit) {
+            this.months = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<YearMonth, Map<String, MoneySum>> eldest) {
+                    return size() > limit;
+                }
+            };
+        }
+
+        synchronized ExpensesReportDto get(YearMonth month) {
+            Map<String, MoneySum> sums = months.get(month);
+            if (sums == null) {
+                return null;
+            }
+            List<CategorySumDto> items = new ArrayList<>(sums.size());
+            long total = 0;
+            for (Map.Entry<String, MoneySum> entry : sums.entrySet()) {
+                items.add(new CategorySumDto(entry.getKey(), entry.getValue().amount()));
+                total = Money.add(total, entry.getValue().cents());
+            }
+            // Пустой месяц — BigDecimal.ZERO, как у SQL-отчёта без строк.
+            return new ExpensesReportDto(items.isEmpty() ? BigDecimal.ZERO : Money.fromCents(total), items);
+        }
+
+        synchronized void put(YearMonth month, ExpensesReportDto report) {
+            Map<String, MoneySum> sums = new LinkedHashMap<>();
+            report.byCategory().forEach(item -> sums.put(item.categoryName(),
+                    new MoneySum(Money.toCents(item.sum()), 0)));
+            months.put(month, sums);
+        }
+
+        /**
+         * @return число закэшированных месяцев, к которым применились дельты
+         */
+        synchronized int apply(Map<YearMonth, Map<String, MoneySum>> deltas) {
+            int applied = 0;
+            for (Map.Entry<YearMonth, Map<String, MoneySum>> month : deltas.entrySet()) {
+                Map<String, MoneySum> sums = months.get(month.getKey());
+                if (sums == null) {
+                    continue;
+                }
+                month.getValue().forEach((category, delta) -> {
+                    MoneySum sum = sums.computeIfAbsent(category, name -> new MoneySum()).add(delta);
+                    if (sum.cents() <= 0) {
+                        sums.remove(category);
+                    }
+                });
+                applied++;
+            }
+            return applied;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.expensetracker.report;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Измерение группировки отчёта. Выражение строится над подзапросом s(category_id, occurred_at, amount,
+ * expense_count) и присоединённой таблицей категорий c; новое измерение — новая константа.
+ */
+public enum ReportDimension {
+
+    /**
+     * Имя категории; расходы без категории попадают в {@link #UNCATEGORIZED}.
+     */
+    CATEGORY("c.name", true) {
+        @Override
+        Object read(ResultSet rs, String column) throws SQLException {
+            String name = rs.getString(column);
+            return name == null ? UNCATEGORIZED : name;
+        }
+    },
+
+    /**
+     * Календарный месяц, {@link YearMonth}.
+     */
+    MONTH("date_trunc('month', s.occurred_at)::date", false) {
+        @Override
+        Object read(ResultSet rs, String column) throws SQLException {
+            return YearMonth.from(rs.getObject(column, LocalDate.class));
+        }
+    },
+
+    /**
+     * День, {@link LocalDate}.
+     */
+    DAY("s.occurred_at::date", false) {
+        @Override
+        Object read(ResultSet rs, String column) throws SQLException {
+            return rs.getObject(column, LocalDate.class);
+        }
+    };
+
+    public static final String UNCATEGORIZED = "UNCATEGORIZED";
+
+    private final String expression;
+    private final boolean needsCategory;
+
+    ReportDimension(String expression, boolean needsCategory) {
+        this.expression = expression;
+        this.needsCategory = needsCategory;
+    }
+
+    String expression() {
+        return expression;
+    }
+
+    boolean needsCategory() {
+        return needsCategory;
+    }
+
+    abstract Object read(ResultSet rs, String column) throws SQLException;
+}
@@ -0,0 +1,158 @@
+package com.example.expensetracker.report;
+
+import com.example.expensetracker.config.ExpenseReportProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Строит по {@link ReportSpec} один SQL-запрос с GROUP BY ROLLUP: суммы групп, промежуточные и общий итог
+ * считаются за один проход по строкам.
+ * <p>
+ * Строки берутся из expenses либо, при app.expenses.reports.use-rollup, полные дни периода — из
+ * expense_daily_rollup, а неполные первый и последний дни — из expenses. Группа, все расходы которой
+ * удалены (в агрегатах expense_count = 0), в отчёт не попадает.
+ */
+@Repository
+public class ReportQueryEngine {
+
+    private static final String EXPENSES_SOURCE = """
+            SELECT e.category_id, e.occurred_at, e.amount, 1 AS expense_count
+            FROM expenses e
+            WHERE e.user_id = ? AND e.occurred_at >= ? AND e.occurred_at < ?%s
+            """;
+
+    private static final String ROLLUP_SOURCE = """
+            SELECT r.category_id, r.day::timestamp AS occurred_at, r.amount, r.expense_count
+            FROM expense_daily_rollup r
+            WHERE r.user_id = ? AND r.day >= ? AND r.day < ?%s
+            UNION ALL
+            SELECT e.category_id, e.occurred_at, e.amount, 1
+            FROM expenses e
+            WHERE e.user_id = ?
+              AND (e.occurred_at >= ? AND e.occurred_at < ? OR e.occurred_at >= ? AND e.occurred_at < ?)%s
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ExpenseReportProperties reportProperties;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    public ReportQueryEngine(JdbcTemplate jdbcTemplate, ExpenseReportProperties reportProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.reportProperties = reportProperties;
+    }
+
+    public ReportResult run(ReportSpec spec) {
+        return run(spec, reportProperties.useRollup());
+    }
+
+    /**
+     * Выполняет отчёт по дневным агрегатам (fromRollup) или только по сырым строкам expenses.
+     */
+    public ReportResult run(ReportSpec spec, boolean fromRollup) {
+        List<Object> args = new ArrayList<>();
+        String source = fromRollup ? rollupSource(spec, args) : expensesSource(spec, args);
+        List<ReportDimension> groupBy = spec.groupBy();
+        List<ReportRow> rows = jdbcTemplate.query(sql(groupBy, source), (rs, rowNum) -> {
+            int mask = groupBy.isEmpty() ? 0 : rs.getInt("grouping_mask");
+            int depth = groupBy.size() - Integer.bitCount(mask);
+            List<Object> keys = new ArrayList<>(depth);
+            for (int i = 0; i < depth; i++) {
+                keys.add(groupBy.get(i).read(rs, "d" + i));
+            }
+            return new ReportRow(keys, rs.getBigDecimal("amount"), rs.getLong("expense_count"));
+        }, args.toArray());
+        return new ReportResult(groupBy, rows);
+    }
+
+    /**
+     * ROLLUP(a, b) даёт наборы (a, b), (a) и (); GROUPING(a, b) — битовая маска несгруппированных измерений,
+     * по ней строка относится к своему уровню. NULL в измерении (расход без категории) от итоговой строки
+     * отличается только этой маской.
+     */
+    static String sql(List<ReportDimension> groupBy, String source) {
+        StringJoiner select = new StringJoiner(", ");
+        StringJoiner expressions = new StringJoiner(", ");
+        StringJoiner order = new StringJoiner(", ");
+        boolean needsCategory = false;
+        for (int i = 0; i < groupBy.size(); i++) {
+            ReportDimension dimension = groupBy.get(i);
+            select.add(dimension.expression() + " AS d" + i);
+            expressions.add(dimension.expression());
+            order.add("d" + i);
+            needsCategory |= dimension.needsCategory();
+        }
+        StringBuilder sql = new StringBuilder("SELECT ");
+        if (!groupBy.isEmpty()) {
+            sql.append(select).append(", GROUPING(").append(expressions).append(") AS grouping_mask, ");
+        }
+        sql.append("SUM(s.amount) AS amount, SUM(s.expense_count) AS expense_count\nFROM (\n")
+                .append(source).append(") s\n");
+        if (needsCategory) {
+            sql.append("LEFT JOIN categories c ON c.id = s.category_id\n");
+        }
+        if (!groupBy.isEmpty()) {
+            sql.append("GROUP BY ROLLUP (").append(expressions).append(")\n");
+        }
+        sql.append("HAVING SUM(s.expense_count) > 0\n");
+        if (!groupBy.isEmpty()) {
+            sql.append("ORDER BY ").append(order);
+        }
+        return sql.toString();
+    }
+
+    private String expensesSource(ReportSpec spec, List<Object> args) {
+        args.add(spec.userId());
+        args.add(local(spec.from()));
+        args.add(local(spec.to()));
+        return EXPENSES_SOURCE.formatted(categoryFilter("e", spec, args));
+    }
+
+    /**
+     * Полные дни [firstDay, lastDayExclusive) читаются из агрегатов, края [start, firstDay) и
+     * [lastDayExclusive, end) — из expenses. Если полных дней нет, весь период читается как один край.
+     */
+    private String rollupSource(ReportSpec spec, List<Object> args) {
+        LocalDateTime start = local(spec.from());
+        LocalDateTime end = local(spec.to());
+        LocalDate firstDay = start.toLocalTime().equals(LocalTime.MIDNIGHT)
+                ? start.toLocalDate() : start.toLocalDate().plusDays(1);
+        LocalDate lastDayExclusive = end.toLocalDate();
+        args.add(spec.userId());
+        if (!firstDay.isBefore(lastDayExclusive)) {
+            Collections.addAll(args, firstDay, firstDay);
+            String rollupFilter = categoryFilter("r", spec, args);
+            Collections.addAll(args, spec.userId(), start, end, end, end);
+            return ROLLUP_SOURCE.formatted(rollupFilter, categoryFilter("e", spec, args));
+        }
+        Collections.addAll(args, firstDay, lastDayExclusive);
+        String rollupFilter = categoryFilter("r", spec, args);
+        Collections.addAll(args, spec.userId(), start, firstDay.atStartOfDay(), lastDayExclusive.atStartOfDay(), end);
+        return ROLLUP_SOURCE.formatted(rollupFilter, categoryFilter("e", spec, args));
+    }
+
+    private static String categoryFilter(String alias, ReportSpec spec, List<Object> args) {
+        if (spec.categoryIds().isEmpty()) {
+            return "";
+        }
+        StringJoiner placeholders = new StringJoiner(", ", " AND " + alias + ".category_id IN (", ")");
+        spec.categoryIds().forEach(id -> {
+            placeholders.add("?");
+            args.add(id);
+        });
+        return placeholders.toString();
+    }
+
+    private LocalDateTime local(Instant instant) {
+        return LocalDateTime.ofInstant(instant, zone);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.expensetracker.report;
+
+import com.example.expensetracker.dto.CategorySumDto;
+import com.example.expensetracker.dto.ExpensesReportDto;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Результат {@link ReportQueryEngine}: строки групп, промежуточных итогов и общего итога.
+ * Группы без расходов в результат не попадают.
+ */
+public final class ReportResult {
+
+    private final List<ReportDimension> groupBy;
+    private final List<ReportRow> rows;
+    private final Map<List<Object>, ReportRow> byKeys = new HashMap<>();
+    private final Map<List<Object>, List<ReportRow>> children = new HashMap<>();
+
+    public ReportResult(List<ReportDimension> groupBy, List<ReportRow> rows) {
+        this.groupBy = List.copyOf(groupBy);
+        this.rows = List.copyOf(rows);
+        for (ReportRow row : this.rows) {
+            byKeys.put(row.keys(), row);
+            if (row.depth() > 0) {
+                children.computeIfAbsent(row.keys().subList(0, row.depth() - 1), k -> new ArrayList<>()).add(row);
+            }
+        }
+    }
+
+    public List<ReportRow> rows() {
+        return rows;
+    }
+
+    /**
+     * Строки с заданным числом сгруппированных измерений: 0 — общий итог, groupBy.size() — самые мелкие группы.
+     */
+    public List<ReportRow> rows(int depth) {
+        return rows.stream().filter(row -> row.depth() == depth).toList();
+    }
+
+    public BigDecimal total() {
+        return total(List.of());
+    }
+
+    /**
+     * Итог группы с ключами keys или ноль, если в ней нет расходов.
+     */
+    public BigDecimal total(List<Object> keys) {
+        ReportRow row = byKeys.get(keys);
+        return row == null ? BigDecimal.ZERO : row.amount();
+    }
+
+    /**
+     * Отчёт по категориям внутри группы keys: следующим после них измерением должна быть категория.
+     */
+    public ExpensesReportDto categoryReport(List<Object> keys) {
+        if (keys.size() >= groupBy.size() || groupBy.get(keys.size()) != ReportDimension.CATEGORY) {
+            throw new IllegalStateException("Report is not grouped by category after " + keys.size() + " keys");
+        }
+        List<CategorySumDto> items = children.getOrDefault(keys, List.of()).stream()
+                .map(row -> new CategorySumDto((String) row.keys().get(keys.size()), row.amount()))
+                .toList();
+        return new ExpensesReportDto(total(keys), items);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.expensetracker.report;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Строка отчёта: значения первых keys.size() измерений, сумма и число расходов.
+ * Пустой keys — общий итог.
+ */
+public record ReportRow(List<Object> keys, BigDecimal amount, long count) {
+
+    public ReportRow {
+        keys = List.copyOf(keys);
+    }
+
+    public int depth() {
+        return keys.size();
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.expensetracker.report;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Описание отчёта: пользователь, полуоткрытый период [from, to), измерения группировки в порядке вложенности
+ * и фильтр по категориям (пустой — все расходы, включая расходы без категории).
+ * <p>
+ * Для измерений (a, b) отчёт содержит суммы по (a, b), промежуточные итоги по a и общий итог.
+ */
+public record ReportSpec(Long userId, Instant from, Instant to, List<ReportDimension> groupBy,
+                         Set<Long> categoryIds) {
+
+    public ReportSpec {
+        Objects.requireNonNull(userId, "userId");
+        Objects.requireNonNull(from, "from");
+        Objects.requireNonNull(to, "to");
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Report period ends before it starts");
+        }
+        groupBy = List.copyOf(groupBy);
+        if (Set.copyOf(groupBy).size() != groupBy.size()) {
+            throw new IllegalArgumentException("Report dimensions must not repeat");
+        }
+        categoryIds = categoryIds == null ? Set.of() : Set.copyOf(categoryIds);
+    }
+
+    /**
+     * Период [from, to] с включённой правой границей. occurred_at хранится с точностью до микросекунды,
+     * поэтому включённая граница to равна исключённой границе на микросекунду позже.
+     */
+    public static ReportSpec between(Long userId, Instant from, Instant to, ReportDimension... groupBy) {
+        Instant toExclusive = to.truncatedTo(ChronoUnit.MICROS).plus(1, ChronoUnit.MICROS);
+        return new ReportSpec(userId, from, toExclusive, List.of(groupBy), Set.of());
+    }
+
+    /**
+     * Месяцы [first, last] целиком в часовом поясе zone.
+     */
+    public static ReportSpec months(Long userId, YearMonth first, YearMonth last, ZoneId zone,
+                                    ReportDimension... groupBy) {
+        return new ReportSpec(userId, first.atDay(1).atStartOfDay(zone).toInstant(),
+                last.plusMonths(1).atDay(1).atStartOfDay(zone).toInstant(), List.of(groupBy), Set.of());
+    }
+
+    public ReportSpec withCategories(Collection<Long> ids) {
+        return new ReportSpec(userId, from, to, groupBy, Set.copyOf(ids));
+    }
+}
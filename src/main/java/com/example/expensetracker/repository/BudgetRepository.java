@@ -0,0 +1,16 @@
+package com.example.expensetracker.repository;
+
+import com.example.expensetracker.model.Budget;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface BudgetRepository extends JpaRepository<Budget, Long> {
+
+    @Query("SELECT b FROM Budget b JOIN FETCH b.category WHERE b.user.id = :userId ORDER BY b.category.name")
+    List<Budget> findAllWithCategoryByUserId(Long userId);
+
+    Optional<Budget> findByUser_IdAndCategory_Id(Long userId, Long categoryId);
+}
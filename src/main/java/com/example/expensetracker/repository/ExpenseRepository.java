@@ -2,10 +2,8 @@ package com.example.expensetracker.repository;
 
 import com.example.expensetracker.dto.CategorySumDto;
 import com.example.expensetracker.model.Expense;
-import com.example.expensetracker.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -23,15 +21,4 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
     @Query("SELECT COALESCE(SUM(e.amount), 0) FROM Expense e WHERE e.user.id = :userId AND e.occurredAt " +
             "BETWEEN :from AND :to")
     BigDecimal totalForUserBetween(Long userId, Instant from, Instant to);
-
-    @Query("""
-            SELECT new com.example.expensetracker.dto.CategorySumDto(c.name, SUM(e.amount))
-            FROM Expense e
-            JOIN e.category c
-            WHERE e.user = :user
-            AND e.occurredAt BETWEEN :start AND :end GROUP BY c.name
-            """)
-    List<CategorySumDto> getMonthlyReport(@Param("user") User user,
-                                          @Param("start") Instant start,
-                                          @Param("end") Instant end);
 }
@@ -2,11 +2,19 @@ package com.example.expensetracker.repository;
 
 import com.example.expensetracker.model.RecurringTransaction;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
-import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface RecurringTransactionRepository extends JpaRepository<RecurringTransaction, Long> {
-    List<RecurringTransaction> findAllByNextExecutionDateLessThanEqual(LocalDate date);
+    @Query("""
+            SELECT r FROM RecurringTransaction r
+            JOIN FETCH r.user
+            JOIN FETCH r.category
+            WHERE r.id IN :ids
+            ORDER BY r.id""")
+    List<RecurringTransaction> findAllWithUserAndCategory(Collection<Long> ids);
+
     List<RecurringTransaction> findAllByUser_Email(String email);
 }
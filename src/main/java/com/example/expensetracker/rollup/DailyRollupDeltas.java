@@ -0,0 +1,50 @@
+package com.example.expensetracker.rollup;
+
+import com.example.expensetracker.money.Money;
+import com.example.expensetracker.money.MoneySum;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Изменения дневных агрегатов, накопленные за одну транзакцию: на ключ (user_id, day, category_id) —
+ * сумма в копейках и число расходов. Ключи упорядочены, чтобы параллельные транзакции блокировали строки
+ * expense_daily_rollup в одном порядке и не ловили взаимоблокировку.
+ */
+public class DailyRollupDeltas {
+
+    private final Map<DailyRollupKey, MoneySum> deltas = new TreeMap<>();
+
+    public void add(Long userId, LocalDate day, Long categoryId, BigDecimal amount) {
+        merge(new DailyRollupKey(userId, day, categoryId), Money.toCents(amount), 1);
+    }
+
+    public void remove(Long userId, LocalDate day, Long categoryId, BigDecimal amount) {
+        merge(new DailyRollupKey(userId, day, categoryId), Math.negateExact(Money.toCents(amount)), -1);
+    }
+
+    /**
+     * Добавляет уже сгруппированные строки, например агрегат вставленных одним запросом расходов.
+     */
+    public void add(DailyRollupKey key, long cents, long count) {
+        merge(key, cents, count);
+    }
+
+    public boolean isEmpty() {
+        return deltas.isEmpty();
+    }
+
+    public int size() {
+        return deltas.size();
+    }
+
+    public Map<DailyRollupKey, MoneySum> asMap() {
+        return deltas;
+    }
+
+    private void merge(DailyRollupKey key, long cents, long count) {
+        deltas.computeIfAbsent(key, k -> new MoneySum()).add(cents, count);
+    }
+}
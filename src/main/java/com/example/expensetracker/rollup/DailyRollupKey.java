@@ -0,0 +1,19 @@
+package com.example.expensetracker.rollup;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+
+/**
+ * Ключ строки expense_daily_rollup. categoryId == null — расходы без категории.
+ */
+public record DailyRollupKey(Long userId, LocalDate day, Long categoryId) implements Comparable<DailyRollupKey> {
+
+    private static final Comparator<DailyRollupKey> ORDER = Comparator.comparing(DailyRollupKey::userId)
+            .thenComparing(DailyRollupKey::day)
+            .thenComparing(DailyRollupKey::categoryId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    @Override
+    public int compareTo(DailyRollupKey other) {
+        return ORDER.compare(this, other);
+    }
+}
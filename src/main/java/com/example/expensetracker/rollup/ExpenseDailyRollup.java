@@ -0,0 +1,24 @@
+package com.example.expensetracker.rollup;
+
+import com.example.expensetracker.write.ExpenseWriteListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Поддерживает таблицу expense_daily_rollup — сумму и число расходов на (пользователь, день, категория),
+ * по которой {@link com.example.expensetracker.report.ReportQueryEngine} строит отчёты. Дельты пишутся
+ * в той же транзакции, что и сами расходы, поэтому агрегаты никогда не расходятся с expenses.
+ */
+@Component
+public class ExpenseDailyRollup implements ExpenseWriteListener {
+
+    private final ExpenseRollupRepository repository;
+
+    public ExpenseDailyRollup(ExpenseRollupRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public void record(DailyRollupDeltas deltas) {
+        repository.apply(deltas);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.expensetracker.rollup;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+@Repository
+public class ExpenseRollupRepository {
+
+    static final String UPSERT_SQL = """
+            INSERT INTO expense_daily_rollup (user_id, day, category_id, amount, expense_count)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (user_id, day, category_id) DO UPDATE
+            SET amount = expense_daily_rollup.amount + EXCLUDED.amount,
+                expense_count = expense_daily_rollup.expense_count + EXCLUDED.expense_count
+            """;
+
+    private static final int[] UPSERT_TYPES = {Types.BIGINT, Types.DATE, Types.BIGINT, Types.NUMERIC, Types.BIGINT};
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ExpenseRollupRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Применяет дельты одним JDBC-батчем upsert-ов. Вызывается внутри транзакции, изменившей expenses.
+     */
+    public void apply(DailyRollupDeltas deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.asMap().forEach((key, delta) -> args.add(new Object[]{
+                key.userId(), key.day(), key.categoryId(), delta.amount(), delta.count()}));
+        jdbcTemplate.batchUpdate(UPSERT_SQL, args, UPSERT_TYPES);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.expensetracker.search;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.money.Money;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.DateFormat;
+import org.springframework.data.elasticsearch.annotations.Document;
+import org.springframework.data.elasticsearch.annotations.Field;
+import org.springframework.data.elasticsearch.annotations.FieldType;
+
+import java.time.Instant;
+
+/**
+ * Расход в поисковом индексе. Индекс создаётся не Spring Data, а {@link ExpenseSearchIndex}: expenses —
+ * алиас на текущую версию индекса. Имя категории не хранится — его подставляет поиск, поэтому запись
+ * расхода не загружает категорию.
+ */
+@Document(indexName = ExpenseSearchIndex.ALIAS, createIndex = false)
+public class ExpenseDocument {
+
+    @Id
+    private String id;
+    @Field(type = FieldType.Long)
+    private Long expenseId;
+    @Field(type = FieldType.Long)
+    private Long userId;
+    @Field(type = FieldType.Long)
+    private Long categoryId;
+    @Field(type = FieldType.Long)
+    private long amountCents;
+    @Field(type = FieldType.Date, format = DateFormat.date_time)
+    private Instant occurredAt;
+    @Field(type = FieldType.Text, analyzer = "russian")
+    private String description;
+
+    public ExpenseDocument() {
+    }
+
+    public ExpenseDocument(Long expenseId, Long userId, Long categoryId, long amountCents, Instant occurredAt,
+                           String description) {
+        this.id = String.valueOf(expenseId);
+        this.expenseId = expenseId;
+        this.userId = userId;
+        this.categoryId = categoryId;
+        this.amountCents = amountCents;
+        this.occurredAt = occurredAt;
+        this.description = description;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Long getExpenseId() {
+        return expenseId;
+    }
+
+    public void setExpenseId(Long expenseId) {
+        this.expenseId = expenseId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public long getAmountCents() {
+        return amountCents;
+    }
+
+    public void setAmountCents(long amountCents) {
+        this.amountCents = amountCents;
+    }
+
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(Instant occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public static ExpenseDocument from(Expense expense) {
+        return new ExpenseDocument(
+                expense.getId(),
+                expense.getUser().getId(),
+                expense.getCategory() == null ? null : expense.getCategory().getId(),
+                Money.toCents(expense.getAmount()),
+                expense.getOccurredAt(),
+                expense.getDescription()
+        );
+    }
+}
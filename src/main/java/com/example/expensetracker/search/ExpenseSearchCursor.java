@@ -0,0 +1,45 @@
+package com.example.expensetracker.search;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Позиция в результатах поиска: значения сортировки последнего отданного документа для search_after —
+ * релевантность (только при поиске по тексту), occurredAt в миллисекундах и id расхода.
+ * Клиенту уходит непрозрачной base64url-строкой.
+ */
+public record ExpenseSearchCursor(Float score, long occurredAt, long id) {
+
+    private static final char SEPARATOR = '|';
+
+    public List<Object> searchAfter() {
+        List<Object> values = new ArrayList<>(3);
+        if (score != null) {
+            values.add(score);
+        }
+        values.add(occurredAt);
+        values.add(id);
+        return values;
+    }
+
+    public String encode() {
+        String raw = (score == null ? "" : Float.toString(score)) + SEPARATOR + occurredAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ExpenseSearchCursor decode(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split("\\" + SEPARATOR, -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new ExpenseSearchCursor(parts[0].isEmpty() ? null : Float.valueOf(parts[0]),
+                    Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.expensetracker.search;
+
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.index.AliasAction;
+import org.springframework.data.elasticsearch.core.index.AliasActionParameters;
+import org.springframework.data.elasticsearch.core.index.AliasActions;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.DeleteQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Операции над поисковым индексом расходов. Клиенты читают и пишут через алиас expenses; полная
+ * переиндексация заполняет новую версию expenses-&lt;millis&gt; и атомарно переключает на неё алиас,
+ * после чего старые версии удаляются.
+ */
+@Component
+public class ExpenseSearchIndex {
+
+    static final String ALIAS = "expenses";
+
+    private static final IndexCoordinates ALIAS_INDEX = IndexCoordinates.of(ALIAS);
+
+    private final ElasticsearchOperations operations;
+
+    public ExpenseSearchIndex(ElasticsearchOperations operations) {
+        this.operations = operations;
+    }
+
+    public boolean exists() {
+        return operations.indexOps(ALIAS_INDEX).exists();
+    }
+
+    public SearchHits<ExpenseDocument> search(NativeQuery query) {
+        return operations.search(query, ExpenseDocument.class, ALIAS_INDEX);
+    }
+
+    public void index(List<ExpenseDocument> documents) {
+        index(documents, ALIAS_INDEX);
+    }
+
+    public void delete(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        operations.delete(DeleteQuery.builder(NativeQuery.builder().withIds(ids).build()).build(),
+                ExpenseDocument.class, ALIAS_INDEX);
+    }
+
+    public void deleteUser(Long userId) {
+        NativeQuery query = NativeQuery.builder()
+                .withQuery(q -> q.term(t -> t.field("userId").value(userId)))
+                .build();
+        operations.delete(DeleteQuery.builder(query).build(), ExpenseDocument.class, ALIAS_INDEX);
+    }
+
+    /**
+     * Создаёт пустую версию индекса с маппингом {@link ExpenseDocument}; алиас на неё ещё не указывает.
+     */
+    public IndexCoordinates createVersion() {
+        IndexCoordinates version = IndexCoordinates.of(ALIAS + "-" + System.currentTimeMillis());
+        IndexOperations ops = operations.indexOps(version);
+        ops.create(ops.createSettings(ExpenseDocument.class), ops.createMapping(ExpenseDocument.class));
+        return version;
+    }
+
+    public void drop(IndexCoordinates version) {
+        operations.indexOps(version).delete();
+    }
+
+    public void index(List<ExpenseDocument> documents, IndexCoordinates index) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        List<IndexQuery> queries = documents.stream()
+                .map(document -> new IndexQueryBuilder().withId(document.getId()).withObject(document).build())
+                .toList();
+        operations.bulkIndex(queries, index);
+    }
+
+    /**
+     * Одним запросом переводит алиас на version и удаляет версии, на которые он указывал.
+     */
+    public void switchTo(IndexCoordinates version) {
+        IndexOperations aliasOps = operations.indexOps(ALIAS_INDEX);
+        Set<String> previous = aliasOps.exists() ? aliasOps.getAliases(ALIAS).keySet() : Set.of();
+        AliasAction add = new AliasAction.Add(AliasActionParameters.builder()
+                .withIndices(version.getIndexName())
+                .withAliases(ALIAS)
+                .build());
+        if (previous.isEmpty()) {
+            aliasOps.alias(new AliasActions(add));
+        } else {
+            aliasOps.alias(new AliasActions(new AliasAction.Remove(AliasActionParameters.builder()
+                    .withIndices(previous.toArray(String[]::new))
+                    .withAliases(ALIAS)
+                    .build()), add));
+        }
+        previous.stream()
+                .filter(name -> !name.equals(version.getIndexName()))
+                .forEach(name -> operations.indexOps(IndexCoordinates.of(name)).delete());
+    }
+}
@@ -0,0 +1,364 @@
+package com.example.expensetracker.search;
+
+import com.example.expensetracker.config.ExpenseSearchProperties;
+import com.example.expensetracker.dto.ExpenseReindexResultDto;
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.tx.AfterCommit;
+import com.example.expensetracker.write.ExpenseWriteListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Асинхронная запись расходов в поисковый индекс. Изменения расходов после коммита кладутся в ограниченную
+ * очередь без ожидания: если она заполнена, изменение отбрасывается, а пользователь помечается
+ * для переиндексации. Запись расходов поэтому никогда не ждёт Elasticsearch.
+ * <p>
+ * Все изменения индекса выполняет один поток: пакеты из очереди, переиндексацию помеченных пользователей
+ * (когда очередь пуста) и полную переиндексацию в новую версию индекса. Раз они не пересекаются,
+ * переиндексация не может вернуть в индекс расход, удалённый параллельно. Пакет, не записанный из-за
+ * ошибки Elasticsearch, тоже превращается в пометки пользователей; их повтор — не чаще retry-interval.
+ * <p>
+ * Если при старте алиаса expenses нет, индекс строится полной переиндексацией.
+ */
+@Component
+public class ExpenseSearchIndexer implements SmartLifecycle, ExpenseWriteListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseSearchIndexer.class);
+
+    private static final long POLL_MILLIS = 100;
+
+    private final ExpenseSearchIndex index;
+    private final ExpenseSearchRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ExpenseSearchProperties props;
+    private final BlockingQueue<IndexRequest> queue;
+    private final Set<Long> dirtyUsers = ConcurrentHashMap.newKeySet();
+    private final AtomicReference<CompletableFuture<ExpenseReindexResultDto>> rebuildRequest = new AtomicReference<>();
+    private final Counter indexed;
+    private final Counter dropped;
+    private final Counter failed;
+    private volatile boolean running;
+    private Thread writerThread;
+    private boolean ready;
+    private long retryAt;
+
+    public ExpenseSearchIndexer(ExpenseSearchIndex index, ExpenseSearchRepository repository,
+                                TransactionTemplate transactionTemplate, ExpenseSearchProperties props,
+                                MeterRegistry registry) {
+        this.index = index;
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.props = props;
+        this.queue = new ArrayBlockingQueue<>(props.queueCapacity());
+        this.retryAt = System.nanoTime();
+        Gauge.builder("expenses.search.queue.depth", queue, BlockingQueue::size)
+                .description("Изменения расходов, ожидающие записи в поисковый индекс")
+                .register(registry);
+        Gauge.builder("expenses.search.dirty.users", dirtyUsers, Set::size)
+                .description("Пользователи, ожидающие переиндексации")
+                .register(registry);
+        this.indexed = Counter.builder("expenses.search.indexed")
+                .description("Изменения, записанные в поисковый индекс")
+                .register(registry);
+        this.dropped = Counter.builder("expenses.search.dropped")
+                .description("Изменения, отброшенные из-за заполненной очереди")
+                .register(registry);
+        this.failed = Counter.builder("expenses.search.failed")
+                .description("Изменения, не записанные из-за ошибки Elasticsearch")
+                .register(registry);
+    }
+
+    /**
+     * Ставит добавленные расходы в очередь индексации. Документы строятся сразу, пока открыта сессия,
+     * в очередь они попадают после коммита.
+     */
+    @Override
+    public void added(Collection<Expense> expenses) {
+        List<IndexRequest> requests = expenses.stream()
+                .map(ExpenseDocument::from)
+                .map(document -> new IndexRequest(document.getUserId(), document.getId(), document))
+                .toList();
+        AfterCommit.run(() -> offer(requests));
+    }
+
+    @Override
+    public void removed(Expense expense) {
+        IndexRequest request = new IndexRequest(expense.getUser().getId(), String.valueOf(expense.getId()), null);
+        AfterCommit.run(() -> offer(List.of(request)));
+    }
+
+    /**
+     * Помечает пользователей для переиндексации: их документы будут удалены и заново загружены из БД.
+     * Нужна там, где расходы пишутся мимо сущностей, например при импорте через COPY.
+     */
+    public void reindexUsers(Collection<Long> userIds) {
+        AfterCommit.run(() -> dirtyUsers.addAll(userIds));
+    }
+
+    @Override
+    public void invalidate(Collection<Long> userIds) {
+        reindexUsers(userIds);
+    }
+
+    /**
+     * Запрашивает полную переиндексацию в новую версию индекса. Повторный запрос до её окончания
+     * получает тот же future.
+     */
+    public CompletableFuture<ExpenseReindexResultDto> rebuild() {
+        CompletableFuture<ExpenseReindexResultDto> requested = new CompletableFuture<>();
+        CompletableFuture<ExpenseReindexResultDto> current = rebuildRequest.compareAndExchange(null, requested);
+        return current == null ? requested : current;
+    }
+
+    public int depth() {
+        return queue.size();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::writeLoop, "expense-search-indexer");
+        writerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        CompletableFuture<ExpenseReindexResultDto> requested = rebuildRequest.getAndSet(null);
+        if (requested != null) {
+            requested.completeExceptionally(new IllegalStateException("Search indexer is stopped"));
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Останавливается после очереди отложенной записи, чтобы принять расходы, которые она дописывает.
+     */
+    @Override
+    public int getPhase() {
+        return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2;
+    }
+
+    private void writeLoop() {
+        int maxBatch = Math.max(1, props.maxBatch());
+        List<IndexRequest> batch = new ArrayList<>(maxBatch);
+        while (running || (ready && !queue.isEmpty())) {
+            try {
+                CompletableFuture<ExpenseReindexResultDto> requested = rebuildRequest.get();
+                if (requested != null) {
+                    runRebuild(requested);
+                    continue;
+                }
+                if (!ready) {
+                    ensureIndex();
+                    continue;
+                }
+                IndexRequest first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    reindexDirtyUsers();
+                    continue;
+                }
+                batch.add(first);
+                fill(batch, maxBatch);
+                write(batch);
+            } catch (InterruptedException e) {
+                log.warn("Поток поисковой индексации прерван, в очереди осталось {}", queue.size());
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void fill(List<IndexRequest> batch, int maxBatch) throws InterruptedException {
+        long deadline = System.nanoTime() + props.maxLinger().toNanos();
+        while (batch.size() < maxBatch) {
+            queue.drainTo(batch, maxBatch - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatch || remaining <= 0) {
+                return;
+            }
+            IndexRequest next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    /**
+     * Сначала индексируются документы, потом удаляются: удалённый в том же пакете расход не останется в индексе.
+     */
+    private void write(List<IndexRequest> batch) {
+        List<ExpenseDocument> documents = new ArrayList<>(batch.size());
+        List<String> deletedIds = new ArrayList<>();
+        for (IndexRequest request : batch) {
+            if (request.document() == null) {
+                deletedIds.add(request.id());
+            } else {
+                documents.add(request.document());
+            }
+        }
+        try {
+            index.index(documents);
+            index.delete(deletedIds);
+            indexed.increment(batch.size());
+        } catch (RuntimeException e) {
+            failed.increment(batch.size());
+            batch.forEach(request -> dirtyUsers.add(request.userId()));
+            log.warn("Пакет из {} изменений не записан в поисковый индекс, пользователи будут переиндексированы: {}",
+                    batch.size(), e.getMessage());
+            backOff();
+        }
+    }
+
+    private void ensureIndex() throws InterruptedException {
+        if (waiting()) {
+            return;
+        }
+        try {
+            if (!index.exists()) {
+                log.info("Поисковый индекс расходов не найден, строится полной переиндексацией");
+                rebuildIndex();
+            }
+            ready = true;
+        } catch (RuntimeException e) {
+            log.warn("Поисковый индекс расходов недоступен, повтор через {}: {}", props.retryInterval(),
+                    e.getMessage());
+            backOff();
+        }
+    }
+
+    private void runRebuild(CompletableFuture<ExpenseReindexResultDto> requested) {
+        try {
+            ExpenseReindexResultDto result = rebuildIndex();
+            ready = true;
+            rebuildRequest.set(null);
+            requested.complete(result);
+        } catch (RuntimeException e) {
+            log.error("Полная переиндексация расходов не удалась: {}", e.getMessage());
+            rebuildRequest.set(null);
+            requested.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Заполняет новую версию индекса из БД и переключает на неё алиас. Изменения, закоммиченные после
+     * начала чтения, уже стоят в очереди и применятся к новой версии следующими пакетами.
+     */
+    private ExpenseReindexResultDto rebuildIndex() {
+        long start = System.nanoTime();
+        Set<Long> covered = Set.copyOf(dirtyUsers);
+        IndexCoordinates version = index.createVersion();
+        long documents;
+        try {
+            documents = load(null, chunk -> index.index(chunk, version));
+            index.switchTo(version);
+        } catch (RuntimeException e) {
+            index.drop(version);
+            throw e;
+        }
+        dirtyUsers.removeAll(covered);
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("Расходы переиндексированы в {}: {} документов за {} мс", version.getIndexName(), documents, millis);
+        return new ExpenseReindexResultDto(version.getIndexName(), documents, millis);
+    }
+
+    /**
+     * Переиндексирует помеченных пользователей, пока не появятся новые изменения в очереди.
+     */
+    private void reindexDirtyUsers() throws InterruptedException {
+        if (dirtyUsers.isEmpty() || waiting()) {
+            return;
+        }
+        for (Long userId : List.copyOf(dirtyUsers)) {
+            dirtyUsers.remove(userId);
+            try {
+                index.deleteUser(userId);
+                long documents = load(userId, index::index);
+                log.debug("Пользователь {} переиндексирован: {} документов", userId, documents);
+            } catch (RuntimeException e) {
+                dirtyUsers.add(userId);
+                log.warn("Переиндексация расходов пользователя {} не удалась: {}", userId, e.getMessage());
+                backOff();
+                return;
+            }
+            if (!queue.isEmpty() || rebuildRequest.get() != null) {
+                return;
+            }
+        }
+    }
+
+    private long load(Long userId, Consumer<List<ExpenseDocument>> sink) {
+        int chunkSize = Math.max(1, props.reindexBatchSize());
+        List<ExpenseDocument> chunk = new ArrayList<>(chunkSize);
+        long[] documents = {0};
+        transactionTemplate.executeWithoutResult(status -> repository.stream(userId, document -> {
+            chunk.add(document);
+            if (chunk.size() >= chunkSize) {
+                sink.accept(chunk);
+                documents[0] += chunk.size();
+                chunk.clear();
+            }
+        }));
+        sink.accept(chunk);
+        return documents[0] + chunk.size();
+    }
+
+    private void offer(List<IndexRequest> requests) {
+        for (IndexRequest request : requests) {
+            if (!queue.offer(request)) {
+                dropped.increment();
+                dirtyUsers.add(request.userId());
+            }
+        }
+    }
+
+    private boolean waiting() throws InterruptedException {
+        if (System.nanoTime() - retryAt < 0) {
+            Thread.sleep(POLL_MILLIS);
+            return true;
+        }
+        return false;
+    }
+
+    private void backOff() {
+        retryAt = System.nanoTime() + props.retryInterval().toNanos();
+    }
+
+    /**
+     * Изменение одного расхода: document == null — удаление.
+     */
+    private record IndexRequest(Long userId, String id, ExpenseDocument document) {
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.expensetracker.search;
+
+import com.example.expensetracker.config.ExpenseSearchProperties;
+import com.example.expensetracker.money.Money;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.ZoneId;
+import java.util.function.Consumer;
+
+/**
+ * Чтение расходов для переиндексации однонаправленным курсором. Как и выгрузка, вызывать нужно внутри
+ * транзакции, иначе драйвер прочитает весь результат в память.
+ */
+@Repository
+public class ExpenseSearchRepository {
+
+    private static final String SELECT = """
+            SELECT id, user_id, category_id, amount, occurred_at, description
+            FROM expenses""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ExpenseSearchProperties props;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    public ExpenseSearchRepository(JdbcTemplate jdbcTemplate, ExpenseSearchProperties props) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.props = props;
+    }
+
+    /**
+     * Передаёт consumer документы всех расходов или, если userId не null, расходов одного пользователя.
+     */
+    public void stream(Long userId, Consumer<ExpenseDocument> consumer) {
+        String sql = userId == null ? SELECT : SELECT + " WHERE user_id = ?";
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(Math.max(1, props.fetchSize()));
+            if (userId != null) {
+                ps.setLong(1, userId);
+            }
+            return ps;
+        }, rs -> {
+            consumer.accept(new ExpenseDocument(
+                    rs.getLong("id"),
+                    rs.getLong("user_id"),
+                    rs.getObject("category_id", Long.class),
+                    Money.toCents(rs.getBigDecimal("amount")),
+                    rs.getTimestamp("occurred_at").toLocalDateTime().atZone(zone).toInstant(),
+                    rs.getString("description")));
+        });
+    }
+}
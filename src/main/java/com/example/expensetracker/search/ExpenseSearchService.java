@@ -0,0 +1,124 @@
+package com.example.expensetracker.search;
+
+import co.elastic.clients.elasticsearch._types.SortOptions;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.Operator;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import com.example.expensetracker.details.UserDetailsImpl;
+import com.example.expensetracker.dto.ExpenseDto;
+import com.example.expensetracker.dto.ExpensePageDto;
+import com.example.expensetracker.dto.ExpenseSearchRequestDto;
+import com.example.expensetracker.model.Category;
+import com.example.expensetracker.money.Money;
+import com.example.expensetracker.repository.CategoryRepository;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Полнотекстовый поиск расходов пользователя по описанию. Индекс обновляется асинхронно
+ * {@link ExpenseSearchIndexer}, поэтому только что записанный расход может появиться в выдаче с задержкой.
+ * <p>
+ * Страницы листаются через search_after: сортировка по релевантности (если задан q), затем по времени
+ * расхода и id, чтобы порядок был полным. Испорченный курсор — IllegalArgumentException (400).
+ */
+@Service
+public class ExpenseSearchService {
+
+    private static final SortOptions BY_SCORE = SortOptions.of(s -> s.score(sc -> sc.order(SortOrder.Desc)));
+    private static final SortOptions BY_OCCURRED_AT =
+            SortOptions.of(s -> s.field(f -> f.field("occurredAt").order(SortOrder.Desc)));
+    private static final SortOptions BY_ID =
+            SortOptions.of(s -> s.field(f -> f.field("expenseId").order(SortOrder.Desc)));
+
+    private final ExpenseSearchIndex index;
+    private final CategoryRepository categoryRepository;
+
+    public ExpenseSearchService(ExpenseSearchIndex index, CategoryRepository categoryRepository) {
+        this.index = index;
+        this.categoryRepository = categoryRepository;
+    }
+
+    public ExpensePageDto search(UserDetailsImpl currentUser, ExpenseSearchRequestDto request) {
+        String text = request.getQ() == null || request.getQ().isBlank() ? null : request.getQ().strip();
+        ExpenseSearchCursor cursor = request.getCursor() == null || request.getCursor().isBlank() ? null
+                : ExpenseSearchCursor.decode(request.getCursor());
+        if (cursor != null && (cursor.score() == null) != (text == null)) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        int limit = request.getLimit();
+
+        NativeQueryBuilder query = NativeQuery.builder()
+                .withQuery(query(currentUser.getDomainUser().getId(), text, request))
+                .withSort(text == null ? List.of(BY_OCCURRED_AT, BY_ID) : List.of(BY_SCORE, BY_OCCURRED_AT, BY_ID))
+                .withMaxResults(limit + 1)
+                .withTrackTotalHits(false);
+        if (cursor != null) {
+            query.withSearchAfter(cursor.searchAfter());
+        }
+        List<SearchHit<ExpenseDocument>> hits = index.search(query.build()).getSearchHits();
+
+        List<SearchHit<ExpenseDocument>> page = hits.size() > limit ? hits.subList(0, limit) : hits;
+        Map<Long, String> categoryNames = categoryNames(page);
+        List<ExpenseDto> items = new ArrayList<>(page.size());
+        for (SearchHit<ExpenseDocument> hit : page) {
+            ExpenseDocument document = hit.getContent();
+            items.add(new ExpenseDto(document.getExpenseId(), Money.fromCents(document.getAmountCents()),
+                    document.getOccurredAt(), document.getCategoryId(), categoryNames.get(document.getCategoryId()),
+                    document.getDescription()));
+        }
+        if (hits.size() <= limit) {
+            return new ExpensePageDto(items, null);
+        }
+        SearchHit<ExpenseDocument> last = page.get(limit - 1);
+        String next = new ExpenseSearchCursor(text == null ? null : last.getScore(),
+                last.getContent().getOccurredAt().toEpochMilli(), last.getContent().getExpenseId()).encode();
+        return new ExpensePageDto(items, next);
+    }
+
+    private static Query query(Long userId, String text, ExpenseSearchRequestDto request) {
+        BoolQuery.Builder bool = new BoolQuery.Builder()
+                .filter(f -> f.term(t -> t.field("userId").value(userId)));
+        if (request.getCategoryId() != null) {
+            bool.filter(f -> f.term(t -> t.field("categoryId").value(request.getCategoryId())));
+        }
+        if (request.getFrom() != null || request.getTo() != null) {
+            bool.filter(f -> f.range(r -> r.date(d -> {
+                d.field("occurredAt").format("epoch_millis");
+                if (request.getFrom() != null) {
+                    d.gte(String.valueOf(request.getFrom().toEpochMilli()));
+                }
+                if (request.getTo() != null) {
+                    d.lte(String.valueOf(request.getTo().toEpochMilli()));
+                }
+                return d;
+            })));
+        }
+        if (text != null) {
+            bool.must(m -> m.match(match -> match.field("description").query(text)
+                    .operator(Operator.And).fuzziness("AUTO")));
+        }
+        return bool.build()._toQuery();
+    }
+
+    private Map<Long, String> categoryNames(List<SearchHit<ExpenseDocument>> hits) {
+        Set<Long> ids = hits.stream()
+                .map(hit -> hit.getContent().getCategoryId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return categoryRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Category::getId, Category::getName));
+    }
+}
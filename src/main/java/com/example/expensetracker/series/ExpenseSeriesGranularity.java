@@ -0,0 +1,72 @@
+package com.example.expensetracker.series;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Шаг временного ряда. Границы корзин совпадают с date_trunc в PostgreSQL: неделя начинается с понедельника,
+ * месяц — с первого числа.
+ */
+public enum ExpenseSeriesGranularity {
+    DAY("day"),
+    WEEK("week"),
+    MONTH("month");
+
+    private final String sqlUnit;
+
+    ExpenseSeriesGranularity(String sqlUnit) {
+        this.sqlUnit = sqlUnit;
+    }
+
+    public String sqlUnit() {
+        return sqlUnit;
+    }
+
+    /**
+     * Начало корзины, в которую попадает день.
+     */
+    public LocalDate truncate(LocalDate day) {
+        return switch (this) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+
+    /**
+     * Начало корзины с номером index, считая от first (first — уже начало корзины).
+     */
+    public LocalDate plus(LocalDate first, int index) {
+        return switch (this) {
+            case DAY -> first.plusDays(index);
+            case WEEK -> first.plusWeeks(index);
+            case MONTH -> first.plusMonths(index);
+        };
+    }
+
+    /**
+     * Номер корзины bucket, считая от first. Оба аргумента — начала корзин.
+     */
+    public int index(LocalDate first, LocalDate bucket) {
+        return switch (this) {
+            case DAY -> (int) ChronoUnit.DAYS.between(first, bucket);
+            case WEEK -> (int) ChronoUnit.WEEKS.between(first, bucket);
+            case MONTH -> (int) ChronoUnit.MONTHS.between(first, bucket);
+        };
+    }
+
+    /**
+     * Число корзин, покрывающих дни [from, to).
+     */
+    public long buckets(LocalDate from, LocalDate to) {
+        LocalDate first = truncate(from);
+        LocalDate last = truncate(to.minusDays(1));
+        return switch (this) {
+            case DAY -> ChronoUnit.DAYS.between(first, last) + 1;
+            case WEEK -> ChronoUnit.WEEKS.between(first, last) + 1;
+            case MONTH -> ChronoUnit.MONTHS.between(first, last) + 1;
+        };
+    }
+}
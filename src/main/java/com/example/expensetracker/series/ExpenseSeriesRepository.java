@@ -0,0 +1,67 @@
+package com.example.expensetracker.series;
+
+import com.example.expensetracker.dto.ExpenseSeriesDto;
+import com.example.expensetracker.money.Money;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Временной ряд расходов одним агрегирующим запросом с группировкой по date_trunc. Полные дни берутся
+ * из expense_daily_rollup, без него — из сырых строк expenses. Запрос возвращает только непустые корзины
+ * по возрастанию, пропуски заполняются нулями при раскладке в массивы.
+ */
+@Repository
+public class ExpenseSeriesRepository {
+
+    private static final String ROLLUP_SQL = """
+            SELECT date_trunc(?, r.day::timestamp)::date AS bucket, SUM(r.amount) AS amount,
+                   SUM(r.expense_count) AS expense_count
+            FROM expense_daily_rollup r
+            WHERE r.user_id = ? AND r.day >= ? AND r.day < ?""";
+
+    private static final String EXPENSES_SQL = """
+            SELECT date_trunc(?, e.occurred_at)::date AS bucket, SUM(e.amount) AS amount,
+                   COUNT(*) AS expense_count
+            FROM expenses e
+            WHERE e.user_id = ? AND e.occurred_at >= ? AND e.occurred_at < ?""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ExpenseSeriesRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Ряд расходов пользователя за дни [from, to) с шагом granularity; categoryId null — все категории.
+     */
+    public ExpenseSeriesDto load(Long userId, LocalDate from, LocalDate to, ExpenseSeriesGranularity granularity,
+                                 Long categoryId, boolean fromRollup) {
+        LocalDate first = granularity.truncate(from);
+        int size = Math.toIntExact(granularity.buckets(from, to));
+        long[] cents = new long[size];
+        long[] counts = new long[size];
+
+        StringBuilder sql = new StringBuilder(fromRollup ? ROLLUP_SQL : EXPENSES_SQL);
+        List<Object> args = new ArrayList<>(5);
+        args.add(granularity.sqlUnit());
+        args.add(userId);
+        args.add(fromRollup ? from : from.atStartOfDay());
+        args.add(fromRollup ? to : to.atStartOfDay());
+        if (categoryId != null) {
+            sql.append(fromRollup ? " AND r.category_id = ?" : " AND e.category_id = ?");
+            args.add(categoryId);
+        }
+        sql.append(fromRollup ? " GROUP BY 1 HAVING SUM(r.expense_count) > 0" : " GROUP BY 1").append(" ORDER BY 1");
+
+        jdbcTemplate.query(sql.toString(), rs -> {
+            int index = granularity.index(first, rs.getObject("bucket", LocalDate.class));
+            cents[index] = Money.toCents(rs.getBigDecimal("amount"));
+            counts[index] = rs.getLong("expense_count");
+        }, args.toArray());
+        return new ExpenseSeriesDto(from, to, granularity, categoryId, first, cents, counts);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.expensetracker.series;
+
+import com.example.expensetracker.dto.ExpenseSeriesDto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Пишет ряд прямо в JsonGenerator из массивов копеек и счётчиков, без промежуточных списков объектов:
+ * на длинном дневном ряду ответ не размножается в памяти.
+ * <pre>
+ * {"granularity":"DAY","from":"2025-01-01","to":"2026-01-01","categoryId":null,
+ *  "buckets":["2025-01-01",...],"amounts":[12.50,...],"counts":[3,...]}
+ * </pre>
+ */
+public class ExpenseSeriesSerializer extends StdSerializer<ExpenseSeriesDto> {
+
+    public ExpenseSeriesSerializer() {
+        super(ExpenseSeriesDto.class);
+    }
+
+    @Override
+    public void serialize(ExpenseSeriesDto series, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("granularity", series.granularity().name());
+        gen.writeStringField("from", series.from().toString());
+        gen.writeStringField("to", series.to().toString());
+        if (series.categoryId() == null) {
+            gen.writeNullField("categoryId");
+        } else {
+            gen.writeNumberField("categoryId", series.categoryId());
+        }
+        gen.writeArrayFieldStart("buckets");
+        for (int i = 0; i < series.size(); i++) {
+            gen.writeString(series.bucket(i).toString());
+        }
+        gen.writeEndArray();
+        gen.writeArrayFieldStart("amounts");
+        for (int i = 0; i < series.size(); i++) {
+            gen.writeNumber(series.amount(i));
+        }
+        gen.writeEndArray();
+        gen.writeArrayFieldStart("counts");
+        for (long count : series.counts()) {
+            gen.writeNumber(count);
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+    }
+}
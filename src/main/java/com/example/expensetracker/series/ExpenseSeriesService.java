@@ -0,0 +1,38 @@
+package com.example.expensetracker.series;
+
+import com.example.expensetracker.config.ExpenseReportProperties;
+import com.example.expensetracker.config.ExpenseSeriesProperties;
+import com.example.expensetracker.details.UserDetailsImpl;
+import com.example.expensetracker.dto.ExpenseSeriesDto;
+import com.example.expensetracker.dto.ExpenseSeriesRequestDto;
+import org.springframework.stereotype.Service;
+
+/**
+ * Временные ряды расходов для графиков. Число корзин ограничено max-buckets: слишком длинный ряд —
+ * IllegalArgumentException (400).
+ */
+@Service
+public class ExpenseSeriesService {
+
+    private final ExpenseSeriesRepository seriesRepository;
+    private final ExpenseReportProperties reportProperties;
+    private final ExpenseSeriesProperties props;
+
+    public ExpenseSeriesService(ExpenseSeriesRepository seriesRepository, ExpenseReportProperties reportProperties,
+                                ExpenseSeriesProperties props) {
+        this.seriesRepository = seriesRepository;
+        this.reportProperties = reportProperties;
+        this.props = props;
+    }
+
+    public ExpenseSeriesDto series(UserDetailsImpl currentUser, ExpenseSeriesRequestDto request) {
+        ExpenseSeriesGranularity granularity = request.getGranularity();
+        long buckets = granularity.buckets(request.getFrom(), request.getTo());
+        if (buckets > props.maxBuckets()) {
+            throw new IllegalArgumentException("Series has " + buckets + " buckets, at most "
+                    + props.maxBuckets() + " allowed");
+        }
+        return seriesRepository.load(currentUser.getDomainUser().getId(), request.getFrom(), request.getTo(),
+                granularity, request.getCategoryId(), reportProperties.useRollup());
+    }
+}
@@ -1,19 +1,30 @@
 package com.example.expensetracker.service;
 
 import com.example.expensetracker.details.UserDetailsImpl;
+import com.example.expensetracker.dto.ExpenseAddedDto;
+import com.example.expensetracker.dto.ExpenseBatchResultDto;
+import com.example.expensetracker.dto.ExpenseFilterDto;
+import com.example.expensetracker.dto.ExpensePageDto;
+import com.example.expensetracker.dto.ExpenseRequestDto;
 import com.example.expensetracker.dto.ExpensesReportDto;
+import com.example.expensetracker.dto.MonthlyReportDto;
 import com.example.expensetracker.model.Expense;
 import com.example.expensetracker.model.Month;
 import jakarta.servlet.http.HttpServletRequest;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
 
 public interface ExpenseService {
     ExpensesReportDto getReport(UserDetailsImpl currentUser, Instant from, Instant to);
     Expense addExpense(UserDetailsImpl currentUser, Expense expense);
+    ExpenseAddedDto addExpense(UserDetailsImpl currentUser, ExpenseRequestDto expense);
+    ExpenseBatchResultDto addExpenses(UserDetailsImpl currentUser, List<ExpenseRequestDto> expenses);
+    void queueExpense(UserDetailsImpl currentUser, ExpenseRequestDto expense);
     void deleteExpense(UserDetailsImpl currentUser, Long expenseId);
     ExpensesReportDto getReportMonthly(Month month, Integer year, UserDetailsImpl currentUser);
+    List<MonthlyReportDto> getReportMonthlyRange(UserDetailsImpl currentUser, YearMonth from, int months);
+    ExpensePageDto listExpenses(UserDetailsImpl currentUser, ExpenseFilterDto filter);
 }
 
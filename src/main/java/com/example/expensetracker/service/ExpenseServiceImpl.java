@@ -1,64 +1,193 @@
 package com.example.expensetracker.service;
 
+import com.example.expensetracker.budget.BudgetService;
+import com.example.expensetracker.config.ExpenseIngestProperties;
 import com.example.expensetracker.details.UserDetailsImpl;
-import com.example.expensetracker.dto.CategorySumDto;
+import com.example.expensetracker.dto.BudgetDto;
+import com.example.expensetracker.dto.ExpenseAddedDto;
+import com.example.expensetracker.dto.ExpenseBatchResultDto;
+import com.example.expensetracker.dto.ExpenseDto;
+import com.example.expensetracker.dto.ExpenseFilterDto;
+import com.example.expensetracker.dto.ExpensePageDto;
+import com.example.expensetracker.dto.ExpenseRequestDto;
 import com.example.expensetracker.dto.ExpensesReportDto;
+import com.example.expensetracker.dto.MonthlyReportDto;
+import com.example.expensetracker.ingest.ExpenseIngestQueue;
+import com.example.expensetracker.ingest.QueuedExpense;
+import com.example.expensetracker.listing.ExpenseCursor;
+import com.example.expensetracker.listing.ExpenseListingRepository;
+import com.example.expensetracker.mapper.ExpenseMapper;
+import com.example.expensetracker.model.Category;
 import com.example.expensetracker.model.Expense;
 import com.example.expensetracker.model.Month;
 import com.example.expensetracker.model.User;
+import com.example.expensetracker.money.Money;
+import com.example.expensetracker.report.MonthlyReportCache;
+import com.example.expensetracker.report.ReportDimension;
+import com.example.expensetracker.report.ReportQueryEngine;
+import com.example.expensetracker.report.ReportResult;
+import com.example.expensetracker.report.ReportSpec;
+import com.example.expensetracker.repository.CategoryRepository;
 import com.example.expensetracker.repository.ExpenseRepository;
 import com.example.expensetracker.repository.UserRepository;
+import com.example.expensetracker.snapshot.ExpenseSnapshotCache;
+import com.example.expensetracker.totals.TotalExpensesAccumulator;
+import com.example.expensetracker.write.ExpenseWriteEvents;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.CacheEvict;
 
-import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class ExpenseServiceImpl implements ExpenseService {
 
     private final ExpenseRepository expenseRepository;
     private final UserRepository userRepository;
-    private final UserService userService;
+    private final TotalExpensesAccumulator totalExpensesAccumulator;
+    private final CategoryRepository categoryRepository;
+    private final ExpenseMapper expenseMapper;
+    private final ExpenseIngestQueue ingestQueue;
+    private final ExpenseIngestProperties ingestProperties;
+    private final ExpenseWriteEvents writeEvents;
+    private final MonthlyReportCache monthlyReportCache;
+    private final ExpenseListingRepository listingRepository;
+    private final ExpenseSnapshotCache snapshotCache;
+    private final ReportQueryEngine reportEngine;
+    private final BudgetService budgetService;
 
-    public ExpenseServiceImpl(ExpenseRepository expenseRepository, UserRepository userRepository, UserService userService) {
+    public ExpenseServiceImpl(ExpenseRepository expenseRepository, UserRepository userRepository,
+                              TotalExpensesAccumulator totalExpensesAccumulator,
+                              CategoryRepository categoryRepository, ExpenseMapper expenseMapper,
+                              ExpenseIngestQueue ingestQueue, ExpenseIngestProperties ingestProperties,
+                              ExpenseWriteEvents writeEvents,
+                              MonthlyReportCache monthlyReportCache,
+                              ExpenseListingRepository listingRepository, ExpenseSnapshotCache snapshotCache,
+                              ReportQueryEngine reportEngine, BudgetService budgetService) {
         this.expenseRepository = expenseRepository;
         this.userRepository = userRepository;
-        this.userService = userService;
+        this.totalExpensesAccumulator = totalExpensesAccumulator;
+        this.categoryRepository = categoryRepository;
+        this.expenseMapper = expenseMapper;
+        this.ingestQueue = ingestQueue;
+        this.ingestProperties = ingestProperties;
+        this.writeEvents = writeEvents;
+        this.monthlyReportCache = monthlyReportCache;
+        this.listingRepository = listingRepository;
+        this.snapshotCache = snapshotCache;
+        this.reportEngine = reportEngine;
+        this.budgetService = budgetService;
     }
 
+    /**
+     * При app.expenses.snapshot.enabled отчёт считается по колоночному снимку расходов в памяти.
+     * Иначе суммы по категориям и общий итог считаются одним запросом {@link ReportQueryEngine}.
+     */
     @Override
     public ExpensesReportDto getReport(UserDetailsImpl currentUser, Instant from, Instant to) {
         Long userId = currentUser.getDomainUser().getId();
-        List<CategorySumDto> list = expenseRepository.sumByCategoryForUserBetween(userId, from, to);
-        BigDecimal amount = expenseRepository.totalForUserBetween(userId, from, to);
-        return new ExpensesReportDto(amount, list);
+        if (snapshotCache.isEnabled()) {
+            return snapshotCache.report(userId, from, to);
+        }
+        return reportEngine.run(ReportSpec.between(userId, from, to, ReportDimension.CATEGORY))
+                .categoryReport(List.of());
     }
 
     @Override
     @Transactional
-    @CacheEvict(value = "monthlyReports", key = "T(java.util.Objects).hash(#currentUser.domainUser.id)")
     public Expense addExpense(UserDetailsImpl currentUser, Expense expense) {
         User user = userRepository.findById(currentUser.getDomainUser().getId())
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
         expense.setUser(user);
         Expense saved = expenseRepository.save(expense);
+        writeEvents.added(saved);
 
-        user.increaseTotalExpenses(expense.getAmount());
-        userService.clearTotalExpensesCache(user.getId());
+        totalExpensesAccumulator.add(user.getId(), expense.getAmount());
         return saved;
     }
 
+    /**
+     * Добавляет расход и возвращает бюджет его категории с учётом этого расхода. Бюджет проверяется
+     * по счётчикам {@link com.example.expensetracker.budget.BudgetTracker} до записи, без агрегирующих запросов.
+     */
+    @Override
+    @Transactional
+    public ExpenseAddedDto addExpense(UserDetailsImpl currentUser, ExpenseRequestDto dto) {
+        Category category = dto.categoryId() == null ? null : categoryRepository.findById(dto.categoryId())
+                .orElseThrow(() -> new IllegalArgumentException("Category not found"));
+        BudgetDto budget = budgetService.projected(currentUser.getDomainUser().getId(), category, dto.amount(),
+                dto.occurredAt()).orElse(null);
+        Expense saved = addExpense(currentUser, expenseMapper.fromRequest(dto, category));
+        ExpenseDto expense = new ExpenseDto(saved.getId(), saved.getAmount(), saved.getOccurredAt(),
+                category == null ? null : category.getId(), category == null ? null : category.getName(),
+                saved.getDescription());
+        return new ExpenseAddedDto(expense, budget);
+    }
+
+    /**
+     * Пакетное добавление расходов: пользователь и категории загружаются один раз, INSERT-ы уходят
+     * JDBC-батчами (id выдаёт pooled-последовательность), в накопитель total_expenses уходит одна дельта
+     * на весь пакет.
+     */
+    @Override
+    @Transactional
+    public ExpenseBatchResultDto addExpenses(UserDetailsImpl currentUser, List<ExpenseRequestDto> requests) {
+        User user = userRepository.findById(currentUser.getDomainUser().getId())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        Map<Long, Category> categories = loadCategories(requests);
+
+        List<Expense> expenses = new ArrayList<>(requests.size());
+        long total = 0;
+        for (ExpenseRequestDto dto : requests) {
+            Category category = dto.categoryId() == null ? null : categories.get(dto.categoryId());
+            Expense expense = expenseMapper.fromRequest(dto, category);
+            expense.setUser(user);
+            expenses.add(expense);
+            total = Money.add(total, Money.toCents(dto.amount()));
+        }
+        expenseRepository.saveAll(expenses);
+        writeEvents.added(expenses);
+
+        totalExpensesAccumulator.add(user.getId(), Money.ofCents(total));
+        return new ExpenseBatchResultDto(expenses.size(), Money.fromCents(total));
+    }
+
+    /**
+     * Ставит расход в очередь отложенной записи. Категория проверяется сразу, чтобы ошибка вернулась клиенту,
+     * а не всплыла в потоке-писателе. При await-commit метод ждёт коммита пакета с этим расходом.
+     */
+    @Override
+    public void queueExpense(UserDetailsImpl currentUser, ExpenseRequestDto dto) {
+        if (dto.categoryId() != null && !categoryRepository.existsById(dto.categoryId())) {
+            throw new IllegalArgumentException("Category not found");
+        }
+        CompletableFuture<Void> committed = ingestQueue.submit(
+                new QueuedExpense(currentUser.getDomainUser().getId(), dto));
+        if (ingestProperties.awaitCommit()) {
+            try {
+                committed.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+    }
+
     @Override
     @Transactional
-    @CacheEvict(value = "monthlyReports", key = "T(java.util.Objects).hash(#currentUser.domainUser.id)")
     public void deleteExpense(UserDetailsImpl currentUser, Long expenseId) {
         Expense expense = expenseRepository.findById(expenseId)
                 .orElseThrow(() -> new IllegalArgumentException("Expense not found"));
@@ -67,36 +196,86 @@ public class ExpenseServiceImpl implements ExpenseService {
             throw new SecurityException("Attempt to delete someone else's expense");
         }
 
-        user.decreaseTotalExpenses(expense.getAmount());
-        userRepository.save(user);
         expenseRepository.delete(expense);
-        userService.clearTotalExpensesCache(user.getId());
+        writeEvents.removed(expense);
+        totalExpensesAccumulator.add(user.getId(), expense.getAmount().negate());
     }
 
+    /**
+     * Месячный отчёт берётся из {@link MonthlyReportCache}; при промахе считается {@link ReportQueryEngine}
+     * с той же группировкой, что и отчёт за период, включая расходы без категории. Кэш обновляется
+     * дельтами записей, поэтому при попадании в БД не ходим вовсе.
+     */
     @Override
-    @Transactional(readOnly = true)
-    @Cacheable(value = "monthlyReports", key = "T(java.util.Objects).hash(#currentUser.domainUser.id, #month, #year)")
     public ExpensesReportDto getReportMonthly(Month month, Integer year, UserDetailsImpl currentUser) {
+        int y = (year == null) ? LocalDate.now().getYear() : year;
+        YearMonth yearMonth = YearMonth.of(y, month.ordinal() + 1);
+        return monthlyReportCache.get(currentUser.getDomainUser().getId(), yearMonth,
+                () -> loadReportMonthly(yearMonth, currentUser));
+    }
+
+    private ExpensesReportDto loadReportMonthly(YearMonth month, UserDetailsImpl currentUser) {
         User user = userRepository.findByEmail(currentUser.getUsername())
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
-        int y = (year == null) ? LocalDate.now().getYear() : year;
-        int monthNumber = month.ordinal() + 1;
-
-        ZoneId zone = ZoneId.systemDefault();
-        LocalDate startDate = LocalDate.of(y, monthNumber, 1);
-        LocalDate endDateInclusive = startDate.withDayOfMonth(startDate.lengthOfMonth());
+        return reportEngine.run(ReportSpec.months(user.getId(), month, month, ZoneId.systemDefault(),
+                ReportDimension.CATEGORY)).categoryReport(List.of());
+    }
 
-        Instant startInstant = startDate.atStartOfDay(zone).toInstant();
-        Instant endInstant = endDateInclusive.plusDays(1).atStartOfDay(zone).toInstant().minusNanos(1);
+    /**
+     * Отчёты за months месяцев подряд, начиная с from. Месяцы, которых нет в {@link MonthlyReportCache},
+     * считаются одним запросом с группировкой по месяцу и категории — от первого до последнего промаха;
+     * итог месяца — промежуточный итог того же запроса. Загруженные месяцы кэшируются как обычные
+     * месячные отчёты.
+     */
+    @Override
+    public List<MonthlyReportDto> getReportMonthlyRange(UserDetailsImpl currentUser, YearMonth from, int months) {
+        Long userId = currentUser.getDomainUser().getId();
+        List<YearMonth> range = new ArrayList<>(months);
+        for (int i = 0; i < months; i++) {
+            range.add(from.plusMonths(i));
+        }
+        Map<YearMonth, ExpensesReportDto> reports = monthlyReportCache.getAll(userId, range,
+                missing -> loadReportMonths(userId, missing.get(0), missing.get(missing.size() - 1)));
+        List<MonthlyReportDto> result = new ArrayList<>(reports.size());
+        reports.forEach((month, report) -> result.add(new MonthlyReportDto(month, report)));
+        return result;
+    }
 
-        List<CategorySumDto> items = expenseRepository.getMonthlyReport(user, startInstant, endInstant);
+    private Map<YearMonth, ExpensesReportDto> loadReportMonths(Long userId, YearMonth first, YearMonth last) {
+        ReportResult result = reportEngine.run(ReportSpec.months(userId, first, last, ZoneId.systemDefault(),
+                ReportDimension.MONTH, ReportDimension.CATEGORY));
+        Map<YearMonth, ExpensesReportDto> reports = new LinkedHashMap<>();
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            reports.put(month, result.categoryReport(List.of(month)));
+        }
+        return reports;
+    }
 
-        BigDecimal total = items.stream()
-                .map(CategorySumDto::sum)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    /**
+     * Страница расходов пользователя от новых к старым. Курсор непрозрачен для клиента;
+     * испорченный курсор — IllegalArgumentException (400).
+     */
+    @Override
+    public ExpensePageDto listExpenses(UserDetailsImpl currentUser, ExpenseFilterDto filter) {
+        ExpenseCursor cursor = filter.getCursor() == null || filter.getCursor().isBlank() ? null
+                : ExpenseCursor.decode(filter.getCursor());
+        return listingRepository.findPage(currentUser.getDomainUser().getId(), filter, cursor);
+    }
 
-        return new ExpensesReportDto(total, items);
+    private Map<Long, Category> loadCategories(List<ExpenseRequestDto> requests) {
+        Set<Long> ids = requests.stream()
+                .map(ExpenseRequestDto::categoryId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, Category> categories = categoryRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+        if (categories.size() != ids.size()) {
+            throw new IllegalArgumentException("Category not found");
+        }
+        return categories;
     }
 }
-
@@ -1,5 +1,7 @@
 package com.example.expensetracker.service;
 
+import com.example.expensetracker.dto.RecurringCatchUpDto;
+import com.example.expensetracker.dto.RecurringForecastDto;
 import com.example.expensetracker.dto.RecurringTransactionDto;
 import com.example.expensetracker.dto.RecurringTransactionRequestDto;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -9,9 +11,11 @@ import java.util.List;
 public interface RecurringTransactionService {
 
     void processRecurringTransactions();
+    RecurringCatchUpDto catchUp(boolean dryRun);
     List<RecurringTransactionDto> getUserRecurringTransactions(UserDetails user);
     RecurringTransactionDto createRecurringTransaction(UserDetails user,
                                                        RecurringTransactionRequestDto recurringTransaction);
     RecurringTransactionDto toggleActive(Long id);
+    RecurringForecastDto forecast(UserDetails user, int months);
 }
 
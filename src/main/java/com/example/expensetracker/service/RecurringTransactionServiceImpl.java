@@ -1,75 +1,79 @@
 package com.example.expensetracker.service;
 
+import com.example.expensetracker.dto.RecurringCatchUpDto;
+import com.example.expensetracker.dto.RecurringForecastDto;
 import com.example.expensetracker.dto.RecurringTransactionDto;
 import com.example.expensetracker.dto.RecurringTransactionRequestDto;
 import com.example.expensetracker.exception.UserNotFoundByIdException;
+import com.example.expensetracker.forecast.RecurringForecastCache;
 import com.example.expensetracker.mapper.RecurringTransactionMapper;
 import com.example.expensetracker.model.Category;
-import com.example.expensetracker.model.Expense;
 import com.example.expensetracker.model.RecurringTransaction;
 import com.example.expensetracker.model.User;
+import com.example.expensetracker.recurring.RecurringCatchUpPlan;
+import com.example.expensetracker.recurring.RecurringDueTimer;
+import com.example.expensetracker.recurring.RecurringRunResult;
+import com.example.expensetracker.recurring.RecurringTransactionProcessor;
 import com.example.expensetracker.repository.CategoryRepository;
-import com.example.expensetracker.repository.ExpenseRepository;
 import com.example.expensetracker.repository.RecurringTransactionRepository;
 import com.example.expensetracker.repository.UserRepository;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Clock;
 import java.time.LocalDate;
-import java.time.ZoneId;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
 public class RecurringTransactionServiceImpl implements RecurringTransactionService {
 
-    private static final Logger log = LoggerFactory.getLogger(RecurringTransactionServiceImpl.class);
-
     private final RecurringTransactionRepository recurringRepo;
-    private final ExpenseRepository expenseRepo;
     private final UserRepository userRepo;
     private final CategoryRepository categoryRepo;
     private final RecurringTransactionMapper mapper;
+    private final RecurringTransactionProcessor processor;
+    private final RecurringDueTimer dueTimer;
+    private final RecurringForecastCache forecastCache;
+    private final Clock clock;
 
     public RecurringTransactionServiceImpl(RecurringTransactionRepository recurringRepo,
-                                           ExpenseRepository expenseRepo,
                                            UserRepository userRepo,
                                            CategoryRepository categoryRepo,
-                                           RecurringTransactionMapper mapper) {
+                                           RecurringTransactionMapper mapper,
+                                           RecurringTransactionProcessor processor,
+                                           RecurringDueTimer dueTimer,
+                                           RecurringForecastCache forecastCache,
+                                           Clock clock) {
         this.recurringRepo = recurringRepo;
-        this.expenseRepo = expenseRepo;
         this.userRepo = userRepo;
         this.categoryRepo = categoryRepo;
         this.mapper = mapper;
+        this.processor = processor;
+        this.dueTimer = dueTimer;
+        this.forecastCache = forecastCache;
+        this.clock = clock;
     }
 
-    @Transactional
     @Scheduled(cron = "${spring.scheduler.recurring-cron}", zone = "${spring.scheduler.zone}")
     public void processRecurringTransactions() {
-        LocalDate today = LocalDate.now();
-        List<RecurringTransaction> dueTransactions = recurringRepo
-                .findAllByNextExecutionDateLessThanEqual(today);
-
-        for (RecurringTransaction recurring : dueTransactions) {
-            Expense expense = new Expense();
-            expense.setAmount(recurring.getAmount());
-            expense.setDescription(recurring.getDescription());
-            expense.setCategory(recurring.getCategory());
-            expense.setUser(recurring.getUser());
-            expense.setOccurredAt(today.atStartOfDay(ZoneId.systemDefault()).toInstant());
-
-            expenseRepo.save(expense);
-
-            recurring.setNextExecutionDate(today.plusDays(recurring.getIntervalDays()));
-            recurringRepo.save(recurring);
+        if (dueTimer.isRunning()) {
+            return;
+        }
+        processor.process(LocalDate.now(clock));
+    }
 
-            log.info("Создана повторяющаяся транзакция для пользователя {} на сумму {}", recurring.getUser().getEmail(),
-                    recurring.getAmount());
+    @Override
+    public RecurringCatchUpDto catchUp(boolean dryRun) {
+        LocalDate today = LocalDate.now(clock);
+        RecurringCatchUpPlan plan = processor.planCatchUp(today);
+        if (dryRun) {
+            return new RecurringCatchUpDto(true, plan.rules(), plan.expenses(), 0, 0);
         }
+        RecurringRunResult result = processor.catchUp(today);
+        return new RecurringCatchUpDto(false, plan.rules(), plan.expenses(), result.created(), result.failed());
     }
 
     @Override
@@ -93,7 +97,10 @@ public class RecurringTransactionServiceImpl implements RecurringTransactionServ
         RecurringTransaction entity = mapper.fromRequest(dto, category);
         entity.setUser(user);
         entity.setActive(true);
-        return mapper.toDto(recurringRepo.save(entity));
+        RecurringTransaction saved = recurringRepo.save(entity);
+        dueTimer.scheduled(saved.getId(), saved.getNextExecutionDate());
+        forecastCache.invalidate(List.of(user.getId()));
+        return mapper.toDto(saved);
     }
 
     @Override
@@ -103,7 +110,20 @@ public class RecurringTransactionServiceImpl implements RecurringTransactionServ
                 () -> new IllegalArgumentException("Recurring transaction not found"));
         transaction.setActive(!transaction.isActive());
         RecurringTransaction saved = recurringRepo.save(transaction);
+        if (saved.isActive()) {
+            dueTimer.scheduled(saved.getId(), saved.getNextExecutionDate());
+        } else {
+            dueTimer.cancelled(saved.getId());
+        }
+        forecastCache.invalidate(List.of(saved.getUser().getId()));
         return mapper.toDto(saved);
     }
+
+    @Override
+    public RecurringForecastDto forecast(UserDetails currentUser, int months) {
+        User user = userRepo.findByEmail(currentUser.getUsername()).orElseThrow(() ->
+                new UserNotFoundByIdException("User not found"));
+        return forecastCache.get(user.getId(), LocalDate.now(clock), months);
+    }
 }
 
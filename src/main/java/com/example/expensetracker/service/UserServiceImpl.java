@@ -5,6 +5,7 @@ import com.example.expensetracker.dto.ChangePasswordRequest;
 import com.example.expensetracker.logging.audit.AuditService;
 import com.example.expensetracker.model.User;
 import com.example.expensetracker.repository.UserRepository;
+import com.example.expensetracker.totals.TotalExpensesAccumulator;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.EnableCaching;
@@ -23,11 +24,14 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final AuditService auditService;
+    private final TotalExpensesAccumulator totalExpensesAccumulator;
 
-    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder, AuditService auditService) {
+    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder, AuditService auditService,
+                           TotalExpensesAccumulator totalExpensesAccumulator) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.auditService = auditService;
+        this.totalExpensesAccumulator = totalExpensesAccumulator;
     }
 
     @Override
@@ -51,12 +55,15 @@ public class UserServiceImpl implements UserService {
         auditService.logPasswordChange(user);
     }
 
+    /**
+     * Сохранённая сумма плюс ещё не сброшенные в БД дельты.
+     */
     @Override
     @Cacheable(value = "totalExpenses", key = "#userId")
     public BigDecimal getTotalExpenses(Long userId) {
-        return userRepository.findById(userId)
+        return totalExpensesAccumulator.withPending(userId, () -> userRepository.findById(userId)
                 .map(User::getTotalExpenses)
-                .orElse(BigDecimal.ZERO);
+                .orElse(BigDecimal.ZERO));
     }
 
     @Override
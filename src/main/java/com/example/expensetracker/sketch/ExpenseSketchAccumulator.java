@@ -0,0 +1,201 @@
+package com.example.expensetracker.sketch;
+
+import com.example.expensetracker.config.ExpenseSketchProperties;
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.tx.InFlightWrites;
+import com.example.expensetracker.write.ExpenseWriteListener;
+import com.tdunning.math.stats.MergingDigest;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Накопитель ещё не записанных в expense_quantile_sketches сумм расходов: по скетчу на ключ, куда суммы
+ * добавляются после коммита транзакции. До коммита транзакция копит только сами суммы ({@link SketchSamples}):
+ * скетч на каждую запись не создаётся. Сброс в БД с объединением с сохранёнными скетчами выполняет
+ * {@link ExpenseSketchFlusher}.
+ * <p>
+ * Скетч изменяется только внутри compute своего ключа, поэтому параллельные записи не портят его,
+ * а сброс забирает ключ целиком через remove. Чтение (сохранённое + несброшенное) и сброс взаимно
+ * исключены, как в накопителе total_expenses.
+ * <p>
+ * t-digest не умеет вычитать значения, поэтому удаление расхода помечает скетчи пользователя устаревшими,
+ * и {@link #rebuild} пересобирает их из expenses. Вставки в обход сущностей (COPY, догоняющий проход)
+ * передают суммы через {@link #record}. Записи проходят через {@link InFlightWrites}: пересборка,
+ * совпавшая по времени с записью пользователя, отбрасывается и повторяется.
+ */
+@Component
+public class ExpenseSketchAccumulator implements ExpenseWriteListener {
+
+    private final Map<SketchKey, MergingDigest> pending = new ConcurrentHashMap<>();
+    private final Set<Long> stale = ConcurrentHashMap.newKeySet();
+    private final InFlightWrites writes = new InFlightWrites();
+    private final ReadWriteLock flushLock = new ReentrantReadWriteLock();
+    private final ExpenseSketchProperties props;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    public ExpenseSketchAccumulator(ExpenseSketchProperties props) {
+        this.props = props;
+    }
+
+    public MergingDigest newSketch() {
+        return new MergingDigest(props.compression());
+    }
+
+    /**
+     * Добавляет суммы расходов в скетчи их месяцев. Внутри транзакции — после коммита, при откате отбрасываются.
+     */
+    @Override
+    public void added(Collection<Expense> expenses) {
+        SketchSamples samples = new SketchSamples();
+        for (Expense expense : expenses) {
+            samples.add(new SketchKey(expense.getUser().getId(),
+                    expense.getCategory() == null ? null : expense.getCategory().getId(),
+                    YearMonth.from(expense.getOccurredAt().atZone(zone))), expense.getAmount());
+        }
+        record(samples);
+    }
+
+    /**
+     * Добавляет готовые суммы, например расходов, вставленных одним запросом. Внутри транзакции — после коммита.
+     */
+    public void record(SketchSamples samples) {
+        if (samples.isEmpty()) {
+            return;
+        }
+        writes.write(samples.userIds(), userId -> merge(samples, userId));
+    }
+
+    @Override
+    public void removed(Expense expense) {
+        markStale(List.of(expense.getUser().getId()));
+    }
+
+    /**
+     * Помечает скетчи пользователей устаревшими; их пересоберёт ближайший {@link #rebuild}.
+     * Внутри транзакции — после коммита.
+     */
+    public void markStale(Collection<Long> userIds) {
+        writes.write(userIds, stale::add);
+    }
+
+    /**
+     * Пересобирает скетчи не более чем limit устаревших пользователей: loader строит их из expenses, writer
+     * заменяет сохранённые, после чего несброшенные значения пользователя отбрасываются — они уже учтены
+     * в expenses. Пересборка, во время которой у пользователя была запись, не сохраняется, и пользователь
+     * остаётся устаревшим.
+     *
+     * @return число пересобранных пользователей
+     */
+    public int rebuild(int limit, Function<Long, Map<SketchKey, MergingDigest>> loader,
+                       BiConsumer<Long, Map<SketchKey, MergingDigest>> writer) {
+        int rebuilt = 0;
+        for (Long userId : stale.stream().limit(limit).toList()) {
+            long stamp = writes.stamp(userId);
+            stale.remove(userId);
+            boolean replaced;
+            try {
+                Map<SketchKey, MergingDigest> sketches = loader.apply(userId);
+                flushLock.writeLock().lock();
+                try {
+                    replaced = writes.putIfQuiet(userId, stamp, () -> {
+                        writer.accept(userId, sketches);
+                        pending.keySet().removeIf(key -> key.userId().equals(userId));
+                    });
+                } finally {
+                    flushLock.writeLock().unlock();
+                }
+            } catch (RuntimeException e) {
+                stale.add(userId);
+                throw e;
+            }
+            if (replaced) {
+                rebuilt++;
+            } else {
+                stale.add(userId);
+            }
+        }
+        return rebuilt;
+    }
+
+    /**
+     * Дополняет скетчи пользователя, прочитанные persisted, несброшенными значениями.
+     */
+    public Map<SketchKey, MergingDigest> withPending(Long userId, Supplier<Map<SketchKey, MergingDigest>> persisted) {
+        flushLock.readLock().lock();
+        try {
+            Map<SketchKey, MergingDigest> sketches = new HashMap<>(persisted.get());
+            for (SketchKey key : pending.keySet()) {
+                if (!key.userId().equals(userId)) {
+                    continue;
+                }
+                pending.computeIfPresent(key, (k, sketch) -> {
+                    sketches.computeIfAbsent(k, any -> newSketch()).add(sketch);
+                    return sketch;
+                });
+            }
+            return sketches;
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Забирает все несброшенные скетчи и передаёт их writer. Если writer упал, скетчи возвращаются в накопитель.
+     *
+     * @return число сброшенных скетчей
+     */
+    public int flush(Consumer<Map<SketchKey, MergingDigest>> writer) {
+        flushLock.writeLock().lock();
+        try {
+            Map<SketchKey, MergingDigest> drained = new HashMap<>();
+            for (SketchKey key : pending.keySet()) {
+                MergingDigest sketch = pending.remove(key);
+                if (sketch != null) {
+                    drained.put(key, sketch);
+                }
+            }
+            if (drained.isEmpty()) {
+                return 0;
+            }
+            try {
+                writer.accept(drained);
+            } catch (RuntimeException e) {
+                drained.forEach((key, sketch) -> pending.merge(key, sketch, (current, returned) -> {
+                    current.add(returned);
+                    return current;
+                }));
+                throw e;
+            }
+            return drained.size();
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    private void merge(SketchSamples samples, Long userId) {
+        samples.forEach((key, values) -> {
+            if (!key.userId().equals(userId)) {
+                return;
+            }
+            pending.compute(key, (k, sketch) -> {
+                MergingDigest target = sketch == null ? newSketch() : sketch;
+                values.addTo(target);
+                return target;
+            });
+        });
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.expensetracker.sketch;
+
+import com.example.expensetracker.config.ExpenseSketchProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Периодически объединяет накопленные скетчи с сохранёнными в expense_quantile_sketches и пересобирает
+ * из expenses скетчи пользователей, помеченных устаревшими, — не больше rebuild-batch-size за запуск. Скетчи, не сброшенные к аварийному завершению JVM
+ * (не дольше flush-interval), теряются; при штатной остановке выполняется финальный сброс.
+ * <p>
+ * Пустая таблица при старте заполняется из expenses — так скетчи появляются для расходов, созданных
+ * до миграции 011. После аварии или при расхождении скетчи всех пользователей пересобирает {@link #rebuildAll()}
+ * (POST /api/admin/sketches/rebuild).
+ */
+@Component
+public class ExpenseSketchFlusher implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseSketchFlusher.class);
+
+    private final ExpenseSketchAccumulator accumulator;
+    private final ExpenseSketchRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ExpenseSketchProperties props;
+
+    public ExpenseSketchFlusher(ExpenseSketchAccumulator accumulator, ExpenseSketchRepository repository,
+                                TransactionTemplate transactionTemplate, ExpenseSketchProperties props) {
+        this.accumulator = accumulator;
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.props = props;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (repository.isEmpty()) {
+            List<Long> userIds = repository.userIds();
+            accumulator.markStale(userIds);
+            log.info("Скетчи сумм расходов будут построены из expenses для {} пользователей", userIds.size());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.expenses.sketches.flush-interval}")
+    public void flush() {
+        try {
+            int sketches = accumulator.flush(drained ->
+                    transactionTemplate.executeWithoutResult(status -> repository.merge(drained)));
+            if (sketches > 0) {
+                log.debug("Сброшено скетчей сумм расходов: {}", sketches);
+            }
+            int users = rebuild(Math.max(1, props.rebuildBatchSize()));
+            if (users > 0) {
+                log.debug("Пересобраны скетчи сумм расходов {} пользователей", users);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Не удалось сбросить скетчи сумм расходов, повтор при следующем запуске: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Пересобирает из expenses скетчи всех пользователей. Несброшенные значения других экземпляров,
+     * уже учтённые в expenses, после их сброса будут учтены дважды — запускать, когда запись расходов
+     * на остальных экземплярах остановлена.
+     *
+     * @return число пересобранных пользователей
+     */
+    public int rebuildAll() {
+        accumulator.markStale(repository.userIds());
+        int users = rebuild(Integer.MAX_VALUE);
+        log.info("Скетчи сумм расходов пересобраны из expenses для {} пользователей", users);
+        return users;
+    }
+
+    private int rebuild(int limit) {
+        return accumulator.rebuild(limit,
+                userId -> transactionTemplate.execute(status -> repository.build(userId, accumulator::newSketch)),
+                (userId, sketches) -> transactionTemplate.executeWithoutResult(
+                        status -> repository.replace(userId, sketches)));
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.expensetracker.sketch;
+
+import com.example.expensetracker.config.ExpenseSketchProperties;
+import com.tdunning.math.stats.MergingDigest;
+import com.tdunning.math.stats.TDigest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.nio.ByteBuffer;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Хранение скетчей в expense_quantile_sketches в компактном формате t-digest (asSmallBytes).
+ */
+@Repository
+public class ExpenseSketchRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO expense_quantile_sketches (user_id, category_id, month, sketch)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (user_id, category_id, month) DO NOTHING
+            """;
+
+    private static final String KEY_WHERE = " WHERE user_id = ? AND month = ? AND ";
+
+    private static final String LOAD_SQL = """
+            SELECT category_id, month, sketch
+            FROM expense_quantile_sketches
+            WHERE user_id = ? AND month >= ? AND month <= ?""";
+
+    private static final String BUILD_SQL = """
+            SELECT category_id, CAST(date_trunc('month', occurred_at) AS date) AS month, amount
+            FROM expenses
+            WHERE user_id = ?
+            """;
+
+    private static final String USER_IDS_SQL = """
+            SELECT user_id FROM expenses
+            UNION
+            SELECT user_id FROM expense_quantile_sketches
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ExpenseSketchProperties props;
+
+    public ExpenseSketchRepository(JdbcTemplate jdbcTemplate, ExpenseSketchProperties props) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.props = props;
+    }
+
+    /**
+     * Объединяет скетчи с сохранёнными. Новый ключ вставляется как есть, существующий блокируется
+     * (SELECT FOR UPDATE), объединяется и перезаписывается. Вызывать в транзакции.
+     */
+    public void merge(Map<SketchKey, MergingDigest> sketches) {
+        sketches.forEach((key, sketch) -> {
+            LocalDate month = key.month().atDay(1);
+            int inserted = jdbcTemplate.update(INSERT_SQL, key.userId(), key.categoryId(), month, encode(sketch));
+            if (inserted > 0) {
+                return;
+            }
+            String category = key.categoryId() == null ? "category_id IS NULL" : "category_id = ?";
+            Object[] args = key.categoryId() == null ? new Object[]{key.userId(), month}
+                    : new Object[]{key.userId(), month, key.categoryId()};
+            byte[] stored = jdbcTemplate.queryForObject(
+                    "SELECT sketch FROM expense_quantile_sketches" + KEY_WHERE + category + " FOR UPDATE",
+                    byte[].class, args);
+            MergingDigest merged = decode(stored);
+            merged.add(sketch);
+            List<Object> updateArgs = new ArrayList<>(List.of(encode(merged)));
+            updateArgs.addAll(List.of(args));
+            jdbcTemplate.update("UPDATE expense_quantile_sketches SET sketch = ?" + KEY_WHERE + category,
+                    updateArgs.toArray());
+        });
+    }
+
+    /**
+     * Скетчи пользователя за месяцы [from, to]; categoryId null — все категории.
+     */
+    public Map<SketchKey, MergingDigest> load(Long userId, YearMonth from, YearMonth to, Long categoryId) {
+        String sql = categoryId == null ? LOAD_SQL : LOAD_SQL + " AND category_id = ?";
+        Object[] args = categoryId == null ? new Object[]{userId, from.atDay(1), to.atDay(1)}
+                : new Object[]{userId, from.atDay(1), to.atDay(1), categoryId};
+        Map<SketchKey, MergingDigest> sketches = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            long category = rs.getLong("category_id");
+            SketchKey key = new SketchKey(userId, rs.wasNull() ? null : category,
+                    YearMonth.from(rs.getObject("month", LocalDate.class)));
+            sketches.put(key, decode(rs.getBytes("sketch")));
+        }, args);
+        return sketches;
+    }
+
+    /**
+     * Строит скетчи пользователя из expenses однонаправленным курсором порциями по fetchSize —
+     * вызывать в транзакции.
+     */
+    public Map<SketchKey, MergingDigest> build(Long userId, Supplier<MergingDigest> newSketch) {
+        Map<SketchKey, MergingDigest> sketches = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(BUILD_SQL, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(Math.max(1, props.fetchSize()));
+            ps.setLong(1, userId);
+            return ps;
+        }, rs -> {
+            SketchKey key = new SketchKey(userId, rs.getObject("category_id", Long.class),
+                    YearMonth.from(rs.getObject("month", LocalDate.class)));
+            sketches.computeIfAbsent(key, k -> newSketch.get()).add(rs.getBigDecimal("amount").doubleValue());
+        });
+        return sketches;
+    }
+
+    /**
+     * Заменяет все сохранённые скетчи пользователя. Вызывать в транзакции.
+     */
+    public void replace(Long userId, Map<SketchKey, MergingDigest> sketches) {
+        jdbcTemplate.update("DELETE FROM expense_quantile_sketches WHERE user_id = ?", userId);
+        List<Object[]> rows = new ArrayList<>(sketches.size());
+        sketches.forEach((key, sketch) ->
+                rows.add(new Object[]{key.userId(), key.categoryId(), key.month().atDay(1), encode(sketch)}));
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    /**
+     * Пользователи, у которых есть расходы или сохранённые скетчи.
+     */
+    public List<Long> userIds() {
+        return jdbcTemplate.queryForList(USER_IDS_SQL, Long.class);
+    }
+
+    public boolean isEmpty() {
+        return !Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM expense_quantile_sketches)", Boolean.class));
+    }
+
+    public static byte[] encode(TDigest sketch) {
+        ByteBuffer buffer = ByteBuffer.allocate(sketch.smallByteSize());
+        sketch.asSmallBytes(buffer);
+        return buffer.array();
+    }
+
+    public static MergingDigest decode(byte[] bytes) {
+        return MergingDigest.fromBytes(ByteBuffer.wrap(bytes));
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.expensetracker.sketch;
+
+import java.time.YearMonth;
+
+/**
+ * Скетч сумм расходов пользователя в категории за месяц; categoryId null — расходы без категории.
+ */
+public record SketchKey(Long userId, Long categoryId, YearMonth month) {
+}
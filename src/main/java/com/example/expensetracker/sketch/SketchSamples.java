@@ -0,0 +1,72 @@
+package com.example.expensetracker.sketch;
+
+import com.tdunning.math.stats.MergingDigest;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Суммы расходов одной транзакции, ещё не добавленные в скетчи: на ключ — значения с весами (числом
+ * одинаковых расходов). Скетч на запись не создаётся — значения добавляются в скетч накопителя
+ * {@link ExpenseSketchAccumulator} после коммита.
+ */
+public class SketchSamples {
+
+    private final Map<SketchKey, Values> samples = new HashMap<>();
+
+    public void add(SketchKey key, BigDecimal amount) {
+        add(key, amount, 1);
+    }
+
+    public void add(SketchKey key, BigDecimal amount, int count) {
+        samples.computeIfAbsent(key, k -> new Values()).add(amount.doubleValue(), count);
+    }
+
+    public boolean isEmpty() {
+        return samples.isEmpty();
+    }
+
+    Set<Long> userIds() {
+        Set<Long> userIds = new HashSet<>();
+        samples.keySet().forEach(key -> userIds.add(key.userId()));
+        return userIds;
+    }
+
+    void forEach(BiConsumer<SketchKey, Values> action) {
+        samples.forEach(action);
+    }
+
+    static final class Values {
+
+        private double[] values = new double[4];
+        private int[] weights = new int[4];
+        private int size;
+
+        void add(double value, int weight) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            values[size] = value;
+            weights[size] = weight;
+            size++;
+        }
+
+        /**
+         * Повторы добавляются по одному: точка с весом больше 1 может нарушить предел размера центроида
+         * у краёв распределения.
+         */
+        void addTo(MergingDigest sketch) {
+            for (int i = 0; i < size; i++) {
+                for (int repeat = 0; repeat < weights[i]; repeat++) {
+                    sketch.add(values[i]);
+                }
+            }
+        }
+    }
+}
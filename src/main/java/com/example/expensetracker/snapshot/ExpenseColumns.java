@@ -0,0 +1,214 @@
+package com.example.expensetracker.snapshot;
+
+import com.example.expensetracker.dto.CategorySumDto;
+import com.example.expensetracker.dto.ExpensesReportDto;
+import com.example.expensetracker.money.Money;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Расходы одного пользователя в трёх параллельных примитивных массивах, отсортированных по времени:
+ * время в микросекундах эпохи (точность occurred_at), сумма в копейках и код категории.
+ * Коды категорий — индексы в словаре пользователя, код 0 — расход без категории.
+ * <p>
+ * Отчёт за период находит границы бинарным поиском и суммирует строки в массив по коду категории,
+ * не создавая объектов на строку. Все методы синхронизированы: после коммита записи массив
+ * дописывается из другого потока.
+ */
+public final class ExpenseColumns {
+
+    static final String UNCATEGORIZED = "UNCATEGORIZED";
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final long MICROS_PER_SECOND = 1_000_000;
+    private static final int NANOS_PER_MICRO = 1_000;
+    private static final int BYTES_PER_ROW = Long.BYTES + Long.BYTES + Integer.BYTES;
+
+    private long[] times;
+    private long[] amounts;
+    private int[] categories;
+    private int size;
+    private long[] categoryIds = new long[INITIAL_CAPACITY];
+    private String[] categoryNames = new String[INITIAL_CAPACITY];
+    private int categoryCount = 1;
+
+    public ExpenseColumns() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public ExpenseColumns(int capacity) {
+        int initial = Math.max(INITIAL_CAPACITY, capacity);
+        this.times = new long[initial];
+        this.amounts = new long[initial];
+        this.categories = new int[initial];
+    }
+
+    /**
+     * Добавляет расход, сохраняя порядок по времени. Расходы обычно приходят по возрастанию времени,
+     * тогда это запись в конец массива.
+     */
+    public synchronized void add(long time, long cents, Long categoryId, String categoryName) {
+        int code = code(categoryId, categoryName);
+        if (size == times.length) {
+            grow();
+        }
+        int index = size == 0 || times[size - 1] <= time ? size : upperBound(time);
+        if (index < size) {
+            System.arraycopy(times, index, times, index + 1, size - index);
+            System.arraycopy(amounts, index, amounts, index + 1, size - index);
+            System.arraycopy(categories, index, categories, index + 1, size - index);
+        }
+        times[index] = time;
+        amounts[index] = cents;
+        categories[index] = code;
+        size++;
+    }
+
+    /**
+     * Удаляет один расход с тем же временем, суммой и категорией. Одинаковые по этим полям
+     * расходы для отчётов неразличимы, поэтому неважно, какой из них удалится.
+     *
+     * @return false, если такого расхода нет
+     */
+    public synchronized boolean remove(long time, long cents, Long categoryId) {
+        int code = categoryId == null ? 0 : find(categoryId);
+        if (code < 0) {
+            return false;
+        }
+        for (int i = lowerBound(time); i < size && times[i] == time; i++) {
+            if (amounts[i] == cents && categories[i] == code) {
+                System.arraycopy(times, i + 1, times, i, size - i - 1);
+                System.arraycopy(amounts, i + 1, amounts, i, size - i - 1);
+                System.arraycopy(categories, i + 1, categories, i, size - i - 1);
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Отчёт за [from, to] с теми же правилами, что у JPQL-запроса: суммы группируются по имени категории,
+     * расходы без категории — в UNCATEGORIZED, категории без расходов в отчёт не попадают.
+     */
+    public ExpensesReportDto report(Instant from, Instant to) {
+        long[] sums;
+        long[] counts;
+        String[] names;
+        synchronized (this) {
+            int first = lowerBound(micros(from));
+            int last = upperBound(micros(to));
+            sums = new long[categoryCount];
+            counts = new long[categoryCount];
+            for (int i = first; i < last; i++) {
+                int code = categories[i];
+                sums[code] = Money.add(sums[code], amounts[i]);
+                counts[code]++;
+            }
+            names = Arrays.copyOf(categoryNames, categoryCount);
+        }
+        Map<String, Long> byName = new LinkedHashMap<>();
+        long total = 0;
+        for (int code = 0; code < sums.length; code++) {
+            if (counts[code] > 0) {
+                byName.merge(code == 0 ? UNCATEGORIZED : names[code], sums[code], Money::add);
+                total = Money.add(total, sums[code]);
+            }
+        }
+        List<CategorySumDto> items = new ArrayList<>(byName.size());
+        byName.forEach((name, cents) -> items.add(new CategorySumDto(name, Money.fromCents(cents))));
+        return new ExpensesReportDto(Money.fromCents(total), items);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Память под массивы строк, включая запас под дописывание.
+     */
+    public synchronized long bytes() {
+        return (long) times.length * BYTES_PER_ROW;
+    }
+
+    /**
+     * Время в микросекундах эпохи, округлённое до микросекунды так же, как драйвер PostgreSQL
+     * округляет наносекунды при записи timestamp.
+     */
+    public static long micros(Instant instant) {
+        long micros = Math.multiplyExact(instant.getEpochSecond(), MICROS_PER_SECOND);
+        return micros + (instant.getNano() + NANOS_PER_MICRO / 2) / NANOS_PER_MICRO;
+    }
+
+    private int code(Long categoryId, String categoryName) {
+        if (categoryId == null) {
+            return 0;
+        }
+        int code = find(categoryId);
+        if (code >= 0) {
+            return code;
+        }
+        if (categoryCount == categoryIds.length) {
+            categoryIds = Arrays.copyOf(categoryIds, categoryCount * 2);
+            categoryNames = Arrays.copyOf(categoryNames, categoryCount * 2);
+        }
+        categoryIds[categoryCount] = categoryId;
+        categoryNames[categoryCount] = categoryName;
+        return categoryCount++;
+    }
+
+    private int find(long categoryId) {
+        for (int code = 1; code < categoryCount; code++) {
+            if (categoryIds[code] == categoryId) {
+                return code;
+            }
+        }
+        return -1;
+    }
+
+    private void grow() {
+        int capacity = times.length + (times.length >> 1);
+        times = Arrays.copyOf(times, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        categories = Arrays.copyOf(categories, capacity);
+    }
+
+    /**
+     * @return индекс первой строки со временем >= time
+     */
+    private int lowerBound(long time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return индекс первой строки со временем > time
+     */
+    private int upperBound(long time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] <= time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.expensetracker.snapshot;
+
+import com.example.expensetracker.config.ExpenseSnapshotProperties;
+import com.example.expensetracker.dto.ExpensesReportDto;
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.money.Money;
+import com.example.expensetracker.report.CategoryNameCache;
+import com.example.expensetracker.tx.AfterCommit;
+import com.example.expensetracker.tx.InFlightWrites;
+import com.example.expensetracker.write.ExpenseWriteListener;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Колоночные снимки расходов ({@link ExpenseColumns}) для отчётов за произвольный период.
+ * Снимок пользователя строится из expenses при первом отчёте, затем дописывается после коммита
+ * каждого добавления и удаления расхода. Импорт через COPY снимок пользователя сбрасывает,
+ * переименование или удаление категории — все снимки, потому что имена категорий копируются в снимок.
+ * Общий объём снимков ограничен memory-budget, вытесняются давно не читанные пользователи.
+ * <p>
+ * Снимок, построенный параллельно с записью, мог как увидеть её, так и нет, а дописывание после коммита
+ * добавило бы её ещё раз. Поэтому записи проходят через {@link InFlightWrites}, и построенный снимок
+ * сохраняется, только если за время построения у пользователя не было ни одной записи.
+ */
+@Component
+public class ExpenseSnapshotCache implements ExpenseWriteListener, CategoryNameCache {
+
+    private final ExpenseSnapshotRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Cache<Long, ExpenseColumns> snapshots;
+    private final InFlightWrites writes = new InFlightWrites();
+    private final AtomicLong categoryChanges = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+
+    public ExpenseSnapshotCache(ExpenseSnapshotRepository repository, TransactionTemplate transactionTemplate,
+                                ExpenseSnapshotProperties props, MeterRegistry registry) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = props.enabled();
+        this.snapshots = Caffeine.newBuilder()
+                .maximumWeight(props.memoryBudget().toBytes())
+                .weigher((Long userId, ExpenseColumns columns) -> (int) Math.min(Integer.MAX_VALUE, columns.bytes()))
+                .build();
+        Gauge.builder("expenses.snapshot.bytes", snapshots,
+                        cache -> cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0))
+                                .orElse(0L))
+                .description("Память под колоночные снимки расходов")
+                .register(registry);
+        this.hits = Counter.builder("expenses.snapshot.requests").tag("result", "hit").register(registry);
+        this.misses = Counter.builder("expenses.snapshot.requests").tag("result", "miss").register(registry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Отчёт пользователя за [from, to] по снимку; снимка нет — он строится.
+     */
+    public ExpensesReportDto report(Long userId, Instant from, Instant to) {
+        ExpenseColumns columns = snapshots.getIfPresent(userId);
+        if (columns != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            columns = build(userId);
+        }
+        return columns.report(from, to);
+    }
+
+    @Override
+    public void added(Collection<Expense> expenses) {
+        if (!enabled || expenses.isEmpty()) {
+            return;
+        }
+        List<Change> changes = new ArrayList<>(expenses.size());
+        for (Expense expense : expenses) {
+            changes.add(Change.of(expense));
+        }
+        write(changes, change -> {
+            ExpenseColumns columns = snapshots.getIfPresent(change.userId());
+            if (columns != null) {
+                columns.add(change.time(), change.cents(), change.categoryId(), change.categoryName());
+                snapshots.put(change.userId(), columns);
+            }
+        });
+    }
+
+    @Override
+    public void removed(Expense expense) {
+        if (!enabled) {
+            return;
+        }
+        write(List.of(Change.of(expense)), change -> {
+            ExpenseColumns columns = snapshots.getIfPresent(change.userId());
+            if (columns != null && !columns.remove(change.time(), change.cents(), change.categoryId())) {
+                snapshots.invalidate(change.userId());
+            }
+        });
+    }
+
+    /**
+     * Сбрасывает снимки пользователей, чьи расходы изменились в обход построчных событий (импорт).
+     */
+    @Override
+    public void invalidate(Collection<Long> userIds) {
+        if (!enabled || userIds.isEmpty()) {
+            return;
+        }
+        List<Change> changes = userIds.stream().map(Change::of).toList();
+        write(changes, change -> snapshots.invalidate(change.userId()));
+    }
+
+    /**
+     * Категория переименована или удалена: после коммита сбрасываются все снимки.
+     */
+    @Override
+    public void categoryChanged(Long categoryId) {
+        if (!enabled) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            categoryChanges.incrementAndGet();
+            snapshots.invalidateAll();
+        });
+    }
+
+    /**
+     * Курсор PostgreSQL читает порциями только в транзакции, поэтому снимок строится в транзакции.
+     */
+    private ExpenseColumns build(Long userId) {
+        long stamp = writes.stamp(userId);
+        long changes = categoryChanges.get();
+        ExpenseColumns columns = transactionTemplate.execute(status -> repository.load(userId));
+        writes.putIfQuiet(userId, stamp, () -> {
+            if (categoryChanges.get() == changes) {
+                snapshots.put(userId, columns);
+            }
+        });
+        return columns;
+    }
+
+    /**
+     * Применяет изменения после коммита, по пользователям в порядке changes.
+     */
+    private void write(List<Change> changes, Consumer<Change> apply) {
+        Map<Long, List<Change>> byUser = new LinkedHashMap<>();
+        changes.forEach(change -> byUser.computeIfAbsent(change.userId(), id -> new ArrayList<>()).add(change));
+        writes.write(byUser.keySet(), userId -> byUser.get(userId).forEach(apply));
+    }
+
+    private record Change(Long userId, long time, long cents, Long categoryId, String categoryName) {
+
+        static Change of(Expense expense) {
+            Long categoryId = expense.getCategory() == null ? null : expense.getCategory().getId();
+            String categoryName = expense.getCategory() == null ? null : expense.getCategory().getName();
+            return new Change(expense.getUser().getId(), ExpenseColumns.micros(expense.getOccurredAt()),
+                    Money.toCents(expense.getAmount()), categoryId, categoryName);
+        }
+
+        static Change of(Long userId) {
+            return new Change(userId, 0, 0, null, null);
+        }
+    }
+}
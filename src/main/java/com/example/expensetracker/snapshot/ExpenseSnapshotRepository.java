@@ -0,0 +1,53 @@
+package com.example.expensetracker.snapshot;
+
+import com.example.expensetracker.config.ExpenseSnapshotProperties;
+import com.example.expensetracker.money.Money;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+@Repository
+public class ExpenseSnapshotRepository {
+
+    private static final String SQL = """
+            SELECT e.occurred_at, e.amount, e.category_id, c.name AS category_name
+            FROM expenses e
+            LEFT JOIN categories c ON c.id = e.category_id
+            WHERE e.user_id = ?
+            ORDER BY e.occurred_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ExpenseSnapshotProperties props;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    public ExpenseSnapshotRepository(JdbcTemplate jdbcTemplate, ExpenseSnapshotProperties props) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.props = props;
+    }
+
+    /**
+     * Читает все расходы пользователя в колонки однонаправленным курсором порциями по fetchSize —
+     * вызывать нужно внутри транзакции. Строки приходят по возрастанию времени, поэтому каждая
+     * дописывается в конец массивов.
+     */
+    public ExpenseColumns load(Long userId) {
+        ExpenseColumns columns = new ExpenseColumns();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SQL, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(Math.max(1, props.fetchSize()));
+            ps.setLong(1, userId);
+            return ps;
+        }, rs -> {
+            columns.add(ExpenseColumns.micros(rs.getObject("occurred_at", LocalDateTime.class).atZone(zone).toInstant()),
+                    Money.toCents(rs.getBigDecimal("amount")), rs.getObject("category_id", Long.class),
+                    rs.getString("category_name"));
+        });
+        return columns;
+    }
+}
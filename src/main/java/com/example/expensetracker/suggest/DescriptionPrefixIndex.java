@@ -0,0 +1,187 @@
+package com.example.expensetracker.suggest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Описания расходов одного пользователя в параллельных массивах, отсортированных по нормализованному
+ * ключу (нижний регистр, одиночные пробелы): ключ, описание в том виде, в каком оно встретилось последним,
+ * число расходов с ним и момент последнего использования.
+ * <p>
+ * Подсказки по префиксу находят начало диапазона бинарным поиском и выбирают из него самые частые
+ * описания, при равенстве — недавние. Число описаний ограничено: новое вытесняет самое редкое и давнее.
+ * Все методы синхронизированы: после коммита записи индекс меняется из другого потока.
+ */
+public final class DescriptionPrefixIndex {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+    private static final int BYTES_PER_ENTRY = 2 * 16 + Integer.BYTES + Long.BYTES + 2 * 24;
+
+    private final int maxDescriptions;
+    private String[] keys;
+    private String[] labels;
+    private int[] counts;
+    private long[] usedAt;
+    private int size;
+    private long clock;
+
+    public DescriptionPrefixIndex(int maxDescriptions) {
+        if (maxDescriptions < 1) {
+            throw new IllegalArgumentException("maxDescriptions must be positive");
+        }
+        this.maxDescriptions = maxDescriptions;
+        int initial = Math.min(INITIAL_CAPACITY, maxDescriptions);
+        this.keys = new String[initial];
+        this.labels = new String[initial];
+        this.counts = new int[initial];
+        this.usedAt = new long[initial];
+    }
+
+    /**
+     * Ключ описания; null — для пустого описания, такие в индекс не попадают.
+     */
+    public static String normalize(String description) {
+        if (description == null || description.isBlank()) {
+            return null;
+        }
+        return label(description).toLowerCase(Locale.ROOT);
+    }
+
+    public synchronized void add(String description) {
+        String key = normalize(description);
+        if (key == null) {
+            return;
+        }
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        if (index >= 0) {
+            labels[index] = label(description);
+            counts[index]++;
+            usedAt[index] = ++clock;
+            return;
+        }
+        if (size == maxDescriptions) {
+            delete(victim());
+            index = Arrays.binarySearch(keys, 0, size, key);
+        }
+        if (size == keys.length) {
+            grow();
+        }
+        int position = -index - 1;
+        if (position < size) {
+            System.arraycopy(keys, position, keys, position + 1, size - position);
+            System.arraycopy(labels, position, labels, position + 1, size - position);
+            System.arraycopy(counts, position, counts, position + 1, size - position);
+            System.arraycopy(usedAt, position, usedAt, position + 1, size - position);
+        }
+        keys[position] = key;
+        labels[position] = label(description);
+        counts[position] = 1;
+        usedAt[position] = ++clock;
+        size++;
+    }
+
+    /**
+     * Уменьшает счётчик описания удалённого расхода; на нуле описание убирается из подсказок.
+     * Описания, вытесненного из индекса, это не касается.
+     */
+    public synchronized void remove(String description) {
+        String key = normalize(description);
+        if (key == null) {
+            return;
+        }
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        if (index >= 0 && --counts[index] == 0) {
+            delete(index);
+        }
+    }
+
+    /**
+     * До limit описаний, начинающихся с prefix без учёта регистра: сначала частые, затем недавние.
+     */
+    public synchronized List<String> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key == null || limit <= 0) {
+            return List.of();
+        }
+        int from = Arrays.binarySearch(keys, 0, size, key);
+        if (from < 0) {
+            from = -from - 1;
+        }
+        int[] best = new int[limit];
+        int found = 0;
+        for (int i = from; i < size && keys[i].startsWith(key); i++) {
+            if (found < limit) {
+                found++;
+            } else if (!better(i, best[limit - 1])) {
+                continue;
+            }
+            int position = found - 1;
+            while (position > 0 && better(i, best[position - 1])) {
+                best[position] = best[position - 1];
+                position--;
+            }
+            best[position] = i;
+        }
+        List<String> result = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) {
+            result.add(labels[best[i]]);
+        }
+        return result;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Оценка занимаемой памяти: массивы плюс строки ключей и описаний.
+     */
+    public synchronized long bytes() {
+        long bytes = (long) keys.length * BYTES_PER_ENTRY;
+        for (int i = 0; i < size; i++) {
+            bytes += 2L * (keys[i].length() + labels[i].length());
+        }
+        return bytes;
+    }
+
+    private static String label(String description) {
+        return SPACES.matcher(description.strip()).replaceAll(" ");
+    }
+
+    private boolean better(int a, int b) {
+        return counts[a] != counts[b] ? counts[a] > counts[b] : usedAt[a] > usedAt[b];
+    }
+
+    private int victim() {
+        int victim = 0;
+        for (int i = 1; i < size; i++) {
+            if (better(victim, i)) {
+                victim = i;
+            }
+        }
+        return victim;
+    }
+
+    private void delete(int index) {
+        int tail = size - index - 1;
+        System.arraycopy(keys, index + 1, keys, index, tail);
+        System.arraycopy(labels, index + 1, labels, index, tail);
+        System.arraycopy(counts, index + 1, counts, index, tail);
+        System.arraycopy(usedAt, index + 1, usedAt, index, tail);
+        size--;
+        keys[size] = null;
+        labels[size] = null;
+    }
+
+    private void grow() {
+        int capacity = Math.min(maxDescriptions, keys.length * 2);
+        keys = Arrays.copyOf(keys, capacity);
+        labels = Arrays.copyOf(labels, capacity);
+        counts = Arrays.copyOf(counts, capacity);
+        usedAt = Arrays.copyOf(usedAt, capacity);
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.expensetracker.suggest;
+
+import com.example.expensetracker.config.ExpenseSuggestProperties;
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.tx.InFlightWrites;
+import com.example.expensetracker.write.ExpenseWriteListener;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Подсказки описаний при вводе расхода из {@link DescriptionPrefixIndex} пользователя, без запроса к БД
+ * на каждое нажатие клавиши. Индекс строится из описаний последних recent-expenses расходов при первом
+ * запросе, затем дополняется после коммита каждого добавления и удаления расхода. Импорт через COPY
+ * индекс пользователя сбрасывает. Общий объём индексов ограничен memory-budget, вытесняются давно
+ * не читанные пользователи.
+ * <p>
+ * Гонка построения с записью решается так же, как в
+ * {@link com.example.expensetracker.snapshot.ExpenseSnapshotCache} через {@link InFlightWrites}: индекс,
+ * во время построения которого в полосе пользователя шла запись, отвечает на текущий запрос и не сохраняется.
+ */
+@Component
+public class DescriptionSuggestCache implements ExpenseWriteListener {
+
+    private final DescriptionSuggestRepository repository;
+    private final int recentExpenses;
+    private final int maxDescriptions;
+    private final Cache<Long, DescriptionPrefixIndex> indexes;
+    private final InFlightWrites writes = new InFlightWrites();
+    private final Counter hits;
+    private final Counter misses;
+
+    public DescriptionSuggestCache(DescriptionSuggestRepository repository, ExpenseSuggestProperties props,
+                                   MeterRegistry registry) {
+        this.repository = repository;
+        this.recentExpenses = props.recentExpenses();
+        this.maxDescriptions = props.maxDescriptions();
+        this.indexes = Caffeine.newBuilder()
+                .maximumWeight(props.memoryBudget().toBytes())
+                .weigher((Long userId, DescriptionPrefixIndex index) -> (int) Math.min(Integer.MAX_VALUE, index.bytes()))
+                .build();
+        Gauge.builder("expenses.suggest.bytes", indexes,
+                        cache -> cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0))
+                                .orElse(0L))
+                .description("Память под индексы подсказок описаний")
+                .register(registry);
+        this.hits = Counter.builder("expenses.suggest.requests").tag("result", "hit").register(registry);
+        this.misses = Counter.builder("expenses.suggest.requests").tag("result", "miss").register(registry);
+    }
+
+    /**
+     * До limit описаний пользователя, начинающихся с prefix; индекса нет — он строится.
+     */
+    public List<String> suggest(Long userId, String prefix, int limit) {
+        DescriptionPrefixIndex index = indexes.getIfPresent(userId);
+        if (index != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            index = build(userId);
+        }
+        return index.suggest(prefix, limit);
+    }
+
+    @Override
+    public void added(Collection<Expense> expenses) {
+        List<Change> changes = new ArrayList<>(expenses.size());
+        for (Expense expense : expenses) {
+            if (DescriptionPrefixIndex.normalize(expense.getDescription()) != null) {
+                changes.add(new Change(expense.getUser().getId(), expense.getDescription()));
+            }
+        }
+        write(changes, change -> {
+            DescriptionPrefixIndex index = indexes.getIfPresent(change.userId());
+            if (index != null) {
+                index.add(change.description());
+                indexes.put(change.userId(), index);
+            }
+        });
+    }
+
+    @Override
+    public void removed(Expense expense) {
+        if (DescriptionPrefixIndex.normalize(expense.getDescription()) == null) {
+            return;
+        }
+        write(List.of(new Change(expense.getUser().getId(), expense.getDescription())), change -> {
+            DescriptionPrefixIndex index = indexes.getIfPresent(change.userId());
+            if (index != null) {
+                index.remove(change.description());
+            }
+        });
+    }
+
+    /**
+     * Сбрасывает индексы пользователей, чьи расходы изменились в обход построчных событий (импорт).
+     */
+    @Override
+    public void invalidate(Collection<Long> userIds) {
+        List<Change> changes = userIds.stream().map(userId -> new Change(userId, null)).toList();
+        write(changes, change -> indexes.invalidate(change.userId()));
+    }
+
+    private DescriptionPrefixIndex build(Long userId) {
+        long stamp = writes.stamp(userId);
+        DescriptionPrefixIndex index = repository.load(userId, recentExpenses, maxDescriptions);
+        writes.putIfQuiet(userId, stamp, () -> indexes.put(userId, index));
+        return index;
+    }
+
+    private void write(List<Change> changes, Consumer<Change> apply) {
+        Map<Long, List<Change>> byUser = new LinkedHashMap<>();
+        changes.forEach(change -> byUser.computeIfAbsent(change.userId(), id -> new ArrayList<>()).add(change));
+        writes.write(byUser.keySet(), userId -> byUser.get(userId).forEach(apply));
+    }
+
+    private record Change(Long userId, String description) {
+    }
+}
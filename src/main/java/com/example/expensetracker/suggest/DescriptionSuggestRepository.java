@@ -0,0 +1,42 @@
+package com.example.expensetracker.suggest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@Repository
+public class DescriptionSuggestRepository {
+
+    private static final String SQL = """
+            SELECT description
+            FROM expenses
+            WHERE user_id = ?
+            ORDER BY occurred_at DESC, id DESC
+            LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DescriptionSuggestRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Строит индекс из описаний последних limit расходов пользователя. Строки идут по индексу
+     * (user_id, occurred_at, id) от новых к старым и добавляются в обратном порядке,
+     * чтобы последним использованием описания стал самый новый расход.
+     */
+    public DescriptionPrefixIndex load(Long userId, int limit, int maxDescriptions) {
+        List<String> descriptions = new ArrayList<>();
+        jdbcTemplate.query(SQL, rs -> {
+            descriptions.add(rs.getString("description"));
+        }, userId, limit);
+        Collections.reverse(descriptions);
+        DescriptionPrefixIndex index = new DescriptionPrefixIndex(maxDescriptions);
+        descriptions.forEach(index::add);
+        return index;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.expensetracker.totals;
+
+import com.example.expensetracker.money.Money;
+import com.example.expensetracker.tx.AfterCommit;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Накопитель ещё не записанных в users.total_expenses изменений суммы расходов.
+ * Дельты хранятся в копейках в LongAdder на пользователя, поэтому параллельные записи одного пользователя
+ * не блокируют ни друг друга, ни строку users. Дельта учитывается только после коммита транзакции,
+ * в которой она появилась. Сброс в БД выполняет {@link TotalExpensesFlusher}.
+ * <p>
+ * Чтение (сохранённое значение + дельта) и сброс взаимно исключены: иначе чтение между UPDATE и очисткой
+ * дельты учло бы её дважды.
+ */
+@Component
+public class TotalExpensesAccumulator {
+
+    static final String CACHE_NAME = "totalExpenses";
+
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    private final ReadWriteLock flushLock = new ReentrantReadWriteLock();
+    private final CacheManager cacheManager;
+
+    public TotalExpensesAccumulator(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Добавляет дельту пользователю. Внутри транзакции дельта применяется после коммита,
+     * при откате — отбрасывается.
+     */
+    public void add(Long userId, BigDecimal delta) {
+        add(userId, Money.of(delta));
+    }
+
+    /**
+     * То же для суммы, уже посчитанной в копейках: пакетные записи складывают дельту без BigDecimal.
+     */
+    public void add(Long userId, Money delta) {
+        if (delta.signum() == 0) {
+            return;
+        }
+        long cents = delta.cents();
+        AfterCommit.run(() -> apply(userId, cents));
+    }
+
+    /**
+     * Сумма, ещё не записанная в БД для пользователя.
+     */
+    public BigDecimal pending(Long userId) {
+        LongAdder adder = pending.get(userId);
+        return Money.fromCents(adder == null ? 0 : adder.sum());
+    }
+
+    /**
+     * Возвращает сохранённое значение вместе с несброшенной дельтой.
+     */
+    public BigDecimal withPending(Long userId, Supplier<BigDecimal> persisted) {
+        flushLock.readLock().lock();
+        try {
+            return persisted.get().add(pending(userId));
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Забирает все ненулевые дельты и передаёт их writer. Если writer упал, дельты возвращаются в накопитель
+     * и будут записаны при следующем сбросе.
+     *
+     * @return число пользователей, чьи дельты были записаны
+     */
+    public int flush(Consumer<Map<Long, BigDecimal>> writer) {
+        flushLock.writeLock().lock();
+        try {
+            Map<Long, Long> drained = new HashMap<>();
+            pending.forEach((userId, adder) -> {
+                long cents = adder.sumThenReset();
+                if (cents != 0) {
+                    drained.put(userId, cents);
+                }
+            });
+            if (drained.isEmpty()) {
+                return 0;
+            }
+            Map<Long, BigDecimal> deltas = new HashMap<>(drained.size());
+            drained.forEach((userId, cents) -> deltas.put(userId, Money.fromCents(cents)));
+            try {
+                writer.accept(deltas);
+            } catch (RuntimeException e) {
+                drained.forEach((userId, cents) -> pending.computeIfAbsent(userId, id -> new LongAdder()).add(cents));
+                throw e;
+            }
+            return drained.size();
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Отбрасывает все несброшенные дельты. Используется перед полным пересчётом total_expenses из expenses.
+     */
+    public void clear() {
+        flushLock.writeLock().lock();
+        try {
+            pending.clear();
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Long userId, long cents) {
+        pending.computeIfAbsent(userId, id -> new LongAdder()).add(cents);
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache != null) {
+            cache.evict(userId);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.expensetracker.totals;
+
+import com.example.expensetracker.config.ExpenseTotalsProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Периодически записывает накопленные дельты в users.total_expenses.
+ * <p>
+ * Окно потерь: дельты, не сброшенные к моменту аварийного завершения JVM (не дольше flush-interval),
+ * теряются. При штатной остановке выполняется финальный сброс. Источник истины — таблица expenses,
+ * и после аварии суммы восстанавливаются из неё {@link #reconcile()} — обслуживающим действием
+ * администратора (POST /api/admin/totals/reconcile).
+ * <p>
+ * Пересчёт — полный скан expenses, и он учитывает расходы, дельты которых другие экземпляры ещё держат
+ * в памяти: сброшенные после пересчёта, они будут учтены дважды. Поэтому пересчёт не выполняется
+ * при каждом старте, а запускается, когда запись расходов на остальных экземплярах остановлена.
+ * reconcile-on-startup (по умолчанию выключен) годится только для развёртывания из одного экземпляра.
+ */
+@Component
+public class TotalExpensesFlusher implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(TotalExpensesFlusher.class);
+
+    private final TotalExpensesAccumulator accumulator;
+    private final TotalExpensesRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ExpenseTotalsProperties props;
+
+    public TotalExpensesFlusher(TotalExpensesAccumulator accumulator, TotalExpensesRepository repository,
+                                TransactionTemplate transactionTemplate, ExpenseTotalsProperties props) {
+        this.accumulator = accumulator;
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.props = props;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (props.reconcileOnStartup()) {
+            reconcile();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.expenses.totals.flush-interval}")
+    public void flush() {
+        try {
+            int users = accumulator.flush(deltas ->
+                    transactionTemplate.executeWithoutResult(status -> repository.applyDeltas(deltas)));
+            if (users > 0) {
+                log.debug("Сброшены суммы расходов {} пользователей", users);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Не удалось сбросить суммы расходов, повтор при следующем запуске: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Сбрасывает накопленные дельты и пересчитывает total_expenses из expenses под advisory-блокировкой.
+     * Несброшенные дельты, оставшиеся после неудачного сброса, уже учтены в пересчёте и отбрасываются.
+     *
+     * @return число пересчитанных пользователей; -1, если пересчёт уже выполняет другой экземпляр
+     */
+    public int reconcile() {
+        flush();
+        Integer users = transactionTemplate.execute(status -> {
+            if (!repository.tryLockRecompute()) {
+                return -1;
+            }
+            accumulator.clear();
+            return repository.recomputeAll();
+        });
+        if (users == null || users < 0) {
+            log.info("Пересчёт сумм расходов уже выполняет другой экземпляр");
+            return -1;
+        }
+        log.info("Суммы расходов пересчитаны из expenses для {} пользователей", users);
+        return users;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.expensetracker.totals;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+public class TotalExpensesRepository {
+
+    static final String APPLY_DELTA_SQL = "UPDATE users SET total_expenses = total_expenses + ? WHERE id = ?";
+
+    static final String RECOMPUTE_ALL_SQL = """
+            UPDATE users u SET total_expenses = COALESCE(
+                (SELECT SUM(e.amount) FROM expenses e WHERE e.user_id = u.id), 0)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TotalExpensesRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Применяет дельты одним JDBC-батчем относительных UPDATE, без чтения строк users.
+     *
+     * @return число обновлённых строк по каждому пользователю в порядке обхода deltas
+     */
+    public int[] applyDeltas(Map<Long, BigDecimal> deltas) {
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.forEach((userId, delta) -> args.add(new Object[]{delta, userId}));
+        return jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, args);
+    }
+
+    /**
+     * Берёт транзакционную advisory-блокировку пересчёта, чтобы два экземпляра приложения не сканировали
+     * expenses одновременно. Вызывать в транзакции.
+     *
+     * @return false, если пересчёт уже выполняет другой экземпляр
+     */
+    public boolean tryLockRecompute() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(hashtext('expense_totals_recompute'))", Boolean.class));
+    }
+
+    /**
+     * Пересчитывает total_expenses всех пользователей из таблицы expenses одним UPDATE.
+     */
+    public int recomputeAll() {
+        return jdbcTemplate.update(RECOMPUTE_ALL_SQL);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.expensetracker.tx;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Откладывает действие до коммита текущей транзакции: кэши и очереди в памяти не должны видеть
+ * изменения, которые ещё могут откатиться. Вне транзакции действие выполняется сразу.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    /**
+     * Выполняет action после коммита; при откате action отбрасывается.
+     */
+    public static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Выполняет action после коммита, а finish — по завершении транзакции, в том числе при откате.
+     */
+    public static void run(Runnable action, Runnable finish) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    finish.run();
+                }
+            });
+        } else {
+            try {
+                action.run();
+            } finally {
+                finish.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.expensetracker.tx;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Защита кэшей, которые загружаются из БД и затем обновляются дельтами после коммита.
+ * <p>
+ * Загрузка, выполненная между коммитом записи и её afterCommit, уже видит запись, а дельта добавила бы
+ * её ещё раз. Поэтому запись отмечается в полосе ключа до коммита и снимается с отметки только
+ * по завершении транзакции (в том числе при откате). Загруженное значение кладётся в кэш, только если
+ * перед загрузкой в полосе не было незавершённых записей и за время загрузки не началось ни одной новой.
+ * Иначе оно отвечает на текущий запрос и отбрасывается.
+ * <p>
+ * Проверка с записью в кэш и применение дельт выполняются под блокировкой полосы, поэтому дельта
+ * не может проскочить между проверкой и записью загруженного значения.
+ */
+public final class InFlightWrites {
+
+    private static final int STRIPES = 1024;
+
+    private final AtomicLongArray started = new AtomicLongArray(STRIPES);
+    private final AtomicLongArray finished = new AtomicLongArray(STRIPES);
+    private final Object[] locks = new Object[STRIPES];
+
+    public InFlightWrites() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Метка полосы ключа, снимаемая перед загрузкой; -1 — в полосе есть незавершённая запись.
+     */
+    public long stamp(Long key) {
+        int stripe = stripe(key);
+        long finishedBefore = finished.get(stripe);
+        long startedBefore = started.get(stripe);
+        return startedBefore == finishedBefore ? startedBefore : -1;
+    }
+
+    /**
+     * Выполняет put под блокировкой полосы, если с момента stamp в ней не началось ни одной записи.
+     *
+     * @return false, если загруженное значение могло разойтись с дельтами и put не выполнен
+     */
+    public boolean putIfQuiet(Long key, long stamp, Runnable put) {
+        if (stamp < 0) {
+            return false;
+        }
+        int stripe = stripe(key);
+        synchronized (locks[stripe]) {
+            if (started.get(stripe) != stamp) {
+                return false;
+            }
+            put.run();
+            return true;
+        }
+    }
+
+    /**
+     * Отмечает запись в полосах ключей сразу, а apply по каждому ключу выполняет после коммита
+     * под блокировкой его полосы. Вне транзакции apply выполняется сразу.
+     */
+    public void write(Collection<Long> keys, Consumer<Long> apply) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        Set<Integer> stripes = new TreeSet<>();
+        keys.forEach(key -> stripes.add(stripe(key)));
+        stripes.forEach(started::incrementAndGet);
+        Runnable applyAll = () -> keys.forEach(key -> {
+            synchronized (locks[stripe(key)]) {
+                apply.accept(key);
+            }
+        });
+        AfterCommit.run(applyAll, () -> stripes.forEach(finished::incrementAndGet));
+    }
+
+    private static int stripe(Long key) {
+        return (int) Math.floorMod(key, (long) STRIPES);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.expensetracker.write;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.rollup.DailyRollupDeltas;
+import com.example.expensetracker.rollup.DailyRollupKey;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Рассылает изменения расходов всем {@link ExpenseWriteListener} в транзакции записи: дельты дневных
+ * агрегатов, построчные добавления и удаления, сброс пользователей после записи в обход сущностей.
+ * <p>
+ * День дельты — дата occurred_at в зоне JVM: в той же зоне Hibernate пишет occurred_at (timestamp без зоны).
+ */
+@Component
+public class ExpenseWriteEvents {
+
+    private final List<ExpenseWriteListener> listeners;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    public ExpenseWriteEvents(List<ExpenseWriteListener> listeners) {
+        this.listeners = listeners;
+    }
+
+    public void added(Expense expense) {
+        added(List.of(expense));
+    }
+
+    public void added(Collection<Expense> expenses) {
+        DailyRollupDeltas deltas = new DailyRollupDeltas();
+        for (Expense expense : expenses) {
+            deltas.add(expense.getUser().getId(), day(expense.getOccurredAt()), categoryId(expense),
+                    expense.getAmount());
+        }
+        record(deltas);
+        listeners.forEach(listener -> listener.added(expenses));
+    }
+
+    public void removed(Expense expense) {
+        DailyRollupDeltas deltas = new DailyRollupDeltas();
+        deltas.remove(expense.getUser().getId(), day(expense.getOccurredAt()), categoryId(expense),
+                expense.getAmount());
+        record(deltas);
+        listeners.forEach(listener -> listener.removed(expense));
+    }
+
+    /**
+     * Готовые дельты расходов, записанных мимо сущностей (COPY, INSERT ... SELECT): построчных событий нет,
+     * получатели сбрасывают данные затронутых пользователей.
+     */
+    public void apply(DailyRollupDeltas deltas) {
+        record(deltas);
+        Set<Long> userIds = deltas.asMap().keySet().stream().map(DailyRollupKey::userId).collect(Collectors.toSet());
+        listeners.forEach(listener -> listener.invalidate(userIds));
+    }
+
+    private void record(DailyRollupDeltas deltas) {
+        listeners.forEach(listener -> listener.record(deltas));
+    }
+
+    private LocalDate day(Instant occurredAt) {
+        return LocalDate.ofInstant(occurredAt, zone);
+    }
+
+    private static Long categoryId(Expense expense) {
+        return expense.getCategory() == null ? null : expense.getCategory().getId();
+    }
+}
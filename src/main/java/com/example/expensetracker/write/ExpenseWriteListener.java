@@ -0,0 +1,32 @@
+package com.example.expensetracker.write;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.rollup.DailyRollupDeltas;
+
+import java.util.Collection;
+
+/**
+ * Получатель изменений расходов от {@link ExpenseWriteEvents}: дневные агрегаты, кэши, накопители и очереди,
+ * которые обновляются вслед за записью. Методы вызываются в транзакции записи; изменения в памяти получатель
+ * откладывает до коммита сам, например через {@link com.example.expensetracker.tx.AfterCommit}.
+ */
+public interface ExpenseWriteListener {
+
+    /**
+     * Дельты дневных агрегатов, уже записанные в expense_daily_rollup.
+     */
+    default void record(DailyRollupDeltas deltas) {
+    }
+
+    default void added(Collection<Expense> expenses) {
+    }
+
+    default void removed(Expense expense) {
+    }
+
+    /**
+     * Расходы пользователей изменились в обход построчных событий (импорт через COPY, догоняющий проход).
+     */
+    default void invalidate(Collection<Long> userIds) {
+    }
+}
@@ -0,0 +1,136 @@
+package test.analytics;
+
+import com.example.expensetracker.ExpenseTrackerApplication;
+import com.example.expensetracker.analytics.ExpenseAnalyticsRefresher;
+import com.example.expensetracker.analytics.ExpenseAnalyticsService;
+import com.example.expensetracker.details.UserDetailsImpl;
+import com.example.expensetracker.dto.AnalyticsDto;
+import com.example.expensetracker.dto.CategorySpendingDto;
+import com.example.expensetracker.dto.ExpenseRequestDto;
+import com.example.expensetracker.dto.MonthSpendingDto;
+import com.example.expensetracker.model.Category;
+import com.example.expensetracker.model.Role;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.repository.CategoryRepository;
+import com.example.expensetracker.repository.UserRepository;
+import com.example.expensetracker.service.ExpenseService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static test.util.Constants.*;
+import static test.util.TestUtils.createAndSaveUser;
+
+@SpringBootTest(classes = {ExpenseTrackerApplication.class})
+@ActiveProfiles("test")
+public class ExpenseAnalyticsIT {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ExpenseAnalyticsService analyticsService;
+
+    @Autowired
+    private ExpenseAnalyticsRefresher refresher;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static Instant at(int year, int month, int day) {
+        return LocalDate.of(year, month, day).atTime(12, 0).atZone(ZONE).toInstant();
+    }
+
+    private Category seed() {
+        UserDetailsImpl first = new UserDetailsImpl(createAndSaveUser(USER_EMAIL, Role.USER, userRepository));
+        UserDetailsImpl second = new UserDetailsImpl(createAndSaveUser(ADMIN_EMAIL, Role.ADMIN, userRepository));
+        Category category = categoryRepository.save(new Category(CATEGORY_NAME));
+        expenseService.addExpenses(first, List.of(
+                new ExpenseRequestDto(new BigDecimal("10.00"), at(2025, 5, 3), category.getId(), DESCRIPTION),
+                new ExpenseRequestDto(new BigDecimal("2.50"), at(2025, 6, 7), null, DESCRIPTION)));
+        expenseService.addExpenses(second, List.of(
+                new ExpenseRequestDto(new BigDecimal("7.25"), at(2025, 6, 20), category.getId(), DESCRIPTION)));
+        return category;
+    }
+
+    @Test
+    void refresh_shouldMatchAggregatesOverExpenses() {
+        Category category = seed();
+
+        assertThat(refresher.refresh()).isEqualTo(2);
+
+        AnalyticsDto<CategorySpendingDto> byCategory = analyticsService.spendingByCategory();
+        assertThat(byCategory.items())
+                .extracting(CategorySpendingDto::categoryId, CategorySpendingDto::categoryName,
+                        CategorySpendingDto::total, CategorySpendingDto::expenseCount, CategorySpendingDto::userCount)
+                .containsExactly(
+                        tuple(category.getId(), CATEGORY_NAME, new BigDecimal("17.25"), 2L, 2L),
+                        tuple(null, null, new BigDecimal("2.50"), 1L, 1L));
+        AnalyticsDto<MonthSpendingDto> byMonth = analyticsService.spendingByMonth();
+        assertThat(byMonth.items())
+                .extracting(MonthSpendingDto::month, MonthSpendingDto::total, MonthSpendingDto::expenseCount,
+                        MonthSpendingDto::userCount)
+                .containsExactly(
+                        tuple(YearMonth.of(2025, 5), new BigDecimal("10.00"), 1L, 1L),
+                        tuple(YearMonth.of(2025, 6), new BigDecimal("9.75"), 2L, 2L));
+        BigDecimal total = jdbcTemplate.queryForObject("SELECT SUM(amount) FROM expenses", BigDecimal.class);
+        assertThat(byMonth.items().stream().map(MonthSpendingDto::total).reduce(BigDecimal.ZERO, BigDecimal::add))
+                .isEqualByComparingTo(total);
+        assertThat(byMonth.refreshedAt()).isNotNull();
+        assertThat(byMonth.staleSeconds()).isBetween(0L, 60L);
+    }
+
+    @Test
+    void spending_shouldReadOnlyFromViewsUntilNextRefresh() {
+        seed();
+        refresher.refresh();
+
+        jdbcTemplate.update("DELETE FROM expenses");
+
+        assertThat(analyticsService.spendingByCategory().items()).hasSize(2);
+        refresher.refresh();
+        assertThat(analyticsService.spendingByCategory().items()).isEmpty();
+        assertThat(analyticsService.spendingByMonth().items()).isEmpty();
+    }
+
+    @Test
+    void spending_shouldReportStalenessFromRefreshLog() {
+        refresher.refresh();
+        Instant hourAgo = Instant.now().minus(1, ChronoUnit.HOURS).truncatedTo(ChronoUnit.MICROS);
+        jdbcTemplate.update("UPDATE analytics_refresh_log SET refreshed_at = ?", Timestamp.from(hourAgo));
+
+        AnalyticsDto<MonthSpendingDto> byMonth = analyticsService.spendingByMonth();
+
+        assertThat(byMonth.refreshedAt()).isEqualTo(hourAgo);
+        assertThat(byMonth.staleSeconds()).isBetween(3600L, 3660L);
+    }
+
+    @Test
+    void spending_shouldReportUnknownStaleness_whenNeverRefreshed() {
+        AnalyticsDto<CategorySpendingDto> byCategory = analyticsService.spendingByCategory();
+
+        assertThat(byCategory.refreshedAt()).isNull();
+        assertThat(byCategory.staleSeconds()).isNull();
+    }
+}
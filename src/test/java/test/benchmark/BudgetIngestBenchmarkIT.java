@@ -0,0 +1,95 @@
+package test.benchmark;
+
+import com.example.expensetracker.ExpenseTrackerApplication;
+import com.example.expensetracker.budget.BudgetService;
+import com.example.expensetracker.details.UserDetailsImpl;
+import com.example.expensetracker.dto.BudgetRequestDto;
+import com.example.expensetracker.dto.ExpenseAddedDto;
+import com.example.expensetracker.dto.ExpenseRequestDto;
+import com.example.expensetracker.model.Category;
+import com.example.expensetracker.model.Role;
+import com.example.expensetracker.repository.CategoryRepository;
+import com.example.expensetracker.repository.UserRepository;
+import com.example.expensetracker.service.ExpenseService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static test.util.Constants.*;
+import static test.util.TestUtils.createAndSaveUser;
+
+/**
+ * Пропускная способность одиночного добавления расходов с проверкой бюджета и без неё.
+ * Запуск: mvn verify -Dit.test=BudgetIngestBenchmarkIT -Dbenchmarks=true
+ */
+@SpringBootTest(classes = {ExpenseTrackerApplication.class})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+public class BudgetIngestBenchmarkIT {
+
+    private static final Logger log = LoggerFactory.getLogger(BudgetIngestBenchmarkIT.class);
+
+    private static final int WARMUP = 300;
+    private static final int ROWS = 2_000;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private BudgetService budgetService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void budgetCheck_shouldNotSlowDownIngest() {
+        Category category = categoryRepository.save(new Category(CATEGORY_NAME));
+        UserDetailsImpl plain = new UserDetailsImpl(createAndSaveUser(USER_EMAIL, Role.USER, userRepository));
+        UserDetailsImpl budgeted = new UserDetailsImpl(createAndSaveUser(ADMIN_EMAIL, Role.USER, userRepository));
+        budgetService.putBudget(budgeted, new BudgetRequestDto(category.getId(), new BigDecimal("100000")));
+
+        add(plain, category, WARMUP);
+        add(budgeted, category, WARMUP);
+        double loadsBefore = meterRegistry.get("expenses.budgets.cache.loads").counter().count();
+
+        long plainNanos = add(plain, category, ROWS);
+        long budgetedNanos = add(budgeted, category, ROWS);
+
+        double loads = meterRegistry.get("expenses.budgets.cache.loads").counter().count() - loadsBefore;
+        log.info("{} single adds: without budget {} ms, with budget {} ms, budget loads {}", ROWS,
+                plainNanos / 1_000_000, budgetedNanos / 1_000_000, loads);
+        ExpenseAddedDto last = expenseService.addExpense(budgeted, request(category));
+        assertThat(last.budget()).isNotNull();
+        assertThat(last.budget().spent())
+                .isEqualByComparingTo(new BigDecimal(AMOUNT).multiply(BigDecimal.valueOf(WARMUP + ROWS + 1)));
+        assertThat(loads).isZero();
+        assertThat(budgetedNanos).isLessThan(plainNanos * 13 / 10);
+    }
+
+    private long add(UserDetailsImpl user, Category category, int rows) {
+        long start = System.nanoTime();
+        for (int i = 0; i < rows; i++) {
+            expenseService.addExpense(user, request(category));
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static ExpenseRequestDto request(Category category) {
+        return new ExpenseRequestDto(new BigDecimal(AMOUNT), Instant.now(), category.getId(), DESCRIPTION);
+    }
+}
@@ -0,0 +1,91 @@
+package test.benchmark;
+
+import com.example.expensetracker.ExpenseTrackerApplication;
+import com.example.expensetracker.details.UserDetailsImpl;
+import com.example.expensetracker.dto.ExpenseRequestDto;
+import com.example.expensetracker.model.Category;
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.Role;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.repository.CategoryRepository;
+import com.example.expensetracker.repository.UserRepository;
+import com.example.expensetracker.service.ExpenseService;
+import com.example.expensetracker.totals.TotalExpensesFlusher;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static test.util.Constants.*;
+import static test.util.TestUtils.createAndSaveUser;
+
+/**
+ * Сравнение пакетного добавления расходов с N одиночными вызовами addExpense.
+ * Запуск: mvn verify -Dit.test=ExpenseBatchBenchmarkIT -Dbenchmarks=true
+ */
+@SpringBootTest(classes = {ExpenseTrackerApplication.class})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+public class ExpenseBatchBenchmarkIT {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseBatchBenchmarkIT.class);
+
+    private static final int ROWS = 2_000;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TotalExpensesFlusher totalExpensesFlusher;
+
+    @Test
+    void batchInsert_shouldBeFasterThanSingleAdds() {
+        User user = createAndSaveUser(USER_EMAIL, Role.USER, userRepository);
+        UserDetailsImpl currentUser = new UserDetailsImpl(user);
+        Category category = categoryRepository.save(new Category(CATEGORY_NAME));
+
+        long singleStart = System.nanoTime();
+        for (int i = 0; i < ROWS; i++) {
+            Expense expense = new Expense(null, null, new BigDecimal(AMOUNT), Instant.now(), category, DESCRIPTION);
+            expenseService.addExpense(currentUser, expense);
+        }
+        long singleNanos = System.nanoTime() - singleStart;
+
+        List<ExpenseRequestDto> requests = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            requests.add(new ExpenseRequestDto(new BigDecimal(AMOUNT), Instant.now(), category.getId(), DESCRIPTION));
+        }
+        long batchStart = System.nanoTime();
+        expenseService.addExpenses(currentUser, requests);
+        long batchNanos = System.nanoTime() - batchStart;
+
+        log.info("{} rows: single adds {} ms, batch {} ms", ROWS, singleNanos / 1_000_000, batchNanos / 1_000_000);
+
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM expenses", Integer.class);
+        totalExpensesFlusher.flush();
+        BigDecimal total = jdbcTemplate.queryForObject("SELECT total_expenses FROM users WHERE id = ?",
+                BigDecimal.class, user.getId());
+        assertThat(count).isEqualTo(ROWS * 2);
+        assertThat(total).isEqualByComparingTo(new BigDecimal(AMOUNT).multiply(BigDecimal.valueOf(ROWS * 2L)));
+        assertThat(batchNanos).isLessThan(singleNanos);
+    }
+}
@@ -0,0 +1,147 @@
+package test.benchmark;
+
+import com.example.expensetracker.ExpenseTrackerApplication;
+import com.example.expensetracker.dto.CategorySumDto;
+import com.example.expensetracker.dto.ExpensesReportDto;
+import com.example.expensetracker.model.Category;
+import com.example.expensetracker.model.Role;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.report.ReportDimension;
+import com.example.expensetracker.report.ReportQueryEngine;
+import com.example.expensetracker.report.ReportSpec;
+import com.example.expensetracker.repository.CategoryRepository;
+import com.example.expensetracker.repository.ExpenseRepository;
+import com.example.expensetracker.repository.UserRepository;
+import com.example.expensetracker.snapshot.ExpenseSnapshotCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static test.util.Constants.*;
+import static test.util.TestUtils.createAndSaveUser;
+
+/**
+ * JMH: отчёт за полгода из колоночного снимка и одним запросом с ROLLUP против двух JPQL-запросов
+ * по expenses на 200 тысячах строк.
+ * Запуск: mvn verify -Dit.test=ExpenseReportBenchmarkIT -Dbenchmarks=true
+ * <p>
+ * Бенчмарк выполняется в JVM теста (fork 0), чтобы не поднимать Spring-контекст в отдельном процессе.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(0)
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+public class ExpenseReportBenchmarkIT {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseReportBenchmarkIT.class);
+
+    private static final int ROWS = 200_000;
+    private static final LocalDateTime FIRST = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private ConfigurableApplicationContext context;
+    private ExpenseRepository expenseRepository;
+    private ExpenseSnapshotCache snapshotCache;
+    private ReportQueryEngine reportEngine;
+    private Long userId;
+    private Instant from;
+    private Instant to;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ExpenseTrackerApplication.class)
+                .profiles("test")
+                .properties("app.expenses.snapshot.enabled=true")
+                .run();
+        expenseRepository = context.getBean(ExpenseRepository.class);
+        snapshotCache = context.getBean(ExpenseSnapshotCache.class);
+        reportEngine = context.getBean(ReportQueryEngine.class);
+        User user = createAndSaveUser(USER_EMAIL, Role.USER, context.getBean(UserRepository.class));
+        CategoryRepository categoryRepository = context.getBean(CategoryRepository.class);
+        List<Long> categoryIds = List.of(CATEGORY_NAME, "transport", "rent", "health").stream()
+                .map(name -> categoryRepository.save(new Category(name)).getId())
+                .toList();
+        context.getBean(JdbcTemplate.class).update("""
+                INSERT INTO expenses (user_id, amount, occurred_at, category_id, description)
+                SELECT ?, (g % 5000) / 100.0 + 1, ?::timestamp + g * interval '3 minutes',
+                       (ARRAY[?, ?, ?, ?, NULL])[g % 5 + 1]::bigint, 'generated'
+                FROM generate_series(1, ?) g
+                """, user.getId(), FIRST, categoryIds.get(0), categoryIds.get(1), categoryIds.get(2),
+                categoryIds.get(3), ROWS);
+        userId = user.getId();
+        from = FIRST.plusMonths(3).atZone(ZoneId.systemDefault()).toInstant();
+        to = FIRST.plusMonths(9).atZone(ZoneId.systemDefault()).toInstant();
+        snapshotCache.report(userId, from, to);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ExpensesReportDto jpql() {
+        List<CategorySumDto> byCategory = expenseRepository.sumByCategoryForUserBetween(userId, from, to);
+        BigDecimal total = expenseRepository.totalForUserBetween(userId, from, to);
+        return new ExpensesReportDto(total, byCategory);
+    }
+
+    @Benchmark
+    public ExpensesReportDto rollup() {
+        return reportEngine.run(ReportSpec.between(userId, from, to, ReportDimension.CATEGORY), false)
+                .categoryReport(List.of());
+    }
+
+    @Benchmark
+    public ExpensesReportDto snapshot() {
+        return snapshotCache.report(userId, from, to);
+    }
+
+    @Test
+    void snapshot_shouldBeFasterThanJpql() throws RunnerException {
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .include(ExpenseReportBenchmarkIT.class.getName() + "\\.")
+                .build()).run();
+
+        Map<String, Double> scores = results.stream().collect(Collectors.toMap(
+                result -> result.getParams().getBenchmark().substring(result.getParams().getBenchmark()
+                        .lastIndexOf('.') + 1),
+                result -> result.getPrimaryResult().getScore()));
+        log.info("{} rows, report over 6 months, us/op: {}", ROWS, scores);
+        assertThat(scores.get("snapshot")).isLessThan(scores.get("jpql"));
+        assertThat(scores.get("rollup")).isLessThan(scores.get("jpql"));
+    }
+}
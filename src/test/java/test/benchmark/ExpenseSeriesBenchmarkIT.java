@@ -0,0 +1,149 @@
+package test.benchmark;
+
+import com.example.expensetracker.ExpenseTrackerApplication;
+import com.example.expensetracker.details.UserDetailsImpl;
+import com.example.expensetracker.dto.ExpenseSeriesDto;
+import com.example.expensetracker.dto.ExpensesReportDto;
+import com.example.expensetracker.model.Category;
+import com.example.expensetracker.model.Role;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.repository.CategoryRepository;
+import com.example.expensetracker.repository.UserRepository;
+import com.example.expensetracker.series.ExpenseSeriesGranularity;
+import com.example.expensetracker.series.ExpenseSeriesRepository;
+import com.example.expensetracker.service.ExpenseService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static test.util.Constants.*;
+import static test.util.TestUtils.createAndSaveUser;
+
+/**
+ * JMH: дневной ряд за год одним запросом (по агрегатам и по сырым строкам) против отдельного отчёта
+ * на каждый день, как это делал бы клиент через /api/expenses/report. 100 тысяч расходов за год.
+ * Запуск: mvn verify -Dit.test=ExpenseSeriesBenchmarkIT -Dbenchmarks=true
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(0)
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+public class ExpenseSeriesBenchmarkIT {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseSeriesBenchmarkIT.class);
+
+    private static final int ROWS = 100_000;
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = FROM.plusYears(1);
+
+    private ConfigurableApplicationContext context;
+    private ExpenseSeriesRepository seriesRepository;
+    private ExpenseService expenseService;
+    private UserDetailsImpl currentUser;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ExpenseTrackerApplication.class)
+                .profiles("test")
+                .run();
+        seriesRepository = context.getBean(ExpenseSeriesRepository.class);
+        expenseService = context.getBean(ExpenseService.class);
+        User user = createAndSaveUser(USER_EMAIL, Role.USER, context.getBean(UserRepository.class));
+        currentUser = new UserDetailsImpl(user);
+        CategoryRepository categoryRepository = context.getBean(CategoryRepository.class);
+        List<Long> categoryIds = List.of(CATEGORY_NAME, "transport", "rent", "health").stream()
+                .map(name -> categoryRepository.save(new Category(name)).getId())
+                .toList();
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("""
+                INSERT INTO expenses (user_id, amount, occurred_at, category_id, description)
+                SELECT ?, (g % 5000) / 100.0 + 1, ?::timestamp + g * interval '315 seconds',
+                       (ARRAY[?, ?, ?, ?, NULL])[g % 5 + 1]::bigint, 'generated'
+                FROM generate_series(1, ?) g
+                """, user.getId(), FROM.atStartOfDay(), categoryIds.get(0), categoryIds.get(1), categoryIds.get(2),
+                categoryIds.get(3), ROWS);
+        jdbcTemplate.update("""
+                INSERT INTO expense_daily_rollup (user_id, day, category_id, amount, expense_count)
+                SELECT user_id, occurred_at::date, category_id, SUM(amount), COUNT(*)
+                FROM expenses
+                GROUP BY user_id, occurred_at::date, category_id
+                """);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ExpenseSeriesDto seriesFromRollup() {
+        return seriesRepository.load(currentUser.getDomainUser().getId(), FROM, TO, ExpenseSeriesGranularity.DAY,
+                null, true);
+    }
+
+    @Benchmark
+    public ExpenseSeriesDto seriesFromExpenses() {
+        return seriesRepository.load(currentUser.getDomainUser().getId(), FROM, TO, ExpenseSeriesGranularity.DAY,
+                null, false);
+    }
+
+    @Benchmark
+    public List<ExpensesReportDto> reportPerDay() {
+        ZoneId zone = ZoneId.systemDefault();
+        List<ExpensesReportDto> reports = new ArrayList<>(366);
+        for (LocalDate day = FROM; day.isBefore(TO); day = day.plusDays(1)) {
+            reports.add(expenseService.getReport(currentUser, day.atStartOfDay(zone).toInstant(),
+                    day.plusDays(1).atStartOfDay(zone).toInstant()));
+        }
+        return reports;
+    }
+
+    @Test
+    void series_shouldBeFasterThanReportPerDay() throws RunnerException {
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .include(ExpenseSeriesBenchmarkIT.class.getName() + "\\.")
+                .build()).run();
+
+        Map<String, Double> scores = results.stream().collect(Collectors.toMap(
+                result -> result.getParams().getBenchmark().substring(result.getParams().getBenchmark()
+                        .lastIndexOf('.') + 1),
+                result -> result.getPrimaryResult().getScore()));
+        log.info("{} rows, daily series over one year, ms/op: {}", ROWS, scores);
+        assertThat(scores.get("seriesFromRollup")).isLessThan(scores.get("reportPerDay"));
+        assertThat(scores.get("seriesFromExpenses")).isLessThan(scores.get("reportPerDay"));
+    }
+}
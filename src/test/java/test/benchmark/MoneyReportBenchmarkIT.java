@@ -0,0 +1,154 @@
+package test.benchmark;
+
+import com.example.expensetracker.dto.CategorySumDto;
+import com.example.expensetracker.dto.ExpensesReportDto;
+import com.example.expensetracker.money.Money;
+import com.example.expensetracker.money.MoneySum;
+import com.example.expensetracker.rollup.DailyRollupDeltas;
+import com.example.expensetracker.rollup.DailyRollupKey;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static test.util.Constants.ID_VALID;
+
+/**
+ * JMH: сборка месячного отчёта из пакета расходов — дневные дельты, суммы по категориям и итог —
+ * на копейках в long ({@link Money}, {@link MoneySum}) против прежней арифметики на BigDecimal.
+ * Кроме пропускной способности GCProfiler снимает выделение памяти на операцию (gc.alloc.rate.norm).
+ * Контекст Spring не нужен, поэтому бенчмарк форкается: в одной JVM профили общих TreeMap и DailyRollupKey
+ * от первого бенчмарка искажают второй.
+ * Запуск: mvn verify -Dit.test=MoneyReportBenchmarkIT -Dbenchmarks=true
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+public class MoneyReportBenchmarkIT {
+
+    private static final Logger log = LoggerFactory.getLogger(MoneyReportBenchmarkIT.class);
+
+    private static final int EXPENSES = 5_000;
+    private static final String[] CATEGORIES = {"food", "transport", "rent", "health", "fun", "travel", "gifts"};
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 9, 1);
+
+    private BigDecimal[] amounts;
+    private LocalDate[] days;
+    private Long[] categoryIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        amounts = new BigDecimal[EXPENSES];
+        days = new LocalDate[EXPENSES];
+        categoryIds = new Long[EXPENSES];
+        for (int i = 0; i < EXPENSES; i++) {
+            amounts[i] = BigDecimal.valueOf(100 + random.nextInt(500_000), 2);
+            days[i] = FIRST_DAY.plusDays(random.nextInt(30));
+            categoryIds[i] = (long) random.nextInt(CATEGORIES.length);
+        }
+    }
+
+    @Benchmark
+    public ExpensesReportDto money() {
+        DailyRollupDeltas deltas = new DailyRollupDeltas();
+        for (int i = 0; i < EXPENSES; i++) {
+            deltas.add(ID_VALID, days[i], categoryIds[i], amounts[i]);
+        }
+        Map<String, MoneySum> sums = new LinkedHashMap<>();
+        deltas.asMap().forEach((key, delta) ->
+                sums.computeIfAbsent(CATEGORIES[key.categoryId().intValue()], name -> new MoneySum()).add(delta));
+        List<CategorySumDto> items = new ArrayList<>(sums.size());
+        long total = 0;
+        for (Map.Entry<String, MoneySum> entry : sums.entrySet()) {
+            items.add(new CategorySumDto(entry.getKey(), entry.getValue().amount()));
+            total = Money.add(total, entry.getValue().cents());
+        }
+        return new ExpensesReportDto(Money.fromCents(total), items);
+    }
+
+    /**
+     * Прежний путь: неизменяемая дельта на BigDecimal пересоздаётся при каждом слиянии,
+     * итог собирается stream-ом по суммам категорий.
+     */
+    @Benchmark
+    public ExpensesReportDto bigDecimal() {
+        Map<DailyRollupKey, Delta> deltas = new TreeMap<>();
+        for (int i = 0; i < EXPENSES; i++) {
+            deltas.merge(new DailyRollupKey(ID_VALID, days[i], categoryIds[i]), new Delta(amounts[i], 1), Delta::plus);
+        }
+        Map<String, BigDecimal> sums = new HashMap<>();
+        deltas.forEach((key, delta) ->
+                sums.merge(CATEGORIES[key.categoryId().intValue()], delta.amount(), BigDecimal::add));
+        List<CategorySumDto> items = sums.entrySet().stream()
+                .map(entry -> new CategorySumDto(entry.getKey(), entry.getValue()))
+                .toList();
+        return new ExpensesReportDto(items.stream().map(CategorySumDto::sum).reduce(BigDecimal.ZERO, BigDecimal::add),
+                items);
+    }
+
+    @Test
+    void money_shouldAllocateLessAndBeFasterThanBigDecimal() throws RunnerException {
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .include(MoneyReportBenchmarkIT.class.getName() + "\\.")
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+
+        Map<String, Double> throughput = new HashMap<>();
+        Map<String, Double> allocated = new HashMap<>();
+        for (RunResult result : results) {
+            String name = result.getParams().getBenchmark();
+            name = name.substring(name.lastIndexOf('.') + 1);
+            throughput.put(name, result.getPrimaryResult().getScore());
+            for (Map.Entry<String, Result> secondary : result.getSecondaryResults().entrySet()) {
+                if (secondary.getKey().endsWith("gc.alloc.rate.norm")) {
+                    allocated.put(name, secondary.getValue().getScore());
+                }
+            }
+        }
+        log.info("{} expenses per report: ops/ms {}, bytes/op {}", EXPENSES, throughput, allocated);
+        assertThat(throughput.get("money")).isGreaterThan(throughput.get("bigDecimal"));
+        assertThat(allocated.get("money")).isLessThan(allocated.get("bigDecimal"));
+    }
+
+    private record Delta(BigDecimal amount, long count) {
+
+        Delta plus(Delta other) {
+            return new Delta(amount.add(other.amount), count + other.count);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package test.benchmark;
+
+import com.example.expensetracker.dto.RecurringForecastDto;
+import com.example.expensetracker.forecast.ForecastRule;
+import com.example.expensetracker.forecast.RecurringForecastCalculator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import test.util.TestData;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * JMH: прогноз на 10 лет по 500 правилам — подсчёт исполнений по месяцам формулой
+ * ({@link RecurringForecastCalculator}) против перебора всех дат исполнения каждого правила.
+ * Запуск: mvn verify -Dit.test=RecurringForecastBenchmarkIT -Dbenchmarks=true
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+public class RecurringForecastBenchmarkIT {
+
+    private static final Logger log = LoggerFactory.getLogger(RecurringForecastBenchmarkIT.class);
+
+    private static final int RULES = 500;
+    private static final int MONTHS = 120;
+    private static final LocalDate TODAY = LocalDate.of(2025, 9, 1);
+
+    private List<ForecastRule> rules;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        rules = new ArrayList<>(RULES);
+        for (int i = 0; i < RULES; i++) {
+            rules.add(new ForecastRule(100 + random.nextInt(500_000), (long) random.nextInt(10), "c" + i % 10,
+                    TestData.dailyRecurrence(1 + random.nextInt(60), TODAY.plusDays(random.nextInt(60) - 10))));
+        }
+    }
+
+    @Benchmark
+    public RecurringForecastDto closedForm() {
+        return RecurringForecastCalculator.forecast(rules, TODAY, MONTHS, false);
+    }
+
+    /**
+     * Перебор: каждая дата исполнения каждого правила кладётся в сумму своего месяца и категории.
+     */
+    @Benchmark
+    public Map<YearMonth, Map<Long, long[]>> everyOccurrence() {
+        LocalDate to = YearMonth.from(TODAY).plusMonths(MONTHS - 1).atEndOfMonth();
+        Map<YearMonth, Map<Long, long[]>> sums = new HashMap<>();
+        for (ForecastRule rule : rules) {
+            LocalDate day = rule.recurrence().start().isBefore(TODAY) ? TODAY : rule.recurrence().start();
+            for (; !day.isAfter(to); day = day.plusDays(rule.recurrence().interval())) {
+                long[] sum = sums.computeIfAbsent(YearMonth.from(day), month -> new HashMap<>())
+                        .computeIfAbsent(rule.categoryId(), id -> new long[2]);
+                sum[0] += rule.cents();
+                sum[1]++;
+            }
+        }
+        return sums;
+    }
+
+    @Test
+    void closedForm_shouldTakeMillisecondsAndBeatEveryOccurrence() throws RunnerException {
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .include(RecurringForecastBenchmarkIT.class.getName() + "\\.")
+                .build()).run();
+
+        Map<String, Double> micros = new HashMap<>();
+        for (RunResult result : results) {
+            String name = result.getParams().getBenchmark();
+            micros.put(name.substring(name.lastIndexOf('.') + 1), result.getPrimaryResult().getScore());
+        }
+        log.info("{} rules over {} months: us/op {}", RULES, MONTHS, micros);
+        assertThat(micros.get("closedForm")).isLessThan(micros.get("everyOccurrence"));
+        assertThat(micros.get("closedForm")).isLessThan(5_000);
+    }
+}
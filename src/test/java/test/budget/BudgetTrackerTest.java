@@ -0,0 +1,168 @@
+package test.budget;
+
+import com.example.expensetracker.budget.BudgetSpendingRepository;
+import com.example.expensetracker.budget.BudgetTracker;
+import com.example.expensetracker.budget.BudgetUsage;
+import com.example.expensetracker.config.ExpenseBudgetProperties;
+import com.example.expensetracker.rollup.DailyRollupDeltas;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static test.util.Constants.ID_CATEGORY;
+import static test.util.Constants.ID_VALID;
+
+@ExtendWith(MockitoExtension.class)
+public class BudgetTrackerTest {
+
+    private static final YearMonth SEPTEMBER = YearMonth.of(2025, 9);
+    private static final Long OTHER_CATEGORY = ID_CATEGORY + 1;
+
+    @Mock
+    private BudgetSpendingRepository repository;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private BudgetTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new BudgetTracker(repository, new ExpenseBudgetProperties(100, Duration.ofHours(1)), registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static DailyRollupDeltas added(YearMonth month, Long categoryId, String amount) {
+        DailyRollupDeltas deltas = new DailyRollupDeltas();
+        deltas.add(ID_VALID, month.atDay(3), categoryId, new BigDecimal(amount));
+        return deltas;
+    }
+
+    private void stubLoad(YearMonth month, long spentCents) {
+        when(repository.limits(ID_VALID)).thenReturn(Map.of(ID_CATEGORY, 100_00L));
+        when(repository.spent(ID_VALID, month)).thenReturn(Map.of(ID_CATEGORY, spentCents));
+    }
+
+    @Test
+    void usage_shouldLoadOnceAndThenFollowDeltas() {
+        stubLoad(SEPTEMBER, 90_00L);
+
+        BudgetUsage loaded = tracker.usage(ID_VALID, ID_CATEGORY, SEPTEMBER).orElseThrow();
+        tracker.record(added(SEPTEMBER, ID_CATEGORY, "15.50"));
+        tracker.record(added(SEPTEMBER, OTHER_CATEGORY, "1000"));
+        tracker.record(added(SEPTEMBER.minusMonths(1), ID_CATEGORY, "1000"));
+        tracker.record(added(SEPTEMBER, null, "1000"));
+        BudgetUsage updated = tracker.usage(ID_VALID, ID_CATEGORY, SEPTEMBER).orElseThrow();
+
+        assertThat(loaded.spent().toBigDecimal()).isEqualByComparingTo("90.00");
+        assertThat(loaded.overBudget()).isFalse();
+        assertThat(updated.spent().toBigDecimal()).isEqualByComparingTo("105.50");
+        assertThat(updated.remaining().toBigDecimal()).isEqualByComparingTo("-5.50");
+        assertThat(updated.overBudget()).isTrue();
+        assertThat(tracker.usage(ID_VALID, OTHER_CATEGORY, SEPTEMBER)).isEmpty();
+        assertThat(registry.get("expenses.budgets.cache.deltas").counter().count()).isEqualTo(1);
+        verify(repository, times(1)).spent(ID_VALID, SEPTEMBER);
+    }
+
+    @Test
+    void record_shouldApplyOnlyAfterCommit() {
+        stubLoad(SEPTEMBER, 0L);
+        tracker.usage(ID_VALID, ID_CATEGORY, SEPTEMBER);
+        TransactionSynchronizationManager.initSynchronization();
+
+        tracker.record(added(SEPTEMBER, ID_CATEGORY, "40"));
+        BudgetUsage beforeCommit = tracker.usage(ID_VALID, ID_CATEGORY, SEPTEMBER).orElseThrow();
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(beforeCommit.spent().toBigDecimal()).isEqualByComparingTo("0");
+        assertThat(tracker.usage(ID_VALID, ID_CATEGORY, SEPTEMBER).orElseThrow().spent().toBigDecimal())
+                .isEqualByComparingTo("40");
+    }
+
+    @Test
+    void usage_shouldReloadOnMonthRollover() {
+        YearMonth october = SEPTEMBER.plusMonths(1);
+        stubLoad(SEPTEMBER, 99_00L);
+        when(repository.spent(ID_VALID, october)).thenReturn(Map.of());
+        tracker.usage(ID_VALID, ID_CATEGORY, SEPTEMBER);
+
+        tracker.record(added(october, ID_CATEGORY, "5"));
+        BudgetUsage rolledOver = tracker.usage(ID_VALID, ID_CATEGORY, october).orElseThrow();
+
+        assertThat(rolledOver.spent().toBigDecimal()).isEqualByComparingTo("0");
+        assertThat(rolledOver.limit().toBigDecimal()).isEqualByComparingTo("100");
+        verify(repository).spent(ID_VALID, october);
+    }
+
+    @Test
+    void invalidate_shouldReloadLimits() {
+        stubLoad(SEPTEMBER, 10_00L);
+        tracker.usage(ID_VALID, ID_CATEGORY, SEPTEMBER);
+
+        tracker.invalidate(ID_VALID);
+        tracker.usage(ID_VALID, ID_CATEGORY, SEPTEMBER);
+
+        verify(repository, times(2)).limits(ID_VALID);
+        assertThat(registry.get("expenses.budgets.cache.loads").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void usage_shouldNotCacheLoadThatRacedWithDelta() {
+        when(repository.limits(ID_VALID)).thenReturn(Map.of(ID_CATEGORY, 100_00L));
+        when(repository.spent(ID_VALID, SEPTEMBER)).thenAnswer(invocation -> {
+            tracker.record(added(SEPTEMBER, ID_CATEGORY, "7"));
+            return Map.of(ID_CATEGORY, 0L);
+        }).thenReturn(Map.of(ID_CATEGORY, 7_00L));
+
+        BudgetUsage stale = tracker.usage(ID_VALID, ID_CATEGORY, SEPTEMBER).orElseThrow();
+        BudgetUsage reloaded = tracker.usage(ID_VALID, ID_CATEGORY, SEPTEMBER).orElseThrow();
+
+        assertThat(stale.spent().toBigDecimal()).isEqualByComparingTo("0");
+        assertThat(reloaded.spent().toBigDecimal()).isEqualByComparingTo("7");
+        verify(repository, times(2)).spent(ID_VALID, SEPTEMBER);
+    }
+
+    @Test
+    void usage_shouldNotCacheSpent_loadedBetweenCommitAndAfterCommit() {
+        when(repository.limits(ID_VALID)).thenReturn(Map.of(ID_CATEGORY, 100_00L));
+        when(repository.spent(ID_VALID, SEPTEMBER)).thenReturn(Map.of(ID_CATEGORY, 95_00L));
+        TransactionSynchronizationManager.initSynchronization();
+        tracker.record(added(SEPTEMBER, ID_CATEGORY, "95"));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // Расход уже закоммичен и виден в expense_daily_rollup, afterCommit ещё не вызван.
+        BudgetUsage committed = tracker.usage(ID_VALID, ID_CATEGORY, SEPTEMBER).orElseThrow();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        BudgetUsage after = tracker.usage(ID_VALID, ID_CATEGORY, SEPTEMBER).orElseThrow();
+
+        assertThat(committed.spent().toBigDecimal()).isEqualByComparingTo("95");
+        assertThat(after.spent().toBigDecimal()).isEqualByComparingTo("95");
+        assertThat(after.overBudget()).isFalse();
+        verify(repository, times(2)).spent(ID_VALID, SEPTEMBER);
+    }
+}
@@ -1,6 +1,7 @@
 package test.controller;
 
 import com.example.expensetracker.ExpenseTrackerApplication;
+import com.example.expensetracker.analytics.ExpenseAnalyticsRefresher;
 import com.example.expensetracker.dto.RegisterDto;
 import com.example.expensetracker.logging.audit.AuditRepository;
 import com.example.expensetracker.model.Role;
@@ -22,6 +23,7 @@ import test.security.WithMockCustomUser;
 
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.startsWith;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -53,6 +55,9 @@ public class AdminControllerIT {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private ExpenseAnalyticsRefresher refresher;
+
     @Test
     @WithMockCustomUser(email = ADMIN_EMAIL, roles = {"ADMIN"})
     void getAllUsers_shouldReturnListUsers_whenUsersExist() throws Exception {
@@ -463,6 +468,87 @@ public class AdminControllerIT {
                 .andExpect(jsonPath("$.message").value(msg("user.password.not-blank")));
     }
 
+    @Test
+    @WithMockCustomUser(email = ADMIN_EMAIL, roles = {"ADMIN"})
+    void spendingByCategory_shouldReturnViewDataWithStaleness() throws Exception {
+        refresher.refresh();
+        mockMvc.perform(get(API_ADMIN_ANALYTICS_CATEGORIES))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value(msg("admin.analytics.categories")))
+                .andExpect(jsonPath("$.data.items").isArray())
+                .andExpect(jsonPath("$.data.refreshedAt").isNotEmpty())
+                .andExpect(jsonPath("$.data.staleSeconds").isNumber());
+    }
+
+    @Test
+    @WithMockCustomUser(email = ADMIN_EMAIL, roles = {"ADMIN"})
+    void spendingByMonth_shouldReturnViewData() throws Exception {
+        refresher.refresh();
+        mockMvc.perform(get(API_ADMIN_ANALYTICS_MONTHS))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value(msg("admin.analytics.months")))
+                .andExpect(jsonPath("$.data.items").isArray());
+    }
+
+    @Test
+    @WithMockCustomUser(email = USER_EMAIL, roles = {"USER"})
+    void spendingByCategory_shouldBeForbidden_whenNotAdmin() throws Exception {
+        mockMvc.perform(get(API_ADMIN_ANALYTICS_CATEGORIES))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockCustomUser(email = ADMIN_EMAIL, roles = {"ADMIN"})
+    void reindexSearch_shouldSwitchAliasToNewIndexVersion() throws Exception {
+        mockMvc.perform(post(API_ADMIN_SEARCH_REINDEX))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value(msg("admin.search.reindex")))
+                .andExpect(jsonPath("$.data.index").value(startsWith("expenses-")))
+                .andExpect(jsonPath("$.data.documents").isNumber());
+    }
+
+    @Test
+    @WithMockCustomUser(email = USER_EMAIL, roles = {"USER"})
+    void reindexSearch_shouldBeForbidden_whenNotAdmin() throws Exception {
+        mockMvc.perform(post(API_ADMIN_SEARCH_REINDEX))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockCustomUser(email = ADMIN_EMAIL, roles = {"ADMIN"})
+    void catchUpRecurring_shouldReportCountsWithoutWriting_whenDryRun() throws Exception {
+        mockMvc.perform(post(API_ADMIN_RECURRING_CATCH_UP).param("dryRun", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value(msg("admin.recurring.catch.up")))
+                .andExpect(jsonPath("$.data.dryRun").value(true))
+                .andExpect(jsonPath("$.data.rules").isNumber())
+                .andExpect(jsonPath("$.data.created").value(0));
+    }
+
+    @Test
+    @WithMockCustomUser(email = USER_EMAIL, roles = {"USER"})
+    void catchUpRecurring_shouldBeForbidden_whenNotAdmin() throws Exception {
+        mockMvc.perform(post(API_ADMIN_RECURRING_CATCH_UP))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockCustomUser(email = ADMIN_EMAIL, roles = {"ADMIN"})
+    void reconcileTotals_shouldRecomputeTotalsFromExpenses() throws Exception {
+        mockMvc.perform(post(API_ADMIN_TOTALS_RECONCILE))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value(msg("admin.totals.reconcile")))
+                .andExpect(jsonPath("$.data.reconciled").value(true))
+                .andExpect(jsonPath("$.data.users").isNumber());
+    }
+
+    @Test
+    @WithMockCustomUser(email = USER_EMAIL, roles = {"USER"})
+    void reconcileTotals_shouldBeForbidden_whenNotAdmin() throws Exception {
+        mockMvc.perform(post(API_ADMIN_TOTALS_RECONCILE))
+                .andExpect(status().isForbidden());
+    }
+
     private String getJsonBody(String name, String email, String password) throws JsonProcessingException {
         return objectMapper.writeValueAsString(new RegisterDto(name, email, password));
     }
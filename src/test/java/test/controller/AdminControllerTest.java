@@ -1,10 +1,22 @@
 package test.controller;
 
+import com.example.expensetracker.analytics.ExpenseAnalyticsService;
 import com.example.expensetracker.controller.AdminController;
 import com.example.expensetracker.details.UserDetailsImpl;
 import com.example.expensetracker.dto.AdminUserDto;
+import com.example.expensetracker.dto.AnalyticsDto;
+import com.example.expensetracker.dto.CategorySpendingDto;
+import com.example.expensetracker.dto.ExpenseReindexResultDto;
+import com.example.expensetracker.dto.ExpenseSketchRebuildDto;
+import com.example.expensetracker.dto.ExpenseTotalsReconcileDto;
+import com.example.expensetracker.dto.MonthSpendingDto;
+import com.example.expensetracker.dto.RecurringCatchUpDto;
 import com.example.expensetracker.dto.RegisterDto;
+import com.example.expensetracker.search.ExpenseSearchIndexer;
 import com.example.expensetracker.service.AdminService;
+import com.example.expensetracker.service.RecurringTransactionService;
+import com.example.expensetracker.sketch.ExpenseSketchFlusher;
+import com.example.expensetracker.totals.TotalExpensesFlusher;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,7 +32,11 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import test.util.TestData;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.tuple;
@@ -32,6 +48,21 @@ public class AdminControllerTest {
     @Mock
     private AdminService adminService;
 
+    @Mock
+    private ExpenseAnalyticsService analyticsService;
+
+    @Mock
+    private ExpenseSearchIndexer searchIndexer;
+
+    @Mock
+    private RecurringTransactionService recurringService;
+
+    @Mock
+    private TotalExpensesFlusher totalsFlusher;
+
+    @Mock
+    private ExpenseSketchFlusher sketchFlusher;
+
     @Mock
     private HttpServletRequest request;
 
@@ -202,5 +233,95 @@ public class AdminControllerTest {
         verify(adminService).createModerator(eq(newModer), eq(currentUser));
         verify(messageSource).getMessage(eq("create.moder"), isNull(), any());
     }
-}
 
+    @Test
+    public void spendingByCategory_shouldReturnViewDataWithStaleness() {
+        Instant refreshedAt = Instant.parse("2025-06-01T10:00:00Z");
+        AnalyticsDto<CategorySpendingDto> analytics = new AnalyticsDto<>(
+                List.of(new CategorySpendingDto(1L, "Food", new BigDecimal("12.50"), 3, 2)), refreshedAt, 120L);
+        when(analyticsService.spendingByCategory()).thenReturn(analytics);
+
+        var response = adminController.spendingByCategory(request);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getData()).isEqualTo(analytics);
+        verify(analyticsService).spendingByCategory();
+        verify(messageSource).getMessage(eq("admin.analytics.categories"), isNull(), any());
+    }
+
+    @Test
+    public void spendingByMonth_shouldReturnViewDataWithStaleness() {
+        AnalyticsDto<MonthSpendingDto> analytics = new AnalyticsDto<>(
+                List.of(new MonthSpendingDto(YearMonth.of(2025, 6), new BigDecimal("12.50"), 3, 2)), null, null);
+        when(analyticsService.spendingByMonth()).thenReturn(analytics);
+
+        var response = adminController.spendingByMonth(request);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getData()).isEqualTo(analytics);
+        verify(analyticsService).spendingByMonth();
+        verify(messageSource).getMessage(eq("admin.analytics.months"), isNull(), any());
+    }
+
+    @Test
+    public void reindexSearch_shouldReturnNewIndexVersion() {
+        ExpenseReindexResultDto result = new ExpenseReindexResultDto("expenses-1", 3, 15);
+        when(searchIndexer.rebuild()).thenReturn(CompletableFuture.completedFuture(result));
+
+        var response = adminController.reindexSearch(request);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getData()).isEqualTo(result);
+        verify(messageSource).getMessage(eq("admin.search.reindex"), isNull(), any());
+    }
+
+    @Test
+    public void catchUpRecurring_shouldReturnPlanAndResult() {
+        RecurringCatchUpDto result = new RecurringCatchUpDto(true, 2, 9, 0, 0);
+        when(recurringService.catchUp(true)).thenReturn(result);
+
+        var response = adminController.catchUpRecurring(true, request);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getData()).isEqualTo(result);
+        verify(messageSource).getMessage(eq("admin.recurring.catch.up"), isNull(), any());
+    }
+
+    @Test
+    public void reconcileTotals_shouldReturnRecomputedUsers() {
+        when(totalsFlusher.reconcile()).thenReturn(4);
+
+        var response = adminController.reconcileTotals(request);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getData()).isEqualTo(new ExpenseTotalsReconcileDto(true, 4));
+        verify(messageSource).getMessage(eq("admin.totals.reconcile"), isNull(), any());
+    }
+
+    @Test
+    public void reconcileTotals_shouldReportNotReconciled_whenAnotherInstanceRuns() {
+        when(totalsFlusher.reconcile()).thenReturn(-1);
+
+        var response = adminController.reconcileTotals(request);
+
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getData()).isEqualTo(new ExpenseTotalsReconcileDto(false, 0));
+    }
+
+    @Test
+    public void rebuildSketches_shouldReturnRebuiltUsers() {
+        when(sketchFlusher.rebuildAll()).thenReturn(3);
+
+        var response = adminController.rebuildSketches(request);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getData()).isEqualTo(new ExpenseSketchRebuildDto(3));
+        verify(messageSource).getMessage(eq("admin.sketches.rebuild"), isNull(), any());
+    }
+}
@@ -0,0 +1,181 @@
+package test.controller;
+
+import com.example.expensetracker.ExpenseTrackerApplication;
+import com.example.expensetracker.dto.BudgetRequestDto;
+import com.example.expensetracker.dto.ExpenseBatchRequestDto;
+import com.example.expensetracker.dto.ExpenseRequestDto;
+import com.example.expensetracker.model.Category;
+import com.example.expensetracker.model.Role;
+import com.example.expensetracker.repository.CategoryRepository;
+import com.example.expensetracker.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.TestExecutionEvent;
+import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import test.util.TestData;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static test.util.Constants.*;
+import static test.util.TestMessageSource.msg;
+import static test.util.TestUtils.createAndSaveUser;
+
+@SpringBootTest(classes = {ExpenseTrackerApplication.class},
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+public class BudgetControllerIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        createAndSaveUser(USER_EMAIL, Role.USER, userRepository);
+        category = categoryRepository.save(new Category(CATEGORY_NAME));
+    }
+
+    private ResultActions putBudget(String limit) throws Exception {
+        return mockMvc.perform(put(API_BUDGETS)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BudgetRequestDto(category.getId(), new BigDecimal(limit)))));
+    }
+
+    private ResultActions addExpense(ExpenseRequestDto dto) throws Exception {
+        return mockMvc.perform(post(API_EXPENSES)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)));
+    }
+
+    @Test
+    @WithUserDetails(value = USER_EMAIL, userDetailsServiceBeanName = "customUserDetailsService",
+            setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void put_shouldSeedSpentFromExistingExpenses() throws Exception {
+        mockMvc.perform(post(API_EXPENSES_BATCH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ExpenseBatchRequestDto(List.of(
+                                TestData.expenseRequestDto(category.getId()),
+                                TestData.expenseRequestDto(null))))))
+                .andExpect(status().isOk());
+
+        putBudget("800")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value(msg("budget.controller.put")))
+                .andExpect(jsonPath("$.data.month").value(YearMonth.now().toString()))
+                .andExpect(jsonPath("$.data.spent").value(AMOUNT))
+                .andExpect(jsonPath("$.data.remaining").value(300))
+                .andExpect(jsonPath("$.data.overBudget").value(false));
+
+        mockMvc.perform(get(API_BUDGETS))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value(msg("budget.controller.get.all")))
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.data[0].categoryName").value(CATEGORY_NAME))
+                .andExpect(jsonPath("$.data[0].spent").value(AMOUNT));
+    }
+
+    @Test
+    @WithUserDetails(value = USER_EMAIL, userDetailsServiceBeanName = "customUserDetailsService",
+            setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void addExpense_shouldFlagOverBudget_whenLimitExceeded() throws Exception {
+        putBudget("800").andExpect(status().isOk());
+
+        addExpense(TestData.expenseRequestDto(category.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value(msg("expense.controller.add.ok")))
+                .andExpect(jsonPath("$.data.expense.categoryName").value(CATEGORY_NAME))
+                .andExpect(jsonPath("$.data.budget.spent").value(AMOUNT))
+                .andExpect(jsonPath("$.data.budget.overBudget").value(false));
+        addExpense(TestData.expenseRequestDto(category.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.budget.spent").value(AMOUNT * 2))
+                .andExpect(jsonPath("$.data.budget.remaining").value(800 - AMOUNT * 2))
+                .andExpect(jsonPath("$.data.budget.overBudget").value(true));
+
+        mockMvc.perform(get(API_BUDGETS))
+                .andExpect(jsonPath("$.data[0].spent").value(AMOUNT * 2))
+                .andExpect(jsonPath("$.data[0].overBudget").value(true));
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM expenses", Integer.class);
+        assertThat(count).isEqualTo(2);
+    }
+
+    @Test
+    @WithUserDetails(value = USER_EMAIL, userDetailsServiceBeanName = "customUserDetailsService",
+            setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void addExpense_shouldReturnNoBudget_whenExpenseOutsideCurrentMonthOrUncategorized() throws Exception {
+        putBudget("800").andExpect(status().isOk());
+        Instant lastMonth = Instant.now().minus(40, ChronoUnit.DAYS);
+
+        addExpense(new ExpenseRequestDto(new BigDecimal(AMOUNT), lastMonth, category.getId(), DESCRIPTION))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.budget").doesNotExist());
+        addExpense(TestData.expenseRequestDto(null))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.budget").doesNotExist());
+
+        mockMvc.perform(get(API_BUDGETS))
+                .andExpect(jsonPath("$.data[0].spent").value(0));
+    }
+
+    @Test
+    @WithUserDetails(value = USER_EMAIL, userDetailsServiceBeanName = "customUserDetailsService",
+            setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void delete_shouldRemoveBudgetFromAddResponse() throws Exception {
+        putBudget("800").andExpect(status().isOk());
+
+        mockMvc.perform(delete(API_BUDGETS + "/" + category.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value(msg("budget.controller.delete")));
+
+        addExpense(TestData.expenseRequestDto(category.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.budget").doesNotExist());
+        mockMvc.perform(get(API_BUDGETS))
+                .andExpect(jsonPath("$.data").isEmpty());
+    }
+
+    @Test
+    @WithUserDetails(value = USER_EMAIL, userDetailsServiceBeanName = "customUserDetailsService",
+            setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void put_shouldReturnBadRequest_whenLimitNotPositive() throws Exception {
+        putBudget("0")
+                .andExpect(status().isBadRequest());
+
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM budgets", Integer.class);
+        assertThat(count).isZero();
+    }
+}
@@ -0,0 +1,92 @@
+package test.controller;
+
+import com.example.expensetracker.budget.BudgetService;
+import com.example.expensetracker.controller.BudgetController;
+import com.example.expensetracker.details.UserDetailsImpl;
+import com.example.expensetracker.dto.BudgetDto;
+import com.example.expensetracker.dto.BudgetRequestDto;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.MessageSource;
+import org.springframework.http.HttpStatus;
+import test.util.TestData;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static test.util.Constants.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BudgetControllerTest {
+
+    @Mock
+    private BudgetService budgetService;
+
+    @Mock
+    private MessageSource messageSource;
+
+    @Mock
+    private HttpServletRequest request;
+
+    @InjectMocks
+    private BudgetController controller;
+
+    @BeforeEach
+    void setUp() {
+        when(messageSource.getMessage(anyString(), any(), any())).thenAnswer(invocation ->
+                invocation.getArgument(0));
+    }
+
+    private static BudgetDto budget() {
+        return new BudgetDto(ID_CATEGORY, CATEGORY_NAME, YearMonth.now(), new BigDecimal("1000.00"),
+                new BigDecimal(AMOUNT), new BigDecimal("500.00"), false);
+    }
+
+    @Test
+    void getAll_shouldReturnBudgets() {
+        UserDetailsImpl currentUser = new UserDetailsImpl(TestData.user());
+        when(budgetService.getBudgets(currentUser)).thenReturn(List.of(budget()));
+
+        var result = controller.getAll(currentUser, request);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).isNotNull();
+        assertThat(result.getBody().getData()).containsExactly(budget());
+        verify(messageSource).getMessage(eq("budget.controller.get.all"), isNull(), any());
+    }
+
+    @Test
+    void put_shouldReturnSavedBudget() {
+        UserDetailsImpl currentUser = new UserDetailsImpl(TestData.user());
+        BudgetRequestDto dto = new BudgetRequestDto(ID_CATEGORY, new BigDecimal("1000.00"));
+        when(budgetService.putBudget(currentUser, dto)).thenReturn(budget());
+
+        var result = controller.put(currentUser, dto, request);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).isNotNull();
+        assertThat(result.getBody().getData()).isEqualTo(budget());
+        verify(messageSource).getMessage(eq("budget.controller.put"), isNull(), any());
+    }
+
+    @Test
+    void delete_shouldDeleteBudget() {
+        UserDetailsImpl currentUser = new UserDetailsImpl(TestData.user());
+
+        var result = controller.delete(currentUser, ID_CATEGORY, request);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        verify(budgetService).deleteBudget(currentUser, ID_CATEGORY);
+        verify(messageSource).getMessage(eq("budget.controller.delete"), isNull(), any());
+    }
+}
@@ -1,10 +1,15 @@
 package test.controller;
 
 import com.example.expensetracker.ExpenseTrackerApplication;
+import com.example.expensetracker.dto.ExpenseBatchRequestDto;
+import com.example.expensetracker.model.Category;
 import com.example.expensetracker.model.Role;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.repository.CategoryRepository;
 import com.example.expensetracker.repository.UserRepository;
 import com.example.expensetracker.service.ExpenseService;
 import com.example.expensetracker.service.UserService;
+import com.example.expensetracker.totals.TotalExpensesFlusher;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,15 +17,30 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.MessageSource;
+import org.springframework.http.MediaType;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.test.context.support.TestExecutionEvent;
 import org.springframework.security.test.context.support.WithUserDetails;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import test.util.TestData;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
 
 import static com.example.expensetracker.model.Month.SEPTEMBER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static test.util.Constants.*;
 import static test.util.TestMessageSource.msg;
@@ -47,14 +67,140 @@ public class ExpenseControllerIT {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private TotalExpensesFlusher totalExpensesFlusher;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private CategoryRepository categoryRepository;
+
     @BeforeEach
     void setUp() {
         createAndSaveUser(USER_EMAIL, Role.USER, userRepository);
     }
 
+    @Test
+    @WithUserDetails(value = USER_EMAIL, userDetailsServiceBeanName = "customUserDetailsService",
+            setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void list_shouldReturnPagesByCursor() throws Exception {
+        Long userId = userRepository.findByEmail(USER_EMAIL).orElseThrow().getId();
+        for (int day = 1; day <= 3; day++) {
+            jdbcTemplate.update("INSERT INTO expenses (user_id, amount, occurred_at) VALUES (?, ?, ?)",
+                    userId, day, LocalDateTime.of(2025, 9, day, 12, 0));
+        }
+
+        String body = mockMvc.perform(get(API_EXPENSES).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value(msg("expense.controller.list.ok")))
+                .andExpect(jsonPath("$.data.items.length()").value(2))
+                .andExpect(jsonPath("$.data.items[0].amount").value(3))
+                .andExpect(jsonPath("$.data.nextCursor").isNotEmpty())
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(body).path("data").path("nextCursor").asText();
+
+        mockMvc.perform(get(API_EXPENSES).param("limit", "2").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items.length()").value(1))
+                .andExpect(jsonPath("$.data.items[0].amount").value(1))
+                .andExpect(jsonPath("$.data.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @WithUserDetails(value = USER_EMAIL, userDetailsServiceBeanName = "customUserDetailsService",
+            setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void list_shouldReturnBadRequest_whenCursorInvalid() throws Exception {
+        mockMvc.perform(get(API_EXPENSES).param("cursor", "broken"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(msg("handle.illegal.argument")));
+    }
+
+    @Test
+    @WithUserDetails(value = USER_EMAIL, userDetailsServiceBeanName = "customUserDetailsService",
+            setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void search_shouldReturnPage() throws Exception {
+        mockMvc.perform(get(API_EXPENSES_SEARCH).param("q", "кофе").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value(msg("expense.controller.search.ok")))
+                .andExpect(jsonPath("$.data.items").isArray());
+    }
+
+    @Test
+    @WithUserDetails(value = USER_EMAIL, userDetailsServiceBeanName = "customUserDetailsService",
+            setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void search_shouldReturnBadRequest_whenLimitTooLarge() throws Exception {
+        mockMvc.perform(get(API_EXPENSES_SEARCH).param("q", "кофе").param("limit", "101"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithUserDetails(value = USER_EMAIL, userDetailsServiceBeanName = "customUserDetailsService",
+            setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void suggestions_shouldReturnRecentDescriptions_andIncludeAddedExpense() throws Exception {
+        Long userId = userRepository.findByEmail(USER_EMAIL).orElseThrow().getId();
+        jdbcTemplate.update("INSERT INTO expenses (user_id, amount, occurred_at, description) VALUES (?, ?, ?, ?)",
+                userId, 1, LocalDateTime.of(2025, 9, 1, 12, 0), "Dentist");
+
+        mockMvc.perform(get(API_EXPENSES_SUGGESTIONS).param("prefix", "den"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value(msg("expense.controller.suggestions.ok")))
+                .andExpect(jsonPath("$.data").value(contains("Dentist")));
+
+        mockMvc.perform(post(API_EXPENSES_BATCH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ExpenseBatchRequestDto(List.of(
+                                TestData.expenseRequestDto(null), TestData.expenseRequestDto(null))))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get(API_EXPENSES_SUGGESTIONS).param("prefix", "DE"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data").value(contains(DESCRIPTION, "Dentist")));
+    }
+
+    @Test
+    @WithUserDetails(value = USER_EMAIL, userDetailsServiceBeanName = "customUserDetailsService",
+            setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void suggestions_shouldReturnBadRequest_whenPrefixBlank() throws Exception {
+        mockMvc.perform(get(API_EXPENSES_SUGGESTIONS).param("prefix", " "))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithUserDetails(value = USER_EMAIL, userDetailsServiceBeanName = "customUserDetailsService",
+            setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void export_shouldStreamCsvForPeriod() throws Exception {
+        Long userId = userRepository.findByEmail(USER_EMAIL).orElseThrow().getId();
+        for (int day = 1; day <= 3; day++) {
+            jdbcTemplate.update("INSERT INTO expenses (user_id, amount, occurred_at, description) VALUES (?, ?, ?, ?)",
+                    userId, day, LocalDateTime.of(2025, 9, day, 12, 0), "day " + day);
+        }
+
+        MvcResult started = mockMvc.perform(get(API_EXPENSES_EXPORT)
+                        .param("from", LocalDateTime.of(2025, 9, 2, 0, 0)
+                                .atZone(ZoneId.systemDefault()).toInstant().toString())
+                        .accept("text/csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"expenses.csv\""))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(body.lines()).hasSize(3);
+        assertThat(body.lines().skip(1).map(line -> line.substring(line.lastIndexOf(',') + 1)))
+                .containsExactly("day 2", "day 3");
+    }
+
+    @Test
+    @WithUserDetails(value = USER_EMAIL, userDetailsServiceBeanName = "customUserDetailsService",
+            setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void export_shouldReturnNotAcceptable_whenAcceptUnsupported() throws Exception {
+        mockMvc.perform(get(API_EXPENSES_EXPORT).header("Accept", "application/pdf"))
+                .andExpect(status().isNotAcceptable());
+    }
+
     @Test
     @WithUserDetails(value = USER_EMAIL, userDetailsServiceBeanName = "customUserDetailsService",
             setupBefore = TestExecutionEvent.TEST_EXECUTION)
@@ -128,6 +274,88 @@ public class ExpenseControllerIT {
                 .andExpect(jsonPath("$.path").value(API_EXPENSES_STATS_MONTHLY));
     }
 
+    @Test
+    @WithUserDetails(value = USER_EMAIL, userDetailsServiceBeanName = "customUserDetailsService",
+            setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void reportMonthlyRange_shouldReturnReportPerMonth() throws Exception {
+        mockMvc.perform(get(API_EXPENSES_STATS_MONTHLY_RANGE)
+                        .param("from", "2025-11")
+                        .param("months", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value(msg("expense.controller.report.monthly.range")))
+                .andExpect(jsonPath("$.data.length()").value(3))
+                .andExpect(jsonPath("$.data[0].month").value("2025-11"))
+                .andExpect(jsonPath("$.data[2].month").value("2026-01"))
+                .andExpect(jsonPath("$.data[2].report.total").value(0))
+                .andExpect(jsonPath("$.path").value(API_EXPENSES_STATS_MONTHLY_RANGE));
+    }
+
+    @Test
+    @WithUserDetails(value = USER_EMAIL, userDetailsServiceBeanName = "customUserDetailsService",
+            setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void reportMonthlyRange_shouldReturnBadRequest_whenTooManyMonths() throws Exception {
+        mockMvc.perform(get(API_EXPENSES_STATS_MONTHLY_RANGE)
+                        .param("from", "2025-11")
+                        .param("months", "37"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(msg("handle.handler.method.validation")))
+                .andExpect(jsonPath("$.path").value(API_EXPENSES_STATS_MONTHLY_RANGE));
+    }
+
+    @Test
+    @WithUserDetails(value = USER_EMAIL, userDetailsServiceBeanName = "customUserDetailsService",
+            setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void series_shouldReturnZeroFilledBuckets() throws Exception {
+        mockMvc.perform(get(API_EXPENSES_STATS_SERIES)
+                        .param("from", "2025-09-01")
+                        .param("to", "2025-09-08")
+                        .param("granularity", "DAY"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value(msg("expense.controller.series.ok")))
+                .andExpect(jsonPath("$.data.granularity").value("DAY"))
+                .andExpect(jsonPath("$.data.buckets.length()").value(7))
+                .andExpect(jsonPath("$.data.buckets[6]").value("2025-09-07"))
+                .andExpect(jsonPath("$.data.amounts[0]").value(0))
+                .andExpect(jsonPath("$.data.counts.length()").value(7))
+                .andExpect(jsonPath("$.path").value(API_EXPENSES_STATS_SERIES));
+    }
+
+    @Test
+    @WithUserDetails(value = USER_EMAIL, userDetailsServiceBeanName = "customUserDetailsService",
+            setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void series_shouldReturnBadRequest_whenGranularityMissed() throws Exception {
+        mockMvc.perform(get(API_EXPENSES_STATS_SERIES)
+                        .param("from", "2025-09-01")
+                        .param("to", "2025-09-08"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.path").value(API_EXPENSES_STATS_SERIES));
+    }
+
+    @Test
+    @WithUserDetails(value = USER_EMAIL, userDetailsServiceBeanName = "customUserDetailsService",
+            setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void distribution_shouldReturnOk_whenMonthsValid() throws Exception {
+        mockMvc.perform(get(API_EXPENSES_STATS_DISTRIBUTION)
+                        .param("from", "2025-01")
+                        .param("to", "2025-06"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value(msg("expense.controller.distribution.ok")))
+                .andExpect(jsonPath("$.data.from").value("2025-01"))
+                .andExpect(jsonPath("$.data.categories").isArray())
+                .andExpect(jsonPath("$.path").value(API_EXPENSES_STATS_DISTRIBUTION));
+    }
+
+    @Test
+    @WithUserDetails(value = USER_EMAIL, userDetailsServiceBeanName = "customUserDetailsService",
+            setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void distribution_shouldReturnBadRequest_whenFromAfterTo() throws Exception {
+        mockMvc.perform(get(API_EXPENSES_STATS_DISTRIBUTION)
+                        .param("from", "2025-06")
+                        .param("to", "2025-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.path").value(API_EXPENSES_STATS_DISTRIBUTION));
+    }
+
     @Test
     @WithUserDetails(value = USER_EMAIL, userDetailsServiceBeanName = "customUserDetailsService",
             setupBefore = TestExecutionEvent.TEST_EXECUTION)
@@ -139,4 +367,96 @@ public class ExpenseControllerIT {
                 .andExpect(status().isUnauthorized())
                 .andExpect(jsonPath("$.message").value(msg("handle.username.not.found")));
     }
+
+    @Test
+    @WithUserDetails(value = USER_EMAIL, userDetailsServiceBeanName = "customUserDetailsService",
+            setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void addBatch_shouldSaveExpensesAndIncreaseTotal() throws Exception {
+        Category category = categoryRepository.save(new Category(CATEGORY_NAME));
+        ExpenseBatchRequestDto dto = new ExpenseBatchRequestDto(List.of(
+                TestData.expenseRequestDto(category.getId()),
+                TestData.expenseRequestDto(category.getId()),
+                TestData.expenseRequestDto(null)));
+
+        mockMvc.perform(post(API_EXPENSES_BATCH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value(msg("expense.controller.batch.ok")))
+                .andExpect(jsonPath("$.path").value(API_EXPENSES_BATCH))
+                .andExpect(jsonPath("$.data.saved").value(3));
+
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM expenses", Integer.class);
+        totalExpensesFlusher.flush();
+        BigDecimal total = jdbcTemplate.queryForObject("SELECT total_expenses FROM users WHERE email = ?",
+                BigDecimal.class, USER_EMAIL);
+        assertThat(count).isEqualTo(3);
+        assertThat(total).isEqualByComparingTo(new BigDecimal(AMOUNT * 3));
+    }
+
+    @Test
+    @WithUserDetails(value = USER_EMAIL, userDetailsServiceBeanName = "customUserDetailsService",
+            setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void saveUser_shouldNotOverwriteFlushedTotal() throws Exception {
+        User stale = userRepository.findByEmail(USER_EMAIL).orElseThrow();
+        ExpenseBatchRequestDto dto = new ExpenseBatchRequestDto(List.of(TestData.expenseRequestDto(null)));
+        mockMvc.perform(post(API_EXPENSES_BATCH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk());
+        totalExpensesFlusher.flush();
+
+        stale.setBanned(true);
+        userRepository.save(stale);
+
+        BigDecimal total = jdbcTemplate.queryForObject("SELECT total_expenses FROM users WHERE email = ?",
+                BigDecimal.class, USER_EMAIL);
+        assertThat(total).isEqualByComparingTo(new BigDecimal(AMOUNT));
+    }
+
+    @Test
+    @WithUserDetails(value = USER_EMAIL, userDetailsServiceBeanName = "customUserDetailsService",
+            setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void queue_shouldAcceptAndEventuallyPersistExpense() throws Exception {
+        mockMvc.perform(post(API_EXPENSES_QUEUE)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(TestData.expenseRequestDto(null))))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.message").value(msg("expense.controller.queued")));
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        Integer count = 0;
+        while (count == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM expenses", Integer.class);
+        }
+        assertThat(count).isEqualTo(1);
+    }
+
+    @Test
+    @WithUserDetails(value = USER_EMAIL, userDetailsServiceBeanName = "customUserDetailsService",
+            setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void addBatch_shouldReturnBadRequest_whenCategoryNotFound() throws Exception {
+        ExpenseBatchRequestDto dto = new ExpenseBatchRequestDto(List.of(TestData.expenseRequestDto(ID_INVALID)));
+
+        mockMvc.perform(post(API_EXPENSES_BATCH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(msg("handle.illegal.argument")));
+
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM expenses", Integer.class);
+        assertThat(count).isZero();
+    }
+
+    @Test
+    @WithUserDetails(value = USER_EMAIL, userDetailsServiceBeanName = "customUserDetailsService",
+            setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void addBatch_shouldReturnBadRequest_whenEmpty() throws Exception {
+        mockMvc.perform(post(API_EXPENSES_BATCH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ExpenseBatchRequestDto(List.of()))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(msg("expense.batch.request.expenses.not.empty")));
+    }
 }
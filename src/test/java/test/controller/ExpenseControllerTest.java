@@ -2,12 +2,34 @@ package test.controller;
 
 import com.example.expensetracker.controller.ExpenseController;
 import com.example.expensetracker.details.UserDetailsImpl;
+import com.example.expensetracker.dto.BudgetDto;
 import com.example.expensetracker.dto.DateRangeDto;
+import com.example.expensetracker.dto.ExpenseAddedDto;
+import com.example.expensetracker.dto.ExpenseBatchRequestDto;
+import com.example.expensetracker.dto.ExpenseBatchResultDto;
+import com.example.expensetracker.dto.ExpenseDistributionDto;
+import com.example.expensetracker.dto.ExpenseDistributionRequestDto;
+import com.example.expensetracker.dto.ExpenseDto;
+import com.example.expensetracker.dto.ExpenseExportRequestDto;
+import com.example.expensetracker.dto.ExpenseFilterDto;
+import com.example.expensetracker.dto.ExpensePageDto;
+import com.example.expensetracker.dto.ExpenseRequestDto;
+import com.example.expensetracker.dto.ExpenseSearchRequestDto;
+import com.example.expensetracker.dto.ExpenseSeriesDto;
+import com.example.expensetracker.dto.ExpenseSeriesRequestDto;
 import com.example.expensetracker.dto.ExpensesReportDto;
+import com.example.expensetracker.dto.MonthlyReportDto;
+import com.example.expensetracker.export.ExpenseExportFormat;
+import com.example.expensetracker.export.ExpenseExportService;
 import com.example.expensetracker.model.Month;
 import com.example.expensetracker.model.User;
+import com.example.expensetracker.search.ExpenseSearchService;
+import com.example.expensetracker.series.ExpenseSeriesGranularity;
+import com.example.expensetracker.series.ExpenseSeriesService;
 import com.example.expensetracker.service.ExpenseService;
 import com.example.expensetracker.service.UserService;
+import com.example.expensetracker.sketch.ExpenseDistributionService;
+import com.example.expensetracker.suggest.DescriptionSuggestCache;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,18 +38,27 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.MessageSource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import test.util.TestData;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static test.util.Constants.AMOUNT;
+import static test.util.Constants.CATEGORY_NAME;
+import static test.util.Constants.DESCRIPTION;
+import static test.util.Constants.ID_CATEGORY;
+import static test.util.Constants.ID_EXPENSE;
 
 @ExtendWith(MockitoExtension.class)
 public class ExpenseControllerTest {
@@ -41,6 +72,21 @@ public class ExpenseControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private ExpenseExportService expenseExportService;
+
+    @Mock
+    private ExpenseSeriesService expenseSeriesService;
+
+    @Mock
+    private ExpenseDistributionService expenseDistributionService;
+
+    @Mock
+    private ExpenseSearchService expenseSearchService;
+
+    @Mock
+    private DescriptionSuggestCache suggestCache;
+
     @Mock
     private HttpServletRequest request;
 
@@ -49,10 +95,72 @@ public class ExpenseControllerTest {
 
     @BeforeEach
     void setUp() {
-        when(messageSource.getMessage(anyString(), any(), any())).thenAnswer(invocation ->
+        lenient().when(messageSource.getMessage(anyString(), any(), any())).thenAnswer(invocation ->
                 invocation.getArgument(0));
     }
 
+    @Test
+    void list_shouldReturnPageWithCursor() {
+        UserDetailsImpl currentUser = new UserDetailsImpl(TestData.user());
+        ExpenseFilterDto filter = new ExpenseFilterDto();
+        ExpensePageDto page = new ExpensePageDto(List.of(), "next");
+        when(expenseService.listExpenses(currentUser, filter)).thenReturn(page);
+
+        var result = expenseController.list(filter, currentUser, request);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        var body = result.getBody();
+        assertThat(body).isNotNull();
+        assertThat(body.getData().nextCursor()).isEqualTo("next");
+        verify(messageSource).getMessage(eq("expense.controller.list.ok"), isNull(), any());
+    }
+
+    @Test
+    void search_shouldReturnPageOfFoundExpenses() {
+        UserDetailsImpl currentUser = new UserDetailsImpl(TestData.user());
+        ExpenseSearchRequestDto searchRequest = new ExpenseSearchRequestDto();
+        searchRequest.setQ("кофе");
+        ExpensePageDto page = new ExpensePageDto(List.of(), "next");
+        when(expenseSearchService.search(currentUser, searchRequest)).thenReturn(page);
+
+        var result = expenseController.search(searchRequest, currentUser, request);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).isNotNull();
+        assertThat(result.getBody().getData()).isEqualTo(page);
+        verify(messageSource).getMessage(eq("expense.controller.search.ok"), isNull(), any());
+    }
+
+    @Test
+    void suggestions_shouldReturnDescriptionsForPrefix() {
+        UserDetailsImpl currentUser = new UserDetailsImpl(TestData.user());
+        when(suggestCache.suggest(currentUser.getDomainUser().getId(), "ко", 10)).thenReturn(List.of("Кофе"));
+
+        var result = expenseController.suggestions("ко", 10, currentUser, request);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).isNotNull();
+        assertThat(result.getBody().getData()).containsExactly("Кофе");
+        verify(messageSource).getMessage(eq("expense.controller.suggestions.ok"), isNull(), any());
+    }
+
+    @Test
+    void export_shouldStreamInFormatFromAcceptHeader() throws Exception {
+        UserDetailsImpl currentUser = new UserDetailsImpl(TestData.user());
+        ExpenseExportRequestDto range = new ExpenseExportRequestDto();
+        range.setFrom(Instant.parse("2025-09-01T00:00:00Z"));
+        when(request.getHeader(HttpHeaders.ACCEPT)).thenReturn("application/x-ndjson");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        var result = expenseController.export(range, currentUser, request);
+        result.getBody().writeTo(out);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getHeaders().getContentType().toString()).isEqualTo("application/x-ndjson;charset=UTF-8");
+        assertThat(result.getHeaders().getContentDisposition().getFilename()).isEqualTo("expenses.ndjson");
+        verify(expenseExportService).export(currentUser, range.getFrom(), null, ExpenseExportFormat.NDJSON, out);
+    }
+
     @Test
     void report_shouldReturnExpensesForPeriod() {
         User user = TestData.user();
@@ -94,6 +202,60 @@ public class ExpenseControllerTest {
         verify(messageSource).getMessage(eq("expense.controller.report.monthly"), isNull(), any());
     }
 
+    @Test
+    void reportMonthlyRange_shouldReturnReportPerMonth() {
+        YearMonth from = YearMonth.of(2025, 9);
+        UserDetailsImpl currentUser = new UserDetailsImpl(TestData.user());
+        List<MonthlyReportDto> dto = List.of(
+                new MonthlyReportDto(from, new ExpensesReportDto(new BigDecimal(AMOUNT), List.of())),
+                new MonthlyReportDto(from.plusMonths(1), new ExpensesReportDto(BigDecimal.ZERO, List.of())));
+        when(expenseService.getReportMonthlyRange(currentUser, from, 2)).thenReturn(dto);
+
+        var result = expenseController.reportMonthlyRange(from, 2, currentUser, request);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).isNotNull();
+        assertThat(result.getBody().getData()).isSameAs(dto);
+        verify(messageSource).getMessage(eq("expense.controller.report.monthly.range"), isNull(), any());
+    }
+
+    @Test
+    void series_shouldReturnSeriesForPeriod() {
+        UserDetailsImpl currentUser = new UserDetailsImpl(TestData.user());
+        ExpenseSeriesRequestDto seriesRequest = new ExpenseSeriesRequestDto();
+        seriesRequest.setFrom(LocalDate.of(2025, 9, 1));
+        seriesRequest.setTo(LocalDate.of(2025, 9, 3));
+        seriesRequest.setGranularity(ExpenseSeriesGranularity.DAY);
+        ExpenseSeriesDto dto = new ExpenseSeriesDto(seriesRequest.getFrom(), seriesRequest.getTo(),
+                ExpenseSeriesGranularity.DAY, null, seriesRequest.getFrom(), new long[]{100, 0}, new long[]{1, 0});
+        when(expenseSeriesService.series(currentUser, seriesRequest)).thenReturn(dto);
+
+        var result = expenseController.series(seriesRequest, currentUser, request);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).isNotNull();
+        assertThat(result.getBody().getData()).isSameAs(dto);
+        verify(messageSource).getMessage(eq("expense.controller.series.ok"), isNull(), any());
+    }
+
+    @Test
+    void distribution_shouldReturnDistributionForMonths() {
+        UserDetailsImpl currentUser = new UserDetailsImpl(TestData.user());
+        ExpenseDistributionRequestDto distributionRequest = new ExpenseDistributionRequestDto();
+        distributionRequest.setFrom(YearMonth.of(2025, 1));
+        distributionRequest.setTo(YearMonth.of(2025, 6));
+        ExpenseDistributionDto dto = new ExpenseDistributionDto(distributionRequest.getFrom(),
+                distributionRequest.getTo(), List.of());
+        when(expenseDistributionService.distribution(currentUser, distributionRequest)).thenReturn(dto);
+
+        var result = expenseController.distribution(distributionRequest, currentUser, request);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).isNotNull();
+        assertThat(result.getBody().getData()).isSameAs(dto);
+        verify(messageSource).getMessage(eq("expense.controller.distribution.ok"), isNull(), any());
+    }
+
     @Test
     void getTotal_shouldReturnTotalExpenses() {
         User user = TestData.user();
@@ -109,5 +271,54 @@ public class ExpenseControllerTest {
         verify(userService).getTotalExpenses(anyLong());
         verify(messageSource).getMessage(eq("expense.controller.total.ok"), isNull(), any());
     }
-}
 
+    @Test
+    void add_shouldReturnExpenseWithBudget() {
+        UserDetailsImpl currentUser = new UserDetailsImpl(TestData.user());
+        ExpenseRequestDto dto = TestData.expenseRequestDto();
+        ExpenseAddedDto added = new ExpenseAddedDto(new ExpenseDto(ID_EXPENSE, dto.amount(), dto.occurredAt(),
+                ID_CATEGORY, CATEGORY_NAME, DESCRIPTION), new BudgetDto(ID_CATEGORY, CATEGORY_NAME, YearMonth.now(),
+                new BigDecimal("400.00"), new BigDecimal(AMOUNT), new BigDecimal("-100.00"), true));
+        when(expenseService.addExpense(currentUser, dto)).thenReturn(added);
+
+        var result = expenseController.add(dto, currentUser, request);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        var body = result.getBody();
+        assertThat(body).isNotNull();
+        assertThat(body.getData()).isEqualTo(added);
+        verify(messageSource).getMessage(eq("expense.controller.add.ok"), isNull(), any());
+    }
+
+    @Test
+    void addBatch_shouldReturnSavedCountAndTotal() {
+        User user = TestData.user();
+        UserDetailsImpl currentUser = new UserDetailsImpl(user);
+        ExpenseBatchRequestDto dto = new ExpenseBatchRequestDto(List.of(TestData.expenseRequestDto()));
+        when(expenseService.addExpenses(currentUser, dto.expenses()))
+                .thenReturn(new ExpenseBatchResultDto(1, new BigDecimal(AMOUNT)));
+
+        var result = expenseController.addBatch(dto, currentUser, request);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        var body = result.getBody();
+        assertThat(body).isNotNull();
+        assertThat(body.getData().saved()).isEqualTo(1);
+        assertThat(body.getData().total()).isEqualByComparingTo(new BigDecimal(AMOUNT));
+        verify(expenseService).addExpenses(currentUser, dto.expenses());
+        verify(messageSource).getMessage(eq("expense.controller.batch.ok"), isNull(), any());
+    }
+
+    @Test
+    void queue_shouldReturnAccepted() {
+        User user = TestData.user();
+        UserDetailsImpl currentUser = new UserDetailsImpl(user);
+        ExpenseRequestDto dto = TestData.expenseRequestDto();
+
+        var result = expenseController.queue(dto, currentUser, request);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        verify(expenseService).queueExpense(currentUser, dto);
+        verify(messageSource).getMessage(eq("expense.controller.queued"), isNull(), any());
+    }
+}
@@ -0,0 +1,118 @@
+package test.controller;
+
+import com.example.expensetracker.ExpenseTrackerApplication;
+import com.example.expensetracker.model.Category;
+import com.example.expensetracker.model.Role;
+import com.example.expensetracker.repository.CategoryRepository;
+import com.example.expensetracker.repository.UserRepository;
+import com.example.expensetracker.totals.TotalExpensesFlusher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.TestExecutionEvent;
+import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static test.util.Constants.*;
+import static test.util.TestMessageSource.msg;
+import static test.util.TestUtils.createAndSaveUser;
+
+@SpringBootTest(classes = {ExpenseTrackerApplication.class},
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+public class ExpenseImportControllerIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TotalExpensesFlusher totalExpensesFlusher;
+
+    @BeforeEach
+    void setUp() {
+        createAndSaveUser(USER_EMAIL, Role.USER, userRepository);
+        categoryRepository.save(new Category(CATEGORY_NAME));
+    }
+
+    @Test
+    @WithUserDetails(value = USER_EMAIL, userDetailsServiceBeanName = "customUserDetailsService",
+            setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void importExpenses_shouldCopyCsvRowsAndRecomputeTotal() throws Exception {
+        String csv = """
+                amount,occurred_at,category,description
+                10.50,2025-09-01T10:00:00Z,food,"Coffee, large"
+                20,2025-09-02T10:00:00Z,,
+                5,2025-09-03T10:00:00Z,unknown,
+                """;
+
+        mockMvc.perform(post(API_EXPENSES_IMPORT)
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value(msg("expense.import.controller.finished")))
+                .andExpect(jsonPath("$.data.state").value("COMPLETED"))
+                .andExpect(jsonPath("$.data.imported").value(2))
+                .andExpect(jsonPath("$.data.rejected").value(1));
+
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM expenses", Integer.class);
+        totalExpensesFlusher.flush();
+        BigDecimal total = jdbcTemplate.queryForObject("SELECT total_expenses FROM users WHERE email = ?",
+                BigDecimal.class, USER_EMAIL);
+        String description = jdbcTemplate.queryForObject(
+                "SELECT description FROM expenses WHERE category_id IS NOT NULL", String.class);
+        assertThat(count).isEqualTo(2);
+        assertThat(total).isEqualByComparingTo(new BigDecimal("30.50"));
+        assertThat(description).isEqualTo("Coffee, large");
+    }
+
+    @Test
+    @WithUserDetails(value = USER_EMAIL, userDetailsServiceBeanName = "customUserDetailsService",
+            setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void importExpenses_shouldCopyNdjsonRows() throws Exception {
+        String ndjson = """
+                {"amount":1.25,"occurredAt":"2025-09-01T10:00:00Z","category":"food"}
+                {"amount":2,"occurredAt":"2025-09-02T10:00:00Z","description":"Taxi"}
+                """;
+
+        mockMvc.perform(post(API_EXPENSES_IMPORT)
+                        .contentType("application/x-ndjson")
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.imported").value(2));
+
+        mockMvc.perform(get(API_EXPENSES_IMPORT))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value(msg("expense.import.controller.get.all")))
+                .andExpect(jsonPath("$.data[0].format").value("NDJSON"));
+    }
+
+    @Test
+    @WithUserDetails(value = USER_EMAIL, userDetailsServiceBeanName = "customUserDetailsService",
+            setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void getStatus_shouldReturnBadRequest_whenImportUnknown() throws Exception {
+        mockMvc.perform(get(API_EXPENSES_IMPORT + "/unknown"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(msg("handle.illegal.argument")));
+    }
+}
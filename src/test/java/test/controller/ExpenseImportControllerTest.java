@@ -0,0 +1,97 @@
+package test.controller;
+
+import com.example.expensetracker.controller.ExpenseImportController;
+import com.example.expensetracker.details.UserDetailsImpl;
+import com.example.expensetracker.imports.ExpenseImportFormat;
+import com.example.expensetracker.imports.ExpenseImportService;
+import com.example.expensetracker.imports.ExpenseImportState;
+import com.example.expensetracker.imports.ExpenseImportStatusDto;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.MessageSource;
+import org.springframework.http.HttpStatus;
+import test.util.TestData;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ExpenseImportControllerTest {
+
+    @Mock
+    private ExpenseImportService expenseImportService;
+
+    @Mock
+    private MessageSource messageSource;
+
+    @Mock
+    private HttpServletRequest request;
+
+    @InjectMocks
+    private ExpenseImportController expenseImportController;
+
+    @BeforeEach
+    void setUp() {
+        when(messageSource.getMessage(anyString(), any(), any())).thenAnswer(invocation ->
+                invocation.getArgument(0));
+    }
+
+    private static ExpenseImportStatusDto status() {
+        return new ExpenseImportStatusDto("1", ExpenseImportFormat.CSV, ExpenseImportState.COMPLETED, 10, 0, null,
+                Instant.now(), Instant.now());
+    }
+
+    @Test
+    void importExpenses_shouldStreamBodyToService() throws IOException {
+        UserDetailsImpl currentUser = new UserDetailsImpl(TestData.user());
+        ServletInputStream body = mock(ServletInputStream.class);
+        when(request.getContentType()).thenReturn("text/csv; charset=UTF-8");
+        when(request.getInputStream()).thenReturn(body);
+        when(expenseImportService.importExpenses(currentUser, ExpenseImportFormat.CSV, body)).thenReturn(status());
+
+        var result = expenseImportController.importExpenses(currentUser, request);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).isNotNull();
+        assertThat(result.getBody().getData().imported()).isEqualTo(10);
+        verify(expenseImportService).importExpenses(currentUser, ExpenseImportFormat.CSV, body);
+        verify(messageSource).getMessage(eq("expense.import.controller.finished"), isNull(), any());
+    }
+
+    @Test
+    void getAll_shouldReturnUserImports() {
+        UserDetailsImpl currentUser = new UserDetailsImpl(TestData.user());
+        when(expenseImportService.getStatuses(currentUser)).thenReturn(List.of(status()));
+
+        var result = expenseImportController.getAll(currentUser, request);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).isNotNull();
+        assertThat(result.getBody().getData()).hasSize(1);
+        verify(messageSource).getMessage(eq("expense.import.controller.get.all"), isNull(), any());
+    }
+
+    @Test
+    void getStatus_shouldReturnImportById() {
+        UserDetailsImpl currentUser = new UserDetailsImpl(TestData.user());
+        when(expenseImportService.getStatus(currentUser, "1")).thenReturn(status());
+
+        var result = expenseImportController.getStatus("1", currentUser, request);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).isNotNull();
+        assertThat(result.getBody().getData().id()).isEqualTo("1");
+        verify(messageSource).getMessage(eq("expense.import.controller.get.status"), isNull(), any());
+    }
+}
@@ -1,11 +1,14 @@
 package test.controller;
 
 import com.example.expensetracker.ExpenseTrackerApplication;
+import com.example.expensetracker.dto.RecurrenceRequestDto;
 import com.example.expensetracker.dto.RecurringTransactionRequestDto;
 import com.example.expensetracker.model.Category;
+import com.example.expensetracker.model.RecurrenceFrequency;
 import com.example.expensetracker.model.RecurringTransaction;
 import com.example.expensetracker.model.Role;
 import com.example.expensetracker.model.User;
+import com.example.expensetracker.recurring.Recurrence;
 import com.example.expensetracker.repository.CategoryRepository;
 import com.example.expensetracker.repository.RecurringTransactionRepository;
 import com.example.expensetracker.repository.UserRepository;
@@ -24,7 +27,10 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.containsString;
@@ -124,6 +130,45 @@ public class RecurringTransactionControllerIT {
         assertThat(recurringTransactionRepository.findAll()).hasSize(1);
     }
 
+    @Test
+    @WithUserDetails(value = USER_EMAIL, userDetailsServiceBeanName = "customUserDetailsService",
+            setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void create_shouldStartMonthlyRuleOnItsFirstDate_whenRecurrenceGiven() throws Exception {
+        Category category = categoryRepository.save(new Category(CATEGORY_NAME));
+        RecurringTransactionRequestDto dto = new RecurringTransactionRequestDto(new BigDecimal(AMOUNT), DESCRIPTION,
+                category.getId(), 1, new RecurrenceRequestDto(RecurrenceFrequency.MONTHLY, null,
+                Recurrence.LAST_DAY, null, null, 12));
+        mockMvc.perform(post(API_RECURRING_TRANSACTION_CREATE)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.nextExecutionDate")
+                        .value(YearMonth.now().atEndOfMonth().toString()))
+                .andExpect(jsonPath("$.data.recurrence.frequency").value("MONTHLY"))
+                .andExpect(jsonPath("$.data.recurrence.monthDay").value(Recurrence.LAST_DAY))
+                .andExpect(jsonPath("$.data.recurrence.count").value(12))
+                .andExpect(jsonPath("$.data.recurrence.occurrences").value(0));
+        assertThat(recurringTransactionRepository.findAll()).singleElement()
+                .extracting(RecurringTransaction::getFrequency, RecurringTransaction::getMaxOccurrences)
+                .containsExactly(RecurrenceFrequency.MONTHLY, 12);
+    }
+
+    @Test
+    @WithUserDetails(value = USER_EMAIL, userDetailsServiceBeanName = "customUserDetailsService",
+            setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void create_shouldReturnBadRequest_whenWeekdaysGivenForMonthlyRule() throws Exception {
+        Category category = categoryRepository.save(new Category(CATEGORY_NAME));
+        RecurringTransactionRequestDto dto = new RecurringTransactionRequestDto(new BigDecimal(AMOUNT), DESCRIPTION,
+                category.getId(), 1, new RecurrenceRequestDto(RecurrenceFrequency.MONTHLY, Set.of(DayOfWeek.MONDAY),
+                null, null, null, null));
+        mockMvc.perform(post(API_RECURRING_TRANSACTION_CREATE)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(msg("recurrence.request.fields.match.frequency")));
+        assertThat(recurringTransactionRepository.findAll()).isEmpty();
+    }
+
     @Test
     @WithUserDetails(value = USER_EMAIL, userDetailsServiceBeanName = "customUserDetailsService",
             setupBefore = TestExecutionEvent.TEST_EXECUTION)
@@ -271,4 +316,36 @@ public class RecurringTransactionControllerIT {
                 .andExpect(jsonPath("$.path").value(API_RECURRING_TRANSACTION +
                         "/" + ID_INVALID + "/toggle"));
     }
+
+    @Test
+    @WithUserDetails(value = USER_EMAIL, userDetailsServiceBeanName = "customUserDetailsService",
+            setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void forecast_shouldProjectActiveRules_andDropToggledOffRule() throws Exception {
+        Category category = categoryRepository.save(new Category(CATEGORY_NAME));
+        RecurringTransaction saved = recurringTransactionRepository.save(new RecurringTransaction(
+                new BigDecimal("10.00"), DESCRIPTION, category, user, 400, LocalDate.now().plusDays(1)));
+
+        mockMvc.perform(get(API_RECURRING_TRANSACTION_FORECAST).param("months", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value(msg("recurring.transaction.controller.forecast")))
+                .andExpect(jsonPath("$.data.months.length()").value(2))
+                .andExpect(jsonPath("$.data.occurrences").value(1))
+                .andExpect(jsonPath("$.data.total").value(10.0));
+
+        mockMvc.perform(patch(API_RECURRING_TRANSACTION + "/" + saved.getId() + "/toggle"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get(API_RECURRING_TRANSACTION_FORECAST).param("months", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.occurrences").value(0));
+    }
+
+    @Test
+    @WithUserDetails(value = USER_EMAIL, userDetailsServiceBeanName = "customUserDetailsService",
+            setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void forecast_shouldReturnBadRequest_whenMonthsAboveLimit() throws Exception {
+        mockMvc.perform(get(API_RECURRING_TRANSACTION_FORECAST).param("months", "121"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString(msg("recurring.transaction.forecast.months.max"))));
+    }
 }
@@ -2,6 +2,7 @@ package test.controller;
 
 import com.example.expensetracker.controller.RecurringTransactionController;
 import com.example.expensetracker.details.UserDetailsImpl;
+import com.example.expensetracker.dto.RecurringForecastDto;
 import com.example.expensetracker.dto.RecurringTransactionDto;
 import com.example.expensetracker.dto.RecurringTransactionRequestDto;
 import com.example.expensetracker.model.User;
@@ -17,6 +18,8 @@ import org.springframework.context.MessageSource;
 import org.springframework.http.HttpStatus;
 import test.util.TestData;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -134,5 +137,19 @@ public class RecurringTransactionControllerTest {
         verify(service).toggleActive(ID_TRANSACTION);
         verify(messageSource).getMessage(eq("recurring.transaction.controller.toggle.active"), isNull(), any());
     }
-}
 
+    @Test
+    void forecast_shouldReturnForecastOfCurrentUser() {
+        UserDetailsImpl currentUser = new UserDetailsImpl(TestData.user());
+        RecurringForecastDto forecast = new RecurringForecastDto(LocalDate.of(2025, 9, 1), LocalDate.of(2025, 9, 30),
+                new BigDecimal("10.00"), 1, List.of());
+        when(service.forecast(currentUser, 1)).thenReturn(forecast);
+
+        var result = controller.forecast(1, currentUser, request);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).isNotNull();
+        assertThat(result.getBody().getData()).isEqualTo(forecast);
+        verify(messageSource).getMessage(eq("recurring.transaction.controller.forecast"), isNull(), any());
+    }
+}
@@ -0,0 +1,59 @@
+package test.dto;
+
+import com.example.expensetracker.dto.ExpenseBatchRequestDto;
+import com.example.expensetracker.dto.ExpenseRequestDto;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import test.util.TestData;
+import test.util.TestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static test.util.Constants.*;
+import static test.util.TestMessageSource.msg;
+
+public class ExpenseBatchRequestDtoTest {
+
+    private static Validator validator;
+
+    @BeforeAll
+    static void setUpValidator() {
+        ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+    }
+
+    @Test
+    void shouldPass_whenAllExpensesValid() {
+        ExpenseBatchRequestDto request = new ExpenseBatchRequestDto(List.of(TestData.expenseRequestDto(),
+                TestData.expenseRequestDto(null)));
+        Set<ConstraintViolation<ExpenseBatchRequestDto>> violations = validator.validate(request);
+
+        assertThat(violations).isEmpty();
+    }
+
+    @Test
+    void shouldFail_whenExpensesEmpty() {
+        ExpenseBatchRequestDto request = new ExpenseBatchRequestDto(List.of());
+        Set<ConstraintViolation<ExpenseBatchRequestDto>> violations = validator.validate(request);
+
+        assertThat(violations).hasSize(1);
+        TestUtils.assertHasViolation(violations, "expenses", msg("expense.batch.request.expenses.not.empty"));
+    }
+
+    @Test
+    void shouldFail_whenNestedExpenseInvalid() {
+        ExpenseBatchRequestDto request = new ExpenseBatchRequestDto(List.of(
+                new ExpenseRequestDto(null, Instant.now(), ID_CATEGORY, DESCRIPTION)));
+        Set<ConstraintViolation<ExpenseBatchRequestDto>> violations = validator.validate(request);
+
+        assertThat(violations).hasSize(1);
+        TestUtils.assertHasViolation(violations, "expenses[0].amount", msg("expense.request.amount.not.null"));
+    }
+}
@@ -0,0 +1,72 @@
+package test.dto;
+
+import com.example.expensetracker.dto.ExpenseFilterDto;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import test.util.TestUtils;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static test.util.TestMessageSource.msg;
+
+public class ExpenseFilterDtoTest {
+    private static Validator validator;
+
+    @BeforeAll
+    static void setUpValidator() {
+        ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+    }
+
+    @Test
+    void shouldPass_whenNoFiltersSet() {
+        ExpenseFilterDto dto = new ExpenseFilterDto();
+
+        Set<ConstraintViolation<ExpenseFilterDto>> violations = validator.validate(dto);
+
+        assertThat(violations).isEmpty();
+        assertThat(dto.getLimit()).isEqualTo(ExpenseFilterDto.DEFAULT_LIMIT);
+    }
+
+    @Test
+    void shouldFail_whenLimitOutOfRange() {
+        ExpenseFilterDto tooSmall = new ExpenseFilterDto();
+        tooSmall.setLimit(0);
+        ExpenseFilterDto tooLarge = new ExpenseFilterDto();
+        tooLarge.setLimit(501);
+
+        TestUtils.assertHasViolation(validator.validate(tooSmall), "limit", msg("expense.filter.limit.min"));
+        TestUtils.assertHasViolation(validator.validate(tooLarge), "limit", msg("expense.filter.limit.max"));
+    }
+
+    @Test
+    void shouldFail_whenMinAmountGreaterThanMax() {
+        ExpenseFilterDto dto = new ExpenseFilterDto();
+        dto.setMinAmount(new BigDecimal("10"));
+        dto.setMaxAmount(new BigDecimal("5"));
+
+        Set<ConstraintViolation<ExpenseFilterDto>> violations = validator.validate(dto);
+
+        assertThat(violations).hasSize(1);
+        TestUtils.assertHasViolation(violations, "validAmountRange", msg("expense.filter.amount.range"));
+    }
+
+    @Test
+    void shouldFail_whenFromAfterTo() {
+        ExpenseFilterDto dto = new ExpenseFilterDto();
+        dto.setFrom(Instant.ofEpochSecond(3000));
+        dto.setTo(Instant.ofEpochSecond(2000));
+
+        Set<ConstraintViolation<ExpenseFilterDto>> violations = validator.validate(dto);
+
+        assertThat(violations).hasSize(1);
+        TestUtils.assertHasViolation(violations, "validDateRange", msg("expense.filter.date.range"));
+    }
+}
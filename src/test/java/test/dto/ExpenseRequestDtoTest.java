@@ -0,0 +1,74 @@
+package test.dto;
+
+import com.example.expensetracker.dto.ExpenseRequestDto;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import test.util.TestUtils;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static test.util.Constants.*;
+import static test.util.TestMessageSource.msg;
+
+public class ExpenseRequestDtoTest {
+
+    private static Validator validator;
+
+    @BeforeAll
+    static void setUpValidator() {
+        ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+    }
+
+    @Test
+    void shouldPass_whenAllFieldsValid() {
+        ExpenseRequestDto request = new ExpenseRequestDto(new BigDecimal(AMOUNT), Instant.now(), ID_CATEGORY,
+                DESCRIPTION);
+        Set<ConstraintViolation<ExpenseRequestDto>> violations = validator.validate(request);
+
+        assertThat(violations).isEmpty();
+    }
+
+    @Test
+    void shouldPass_whenCategoryAndDescriptionAreNull() {
+        ExpenseRequestDto request = new ExpenseRequestDto(new BigDecimal(AMOUNT), Instant.now(), null, null);
+        Set<ConstraintViolation<ExpenseRequestDto>> violations = validator.validate(request);
+
+        assertThat(violations).isEmpty();
+    }
+
+    @Test
+    void shouldFail_whenAmountIsNull() {
+        ExpenseRequestDto request = new ExpenseRequestDto(null, Instant.now(), ID_CATEGORY, DESCRIPTION);
+        Set<ConstraintViolation<ExpenseRequestDto>> violations = validator.validate(request);
+
+        assertThat(violations).hasSize(1);
+        TestUtils.assertHasViolation(violations, "amount", msg("expense.request.amount.not.null"));
+    }
+
+    @Test
+    void shouldFail_whenAmountIsNegative() {
+        ExpenseRequestDto request = new ExpenseRequestDto(new BigDecimal(AMOUNT_NEGATIVE), Instant.now(),
+                ID_CATEGORY, DESCRIPTION);
+        Set<ConstraintViolation<ExpenseRequestDto>> violations = validator.validate(request);
+
+        assertThat(violations).hasSize(1);
+        TestUtils.assertHasViolation(violations, "amount", msg("expense.request.amount.positive"));
+    }
+
+    @Test
+    void shouldFail_whenOccurredAtIsNull() {
+        ExpenseRequestDto request = new ExpenseRequestDto(new BigDecimal(AMOUNT), null, ID_CATEGORY, DESCRIPTION);
+        Set<ConstraintViolation<ExpenseRequestDto>> violations = validator.validate(request);
+
+        assertThat(violations).hasSize(1);
+        TestUtils.assertHasViolation(violations, "occurredAt", msg("expense.request.occurred.at.not.null"));
+    }
+}
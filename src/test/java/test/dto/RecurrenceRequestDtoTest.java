@@ -0,0 +1,77 @@
+package test.dto;
+
+import com.example.expensetracker.dto.RecurrenceRequestDto;
+import com.example.expensetracker.model.RecurrenceFrequency;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import test.util.TestUtils;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static test.util.TestMessageSource.msg;
+
+public class RecurrenceRequestDtoTest {
+
+    private static Validator validator;
+
+    @BeforeAll
+    static void setUpValidator() {
+        ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+    }
+
+    @Test
+    void shouldPass_whenWeeklyRuleHasWeekdaysAndEnd() {
+        RecurrenceRequestDto request = new RecurrenceRequestDto(RecurrenceFrequency.WEEKLY,
+                Set.of(DayOfWeek.MONDAY, DayOfWeek.FRIDAY), null, LocalDate.now(), LocalDate.now().plusMonths(6), 10);
+
+        assertThat(validator.validate(request)).isEmpty();
+    }
+
+    @Test
+    void shouldFail_whenMonthDayIsZero() {
+        RecurrenceRequestDto request = new RecurrenceRequestDto(RecurrenceFrequency.MONTHLY, null, 0, null, null,
+                null);
+        Set<ConstraintViolation<RecurrenceRequestDto>> violations = validator.validate(request);
+
+        assertThat(violations).hasSize(1);
+        TestUtils.assertHasViolation(violations, "validMonthDay", msg("recurrence.request.month.day.range"));
+    }
+
+    @Test
+    void shouldFail_whenWeekdaysGivenForDailyRule() {
+        RecurrenceRequestDto request = new RecurrenceRequestDto(RecurrenceFrequency.DAILY, Set.of(DayOfWeek.MONDAY),
+                null, null, null, null);
+        Set<ConstraintViolation<RecurrenceRequestDto>> violations = validator.validate(request);
+
+        assertThat(violations).hasSize(1);
+        TestUtils.assertHasViolation(violations, "matchingFrequency", msg("recurrence.request.fields.match.frequency"));
+    }
+
+    @Test
+    void shouldFail_whenUntilIsBeforeStart() {
+        LocalDate start = LocalDate.now().plusDays(10);
+        RecurrenceRequestDto request = new RecurrenceRequestDto(RecurrenceFrequency.DAILY, null, null, start,
+                start.minusDays(1), null);
+        Set<ConstraintViolation<RecurrenceRequestDto>> violations = validator.validate(request);
+
+        assertThat(violations).hasSize(1);
+        TestUtils.assertHasViolation(violations, "validUntil", msg("recurrence.request.until.after.start"));
+    }
+
+    @Test
+    void shouldFail_whenCountIsZero() {
+        RecurrenceRequestDto request = new RecurrenceRequestDto(RecurrenceFrequency.YEARLY, null, null, null, null, 0);
+        Set<ConstraintViolation<RecurrenceRequestDto>> violations = validator.validate(request);
+
+        assertThat(violations).hasSize(1);
+        TestUtils.assertHasViolation(violations, "count", msg("recurrence.request.count.positive"));
+    }
+}
@@ -1,6 +1,8 @@
 package test.exception;
 
 import com.example.expensetracker.dto.ApiResponse;
+import com.example.expensetracker.exception.ExpenseQueueFullException;
+import com.example.expensetracker.exception.ExpenseQueueStoppedException;
 import com.example.expensetracker.exception.GlobalExceptionHandler;
 import com.example.expensetracker.exception.UserNotFoundByIdException;
 import com.example.expensetracker.logging.applog.AppLogDto;
@@ -155,6 +157,30 @@ public class GlobalExceptionHandlerTest {
         checkLevelLog(AppLogLevel.WARN);
     }
 
+    @Test
+    void handleExpenseQueueFull_shouldReturnTooManyRequestsResponse() {
+        mockMessage();
+        ExpenseQueueFullException ex = new ExpenseQueueFullException("");
+
+        var response = handler.handleExpenseQueueFull(ex, request);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        checkBody(response.getBody(), 429, "handle.expense.queue.full");
+        checkLevelLog(AppLogLevel.WARN);
+    }
+
+    @Test
+    void handleExpenseQueueStopped_shouldReturnServiceUnavailableResponse() {
+        mockMessage();
+        ExpenseQueueStoppedException ex = new ExpenseQueueStoppedException("");
+
+        var response = handler.handleExpenseQueueStopped(ex, request);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        checkBody(response.getBody(), 503, "handle.expense.queue.stopped");
+        checkLevelLog(AppLogLevel.WARN);
+    }
+
     @Test
     void handleHandlerMethodValidation_shouldReturnBadRequestResponse() {
         MethodValidationResult methodValidationResult = mock(MethodValidationResult.class);
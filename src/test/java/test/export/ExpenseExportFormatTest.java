@@ -0,0 +1,39 @@
+package test.export;
+
+import com.example.expensetracker.export.ExpenseExportFormat;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ExpenseExportFormatTest {
+
+    @Test
+    void fromAccept_shouldDefaultToCsv_whenAcceptMissingOrWildcard() {
+        assertThat(ExpenseExportFormat.fromAccept(null)).isEqualTo(ExpenseExportFormat.CSV);
+        assertThat(ExpenseExportFormat.fromAccept("*/*")).isEqualTo(ExpenseExportFormat.CSV);
+    }
+
+    @Test
+    void fromAccept_shouldPreferHigherQuality() {
+        assertThat(ExpenseExportFormat.fromAccept("text/csv;q=0.5, application/x-ndjson"))
+                .isEqualTo(ExpenseExportFormat.NDJSON);
+        assertThat(ExpenseExportFormat.fromAccept("application/json, text/*;q=0.8"))
+                .isEqualTo(ExpenseExportFormat.CSV);
+    }
+
+    @Test
+    void fromAccept_shouldPreferSpecificType_whenQualityEqual() {
+        assertThat(ExpenseExportFormat.fromAccept("*/*, application/x-ndjson"))
+                .isEqualTo(ExpenseExportFormat.NDJSON);
+        assertThat(ExpenseExportFormat.fromAccept("text/*;q=0.9, */*;q=0.9, application/x-ndjson;q=0.9"))
+                .isEqualTo(ExpenseExportFormat.NDJSON);
+    }
+
+    @Test
+    void fromAccept_shouldThrowException_whenNothingAcceptable() {
+        assertThrows(IllegalArgumentException.class, () -> ExpenseExportFormat.fromAccept("application/json"));
+        assertThrows(IllegalArgumentException.class, () -> ExpenseExportFormat.fromAccept("text/csv;q=0"));
+        assertThrows(IllegalArgumentException.class, () -> ExpenseExportFormat.fromAccept("not a type"));
+    }
+}
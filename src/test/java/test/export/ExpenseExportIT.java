@@ -0,0 +1,166 @@
+package test.export;
+
+import com.example.expensetracker.ExpenseTrackerApplication;
+import com.example.expensetracker.details.UserDetailsImpl;
+import com.example.expensetracker.export.ExpenseExportFormat;
+import com.example.expensetracker.export.ExpenseExportService;
+import com.example.expensetracker.model.Category;
+import com.example.expensetracker.model.Role;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.repository.CategoryRepository;
+import com.example.expensetracker.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static test.util.Constants.*;
+import static test.util.TestUtils.createAndSaveUser;
+
+@SpringBootTest(classes = {ExpenseTrackerApplication.class})
+@ActiveProfiles("test")
+public class ExpenseExportIT {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseExportIT.class);
+
+    private static final int ROWS = 1_000_000;
+    private static final int SAMPLE_EVERY_LINES = 200_000;
+    private static final long MAX_HEAP_GROWTH = 32L * 1024 * 1024;
+
+    @Autowired
+    private ExpenseExportService exportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private UserDetailsImpl generate(int rows) {
+        User user = createAndSaveUser(USER_EMAIL, Role.USER, userRepository);
+        Category category = categoryRepository.save(new Category(CATEGORY_NAME));
+        jdbcTemplate.update("""
+                INSERT INTO expenses (user_id, amount, occurred_at, category_id, description)
+                SELECT ?, (g % 1000) + 0.99, ?::timestamp + g * interval '1 minute',
+                       CASE WHEN g % 2 = 0 THEN ?::bigint END, 'generated expense #' || g
+                FROM generate_series(1, ?) g
+                """, user.getId(), LocalDateTime.of(2023, 1, 1, 0, 0), category.getId(), rows);
+        return new UserDetailsImpl(user);
+    }
+
+    /**
+     * Миллион строк выгружается, а занятая после сборки мусора куча растёт не больше чем на MAX_HEAP_GROWTH:
+     * строки не копятся ни в списке, ни в буфере драйвера.
+     */
+    @Test
+    void export_shouldStreamMillionRowsInConstantMemory() {
+        UserDetailsImpl currentUser = generate(ROWS);
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long baseline = retainedHeap(memory);
+        HeapSamplingOutputStream out = new HeapSamplingOutputStream(memory);
+
+        long exported = exportService.export(currentUser, null, null, ExpenseExportFormat.CSV, out);
+
+        log.info("{} rows, {} bytes, retained heap growth {} KB", exported, out.bytes,
+                (out.maxRetained - baseline) / 1024);
+        assertThat(exported).isEqualTo(ROWS);
+        assertThat(out.lines).isEqualTo(ROWS + 1);
+        assertThat(out.samples).isEqualTo(ROWS / SAMPLE_EVERY_LINES);
+        assertThat(out.maxRetained - baseline).isLessThan(MAX_HEAP_GROWTH);
+    }
+
+    @Test
+    void export_shouldStopReading_whenClientDisconnects() {
+        UserDetailsImpl currentUser = generate(100_000);
+        double cancelledBefore = meterRegistry.counter("expenses.export.cancelled").count();
+
+        long exported = exportService.export(currentUser, null, null, ExpenseExportFormat.NDJSON,
+                new DisconnectingOutputStream(256 * 1024));
+
+        assertThat(exported).isEqualTo(-1);
+        assertThat(meterRegistry.counter("expenses.export.cancelled").count()).isEqualTo(cancelledBefore + 1);
+        Integer idleInTransaction = jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM pg_stat_activity
+                WHERE datname = current_database() AND state LIKE 'idle in transaction%'
+                """, Integer.class);
+        assertThat(idleInTransaction).isZero();
+        assertThat(exportService.export(currentUser, null, null, ExpenseExportFormat.NDJSON,
+                OutputStream.nullOutputStream())).isEqualTo(100_000);
+    }
+
+    private static long retainedHeap(MemoryMXBean memory) {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Считает строки и каждые SAMPLE_EVERY_LINES строк замеряет кучу после сборки мусора.
+     */
+    private static class HeapSamplingOutputStream extends OutputStream {
+
+        private final MemoryMXBean memory;
+        private long bytes;
+        private long lines;
+        private int samples;
+        private long maxRetained;
+
+        HeapSamplingOutputStream(MemoryMXBean memory) {
+            this.memory = memory;
+        }
+
+        @Override
+        public void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n' && ++lines % SAMPLE_EVERY_LINES == 0) {
+                    samples++;
+                    maxRetained = Math.max(maxRetained, retainedHeap(memory));
+                }
+            }
+        }
+    }
+
+    private static class DisconnectingOutputStream extends OutputStream {
+
+        private long remaining;
+
+        DisconnectingOutputStream(long limit) {
+            this.remaining = limit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            remaining -= len;
+            if (remaining < 0) {
+                throw new IOException("Broken pipe");
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package test.export;
+
+import com.example.expensetracker.export.CsvExpenseExportWriter;
+import com.example.expensetracker.export.NdjsonExpenseExportWriter;
+import com.example.expensetracker.imports.CsvExpenseImportParser;
+import com.example.expensetracker.imports.ExpenseImportParser;
+import com.example.expensetracker.imports.ExpenseImportRow;
+import com.example.expensetracker.imports.NdjsonExpenseImportParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Выгрузка должна читаться парсерами импорта без потерь.
+ */
+public class ExpenseExportWriterTest {
+
+    private static final Instant OCCURRED_AT = Instant.parse("2025-09-01T10:00:00Z");
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void csv_shouldWriteHeaderAndQuoteSpecialCharacters() throws IOException {
+        StringWriter out = new StringWriter();
+        CsvExpenseExportWriter writer = new CsvExpenseExportWriter(out);
+
+        writer.write(new BigDecimal("10.50"), OCCURRED_AT, "food", "say \"hi\", twice");
+        writer.write(new BigDecimal("20.00"), OCCURRED_AT, null, null);
+        writer.flush();
+
+        assertThat(out.toString()).isEqualTo("""
+                amount,occurred_at,category,description
+                10.50,2025-09-01T10:00:00Z,food,"say ""hi"", twice"
+                20.00,2025-09-01T10:00:00Z,,
+                """);
+        assertRoundTrip(new CsvExpenseImportParser(stream(out)));
+    }
+
+    @Test
+    void ndjson_shouldWriteOneObjectPerLine() throws IOException {
+        StringWriter out = new StringWriter();
+        NdjsonExpenseExportWriter writer = new NdjsonExpenseExportWriter(out, objectMapper.getFactory());
+
+        writer.write(new BigDecimal("10.50"), OCCURRED_AT, "food", "say \"hi\", twice");
+        writer.write(new BigDecimal("20.00"), OCCURRED_AT, null, null);
+        writer.flush();
+
+        assertThat(out.toString().lines()).hasSize(2)
+                .first().isEqualTo("{\"amount\":10.50,\"occurredAt\":\"2025-09-01T10:00:00Z\",\"category\":\"food\","
+                        + "\"description\":\"say \\\"hi\\\", twice\"}");
+        assertRoundTrip(new NdjsonExpenseImportParser(stream(out), objectMapper));
+    }
+
+    private static void assertRoundTrip(ExpenseImportParser parser) throws IOException {
+        ExpenseImportRow first = parser.next();
+        ExpenseImportRow second = parser.next();
+
+        assertThat(first.amount()).isEqualByComparingTo("10.50");
+        assertThat(first.occurredAt()).isEqualTo(OCCURRED_AT);
+        assertThat(first.category()).isEqualTo("food");
+        assertThat(first.description()).isEqualTo("say \"hi\", twice");
+        assertThat(second.category()).isNull();
+        assertThat(second.description()).isNull();
+        assertThat(parser.next()).isNull();
+    }
+
+    private static ByteArrayInputStream stream(StringWriter out) {
+        return new ByteArrayInputStream(out.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
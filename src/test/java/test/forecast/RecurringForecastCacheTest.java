@@ -0,0 +1,87 @@
+package test.forecast;
+
+import com.example.expensetracker.config.ExpenseForecastProperties;
+import com.example.expensetracker.config.ExpenseRecurringProperties;
+import com.example.expensetracker.dto.RecurringForecastDto;
+import com.example.expensetracker.forecast.ForecastRule;
+import com.example.expensetracker.forecast.RecurringForecastCache;
+import com.example.expensetracker.forecast.RecurringForecastRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import test.util.TestData;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static test.util.Constants.ID_CATEGORY;
+import static test.util.Constants.ID_VALID;
+
+@ExtendWith(MockitoExtension.class)
+public class RecurringForecastCacheTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 9, 1);
+
+    @Mock
+    private RecurringForecastRepository repository;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private RecurringForecastCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new RecurringForecastCache(repository, new ExpenseForecastProperties(100, Duration.ofHours(1)),
+                new ExpenseRecurringProperties(500, 1, Duration.ofMinutes(1), false, false, Duration.ofSeconds(1),
+                        Duration.ZERO, Duration.ofMinutes(10)),
+                registry);
+    }
+
+    @Test
+    void get_shouldReadRulesOncePerUserAndDay() {
+        when(repository.activeRules(ID_VALID)).thenReturn(List.of(
+                new ForecastRule(1_000, ID_CATEGORY, "food", TestData.dailyRecurrence(7, TODAY))));
+
+        RecurringForecastDto first = cache.get(ID_VALID, TODAY, 12);
+        assertThat(cache.get(ID_VALID, TODAY, 12)).isSameAs(first);
+        assertThat(cache.get(ID_VALID, TODAY, 1).total()).isEqualByComparingTo(new BigDecimal("50.00"));
+        verify(repository).activeRules(ID_VALID);
+
+        cache.get(ID_VALID, TODAY.plusDays(1), 12);
+        verify(repository, times(2)).activeRules(ID_VALID);
+        assertThat(registry.get("expenses.forecast.cache.requests").tag("result", "hit").counter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void invalidate_shouldReloadRules() {
+        when(repository.activeRules(ID_VALID)).thenReturn(List.of(), List.of(
+                new ForecastRule(1_000, ID_CATEGORY, "food", TestData.dailyRecurrence(30, TODAY))));
+
+        assertThat(cache.get(ID_VALID, TODAY, 1).occurrences()).isZero();
+        cache.invalidate(List.of(ID_VALID));
+
+        assertThat(cache.get(ID_VALID, TODAY, 1).occurrences()).isEqualTo(1);
+    }
+
+    @Test
+    void categoryChanged_shouldReloadRules() {
+        when(repository.activeRules(ID_VALID)).thenReturn(List.of(
+                new ForecastRule(1_000, ID_CATEGORY, "food", TestData.dailyRecurrence(30, TODAY))));
+
+        cache.get(ID_VALID, TODAY, 1);
+        cache.categoryChanged(ID_CATEGORY);
+        cache.get(ID_VALID, TODAY, 1);
+
+        verify(repository, times(2)).activeRules(ID_VALID);
+    }
+}
@@ -0,0 +1,131 @@
+package test.forecast;
+
+import com.example.expensetracker.dto.ForecastCategoryDto;
+import com.example.expensetracker.dto.ForecastMonthDto;
+import com.example.expensetracker.dto.RecurringForecastDto;
+import com.example.expensetracker.forecast.ForecastRule;
+import com.example.expensetracker.forecast.RecurringForecastCalculator;
+import com.example.expensetracker.model.RecurrenceFrequency;
+import com.example.expensetracker.money.Money;
+import com.example.expensetracker.recurring.Recurrence;
+import org.junit.jupiter.api.Test;
+import test.util.TestData;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+public class RecurringForecastCalculatorTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 9, 20);
+
+    @Test
+    void forecast_shouldCountOccurrencesPerMonthAndCategory() {
+        List<ForecastRule> rules = List.of(
+                new ForecastRule(100_000, 1L, "rent", TestData.dailyRecurrence(30, TODAY.plusDays(5))),
+                new ForecastRule(500, 2L, "coffee", TestData.dailyRecurrence(7, TODAY.minusDays(3))),
+                new ForecastRule(1_000, 2L, "coffee", TestData.dailyRecurrence(1, TODAY.plusDays(40))));
+
+        RecurringForecastDto forecast = RecurringForecastCalculator.forecast(rules, TODAY, 2, false);
+
+        assertThat(forecast.from()).isEqualTo(TODAY);
+        assertThat(forecast.to()).isEqualTo(LocalDate.of(2025, 10, 31));
+        assertThat(forecast.months()).extracting(ForecastMonthDto::month)
+                .containsExactly(YearMonth.of(2025, 9), YearMonth.of(2025, 10));
+        // сентябрь: аренда 25.09, кофе просрочен — 20.09 и 27.09
+        assertThat(forecast.months().get(0).categories())
+                .extracting(ForecastCategoryDto::categoryName, ForecastCategoryDto::amount,
+                        ForecastCategoryDto::occurrences)
+                .containsExactly(tuple("rent", Money.fromCents(100_000), 1L),
+                        tuple("coffee", Money.fromCents(1_000), 2L));
+        // октябрь: аренда 25.10, кофе раз в неделю 04..25.10 и ежедневно с 30.10
+        assertThat(forecast.months().get(1).categories())
+                .extracting(ForecastCategoryDto::categoryName, ForecastCategoryDto::amount,
+                        ForecastCategoryDto::occurrences)
+                .containsExactly(tuple("rent", Money.fromCents(100_000), 1L),
+                        tuple("coffee", Money.fromCents(4 * 500 + 2 * 1_000), 6L));
+        assertThat(forecast.total()).isEqualByComparingTo(Money.fromCents(100_000 * 2 + 1_000 + 4_000));
+        assertThat(forecast.occurrences()).isEqualTo(10);
+    }
+
+    @Test
+    void forecast_shouldFollowCalendarRules_andRunOverdueRuleToday() {
+        int workdays = Recurrence.weekdays(EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY));
+        List<ForecastRule> rules = List.of(
+                new ForecastRule(100_000, 1L, "rent", new Recurrence(RecurrenceFrequency.MONTHLY, 1, 0,
+                        Recurrence.LAST_DAY, LocalDate.of(2025, 9, 30), null, 2)),
+                new ForecastRule(500, 2L, "lunch", new Recurrence(RecurrenceFrequency.WEEKLY, 1, workdays, 0,
+                        LocalDate.of(2025, 9, 22), null, Long.MAX_VALUE)),
+                new ForecastRule(1_000, 3L, "lessons", new Recurrence(RecurrenceFrequency.WEEKLY, 1, 0, 0,
+                        LocalDate.of(2025, 9, 15), null, Long.MAX_VALUE)));
+
+        RecurringForecastDto forecast = RecurringForecastCalculator.forecast(rules, TODAY, 3, false);
+
+        // сентябрь: аренда 30.09, обеды по будням с 22.09, занятия просрочены — сегодня, затем 22.09 и 29.09
+        assertThat(forecast.months().get(0).categories())
+                .extracting(ForecastCategoryDto::categoryName, ForecastCategoryDto::occurrences)
+                .containsExactly(tuple("rent", 1L), tuple("lunch", 7L), tuple("lessons", 3L));
+        assertThat(forecast.months().get(1).categories())
+                .extracting(ForecastCategoryDto::categoryName, ForecastCategoryDto::occurrences)
+                .containsExactly(tuple("rent", 1L), tuple("lunch", 23L), tuple("lessons", 4L));
+        // ноябрь: аренда исчерпала два исполнения
+        assertThat(forecast.months().get(2).categories()).extracting(ForecastCategoryDto::categoryName)
+                .containsExactly("lunch", "lessons");
+    }
+
+    @Test
+    void forecast_shouldCountAllMissedDates_inCatchUpMode() {
+        List<ForecastRule> rules = List.of(
+                new ForecastRule(500, 2L, "coffee", TestData.dailyRecurrence(7, TODAY.minusDays(15))),
+                new ForecastRule(1_000, 3L, "lessons", new Recurrence(RecurrenceFrequency.DAILY, 1, 0, 0,
+                        TODAY.minusDays(5), TODAY.minusDays(3), Long.MAX_VALUE)));
+
+        RecurringForecastDto forecast = RecurringForecastCalculator.forecast(rules, TODAY, 1, true);
+
+        // кофе: пропущены 05, 12 и 19.09, дальше по сетке 26.09; занятия до 17.09: пропущены 15..17.09
+        assertThat(forecast.months().get(0).categories())
+                .extracting(ForecastCategoryDto::categoryName, ForecastCategoryDto::occurrences)
+                .containsExactly(tuple("lessons", 3L), tuple("coffee", 4L));
+        // обычный проход исполняет каждое просроченное правило один раз: кофе сегодня и 27.09, занятия — один раз
+        assertThat(RecurringForecastCalculator.forecast(rules, TODAY, 1, false).months().get(0).categories())
+                .extracting(ForecastCategoryDto::categoryName, ForecastCategoryDto::occurrences)
+                .containsExactly(tuple("coffee", 2L), tuple("lessons", 1L));
+    }
+
+    @Test
+    void forecast_shouldMatchDayByDayProjection_overTenYears() {
+        Random random = new Random(7);
+        List<ForecastRule> rules = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            rules.add(new ForecastRule(1 + random.nextInt(100_000), (long) random.nextInt(5), "c",
+                    TestData.dailyRecurrence(1 + random.nextInt(400), TODAY.plusDays(random.nextInt(800) - 100))));
+        }
+
+        RecurringForecastDto forecast = RecurringForecastCalculator.forecast(rules, TODAY, 120, false);
+
+        Map<YearMonth, long[]> expected = new HashMap<>();
+        LocalDate to = YearMonth.from(TODAY).plusMonths(119).atEndOfMonth();
+        for (ForecastRule rule : rules) {
+            LocalDate day = rule.recurrence().start().isBefore(TODAY) ? TODAY : rule.recurrence().start();
+            for (; !day.isAfter(to); day = day.plusDays(rule.recurrence().interval())) {
+                long[] sum = expected.computeIfAbsent(YearMonth.from(day), month -> new long[2]);
+                sum[0] += rule.cents();
+                sum[1]++;
+            }
+        }
+        assertThat(forecast.months()).hasSize(120).allSatisfy(month -> {
+            long[] sum = expected.getOrDefault(month.month(), new long[2]);
+            assertThat(month.total()).isEqualByComparingTo(Money.fromCents(sum[0]));
+            assertThat(month.occurrences()).isEqualTo(sum[1]);
+        });
+    }
+}
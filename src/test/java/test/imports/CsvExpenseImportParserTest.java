@@ -0,0 +1,71 @@
+package test.imports;
+
+import com.example.expensetracker.imports.CsvExpenseImportParser;
+import com.example.expensetracker.imports.ExpenseImportRow;
+import com.example.expensetracker.imports.ExpenseImportRowException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CsvExpenseImportParserTest {
+
+    private static CsvExpenseImportParser parser(String body) {
+        return new CsvExpenseImportParser(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void next_shouldSkipHeaderAndParseRows() throws IOException {
+        CsvExpenseImportParser parser = parser("""
+                amount,occurred_at,category,description
+                10.50,2025-09-01T10:00:00Z,food,"Coffee, large"
+                
+                20,2025-09-02T10:00:00Z,,
+                """);
+
+        ExpenseImportRow first = parser.next();
+        ExpenseImportRow second = parser.next();
+
+        assertThat(first.amount()).isEqualByComparingTo(new BigDecimal("10.50"));
+        assertThat(first.occurredAt()).isEqualTo(Instant.parse("2025-09-01T10:00:00Z"));
+        assertThat(first.category()).isEqualTo("food");
+        assertThat(first.description()).isEqualTo("Coffee, large");
+        assertThat(second.category()).isNull();
+        assertThat(second.description()).isNull();
+        assertThat(parser.next()).isNull();
+        assertThat(parser.lineNumber()).isEqualTo(4);
+    }
+
+    @Test
+    void next_shouldUnescapeDoubledQuotes() throws IOException {
+        CsvExpenseImportParser parser = parser("5,2025-09-01T10:00:00Z,food,\"say \"\"hi\"\"\"\n");
+
+        assertThat(parser.next().description()).isEqualTo("say \"hi\"");
+    }
+
+    @Test
+    void next_shouldThrowAndContinue_whenLineInvalid() throws IOException {
+        CsvExpenseImportParser parser = parser("""
+                abc,2025-09-01T10:00:00Z
+                5,2025-09-01T10:00:00Z
+                """);
+
+        ExpenseImportRowException ex = assertThrows(ExpenseImportRowException.class, parser::next);
+
+        assertThat(ex.getMessage()).startsWith("Line 1");
+        assertThat(parser.next().amount()).isEqualByComparingTo("5");
+    }
+
+    @Test
+    void next_shouldThrow_whenTooFewColumns() {
+        CsvExpenseImportParser parser = parser("5\n");
+
+        assertThrows(ExpenseImportRowException.class, parser::next);
+    }
+}
@@ -0,0 +1,96 @@
+package test.imports;
+
+import com.example.expensetracker.imports.CsvExpenseImportParser;
+import com.example.expensetracker.imports.ExpenseCopyEncoder;
+import com.example.expensetracker.imports.ExpenseImportFormat;
+import com.example.expensetracker.imports.ExpenseImportJob;
+import com.example.expensetracker.money.Money;
+import com.example.expensetracker.money.MoneySum;
+import com.example.expensetracker.rollup.DailyRollupDeltas;
+import com.example.expensetracker.rollup.DailyRollupKey;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static test.util.Constants.ID_CATEGORY;
+import static test.util.Constants.ID_VALID;
+
+public class ExpenseCopyEncoderTest {
+
+    private static ExpenseCopyEncoder encoder(String csv, ExpenseImportJob job) {
+        CsvExpenseImportParser parser = new CsvExpenseImportParser(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        return new ExpenseCopyEncoder(parser, ID_VALID, Map.of("food", ID_CATEGORY), job, ZoneOffset.UTC);
+    }
+
+    private static String line(ExpenseCopyEncoder encoder) throws IOException {
+        byte[] bytes = encoder.nextLine();
+        return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void nextLine_shouldEncodeRowsAsCopyCsv() throws IOException {
+        ExpenseImportJob job = new ExpenseImportJob("1", ID_VALID, ExpenseImportFormat.CSV);
+        ExpenseCopyEncoder encoder = encoder("10.50,2025-09-01T10:00:00Z,Food,\"say \"\"hi\"\"\"\n" +
+                "7,2025-09-01T10:00:00Z,,\n", job);
+
+        assertThat(line(encoder)).isEqualTo(ID_VALID + ",10.50,2025-09-01T10:00," + ID_CATEGORY + ",\"say \"\"hi\"\"\"\n");
+        assertThat(line(encoder)).isEqualTo(ID_VALID + ",7,2025-09-01T10:00,,\n");
+        assertThat(line(encoder)).isNull();
+        assertThat(encoder.isExhausted()).isTrue();
+        assertThat(job.toDto().rejected()).isZero();
+        assertThat(encoder.takeAmount().toBigDecimal()).isEqualByComparingTo("17.50");
+        assertThat(encoder.takeAmount()).isEqualTo(Money.ZERO);
+    }
+
+    @Test
+    void nextLine_shouldRejectInvalidRowsAndContinue() throws IOException {
+        ExpenseImportJob job = new ExpenseImportJob("1", ID_VALID, ExpenseImportFormat.CSV);
+        ExpenseCopyEncoder encoder = encoder("""
+                broken
+                -5,2025-09-01T10:00:00Z,food,
+                5,2025-09-01T10:00:00Z,unknown,
+                5,2025-09-01T10:00:00Z,food,ok
+                """, job);
+
+        assertThat(line(encoder)).endsWith(",\"ok\"\n");
+        assertThat(line(encoder)).isNull();
+        assertThat(job.toDto().rejected()).isEqualTo(3);
+        assertThat(job.toDto().lastError()).contains("unknown category");
+        assertThat(encoder.takeAmount().toBigDecimal()).isEqualByComparingTo("5");
+    }
+
+    @Test
+    void takeRollup_shouldGroupEncodedRowsByDayAndCategory() throws IOException {
+        ExpenseImportJob job = new ExpenseImportJob("1", ID_VALID, ExpenseImportFormat.CSV);
+        ExpenseCopyEncoder encoder = encoder("""
+                10,2025-09-01T10:00:00Z,food,
+                5,2025-09-01T23:00:00Z,food,
+                7,2025-09-01T10:00:00Z,,
+                3,2025-09-02T00:00:00Z,food,
+                """, job);
+        while (encoder.nextLine() != null) {
+            // строки уходят в COPY
+        }
+
+        DailyRollupDeltas rollup = encoder.takeRollup();
+
+        LocalDate day = LocalDate.of(2025, 9, 1);
+        assertThat(rollup.size()).isEqualTo(3);
+        MoneySum food = rollup.asMap().get(new DailyRollupKey(ID_VALID, day, ID_CATEGORY));
+        assertThat(food.amount()).isEqualByComparingTo("15");
+        assertThat(food.count()).isEqualTo(2);
+        assertThat(rollup.asMap().get(new DailyRollupKey(ID_VALID, day, null)).count()).isEqualTo(1);
+        assertThat(rollup.asMap().get(new DailyRollupKey(ID_VALID, day.plusDays(1), ID_CATEGORY)).count())
+                .isEqualTo(1);
+        assertThat(encoder.takeRollup().isEmpty()).isTrue();
+        assertThat(encoder.takeSamples().isEmpty()).isFalse();
+        assertThat(encoder.takeSamples().isEmpty()).isTrue();
+    }
+}
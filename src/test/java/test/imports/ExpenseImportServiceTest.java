@@ -0,0 +1,141 @@
+package test.imports;
+
+import com.example.expensetracker.config.ExpenseImportProperties;
+import com.example.expensetracker.details.UserDetailsImpl;
+import com.example.expensetracker.imports.ExpenseCopyRepository;
+import com.example.expensetracker.imports.ExpenseCopySource;
+import com.example.expensetracker.imports.ExpenseImportFormat;
+import com.example.expensetracker.imports.ExpenseImportService;
+import com.example.expensetracker.imports.ExpenseImportState;
+import com.example.expensetracker.money.Money;
+import com.example.expensetracker.repository.CategoryRepository;
+import com.example.expensetracker.sketch.ExpenseSketchAccumulator;
+import com.example.expensetracker.sketch.SketchSamples;
+import com.example.expensetracker.totals.TotalExpensesAccumulator;
+import com.example.expensetracker.write.ExpenseWriteEvents;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import test.util.TestData;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+import static test.util.Constants.ID_VALID;
+
+@ExtendWith(MockitoExtension.class)
+public class ExpenseImportServiceTest {
+
+    @Mock
+    private ExpenseCopyRepository copyRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private TotalExpensesAccumulator totalExpensesAccumulator;
+
+    @Mock
+    private ExpenseWriteEvents writeEvents;
+
+    @Mock
+    private ExpenseSketchAccumulator sketchAccumulator;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private ExpenseImportService importService;
+
+    private final UserDetailsImpl currentUser = new UserDetailsImpl(TestData.user());
+
+    @BeforeEach
+    void setUp() {
+        importService = new ExpenseImportService(copyRepository, categoryRepository, totalExpensesAccumulator,
+                writeEvents, sketchAccumulator, transactionTemplate, new ObjectMapper(),
+                new ExpenseImportProperties(2, Duration.ofHours(1)));
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(categoryRepository.findAll()).thenReturn(List.of(TestData.category()));
+    }
+
+    private void stubCopyDrainsSource() {
+        when(copyRepository.copyIn(any(), anyInt())).thenAnswer(invocation -> {
+            ExpenseCopySource source = invocation.getArgument(0);
+            int max = invocation.getArgument(1);
+            long rows = 0;
+            while (rows < max && source.nextLine() != null) {
+                rows++;
+            }
+            return rows;
+        });
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void importExpenses_shouldCopyInChunksAndAddDeltaPerChunk() {
+        stubCopyDrainsSource();
+
+        var result = importService.importExpenses(currentUser, ExpenseImportFormat.CSV, body("""
+                1,2025-09-01T10:00:00Z,food,
+                2,2025-09-01T10:00:00Z,food,
+                3,2025-09-01T10:00:00Z,,
+                bad
+                """));
+
+        assertThat(result.state()).isEqualTo(ExpenseImportState.COMPLETED);
+        assertThat(result.imported()).isEqualTo(3);
+        assertThat(result.rejected()).isEqualTo(1);
+        verify(categoryRepository, times(1)).findAll();
+        verify(copyRepository, times(2)).copyIn(any(), eq(2));
+        verify(totalExpensesAccumulator, times(2)).add(ID_VALID, Money.of(BigDecimal.valueOf(3)));
+        verify(writeEvents, times(2)).apply(any());
+        verify(sketchAccumulator, times(2)).record(any(SketchSamples.class));
+    }
+
+    @Test
+    void importExpenses_shouldMarkFailedAndSkipDelta_whenCopyFails() {
+        when(copyRepository.copyIn(any(), anyInt())).thenThrow(new DataIntegrityViolationException("boom"));
+
+        var result = importService.importExpenses(currentUser, ExpenseImportFormat.NDJSON,
+                body("{\"amount\":1,\"occurredAt\":\"2025-09-01T10:00:00Z\"}\n"));
+
+        assertThat(result.state()).isEqualTo(ExpenseImportState.FAILED);
+        assertThat(result.lastError()).isEqualTo("boom");
+        verify(totalExpensesAccumulator, never()).add(any(), any(Money.class));
+        verify(writeEvents, never()).apply(any());
+        verify(sketchAccumulator, never()).record(any(SketchSamples.class));
+    }
+
+    @Test
+    void getStatus_shouldReturnOwnImport_andHideForeignOnes() {
+        stubCopyDrainsSource();
+        var result = importService.importExpenses(currentUser, ExpenseImportFormat.CSV, body(""));
+        UserDetailsImpl stranger = new UserDetailsImpl(TestData.admin());
+
+        assertThat(importService.getStatus(currentUser, result.id()).state())
+                .isEqualTo(ExpenseImportState.COMPLETED);
+        assertThat(importService.getStatuses(currentUser)).hasSize(1);
+        assertThat(importService.getStatuses(stranger)).isEmpty();
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> importService.getStatus(stranger, result.id()));
+        assertThat(ex.getMessage()).isEqualTo("Import not found");
+    }
+}
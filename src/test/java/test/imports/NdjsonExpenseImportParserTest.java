@@ -0,0 +1,64 @@
+package test.imports;
+
+import com.example.expensetracker.imports.ExpenseImportRow;
+import com.example.expensetracker.imports.ExpenseImportRowException;
+import com.example.expensetracker.imports.NdjsonExpenseImportParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class NdjsonExpenseImportParserTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private NdjsonExpenseImportParser parser(String body) {
+        return new NdjsonExpenseImportParser(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)),
+                objectMapper);
+    }
+
+    @Test
+    void next_shouldParseOneObjectPerLine() throws IOException {
+        NdjsonExpenseImportParser parser = parser("""
+                {"amount":10.5,"occurredAt":"2025-09-01T10:00:00Z","category":"food","description":"Coffee"}
+                
+                {"amount":20,"occurredAt":"2025-09-02T10:00:00Z"}
+                """);
+
+        ExpenseImportRow first = parser.next();
+        ExpenseImportRow second = parser.next();
+
+        assertThat(first.amount()).isEqualByComparingTo("10.5");
+        assertThat(first.occurredAt()).isEqualTo(Instant.parse("2025-09-01T10:00:00Z"));
+        assertThat(first.category()).isEqualTo("food");
+        assertThat(second.category()).isNull();
+        assertThat(parser.next()).isNull();
+    }
+
+    @Test
+    void next_shouldThrowAndContinue_whenJsonInvalid() throws IOException {
+        NdjsonExpenseImportParser parser = parser("""
+                {"amount":
+                {"amount":5,"occurredAt":"2025-09-01T10:00:00Z"}
+                """);
+
+        ExpenseImportRowException ex = assertThrows(ExpenseImportRowException.class, parser::next);
+
+        assertThat(ex.getMessage()).startsWith("Line 1");
+        assertThat(parser.next().amount()).isEqualByComparingTo("5");
+    }
+
+    @Test
+    void next_shouldThrow_whenRequiredFieldMissing() {
+        NdjsonExpenseImportParser parser = parser("{\"amount\":5}\n");
+
+        assertThrows(ExpenseImportRowException.class, parser::next);
+    }
+}
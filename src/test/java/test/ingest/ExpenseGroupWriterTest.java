@@ -0,0 +1,85 @@
+package test.ingest;
+
+import com.example.expensetracker.dto.ExpenseRequestDto;
+import com.example.expensetracker.ingest.ExpenseGroupWriter;
+import com.example.expensetracker.ingest.QueuedExpense;
+import com.example.expensetracker.mapper.ExpenseMapper;
+import com.example.expensetracker.model.Category;
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.money.Money;
+import com.example.expensetracker.repository.CategoryRepository;
+import com.example.expensetracker.repository.ExpenseRepository;
+import com.example.expensetracker.repository.UserRepository;
+import com.example.expensetracker.totals.TotalExpensesAccumulator;
+import com.example.expensetracker.write.ExpenseWriteEvents;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import test.util.TestData;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static test.util.Constants.AMOUNT;
+import static test.util.Constants.DESCRIPTION;
+import static test.util.Constants.ID_CATEGORY;
+
+@ExtendWith(MockitoExtension.class)
+public class ExpenseGroupWriterTest {
+
+    @Mock
+    private ExpenseRepository expenseRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private ExpenseMapper expenseMapper;
+
+    @Mock
+    private TotalExpensesAccumulator totalExpensesAccumulator;
+
+    @Mock
+    private ExpenseWriteEvents writeEvents;
+
+    @InjectMocks
+    private ExpenseGroupWriter writer;
+
+    @Test
+    void write_shouldSaveBatchOnceAndAddOneDeltaPerUser() {
+        User user = TestData.user();
+        User admin = TestData.admin();
+        Category category = TestData.category();
+        when(userRepository.getReferenceById(user.getId())).thenReturn(user);
+        when(userRepository.getReferenceById(admin.getId())).thenReturn(admin);
+        when(categoryRepository.getReferenceById(ID_CATEGORY)).thenReturn(category);
+        when(expenseMapper.fromRequest(any(ExpenseRequestDto.class), any())).thenAnswer(invocation -> {
+            ExpenseRequestDto dto = invocation.getArgument(0);
+            return new Expense(null, null, dto.amount(), dto.occurredAt(), invocation.getArgument(1), DESCRIPTION);
+        });
+
+        writer.write(List.of(
+                new QueuedExpense(user.getId(), TestData.expenseRequestDto()),
+                new QueuedExpense(user.getId(), TestData.expenseRequestDto()),
+                new QueuedExpense(admin.getId(), TestData.expenseRequestDto(null))));
+
+        verify(categoryRepository, times(1)).getReferenceById(ID_CATEGORY);
+        verify(expenseRepository).saveAll(argThat(list -> {
+            List<Expense> expenses = new ArrayList<>();
+            list.forEach(expenses::add);
+            return expenses.size() == 3 && expenses.get(2).getUser() == admin;
+        }));
+        verify(writeEvents).added(argThat((List<Expense> list) -> list.size() == 3));
+        verify(totalExpensesAccumulator).add(user.getId(), Money.of(new BigDecimal(AMOUNT * 2)));
+        verify(totalExpensesAccumulator).add(admin.getId(), Money.of(new BigDecimal(AMOUNT)));
+    }
+}
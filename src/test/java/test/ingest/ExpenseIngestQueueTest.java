@@ -0,0 +1,143 @@
+package test.ingest;
+
+import com.example.expensetracker.config.ExpenseIngestProperties;
+import com.example.expensetracker.exception.ExpenseQueueFullException;
+import com.example.expensetracker.exception.ExpenseQueueStoppedException;
+import com.example.expensetracker.ingest.ExpenseGroupWriter;
+import com.example.expensetracker.ingest.ExpenseIngestQueue;
+import com.example.expensetracker.ingest.QueuedExpense;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import test.util.TestData;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static test.util.Constants.ID_VALID;
+
+@ExtendWith(MockitoExtension.class)
+public class ExpenseIngestQueueTest {
+
+    @Mock
+    private ExpenseGroupWriter writer;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private ExpenseIngestQueue queue;
+
+    private ExpenseIngestQueue queue(int capacity, int maxBatch) {
+        queue = new ExpenseIngestQueue(writer, new ExpenseIngestProperties(capacity, maxBatch,
+                Duration.ofMillis(50), Duration.ofMillis(10), false), registry);
+        return queue;
+    }
+
+    private static QueuedExpense expense() {
+        return new QueuedExpense(ID_VALID, TestData.expenseRequestDto(null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (queue != null && queue.isRunning()) {
+            queue.stop();
+        }
+    }
+
+    @Test
+    void submit_shouldRejectWithBackpressure_whenQueueFull() {
+        ExpenseIngestQueue queue = queue(2, 10);
+        queue.submit(expense());
+        queue.submit(expense());
+
+        assertThrows(ExpenseQueueFullException.class, () -> queue.submit(expense()));
+
+        assertThat(queue.depth()).isEqualTo(2);
+        assertThat(registry.get("expenses.ingest.queue.depth").gauge().value()).isEqualTo(2);
+        assertThat(registry.get("expenses.ingest.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void writer_shouldGroupQueuedExpensesIntoBoundedBatches() throws Exception {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            batchSizes.add(invocation.<List<?>>getArgument(0).size());
+            return null;
+        }).when(writer).write(anyList());
+        ExpenseIngestQueue queue = queue(100, 4);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(queue.submit(expense()));
+        }
+
+        queue.start();
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        assertThat(batchSizes).allMatch(size -> size <= 4);
+        assertThat(batchSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(10);
+        assertThat(batchSizes).hasSizeLessThan(10);
+        assertThat(registry.get("expenses.ingest.commit.latency").timer().count()).isEqualTo(batchSizes.size());
+    }
+
+    @Test
+    void writer_shouldIsolateFailingExpense_whenBatchFails() throws Exception {
+        QueuedExpense poison = expense();
+        doThrow(new IllegalStateException("boom")).when(writer)
+                .write(argThat(batch -> batch != null && batch.contains(poison)));
+        ExpenseIngestQueue queue = queue(100, 10);
+        CompletableFuture<Void> good = queue.submit(expense());
+        CompletableFuture<Void> bad = queue.submit(poison);
+
+        queue.start();
+
+        good.get(5, TimeUnit.SECONDS);
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> bad.get(5, TimeUnit.SECONDS));
+        assertThat(ex.getCause()).hasMessage("boom");
+        assertThat(registry.get("expenses.ingest.failed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void stop_shouldDrainRemainingExpenses() throws Exception {
+        ExpenseIngestQueue queue = queue(100, 3);
+        queue.start();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            futures.add(queue.submit(expense()));
+        }
+
+        queue.stop();
+
+        assertThat(queue.depth()).isZero();
+        assertThat(futures).allMatch(CompletableFuture::isDone);
+    }
+
+    @Test
+    void submit_shouldReject_afterStop() {
+        ExpenseIngestQueue queue = queue(100, 3);
+        queue.start();
+        queue.stop();
+
+        assertThrows(ExpenseQueueStoppedException.class, () -> queue.submit(expense()));
+
+        assertThat(queue.depth()).isZero();
+    }
+
+    @Test
+    void getPhase_shouldStopAfterWebServerGracefulShutdown() {
+        assertThat(queue(1, 1).getPhase()).isLessThan(WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE);
+    }
+}
@@ -0,0 +1,31 @@
+package test.listing;
+
+import com.example.expensetracker.listing.ExpenseCursor;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ExpenseCursorTest {
+
+    @Test
+    void decode_shouldRestoreEncodedPosition() {
+        ExpenseCursor cursor = new ExpenseCursor(LocalDateTime.of(2025, 9, 1, 10, 15, 30, 123_456_000), 4200L);
+
+        String encoded = cursor.encode();
+
+        assertThat(encoded).doesNotContain("2025").doesNotContain("=");
+        assertThat(ExpenseCursor.decode(encoded)).isEqualTo(cursor);
+    }
+
+    @Test
+    void decode_shouldThrowIllegalArgument_whenCursorCorrupted() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> ExpenseCursor.decode("not a cursor"));
+
+        assertThat(ex.getMessage()).isEqualTo("Invalid cursor");
+        assertThrows(IllegalArgumentException.class, () -> ExpenseCursor.decode("MjAyNXxhYmM"));
+    }
+}
@@ -0,0 +1,159 @@
+package test.listing;
+
+import com.example.expensetracker.ExpenseTrackerApplication;
+import com.example.expensetracker.dto.ExpenseDto;
+import com.example.expensetracker.dto.ExpenseFilterDto;
+import com.example.expensetracker.dto.ExpensePageDto;
+import com.example.expensetracker.listing.ExpenseCursor;
+import com.example.expensetracker.listing.ExpenseListingQuery;
+import com.example.expensetracker.listing.ExpenseListingRepository;
+import com.example.expensetracker.model.Category;
+import com.example.expensetracker.model.Role;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.partition.ExpensePartitionRepository;
+import com.example.expensetracker.repository.CategoryRepository;
+import com.example.expensetracker.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static test.util.Constants.*;
+import static test.util.TestUtils.createAndSaveUser;
+
+@SpringBootTest(classes = {ExpenseTrackerApplication.class})
+@ActiveProfiles("test")
+public class ExpenseListingIT {
+
+    private static final YearMonth FIRST_MONTH = YearMonth.of(2023, 1);
+
+    @Autowired
+    private ExpenseListingRepository listingRepository;
+
+    @Autowired
+    private ExpensePartitionRepository partitionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * По строке на каждые 10 минут, начиная с FIRST_MONTH; каждая третья — в категории,
+     * каждая десятая дублирует время предыдущей, чтобы проверить порядок по id при равном occurred_at.
+     */
+    private void generate(Long userId, Long categoryId, int rows) {
+        jdbcTemplate.update("""
+                INSERT INTO expenses (user_id, amount, occurred_at, category_id, description)
+                SELECT ?, (g % 1000) + 1, ?::timestamp + ((g - g / 10) * interval '10 minutes'),
+                       CASE WHEN g % 3 = 0 THEN ?::bigint END, 'generated'
+                FROM generate_series(1, ?) g
+                """, userId, FIRST_MONTH.atDay(1).atStartOfDay(), categoryId, rows);
+        jdbcTemplate.execute("ANALYZE expenses");
+    }
+
+    private List<Long> walk(Long userId, ExpenseFilterDto filter) {
+        List<Long> ids = new ArrayList<>();
+        ExpenseCursor cursor = null;
+        while (true) {
+            ExpensePageDto page = listingRepository.findPage(userId, filter, cursor);
+            page.items().stream().map(ExpenseDto::id).forEach(ids::add);
+            if (page.nextCursor() == null) {
+                return ids;
+            }
+            assertThat(page.items()).hasSize(filter.getLimit());
+            cursor = ExpenseCursor.decode(page.nextCursor());
+        }
+    }
+
+    @Test
+    void findPage_shouldWalkAllMatchingExpensesInOrder() {
+        User user = createAndSaveUser(USER_EMAIL, Role.USER, userRepository);
+        User other = createAndSaveUser(ADMIN_EMAIL, Role.ADMIN, userRepository);
+        Category category = categoryRepository.save(new Category(CATEGORY_NAME));
+        generate(user.getId(), category.getId(), 500);
+        generate(other.getId(), category.getId(), 50);
+        ExpenseFilterDto filter = new ExpenseFilterDto();
+        filter.setCategoryId(category.getId());
+        filter.setMinAmount(new BigDecimal("50"));
+        filter.setMaxAmount(new BigDecimal("400"));
+        filter.setFrom(FIRST_MONTH.atDay(1).atTime(12, 0).atZone(ZoneId.systemDefault()).toInstant());
+        filter.setTo(FIRST_MONTH.atDay(3).atTime(12, 0).atZone(ZoneId.systemDefault()).toInstant());
+
+        List<Long> expected = jdbcTemplate.queryForList("""
+                SELECT id FROM expenses
+                WHERE user_id = ? AND category_id = ? AND amount BETWEEN 50 AND 400
+                  AND occurred_at BETWEEN ? AND ?
+                ORDER BY occurred_at DESC, id DESC
+                """, Long.class, user.getId(), category.getId(), FIRST_MONTH.atDay(1).atTime(12, 0),
+                FIRST_MONTH.atDay(3).atTime(12, 0));
+        filter.setLimit(7);
+
+        assertThat(expected).isNotEmpty();
+        assertThat(walk(user.getId(), filter)).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void deepPage_shouldCostAsMuchAsFirstPage() throws Exception {
+        for (YearMonth month = FIRST_MONTH; month.isBefore(FIRST_MONTH.plusMonths(6)); month = month.plusMonths(1)) {
+            partitionRepository.ensurePartition(month);
+        }
+        User user = createAndSaveUser(USER_EMAIL, Role.USER, userRepository);
+        generate(user.getId(), null, 20_000);
+        ExpenseFilterDto filter = new ExpenseFilterDto();
+        LocalDateTime deepest = jdbcTemplate.queryForObject(
+                "SELECT occurred_at FROM expenses ORDER BY occurred_at OFFSET 100 LIMIT 1", LocalDateTime.class);
+        Long deepestId = jdbcTemplate.queryForObject(
+                "SELECT MAX(id) FROM expenses WHERE occurred_at = ?", Long.class, deepest);
+
+        JsonNode first = explain(ExpenseListingQuery.of(user.getId(), filter, null,
+                filter.getLimit() + 1, ZoneId.systemDefault()));
+        JsonNode deep = explain(ExpenseListingQuery.of(user.getId(), filter, new ExpenseCursor(deepest, deepestId),
+                filter.getLimit() + 1, ZoneId.systemDefault()));
+
+        assertThat(deep.path("Actual Rows").asLong()).isEqualTo(first.path("Actual Rows").asLong());
+        assertThat(buffers(deep)).isLessThanOrEqualTo(buffers(first) * 2 + 10);
+        assertThat(maxRows(deep)).isLessThan(1_000);
+        assertThat(maxRows(first)).isLessThan(1_000);
+    }
+
+    private JsonNode explain(ExpenseListingQuery query) throws Exception {
+        String json = jdbcTemplate.queryForObject("EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) " + query.sql(),
+                String.class, query.args());
+        return objectMapper.readTree(json).get(0).path("Plan");
+    }
+
+    /**
+     * Наибольшее число строк, прошедших через один узел плана: с seek-условием и индексом
+     * ни один узел не должен перебирать всю выборку пользователя.
+     */
+    private static long maxRows(JsonNode plan) {
+        long max = plan.path("Actual Rows").asLong() * Math.max(1, plan.path("Actual Loops").asLong());
+        for (JsonNode child : plan.path("Plans")) {
+            max = Math.max(max, maxRows(child));
+        }
+        return max;
+    }
+
+    private static long buffers(JsonNode plan) {
+        return plan.path("Shared Hit Blocks").asLong() + plan.path("Shared Read Blocks").asLong();
+    }
+}
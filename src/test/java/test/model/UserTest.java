@@ -16,7 +16,6 @@ import java.math.BigDecimal;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.junit.jupiter.api.Assertions.assertThrows;
 import static test.util.Constants.*;
 import static test.util.TestMessageSource.msg;
 
@@ -127,26 +126,6 @@ public class UserTest {
         assertThat(user.isBanned()).isTrue();
     }
     
-    @Test
-    void increaseTotalExpenses_shouldThrowException_whenAmountSubZero() {
-        BigDecimal amount = new BigDecimal("-1");
-
-        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
-                () -> new User().increaseTotalExpenses(amount));
-        
-        assertThat(ex.getMessage()).isNotEmpty();
-    }
-
-    @Test
-    void decreaseTotalExpenses_shouldThrowException_whenAmountSubZero() {
-        BigDecimal amount = new BigDecimal("-1");
-
-        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
-                () -> new User().decreaseTotalExpenses(amount));
-
-        assertThat(ex.getMessage()).isNotEmpty();
-    }
-
     @Test
     void equalsHashCode_contract() {
         EqualsVerifier.forClass(User.class)
@@ -0,0 +1,59 @@
+package test.money;
+
+import com.example.expensetracker.money.Money;
+import com.example.expensetracker.money.MoneySum;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MoneyTest {
+
+    @Test
+    void of_shouldRoundToCentsHalfUp() {
+        assertThat(Money.of(new BigDecimal("10.005")).cents()).isEqualTo(1001);
+        assertThat(Money.of(new BigDecimal("-0.015")).cents()).isEqualTo(-2);
+        assertThat(Money.of(new BigDecimal("7")).cents()).isEqualTo(700);
+    }
+
+    @Test
+    void toBigDecimal_shouldKeepScaleOfTwo() {
+        assertThat(Money.ofCents(1050).toBigDecimal()).isEqualTo(new BigDecimal("10.50"));
+        assertThat(Money.ZERO.toBigDecimal()).isEqualTo(new BigDecimal("0.00"));
+        assertThat(Money.ofCents(-5).toString()).isEqualTo("-0.05");
+    }
+
+    @Test
+    void arithmetic_shouldMatchBigDecimal() {
+        Money a = Money.of(new BigDecimal("125.75"));
+        Money b = Money.of(new BigDecimal("0.30"));
+
+        assertThat(a.plus(b).toBigDecimal()).isEqualByComparingTo("126.05");
+        assertThat(b.minus(a).toBigDecimal()).isEqualByComparingTo("-125.45");
+        assertThat(a.negate().signum()).isNegative();
+        assertThat(a).isGreaterThan(b);
+    }
+
+    @Test
+    void arithmetic_shouldThrow_whenOverflows() {
+        Money max = Money.ofCents(Long.MAX_VALUE);
+
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.ofCents(1)));
+        assertThrows(ArithmeticException.class, () -> Money.ofCents(Long.MIN_VALUE).negate());
+        assertThrows(ArithmeticException.class, () -> new MoneySum(Long.MAX_VALUE, 1).add(1, 1));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("1E+20")));
+    }
+
+    @Test
+    void moneySum_shouldAccumulateCentsAndCount() {
+        MoneySum sum = new MoneySum();
+
+        sum.add(1050, 1).add(new MoneySum(-50, -1)).add(200, 1);
+
+        assertThat(sum.cents()).isEqualTo(1200);
+        assertThat(sum.count()).isEqualTo(1);
+        assertThat(sum.amount()).isEqualTo(new BigDecimal("12.00"));
+    }
+}
@@ -0,0 +1,137 @@
+package test.partition;
+
+import com.example.expensetracker.ExpenseTrackerApplication;
+import com.example.expensetracker.model.Role;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.money.MoneySum;
+import com.example.expensetracker.partition.ExpensePartitionRepository;
+import com.example.expensetracker.repository.UserRepository;
+import com.example.expensetracker.rollup.DailyRollupKey;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static test.util.Constants.USER_EMAIL;
+import static test.util.TestUtils.createAndSaveUser;
+
+@SpringBootTest(classes = {ExpenseTrackerApplication.class})
+@ActiveProfiles("test")
+public class ExpensePartitionIT {
+
+    private static final YearMonth SEPTEMBER = YearMonth.of(2024, 9);
+    private static final YearMonth OCTOBER = YearMonth.of(2024, 10);
+
+    @Autowired
+    private ExpensePartitionRepository partitionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private List<String> explain(String sql, Object... args) {
+        return jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args);
+    }
+
+    private void insertExpense(Long userId, LocalDateTime occurredAt) {
+        jdbcTemplate.update("INSERT INTO expenses (user_id, amount, occurred_at) VALUES (?, 10, ?)",
+                userId, occurredAt);
+    }
+
+    @Test
+    void reportQueries_shouldScanOnlyPartitionsOfRequestedMonth() {
+        partitionRepository.ensurePartition(SEPTEMBER);
+        partitionRepository.ensurePartition(OCTOBER);
+        User user = createAndSaveUser(USER_EMAIL, Role.USER, userRepository);
+        insertExpense(user.getId(), SEPTEMBER.atDay(10).atStartOfDay());
+        insertExpense(user.getId(), OCTOBER.atDay(10).atStartOfDay());
+        LocalDateTime from = SEPTEMBER.atDay(1).atStartOfDay();
+        LocalDateTime to = SEPTEMBER.atEndOfMonth().atTime(23, 59, 59);
+
+        String byCategory = String.join("\n", explain("""
+                SELECT c.name, SUM(e.amount) FROM expenses e LEFT JOIN categories c ON c.id = e.category_id
+                WHERE e.user_id = ? AND e.occurred_at BETWEEN ? AND ? GROUP BY c.name
+                """, user.getId(), from, to));
+        String total = String.join("\n", explain("""
+                SELECT COALESCE(SUM(e.amount), 0) FROM expenses e
+                WHERE e.user_id = ? AND e.occurred_at BETWEEN ? AND ?
+                """, user.getId(), from, to));
+
+        assertThat(byCategory).contains("expenses_p2024_09").doesNotContain("expenses_p2024_10")
+                .doesNotContain("expenses_default");
+        assertThat(total).contains("expenses_p2024_09").doesNotContain("expenses_p2024_10")
+                .doesNotContain("expenses_default");
+    }
+
+    @Test
+    void ensurePartition_shouldMoveRowsOutOfDefaultPartition() {
+        YearMonth month = YearMonth.of(2001, 1);
+        User user = createAndSaveUser(USER_EMAIL, Role.USER, userRepository);
+        insertExpense(user.getId(), month.atDay(5).atStartOfDay());
+        assertThat(count("expenses_default")).isEqualTo(1);
+
+        assertThat(partitionRepository.ensurePartition(month)).isTrue();
+        assertThat(partitionRepository.ensurePartition(month)).isFalse();
+
+        assertThat(count("expenses_default")).isZero();
+        assertThat(count("expenses_p2001_01")).isEqualTo(1);
+        assertThat(partitionRepository.findAttachedMonths()).contains(month);
+    }
+
+    @Test
+    void ensurePartition_shouldCreateOnce_whenCalledConcurrently() throws Exception {
+        YearMonth month = YearMonth.of(2003, 3);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = executor.invokeAll(Collections.nCopies(4,
+                    () -> partitionRepository.ensurePartition(month)));
+
+            long created = 0;
+            for (Future<Boolean> result : results) {
+                created += result.get() ? 1 : 0;
+            }
+            assertThat(created).isEqualTo(1);
+            assertThat(partitionRepository.findAttachedMonths()).contains(month);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void detachPartition_shouldKeepRowsInArchiveAndLeaveOtherPartitions() {
+        YearMonth month = YearMonth.of(2002, 2);
+        User user = createAndSaveUser(USER_EMAIL, Role.USER, userRepository);
+        partitionRepository.ensurePartition(month);
+        partitionRepository.ensurePartition(month.plusMonths(1));
+        insertExpense(user.getId(), month.atDay(5).atStartOfDay());
+        insertExpense(user.getId(), month.plusMonths(1).atDay(5).atStartOfDay());
+
+        assertThat(partitionRepository.detachPartition(month)).isTrue();
+
+        assertThat(count("expenses")).isEqualTo(1);
+        assertThat(count("expenses_archive_2002_02")).isEqualTo(1);
+        assertThat(partitionRepository.findAttachedMonths()).doesNotContain(month).contains(month.plusMonths(1));
+        assertThat(partitionRepository.archivedDeltas(month).asMap()).containsOnlyKeys(
+                new DailyRollupKey(user.getId(), month.atDay(5), null));
+        MoneySum removed = partitionRepository.archivedDeltas(month).asMap().values().iterator().next();
+        assertThat(removed.cents()).isEqualTo(-1_000);
+        assertThat(removed.count()).isEqualTo(-1);
+        jdbcTemplate.execute("DROP TABLE expenses_archive_2002_02");
+    }
+
+    private Integer count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+}
@@ -0,0 +1,111 @@
+package test.partition;
+
+import com.example.expensetracker.config.ExpensePartitionProperties;
+import com.example.expensetracker.money.Money;
+import com.example.expensetracker.partition.ExpensePartitionMaintenance;
+import com.example.expensetracker.partition.ExpensePartitionRepository;
+import com.example.expensetracker.rollup.DailyRollupDeltas;
+import com.example.expensetracker.rollup.DailyRollupKey;
+import com.example.expensetracker.sketch.ExpenseSketchAccumulator;
+import com.example.expensetracker.totals.TotalExpensesAccumulator;
+import com.example.expensetracker.write.ExpenseWriteEvents;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ExpensePartitionMaintenanceTest {
+
+    private static final YearMonth CURRENT = YearMonth.of(2025, 9);
+
+    @Mock
+    private ExpensePartitionRepository repository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ExpenseWriteEvents writeEvents;
+
+    @Mock
+    private TotalExpensesAccumulator totalExpensesAccumulator;
+
+    @Mock
+    private ExpenseSketchAccumulator sketchAccumulator;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    private ExpensePartitionMaintenance maintenance(int monthsAhead, int retentionMonths) {
+        return new ExpensePartitionMaintenance(repository, new ExpensePartitionProperties(monthsAhead, retentionMonths),
+                transactionTemplate, writeEvents, totalExpensesAccumulator, sketchAccumulator);
+    }
+
+    @Test
+    void maintain_shouldEnsureCurrentAndFutureMonths() {
+        var maintenance = maintenance(2, 0);
+
+        maintenance.maintain(CURRENT);
+
+        verify(repository).ensurePartition(YearMonth.of(2025, 9));
+        verify(repository).ensurePartition(YearMonth.of(2025, 10));
+        verify(repository).ensurePartition(YearMonth.of(2025, 11));
+        verify(repository, times(3)).ensurePartition(any());
+        verify(repository, never()).findAttachedMonths();
+        verify(repository, never()).detachPartition(any());
+    }
+
+    @Test
+    void maintain_shouldDetachOnlyMonthsOlderThanRetention() {
+        var maintenance = maintenance(0, 12);
+        when(repository.findAttachedMonths()).thenReturn(List.of(
+                YearMonth.of(2024, 7), YearMonth.of(2024, 8), YearMonth.of(2024, 9), CURRENT));
+
+        maintenance.maintain(CURRENT);
+
+        verify(repository).detachPartition(YearMonth.of(2024, 7));
+        verify(repository).detachPartition(YearMonth.of(2024, 8));
+        verify(repository, times(2)).detachPartition(any());
+    }
+
+    @Test
+    void maintain_shouldSubtractDetachedExpensesFromDerivedData() {
+        YearMonth old = YearMonth.of(2024, 7);
+        DailyRollupDeltas deltas = new DailyRollupDeltas();
+        deltas.add(new DailyRollupKey(1L, old.atDay(3), 5L), -1_500, -2);
+        deltas.add(new DailyRollupKey(1L, old.atDay(4), null), -500, -1);
+        when(repository.findAttachedMonths()).thenReturn(List.of(old, CURRENT));
+        when(repository.detachPartition(old)).thenReturn(true);
+        when(repository.archivedDeltas(old)).thenReturn(deltas);
+
+        maintenance(0, 12).maintain(CURRENT);
+
+        verify(writeEvents).apply(deltas);
+        verify(totalExpensesAccumulator).add(1L, Money.ofCents(-2_000));
+        verify(sketchAccumulator).markStale(Set.of(1L));
+    }
+
+    @Test
+    void onStartup_shouldNotFailStartup_whenMaintenanceFails() {
+        var maintenance = maintenance(1, 0);
+        when(repository.ensurePartition(any())).thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertThatCode(maintenance::onStartup).doesNotThrowAnyException();
+    }
+}
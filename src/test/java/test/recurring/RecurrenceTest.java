@@ -0,0 +1,143 @@
+package test.recurring;
+
+import com.example.expensetracker.model.RecurrenceFrequency;
+import com.example.expensetracker.recurring.Recurrence;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RecurrenceTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 1, 31);
+    private static final int WORKDAYS = Recurrence.weekdays(EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY));
+
+    private static Recurrence rule(RecurrenceFrequency frequency, int interval, int weekdays, int monthDay) {
+        return new Recurrence(frequency, interval, weekdays, monthDay, START, null, Long.MAX_VALUE);
+    }
+
+    @Test
+    void monthly_shouldKeepDayOfMonth_andClampToShortMonths() {
+        Recurrence recurrence = rule(RecurrenceFrequency.MONTHLY, 1, 0, 31);
+
+        assertThat(recurrence.between(START, LocalDate.of(2025, 5, 31))).containsExactly(
+                LocalDate.of(2025, 1, 31), LocalDate.of(2025, 2, 28), LocalDate.of(2025, 3, 31),
+                LocalDate.of(2025, 4, 30), LocalDate.of(2025, 5, 31));
+        assertThat(recurrence.after(LocalDate.of(2025, 2, 28))).isEqualTo(LocalDate.of(2025, 3, 31));
+    }
+
+    @Test
+    void weekly_shouldCountWorkdays_withoutDrift() {
+        Recurrence recurrence = rule(RecurrenceFrequency.WEEKLY, 1, WORKDAYS, 0);
+
+        assertThat(recurrence.count(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 28))).isEqualTo(20);
+        assertThat(recurrence.after(LocalDate.of(2025, 2, 7))).isEqualTo(LocalDate.of(2025, 2, 10));
+        assertThat(recurrence.count(START, START.plusYears(10))).isEqualTo(2609);
+    }
+
+    @Test
+    void yearly_shouldFallBackToFebruary28_inCommonYears() {
+        Recurrence recurrence = new Recurrence(RecurrenceFrequency.YEARLY, 1, 0, 29, LocalDate.of(2024, 2, 29),
+                null, Long.MAX_VALUE);
+
+        assertThat(recurrence.between(LocalDate.of(2024, 1, 1), LocalDate.of(2028, 12, 31))).containsExactly(
+                LocalDate.of(2024, 2, 29), LocalDate.of(2025, 2, 28), LocalDate.of(2026, 2, 28),
+                LocalDate.of(2027, 2, 28), LocalDate.of(2028, 2, 29));
+    }
+
+    @Test
+    void untilAndRemaining_shouldEndSchedule() {
+        Recurrence recurrence = new Recurrence(RecurrenceFrequency.DAILY, 10, 0, 0, START, START.plusDays(25), 5);
+
+        assertThat(recurrence.between(START, START.plusYears(1)))
+                .containsExactly(START, START.plusDays(10), START.plusDays(20));
+        assertThat(recurrence.after(START.plusDays(20))).isNull();
+        assertThat(new Recurrence(RecurrenceFrequency.DAILY, 10, 0, 0, START, null, 2).after(START.plusDays(10)))
+                .isNull();
+    }
+
+    @Test
+    void resumedAfter_shouldMoveDailyFromToday_andCalendarRulesAlongTheirGrid() {
+        LocalDate today = START.plusDays(4);
+
+        assertThat(rule(RecurrenceFrequency.DAILY, 30, 0, 0).resumedAfter(today).start())
+                .isEqualTo(today.plusDays(30));
+        assertThat(rule(RecurrenceFrequency.MONTHLY, 1, 0, Recurrence.LAST_DAY).resumedAfter(today).start())
+                .isEqualTo(LocalDate.of(2025, 2, 28));
+        assertThat(new Recurrence(RecurrenceFrequency.MONTHLY, 1, 0, 31, START, null, 1).resumedAfter(today))
+                .isNull();
+        assertThat(new Recurrence(RecurrenceFrequency.MONTHLY, 1, 0, 31, START, LocalDate.of(2025, 2, 27), 9)
+                .resumedAfter(today)).isNull();
+    }
+
+    @Test
+    void closedForm_shouldMatchDayByDayEnumeration_forRandomRules() {
+        Random random = new Random(11);
+        RecurrenceFrequency[] frequencies = RecurrenceFrequency.values();
+        for (int i = 0; i < 2_000; i++) {
+            RecurrenceFrequency frequency = frequencies[random.nextInt(frequencies.length)];
+            int interval = 1 + random.nextInt(frequency == RecurrenceFrequency.DAILY ? 40 : 3);
+            int weekdays = 1 + random.nextInt(127);
+            int monthDay = random.nextInt(5) == 0 ? Recurrence.LAST_DAY : 1 + random.nextInt(31);
+            LocalDate start = START.plusDays(random.nextInt(800));
+            LocalDate until = random.nextBoolean() ? null : start.plusDays(random.nextInt(1500));
+            long remaining = random.nextBoolean() ? Long.MAX_VALUE : 1 + random.nextInt(60);
+            Recurrence recurrence = new Recurrence(frequency, interval, weekdays, monthDay, start, until, remaining);
+
+            LocalDate from = start.plusDays(random.nextInt(900) - 100);
+            LocalDate to = from.plusDays(random.nextInt(1200));
+            List<LocalDate> all = enumerate(recurrence, start.plusYears(10));
+            List<LocalDate> expected = all.stream().filter(day -> !day.isBefore(from) && !day.isAfter(to)).toList();
+
+            assertThat(recurrence.between(from, to)).as("%s %s..%s", recurrence, from, to).isEqualTo(expected);
+            assertThat(recurrence.count(from, to)).isEqualTo(expected.size());
+            LocalDate next = all.stream().filter(day -> day.isAfter(from)).findFirst().orElse(null);
+            if (next != null || all.size() == remaining || until != null) {
+                assertThat(recurrence.after(from)).as("%s after %s", recurrence, from).isEqualTo(next);
+            }
+        }
+    }
+
+    /**
+     * Эталон: каждый день с start проверяется на попадание в расписание.
+     */
+    private static List<LocalDate> enumerate(Recurrence recurrence, LocalDate horizon) {
+        List<LocalDate> days = new ArrayList<>();
+        LocalDate start = recurrence.start();
+        LocalDate weekStart = start.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        for (LocalDate day = start; !day.isAfter(horizon) && days.size() < recurrence.remaining();
+             day = day.plusDays(1)) {
+            if (recurrence.until() != null && day.isAfter(recurrence.until())) {
+                break;
+            }
+            int interval = recurrence.interval();
+            boolean matches = switch (recurrence.frequency()) {
+                case DAILY -> ChronoUnit.DAYS.between(start, day) % interval == 0;
+                case WEEKLY -> (recurrence.weekdays() & (1 << (day.getDayOfWeek().getValue() - 1))) != 0
+                        && ChronoUnit.WEEKS.between(weekStart, day) % interval == 0;
+                case MONTHLY -> ChronoUnit.MONTHS.between(YearMonth.from(start), YearMonth.from(day)) % interval == 0
+                        && day.equals(dayOf(YearMonth.from(day), recurrence.monthDay()));
+                case YEARLY -> (day.getYear() - start.getYear()) % interval == 0
+                        && day.equals(dayOf(YearMonth.of(day.getYear(), start.getMonth()), recurrence.monthDay()));
+            };
+            if (matches) {
+                days.add(day);
+            }
+        }
+        return days;
+    }
+
+    private static LocalDate dayOf(YearMonth month, int monthDay) {
+        return month.atDay(monthDay == Recurrence.LAST_DAY ? month.lengthOfMonth()
+                : Math.min(monthDay, month.lengthOfMonth()));
+    }
+}
@@ -0,0 +1,188 @@
+package test.recurring;
+
+import com.example.expensetracker.forecast.RecurringForecastCache;
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.RecurrenceFrequency;
+import com.example.expensetracker.model.RecurringTransaction;
+import com.example.expensetracker.money.Money;
+import com.example.expensetracker.recurring.Recurrence;
+import com.example.expensetracker.recurring.RecurringAdvance;
+import com.example.expensetracker.recurring.RecurringCatchUpInserted;
+import com.example.expensetracker.recurring.RecurringChunkWriter;
+import com.example.expensetracker.recurring.RecurringScheduleRepository;
+import com.example.expensetracker.repository.ExpenseRepository;
+import com.example.expensetracker.rollup.DailyRollupDeltas;
+import com.example.expensetracker.rollup.DailyRollupKey;
+import com.example.expensetracker.sketch.ExpenseSketchAccumulator;
+import com.example.expensetracker.sketch.SketchSamples;
+import com.example.expensetracker.totals.TotalExpensesAccumulator;
+import com.example.expensetracker.write.ExpenseWriteEvents;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import test.util.TestData;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static test.util.Constants.ID_CATEGORY;
+import static test.util.Constants.ID_VALID;
+import static test.util.Constants.INTERVAL_DAYS;
+
+@ExtendWith(MockitoExtension.class)
+public class RecurringChunkWriterTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 9, 1);
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    @Mock
+    private RecurringScheduleRepository scheduleRepository;
+
+    @Mock
+    private ExpenseRepository expenseRepository;
+
+    @Mock
+    private TotalExpensesAccumulator totalExpensesAccumulator;
+
+    @Mock
+    private ExpenseWriteEvents writeEvents;
+
+    @Mock
+    private ExpenseSketchAccumulator sketchAccumulator;
+
+    @Mock
+    private RecurringForecastCache forecastCache;
+
+    @InjectMocks
+    private RecurringChunkWriter chunkWriter;
+
+    private static RecurringTransaction rule(long id, String amount) {
+        RecurringTransaction recurring = TestData.recurringTransaction();
+        recurring.setId(id);
+        recurring.setAmount(new BigDecimal(amount));
+        recurring.setNextExecutionDate(TODAY.minusDays(3));
+        return recurring;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void write_shouldCreateExpensesOnlyForAdvancedRules_andAddOneDeltaPerUser() {
+        RecurringTransaction rent = rule(1, "100.00");
+        RecurringTransaction gym = rule(2, "20.50");
+        RecurringTransaction disabled = rule(3, "7.00");
+        when(scheduleRepository.advance(anyList(), eq(TODAY))).thenReturn(List.of(1L, 2L));
+
+        int created = chunkWriter.write(List.of(rent, gym, disabled), TODAY);
+
+        assertThat(created).isEqualTo(2);
+        ArgumentCaptor<List<RecurringAdvance>> advances = ArgumentCaptor.forClass(List.class);
+        verify(scheduleRepository).advance(advances.capture(), eq(TODAY));
+        assertThat(advances.getValue()).containsExactly(
+                new RecurringAdvance(1, TODAY.plusDays(INTERVAL_DAYS), 1),
+                new RecurringAdvance(2, TODAY.plusDays(INTERVAL_DAYS), 1),
+                new RecurringAdvance(3, TODAY.plusDays(INTERVAL_DAYS), 1));
+        ArgumentCaptor<List<Expense>> captor = ArgumentCaptor.forClass(List.class);
+        verify(expenseRepository).saveAll(captor.capture());
+        assertThat(captor.getValue()).extracting(Expense::getAmount)
+                .containsExactly(new BigDecimal("100.00"), new BigDecimal("20.50"));
+        assertThat(captor.getValue()).allSatisfy(expense -> {
+            assertThat(expense.getOccurredAt()).isEqualTo(TODAY.atStartOfDay(ZONE).toInstant());
+            assertThat(expense.getUser().getId()).isEqualTo(rent.getUser().getId());
+        });
+        verify(writeEvents).added(captor.getValue());
+        verify(totalExpensesAccumulator).add(rent.getUser().getId(), Money.ofCents(12_050));
+        verify(forecastCache).invalidate(Set.of(rent.getUser().getId()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void write_shouldMoveCalendarRulesAlongTheirGrid_andDeactivateExhaustedRules() {
+        RecurringTransaction monthly = rule(1, "10.00");
+        monthly.setFrequency(RecurrenceFrequency.MONTHLY);
+        monthly.setIntervalDays(1);
+        monthly.setByMonthDay(Recurrence.LAST_DAY);
+        monthly.setNextExecutionDate(LocalDate.of(2025, 8, 31));
+        RecurringTransaction last = rule(2, "10.00");
+        last.setMaxOccurrences(5);
+        last.setOccurrences(4);
+        RecurringTransaction expiring = rule(3, "10.00");
+        expiring.setUntilDate(TODAY.plusDays(INTERVAL_DAYS - 1));
+        when(scheduleRepository.advance(anyList(), eq(TODAY))).thenReturn(List.of(1L, 2L, 3L));
+
+        assertThat(chunkWriter.write(List.of(monthly, last, expiring), TODAY)).isEqualTo(3);
+
+        ArgumentCaptor<List<RecurringAdvance>> advances = ArgumentCaptor.forClass(List.class);
+        verify(scheduleRepository).advance(advances.capture(), eq(TODAY));
+        assertThat(advances.getValue()).containsExactly(
+                new RecurringAdvance(1, LocalDate.of(2025, 9, 30), 1),
+                new RecurringAdvance(2, null, 1),
+                new RecurringAdvance(3, null, 1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void write_shouldDateExpenseAtUntil_whenOverdueRuleExpiredBeforeToday() {
+        RecurringTransaction expired = rule(1, "10.00");
+        expired.setUntilDate(TODAY.minusDays(2));
+        RecurringTransaction current = rule(2, "10.00");
+        when(scheduleRepository.advance(anyList(), eq(TODAY))).thenReturn(List.of(1L, 2L));
+
+        chunkWriter.write(List.of(expired, current), TODAY);
+
+        ArgumentCaptor<List<RecurringAdvance>> advances = ArgumentCaptor.forClass(List.class);
+        verify(scheduleRepository).advance(advances.capture(), eq(TODAY));
+        assertThat(advances.getValue()).first().isEqualTo(new RecurringAdvance(1, null, 1));
+        ArgumentCaptor<List<Expense>> captor = ArgumentCaptor.forClass(List.class);
+        verify(expenseRepository).saveAll(captor.capture());
+        assertThat(captor.getValue()).extracting(Expense::getOccurredAt).containsExactly(
+                TODAY.minusDays(2).atStartOfDay(ZONE).toInstant(), TODAY.atStartOfDay(ZONE).toInstant());
+    }
+
+    @Test
+    void write_shouldSkipInserts_whenNoRuleAdvanced() {
+        when(scheduleRepository.advance(anyList(), eq(TODAY))).thenReturn(List.of());
+
+        assertThat(chunkWriter.write(List.of(rule(1, "1.00")), TODAY)).isZero();
+        verifyNoInteractions(expenseRepository, writeEvents, totalExpensesAccumulator);
+    }
+
+    @Test
+    void catchUp_shouldInsertEveryMissedDate_andApplyInsertedDeltas() {
+        Map<Long, Recurrence> recurrences = new LinkedHashMap<>();
+        recurrences.put(1L, TestData.dailyRecurrence(7, TODAY.minusDays(7)));
+        recurrences.put(2L, new Recurrence(RecurrenceFrequency.MONTHLY, 1, 0, Recurrence.LAST_DAY,
+                LocalDate.of(2025, 7, 31), null, 2));
+        when(scheduleRepository.recurrences(List.of(1L, 2L), TODAY)).thenReturn(recurrences);
+        DailyRollupDeltas deltas = new DailyRollupDeltas();
+        deltas.add(new DailyRollupKey(ID_VALID, TODAY.minusDays(7), ID_CATEGORY), 1_000, 1);
+        deltas.add(new DailyRollupKey(ID_VALID, TODAY, ID_CATEGORY), 2_050, 3);
+        SketchSamples samples = new SketchSamples();
+        when(scheduleRepository.catchUp(List.of(1L, 1L, 2L, 2L), List.of(TODAY.minusDays(7), TODAY,
+                LocalDate.of(2025, 7, 31), LocalDate.of(2025, 8, 31))))
+                .thenReturn(new RecurringCatchUpInserted(deltas, samples));
+
+        assertThat(chunkWriter.catchUp(List.of(1L, 2L), TODAY)).isEqualTo(4);
+
+        verify(scheduleRepository).advance(List.of(new RecurringAdvance(1, TODAY.plusDays(7), 2),
+                new RecurringAdvance(2, null, 2)), TODAY);
+        verify(writeEvents).apply(deltas);
+        verify(sketchAccumulator).record(samples);
+        verify(totalExpensesAccumulator).add(ID_VALID, Money.ofCents(3_050));
+        verify(forecastCache).invalidate(Set.of(ID_VALID));
+        verifyNoInteractions(expenseRepository);
+    }
+}
@@ -0,0 +1,123 @@
+package test.recurring;
+
+import com.example.expensetracker.ExpenseTrackerApplication;
+import com.example.expensetracker.details.UserDetailsImpl;
+import com.example.expensetracker.dto.RecurringTransactionDto;
+import com.example.expensetracker.dto.RecurringTransactionRequestDto;
+import com.example.expensetracker.model.Category;
+import com.example.expensetracker.model.RecurringTransaction;
+import com.example.expensetracker.model.Role;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.recurring.RecurringDueTimer;
+import com.example.expensetracker.repository.CategoryRepository;
+import com.example.expensetracker.repository.RecurringTransactionRepository;
+import com.example.expensetracker.repository.UserRepository;
+import com.example.expensetracker.service.RecurringTransactionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static test.util.Constants.*;
+import static test.util.TestUtils.createAndSaveUser;
+
+@SpringBootTest(classes = {ExpenseTrackerApplication.class}, properties = {
+        "app.expenses.recurring.timer-enabled=true",
+        "app.expenses.recurring.timer-tick=50ms",
+        "app.expenses.recurring.timer-spread=0s",
+        "app.expenses.recurring.timer-sweep-interval=200ms"})
+@ActiveProfiles("test")
+@DirtiesContext
+public class RecurringDueTimerIT {
+
+    @Autowired
+    private RecurringTransactionService recurringService;
+
+    @Autowired
+    private RecurringDueTimer dueTimer;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private RecurringTransactionRepository recurringRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private LocalDate today() {
+        return LocalDate.now(ZoneId.of("Europe/Moscow"));
+    }
+
+    @Test
+    void createRecurringTransaction_shouldFireRuleDueToday_withoutWaitingForCron() throws Exception {
+        User user = createAndSaveUser(USER_EMAIL, Role.USER, userRepository);
+        Category category = categoryRepository.save(new Category(CATEGORY_NAME));
+
+        RecurringTransactionDto created = recurringService.createRecurringTransaction(new UserDetailsImpl(user),
+                new RecurringTransactionRequestDto(new BigDecimal("9.99"), DESCRIPTION, category.getId(), 7));
+
+        awaitNextExecutionDate(created.getId(), today().plusDays(7));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM expenses WHERE user_id = ?", Integer.class,
+                user.getId())).isEqualTo(1);
+        assertThat(dueTimer.isRunning()).isTrue();
+        assertThat(dueTimer.size()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void toggleActive_shouldCancelAndRescheduleRule() throws Exception {
+        User user = createAndSaveUser(USER_EMAIL, Role.USER, userRepository);
+        Category category = categoryRepository.save(new Category(CATEGORY_NAME));
+        RecurringTransaction recurring = new RecurringTransaction(new BigDecimal("3.00"), DESCRIPTION, category, user,
+                30, today().plusDays(1));
+        recurringRepository.save(recurring);
+
+        recurringService.toggleActive(recurring.getId());
+        recurringService.toggleActive(recurring.getId());
+        jdbcTemplate.update("UPDATE recurring_transactions SET next_execution_date = ? WHERE id = ?",
+                today().minusDays(1), recurring.getId());
+        recurringService.toggleActive(recurring.getId());
+        recurringService.toggleActive(recurring.getId());
+
+        awaitNextExecutionDate(recurring.getId(), today().plusDays(30));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM expenses", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void sweep_shouldFireRuleCreatedOnAnotherNode() throws Exception {
+        User user = createAndSaveUser(USER_EMAIL, Role.USER, userRepository);
+        Category category = categoryRepository.save(new Category(CATEGORY_NAME));
+        // Вставка в обход сервиса — как правило, созданное на другом узле: в очередь этого узла оно не попало.
+        Long id = jdbcTemplate.queryForObject("""
+                INSERT INTO recurring_transactions (amount, description, category_id, user_id, interval_days,
+                    next_execution_date, active)
+                VALUES (5.00, ?, ?, ?, 10, ?, true) RETURNING id
+                """, Long.class, DESCRIPTION, category.getId(), user.getId(), today());
+
+        awaitNextExecutionDate(id, today().plusDays(10));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM expenses WHERE user_id = ?", Integer.class,
+                user.getId())).isEqualTo(1);
+    }
+
+    private void awaitNextExecutionDate(Long id, LocalDate expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        LocalDate actual;
+        do {
+            Thread.sleep(50);
+            actual = jdbcTemplate.queryForObject("SELECT next_execution_date FROM recurring_transactions WHERE id = ?",
+                    LocalDate.class, id);
+        } while (!expected.equals(actual) && System.nanoTime() < deadline);
+        assertThat(actual).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,139 @@
+package test.recurring;
+
+import com.example.expensetracker.config.ExpenseRecurringProperties;
+import com.example.expensetracker.recurring.RecurringDueTimer;
+import com.example.expensetracker.recurring.RecurringSchedule;
+import com.example.expensetracker.recurring.RecurringScheduleRepository;
+import com.example.expensetracker.recurring.RecurringTransactionProcessor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class RecurringDueTimerTest {
+
+    private static final Clock CLOCK = Clock.system(ZoneId.of("Europe/Moscow"));
+    private static final LocalDate TODAY = LocalDate.now(CLOCK);
+
+    @Mock
+    private RecurringScheduleRepository scheduleRepository;
+
+    @Mock
+    private RecurringTransactionProcessor processor;
+
+    private RecurringDueTimer timer;
+
+    @AfterEach
+    void tearDown() {
+        if (timer != null && timer.isRunning()) {
+            timer.stop();
+        }
+    }
+
+    private RecurringDueTimer timer(int chunkSize) {
+        return timer(chunkSize, Duration.ofMinutes(10));
+    }
+
+    private RecurringDueTimer timer(int chunkSize, Duration sweepInterval) {
+        timer = new RecurringDueTimer(scheduleRepository, processor,
+                new ExpenseRecurringProperties(chunkSize, 2, Duration.ofMinutes(1), false, true,
+                        Duration.ofMillis(10), Duration.ZERO, sweepInterval),
+                CLOCK, new SimpleMeterRegistry());
+        return timer;
+    }
+
+    private void awaitSize(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (timer.size() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(timer.size()).isEqualTo(expected);
+    }
+
+    @Test
+    void start_shouldLoadScheduleInPages_andFireDueRules() throws Exception {
+        when(scheduleRepository.activeAfter(0, 2)).thenReturn(List.of(
+                new RecurringSchedule(1, TODAY.minusDays(3)), new RecurringSchedule(2, TODAY)));
+        when(scheduleRepository.activeAfter(2, 2)).thenReturn(List.of(
+                new RecurringSchedule(3, TODAY.plusDays(5))));
+        when(scheduleRepository.schedules(List.of(1L, 2L))).thenReturn(List.of(
+                new RecurringSchedule(1, TODAY.plusDays(30)), new RecurringSchedule(2, TODAY.plusDays(7))));
+
+        timer(2).start();
+
+        verify(processor, timeout(5_000)).processRules(List.of(1L, 2L), TODAY);
+        verify(scheduleRepository, timeout(5_000)).schedules(List.of(1L, 2L));
+        awaitSize(3);
+        verify(processor, after(100).never()).processRules(eq(List.of(3L)), any());
+    }
+
+    @Test
+    void fire_shouldDropRulesDisabledMeanwhile_andRetryRulesStillDue() throws Exception {
+        when(scheduleRepository.activeAfter(anyLong(), anyInt())).thenReturn(List.of(
+                new RecurringSchedule(1, TODAY), new RecurringSchedule(2, TODAY)), List.of());
+        when(processor.processRules(List.of(1L, 2L), TODAY)).thenThrow(new IllegalStateException("boom"));
+        when(scheduleRepository.schedules(List.of(1L, 2L))).thenReturn(List.of(new RecurringSchedule(1, TODAY)));
+
+        timer(10).start();
+
+        verify(scheduleRepository, timeout(5_000)).schedules(List.of(1L, 2L));
+        awaitSize(1);
+        verify(processor, after(100)).processRules(List.of(1L, 2L), TODAY);
+    }
+
+    @Test
+    void cancelled_shouldRemoveRuleBeforeItFires() {
+        lenient().when(scheduleRepository.activeAfter(anyLong(), anyInt())).thenReturn(List.of());
+        RecurringDueTimer timer = timer(10);
+        timer.start();
+
+        timer.scheduled(7L, TODAY.plusDays(1));
+        assertThat(timer.size()).isEqualTo(1);
+        timer.cancelled(7L);
+        timer.scheduled(8L, TODAY);
+
+        verify(processor, timeout(5_000)).processRules(List.of(8L), TODAY);
+        verify(processor, never()).processRules(eq(List.of(7L)), any());
+    }
+
+    @Test
+    void sweep_shouldScheduleRulesCreatedOnOtherNodes_inPages() throws Exception {
+        LocalDate tomorrow = TODAY.plusDays(1);
+        when(scheduleRepository.activeAfter(anyLong(), anyInt())).thenReturn(List.of());
+        when(scheduleRepository.dueAfter(tomorrow, LocalDate.EPOCH, 0, 2)).thenReturn(List.of(
+                new RecurringSchedule(4, TODAY.minusDays(1)), new RecurringSchedule(5, tomorrow)));
+        lenient().when(scheduleRepository.dueAfter(tomorrow, tomorrow, 5, 2)).thenReturn(List.of(
+                new RecurringSchedule(6, tomorrow)));
+        when(scheduleRepository.schedules(List.of(4L)))
+                .thenReturn(List.of(new RecurringSchedule(4, TODAY.plusDays(6))));
+
+        timer(2, Duration.ofMillis(50)).start();
+
+        verify(processor, timeout(5_000)).processRules(List.of(4L), TODAY);
+        verify(scheduleRepository, timeout(5_000).atLeastOnce()).dueAfter(tomorrow, tomorrow, 5, 2);
+        awaitSize(3);
+        verify(processor, after(200).times(1)).processRules(List.of(4L), TODAY);
+    }
+}
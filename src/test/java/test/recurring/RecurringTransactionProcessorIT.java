@@ -0,0 +1,295 @@
+package test.recurring;
+
+import com.example.expensetracker.ExpenseTrackerApplication;
+import com.example.expensetracker.model.Category;
+import com.example.expensetracker.model.RecurrenceFrequency;
+import com.example.expensetracker.model.RecurringTransaction;
+import com.example.expensetracker.model.Role;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.recurring.Recurrence;
+import com.example.expensetracker.recurring.RecurringCatchUpPlan;
+import com.example.expensetracker.recurring.RecurringRunResult;
+import com.example.expensetracker.recurring.RecurringTransactionProcessor;
+import com.example.expensetracker.repository.CategoryRepository;
+import com.example.expensetracker.repository.RecurringTransactionRepository;
+import com.example.expensetracker.repository.UserRepository;
+import com.example.expensetracker.totals.TotalExpensesFlusher;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static test.util.Constants.*;
+import static test.util.TestUtils.createAndSaveUser;
+
+@SpringBootTest(classes = {ExpenseTrackerApplication.class}, properties = {"app.expenses.recurring.chunk-size=2", "app.expenses.recurring.workers=2"})
+@ActiveProfiles("test")
+public class RecurringTransactionProcessorIT {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 9, 10);
+    private static final int RULES = 120;
+    private static final int NODES = 3;
+
+    @Autowired
+    private RecurringTransactionProcessor processor;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private RecurringTransactionRepository recurringRepository;
+
+    @Autowired
+    private TotalExpensesFlusher totalExpensesFlusher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Test
+    void process_shouldCreateExpensesForActiveDueRulesInChunks_andAdvanceThem() {
+        User user = createAndSaveUser(USER_EMAIL, Role.USER, userRepository);
+        User admin = createAndSaveUser(ADMIN_EMAIL, Role.ADMIN, userRepository);
+        Category category = categoryRepository.save(new Category(CATEGORY_NAME));
+        RecurringTransaction rent = rule(user, category, "100.00", 30, TODAY.minusDays(3));
+        RecurringTransaction gym = rule(user, category, "20.50", 7, TODAY);
+        RecurringTransaction phone = rule(admin, category, "5.00", 1, TODAY.minusDays(1));
+        RecurringTransaction future = rule(user, category, "1.00", 1, TODAY.plusDays(1));
+        RecurringTransaction paused = rule(admin, category, "2.00", 1, TODAY);
+        paused.setActive(false);
+        recurringRepository.saveAll(List.of(rent, gym, phone, future, paused));
+
+        RecurringRunResult result = processor.process(TODAY);
+
+        assertThat(result.created()).isEqualTo(3);
+        assertThat(result.failed()).isZero();
+        assertThat(nextExecutionDate(rent)).isEqualTo(TODAY.plusDays(30));
+        assertThat(nextExecutionDate(gym)).isEqualTo(TODAY.plusDays(7));
+        assertThat(nextExecutionDate(phone)).isEqualTo(TODAY.plusDays(1));
+        assertThat(nextExecutionDate(future)).isEqualTo(TODAY.plusDays(1));
+        assertThat(nextExecutionDate(paused)).isEqualTo(TODAY);
+        assertThat(jdbcTemplate.queryForList("SELECT amount FROM expenses WHERE occurred_at = ? ORDER BY amount",
+                BigDecimal.class, TODAY.atStartOfDay()))
+                .containsExactly(new BigDecimal("5.00"), new BigDecimal("20.50"), new BigDecimal("100.00"));
+        totalExpensesFlusher.flush();
+        assertThat(jdbcTemplate.queryForObject("SELECT total_expenses FROM users WHERE id = ?", BigDecimal.class,
+                user.getId())).isEqualByComparingTo("120.50");
+
+        assertThat(processor.process(TODAY)).isEqualTo(new RecurringRunResult(0, 0, 0));
+    }
+
+    @Test
+    void catchUp_shouldCreateEveryMissedOccurrence_andMoveRulesToFirstFutureDate() {
+        User user = createAndSaveUser(USER_EMAIL, Role.USER, userRepository);
+        Category category = categoryRepository.save(new Category(CATEGORY_NAME));
+        RecurringTransaction weekly = rule(user, category, "10.00", 7, TODAY.minusDays(20));
+        RecurringTransaction daily = rule(user, category, "1.50", 1, TODAY.minusDays(2));
+        RecurringTransaction monthly = rule(user, category, "100.00", 30, TODAY);
+        RecurringTransaction future = rule(user, category, "1.00", 1, TODAY.plusDays(1));
+        recurringRepository.saveAll(List.of(weekly, daily, monthly, future));
+
+        assertThat(processor.planCatchUp(TODAY)).isEqualTo(new RecurringCatchUpPlan(3, 7));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM expenses", Integer.class)).isZero();
+
+        RecurringRunResult result = processor.catchUp(TODAY);
+
+        assertThat(result.created()).isEqualTo(7);
+        assertThat(result.failed()).isZero();
+        assertThat(nextExecutionDate(weekly)).isEqualTo(TODAY.plusDays(1));
+        assertThat(nextExecutionDate(daily)).isEqualTo(TODAY.plusDays(1));
+        assertThat(nextExecutionDate(monthly)).isEqualTo(TODAY.plusDays(30));
+        assertThat(nextExecutionDate(future)).isEqualTo(TODAY.plusDays(1));
+        assertThat(jdbcTemplate.queryForList("SELECT occurred_at FROM expenses WHERE amount = 10.00 ORDER BY occurred_at",
+                LocalDateTime.class)).containsExactly(TODAY.minusDays(20).atStartOfDay(),
+                TODAY.minusDays(13).atStartOfDay(), TODAY.minusDays(6).atStartOfDay());
+        assertThat(jdbcTemplate.queryForObject("SELECT SUM(expense_count) FROM expense_daily_rollup WHERE user_id = ?",
+                Long.class, user.getId())).isEqualTo(7);
+        assertThat(jdbcTemplate.queryForObject("SELECT SUM(amount) FROM expense_daily_rollup WHERE user_id = ?",
+                BigDecimal.class, user.getId())).isEqualByComparingTo("134.50");
+        totalExpensesFlusher.flush();
+        assertThat(jdbcTemplate.queryForObject("SELECT total_expenses FROM users WHERE id = ?", BigDecimal.class,
+                user.getId())).isEqualByComparingTo("134.50");
+
+        assertThat(processor.planCatchUp(TODAY)).isEqualTo(new RecurringCatchUpPlan(0, 0));
+        assertThat(processor.catchUp(TODAY).created()).isZero();
+    }
+
+    @Test
+    void process_shouldMoveCalendarRulesAlongTheirGrid_andDeactivateExhaustedRules() {
+        User user = createAndSaveUser(USER_EMAIL, Role.USER, userRepository);
+        Category category = categoryRepository.save(new Category(CATEGORY_NAME));
+        RecurringTransaction rent = calendarRule(user, category, RecurrenceFrequency.MONTHLY, LocalDate.of(2025, 8, 31));
+        rent.setByMonthDay(Recurrence.LAST_DAY);
+        RecurringTransaction lessons = calendarRule(user, category, RecurrenceFrequency.WEEKLY, TODAY.minusDays(2));
+        lessons.setByWeekdays(Recurrence.weekdays(List.of(DayOfWeek.MONDAY, DayOfWeek.THURSDAY)));
+        RecurringTransaction last = rule(user, category, "1.00", 1, TODAY);
+        last.setMaxOccurrences(3);
+        last.setOccurrences(2);
+        recurringRepository.saveAll(List.of(rent, lessons, last));
+
+        assertThat(processor.process(TODAY).created()).isEqualTo(3);
+
+        assertThat(nextExecutionDate(rent)).isEqualTo(LocalDate.of(2025, 9, 30));
+        assertThat(nextExecutionDate(lessons)).isEqualTo(LocalDate.of(2025, 9, 11));
+        assertThat(jdbcTemplate.queryForMap("SELECT active, occurrences FROM recurring_transactions WHERE id = ?",
+                last.getId())).containsEntry("active", false).containsEntry("occurrences", 3);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM expenses WHERE occurred_at = ?", Integer.class,
+                TODAY.atStartOfDay())).isEqualTo(3);
+    }
+
+    @Test
+    void catchUp_shouldCreateMissedCalendarOccurrences_andRespectUntilAndCount() {
+        User user = createAndSaveUser(USER_EMAIL, Role.USER, userRepository);
+        Category category = categoryRepository.save(new Category(CATEGORY_NAME));
+        RecurringTransaction rent = calendarRule(user, category, RecurrenceFrequency.MONTHLY, LocalDate.of(2025, 7, 31));
+        rent.setByMonthDay(Recurrence.LAST_DAY);
+        RecurringTransaction lunch = calendarRule(user, category, RecurrenceFrequency.WEEKLY, TODAY.minusDays(6));
+        lunch.setByWeekdays(Recurrence.weekdays(EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY)));
+        RecurringTransaction counted = rule(user, category, "1.00", 1, TODAY.minusDays(5));
+        counted.setMaxOccurrences(3);
+        RecurringTransaction insurance = calendarRule(user, category, RecurrenceFrequency.YEARLY, LocalDate.of(2025, 3, 1));
+        insurance.setByMonthDay(1);
+        insurance.setUntilDate(LocalDate.of(2025, 12, 31));
+        recurringRepository.saveAll(List.of(rent, lunch, counted, insurance));
+
+        assertThat(processor.planCatchUp(TODAY)).isEqualTo(new RecurringCatchUpPlan(4, 11));
+
+        assertThat(processor.catchUp(TODAY).created()).isEqualTo(11);
+
+        assertThat(occurrences(rent)).containsExactly(LocalDate.of(2025, 7, 31), LocalDate.of(2025, 8, 31));
+        assertThat(nextExecutionDate(rent)).isEqualTo(LocalDate.of(2025, 9, 30));
+        assertThat(nextExecutionDate(lunch)).isEqualTo(TODAY.plusDays(1));
+        assertThat(jdbcTemplate.queryForList("SELECT active FROM recurring_transactions WHERE id IN (?, ?)",
+                Boolean.class, counted.getId(), insurance.getId())).containsExactly(false, false);
+        assertThat(jdbcTemplate.queryForObject("SELECT SUM(occurrences) FROM recurring_transactions", Long.class))
+                .isEqualTo(11);
+        assertThat(processor.planCatchUp(TODAY)).isEqualTo(new RecurringCatchUpPlan(0, 0));
+    }
+
+    @Test
+    void process_shouldCreateEachOccurrenceExactlyOnce_whenNodesRunConcurrently() throws Exception {
+        User user = createAndSaveUser(USER_EMAIL, Role.USER, userRepository);
+        Category category = categoryRepository.save(new Category(CATEGORY_NAME));
+        List<RecurringTransaction> rules = new ArrayList<>();
+        for (int i = 0; i < RULES; i++) {
+            RecurringTransaction recurring = rule(user, category, "1.00", 1 + i % 30, TODAY.minusDays(i % 5));
+            recurring.setDescription("rule-" + i);
+            rules.add(recurring);
+        }
+        recurringRepository.saveAll(rules);
+
+        ExecutorService nodes = Executors.newFixedThreadPool(NODES);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<RecurringRunResult>> runs = new ArrayList<>();
+        try {
+            for (int node = 0; node < NODES; node++) {
+                runs.add(nodes.submit(() -> {
+                    start.await();
+                    return processor.process(TODAY);
+                }));
+            }
+            start.countDown();
+            int created = 0;
+            for (Future<RecurringRunResult> run : runs) {
+                RecurringRunResult result = run.get(60, TimeUnit.SECONDS);
+                assertThat(result.failed()).isZero();
+                created += result.created();
+            }
+            assertThat(created).isEqualTo(RULES);
+        } finally {
+            nodes.shutdownNow();
+        }
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM expenses", Integer.class)).isEqualTo(RULES);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT description) FROM expenses WHERE description LIKE 'rule-%'", Integer.class))
+                .isEqualTo(RULES);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM recurring_transactions WHERE next_execution_date <= ?", Integer.class, TODAY))
+                .isZero();
+    }
+
+    @Test
+    void process_shouldSkipRulesClaimedByAnotherNode_andPickThemUpAfterItDies() throws Exception {
+        User user = createAndSaveUser(USER_EMAIL, Role.USER, userRepository);
+        Category category = categoryRepository.save(new Category(CATEGORY_NAME));
+        RecurringTransaction claimed = rule(user, category, "10.00", 30, TODAY);
+        RecurringTransaction free = rule(user, category, "20.00", 30, TODAY);
+        recurringRepository.saveAll(List.of(claimed, free));
+
+        try (Connection otherNode = DriverManager.getConnection(dataSourceProperties.getUrl(),
+                dataSourceProperties.getUsername(), dataSourceProperties.getPassword())) {
+            otherNode.setAutoCommit(false);
+            try (Statement statement = otherNode.createStatement()) {
+                statement.executeQuery("SELECT id FROM recurring_transactions WHERE id = " + claimed.getId()
+                        + " FOR UPDATE");
+            }
+            Integer pid = queryPid(otherNode);
+
+            assertThat(processor.process(TODAY).created()).isEqualTo(1);
+            assertThat(nextExecutionDate(claimed)).isEqualTo(TODAY);
+
+            jdbcTemplate.queryForObject("SELECT pg_terminate_backend(?)", Boolean.class, pid);
+        }
+
+        assertThat(processor.process(TODAY).created()).isEqualTo(1);
+        assertThat(nextExecutionDate(claimed)).isEqualTo(TODAY.plusDays(30));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM expenses", Integer.class)).isEqualTo(2);
+    }
+
+    private static Integer queryPid(Connection connection) throws Exception {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT pg_backend_pid()")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private static RecurringTransaction rule(User user, Category category, String amount, int intervalDays,
+                                             LocalDate next) {
+        return new RecurringTransaction(new BigDecimal(amount), DESCRIPTION, category, user, intervalDays, next);
+    }
+
+    private static RecurringTransaction calendarRule(User user, Category category, RecurrenceFrequency frequency,
+                                                     LocalDate next) {
+        RecurringTransaction recurring = rule(user, category, "10.00", 1, next);
+        recurring.setFrequency(frequency);
+        recurring.setDescription(frequency.name());
+        return recurring;
+    }
+
+    private List<LocalDate> occurrences(RecurringTransaction recurring) {
+        return jdbcTemplate.queryForList("SELECT CAST(occurred_at AS date) FROM expenses WHERE description = ?"
+                + " ORDER BY occurred_at", LocalDate.class, recurring.getDescription());
+    }
+
+    private LocalDate nextExecutionDate(RecurringTransaction recurring) {
+        return jdbcTemplate.queryForObject("SELECT next_execution_date FROM recurring_transactions WHERE id = ?",
+                LocalDate.class, recurring.getId());
+    }
+}
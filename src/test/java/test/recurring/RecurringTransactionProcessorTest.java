@@ -0,0 +1,150 @@
+package test.recurring;
+
+import com.example.expensetracker.config.ExpenseRecurringProperties;
+import com.example.expensetracker.model.RecurringTransaction;
+import com.example.expensetracker.recurring.RecurringChunkWriter;
+import com.example.expensetracker.recurring.RecurringRunResult;
+import com.example.expensetracker.recurring.RecurringScheduleRepository;
+import com.example.expensetracker.recurring.RecurringTransactionProcessor;
+import com.example.expensetracker.repository.RecurringTransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import test.util.TestData;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class RecurringTransactionProcessorTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 9, 1);
+    private static final Duration LEASE = Duration.ofSeconds(30);
+
+    @Mock
+    private RecurringScheduleRepository scheduleRepository;
+
+    @Mock
+    private RecurringTransactionRepository recurringRepository;
+
+    @Mock
+    private RecurringChunkWriter chunkWriter;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    private RecurringTransactionProcessor processor(int workers) {
+        return new RecurringTransactionProcessor(scheduleRepository, recurringRepository, chunkWriter,
+                transactionTemplate, new ExpenseRecurringProperties(2, workers, LEASE, false, false,
+                Duration.ofSeconds(1), Duration.ZERO, Duration.ofMinutes(10)), registry);
+    }
+
+    private static List<RecurringTransaction> rules(long... ids) {
+        return Arrays.stream(ids).mapToObj(id -> {
+            RecurringTransaction recurring = TestData.recurringTransaction();
+            recurring.setId(id);
+            return recurring;
+        }).toList();
+    }
+
+    @Test
+    void process_shouldClaimAndWriteChunksUntilNothingLeft() {
+        when(scheduleRepository.claim(TODAY, List.of(), 2)).thenReturn(List.of(1L, 2L), List.of(5L), List.of());
+        when(recurringRepository.findAllWithUserAndCategory(List.of(1L, 2L))).thenReturn(rules(1, 2));
+        when(recurringRepository.findAllWithUserAndCategory(List.of(5L))).thenReturn(rules(5));
+        when(chunkWriter.write(any(), eq(TODAY))).thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+
+        RecurringRunResult result = processor(1).process(TODAY);
+
+        assertThat(result).isEqualTo(new RecurringRunResult(3, 0, 2));
+        verify(scheduleRepository, times(3)).lease(LEASE);
+        assertThat(registry.get("expenses.recurring.created").counter().count()).isEqualTo(3);
+        assertThat(registry.get("expenses.recurring.run").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void process_shouldExcludeFailedChunkFromLaterClaims() {
+        when(scheduleRepository.claim(eq(TODAY), anyCollection(), eq(2))).thenAnswer(invocation ->
+                invocation.<Collection<Long>>getArgument(1).isEmpty() ? List.of(1L, 2L) : List.of());
+        when(recurringRepository.findAllWithUserAndCategory(List.of(1L, 2L))).thenReturn(rules(1, 2));
+        when(chunkWriter.write(any(), eq(TODAY))).thenThrow(new IllegalStateException("boom"));
+
+        RecurringRunResult result = processor(1).process(TODAY);
+
+        assertThat(result).isEqualTo(new RecurringRunResult(0, 2, 1));
+        verify(scheduleRepository).claim(eq(TODAY), eq(List.of(1L, 2L)), eq(2));
+        assertThat(registry.get("expenses.recurring.failed").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void process_shouldStop_whenClaimFails() {
+        when(scheduleRepository.claim(TODAY, List.of(), 2)).thenThrow(new IllegalStateException("db down"));
+
+        assertThat(processor(1).process(TODAY)).isEqualTo(new RecurringRunResult(0, 0, 0));
+        verifyNoInteractions(chunkWriter);
+    }
+
+    @Test
+    void process_shouldRunWorkersInParallel_andSumTheirChunks() {
+        when(scheduleRepository.claim(eq(TODAY), anyCollection(), anyInt()))
+                .thenReturn(List.of(1L, 2L), List.of(3L, 4L), List.of());
+        when(recurringRepository.findAllWithUserAndCategory(any())).thenAnswer(invocation ->
+                rules(invocation.<List<Long>>getArgument(0).stream().mapToLong(Long::longValue).toArray()));
+        when(chunkWriter.write(any(), eq(TODAY))).thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+
+        RecurringRunResult result = processor(3).process(TODAY);
+
+        assertThat(result).isEqualTo(new RecurringRunResult(4, 0, 2));
+    }
+
+    @Test
+    void catchUp_shouldWriteClaimedRulesWithoutLoadingEntities() {
+        when(scheduleRepository.claim(TODAY, List.of(), 2)).thenReturn(List.of(1L, 2L), List.of());
+        when(chunkWriter.catchUp(List.of(1L, 2L), TODAY)).thenReturn(9);
+
+        RecurringRunResult result = processor(1).catchUp(TODAY);
+
+        assertThat(result).isEqualTo(new RecurringRunResult(9, 0, 1));
+        verify(chunkWriter, never()).write(any(), any());
+        verifyNoInteractions(recurringRepository);
+    }
+
+    @Test
+    void processRules_shouldWriteOnlyClaimedRules() {
+        when(scheduleRepository.claimRules(List.of(1L, 2L), TODAY)).thenReturn(List.of(2L));
+        when(recurringRepository.findAllWithUserAndCategory(List.of(2L))).thenReturn(rules(2));
+        when(chunkWriter.write(any(), eq(TODAY))).thenReturn(1);
+
+        assertThat(processor(1).processRules(List.of(1L, 2L), TODAY)).isEqualTo(1);
+        verify(scheduleRepository).lease(LEASE);
+        assertThat(registry.get("expenses.recurring.created").counter().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,210 @@
+package test.report;
+
+import com.example.expensetracker.ExpenseTrackerApplication;
+import com.example.expensetracker.details.UserDetailsImpl;
+import com.example.expensetracker.dto.CategorySumDto;
+import com.example.expensetracker.dto.ExpenseRequestDto;
+import com.example.expensetracker.dto.ExpensesReportDto;
+import com.example.expensetracker.dto.MonthlyReportDto;
+import com.example.expensetracker.imports.ExpenseImportFormat;
+import com.example.expensetracker.imports.ExpenseImportService;
+import com.example.expensetracker.model.Category;
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.Month;
+import com.example.expensetracker.model.Role;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.report.ReportDimension;
+import com.example.expensetracker.report.ReportQueryEngine;
+import com.example.expensetracker.report.ReportResult;
+import com.example.expensetracker.report.ReportSpec;
+import com.example.expensetracker.repository.CategoryRepository;
+import com.example.expensetracker.repository.ExpenseRepository;
+import com.example.expensetracker.repository.UserRepository;
+import com.example.expensetracker.service.ExpenseService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.assertj.core.api.recursive.comparison.RecursiveComparisonConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static test.util.Constants.*;
+import static test.util.TestUtils.createAndSaveUser;
+
+/**
+ * Сверяет закэшированные месячные отчёты, обновлённые дельтами, с отчётом, посчитанным SQL по expenses.
+ */
+@SpringBootTest(classes = {ExpenseTrackerApplication.class})
+@ActiveProfiles("test")
+public class MonthlyReportCacheIT {
+
+    private static final YearMonth SEPTEMBER = YearMonth.of(2025, 9);
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ExpenseImportService importService;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ReportQueryEngine reportEngine;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private static Instant at(LocalDate day, int hour) {
+        return day.atTime(hour, 0).atZone(ZONE).toInstant();
+    }
+
+    private List<CategorySumDto> sqlReport(User user, YearMonth month) {
+        return expenseRepository.sumByCategoryForUserBetween(user.getId(),
+                month.atDay(1).atStartOfDay(ZONE).toInstant(),
+                month.plusMonths(1).atDay(1).atStartOfDay(ZONE).toInstant().minusNanos(1000));
+    }
+
+    private double misses() {
+        return meterRegistry.get("expenses.reports.monthly.cache.requests").tag("result", "miss").counter().count();
+    }
+
+    @Test
+    void cachedReport_shouldMatchSql_afterDeltaUpdates() {
+        User user = createAndSaveUser(USER_EMAIL, Role.USER, userRepository);
+        UserDetailsImpl currentUser = new UserDetailsImpl(user);
+        List<Category> categories = List.of(categoryRepository.save(new Category(CATEGORY_NAME)),
+                categoryRepository.save(new Category("transport")),
+                categoryRepository.save(new Category("rent")));
+        Random random = new Random(7);
+
+        expenseService.addExpense(currentUser, new Expense(null, null, BigDecimal.TEN,
+                at(SEPTEMBER.atDay(1), 10), categories.get(0), DESCRIPTION));
+        expenseService.getReportMonthly(Month.SEPTEMBER, SEPTEMBER.getYear(), currentUser);
+        expenseService.getReportMonthly(Month.OCTOBER, SEPTEMBER.getYear(), currentUser);
+        double missesAfterWarmUp = misses();
+
+        List<Expense> added = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            LocalDate day = SEPTEMBER.atDay(1).plusDays(random.nextInt(45));
+            Category category = random.nextInt(5) == 0 ? null : categories.get(random.nextInt(categories.size()));
+            added.add(expenseService.addExpense(currentUser, new Expense(null, null,
+                    BigDecimal.valueOf(random.nextInt(10_000) + 1, 2), at(day, random.nextInt(24)), category,
+                    DESCRIPTION)));
+        }
+        for (int i = 0; i < added.size(); i += 3) {
+            expenseService.deleteExpense(currentUser, added.get(i).getId());
+        }
+        expenseService.addExpenses(currentUser, List.of(
+                new ExpenseRequestDto(new BigDecimal("3.30"), at(SEPTEMBER.atDay(20), 12),
+                        categories.get(2).getId(), DESCRIPTION),
+                new ExpenseRequestDto(new BigDecimal("4.40"), at(SEPTEMBER.atEndOfMonth(), 23),
+                        categories.get(1).getId(), DESCRIPTION)));
+        importService.importExpenses(currentUser, ExpenseImportFormat.CSV, new ByteArrayInputStream("""
+                amount,occurred_at,category,description
+                5.55,%s,rent,
+                6.66,%s,transport,
+                """.formatted(at(SEPTEMBER.atDay(5), 8), at(SEPTEMBER.plusMonths(1).atDay(2), 8))
+                .getBytes(StandardCharsets.UTF_8)));
+
+        for (YearMonth month : List.of(SEPTEMBER, SEPTEMBER.plusMonths(1))) {
+            ExpensesReportDto cached = expenseService.getReportMonthly(
+                    Month.values()[month.getMonthValue() - 1], month.getYear(), currentUser);
+            List<CategorySumDto> expected = sqlReport(user, month);
+            assertThat(cached.byCategory())
+                    .as("month %s", month)
+                    .usingRecursiveFieldByFieldElementComparator(RecursiveComparisonConfiguration.builder()
+                            .withComparatorForType(BigDecimal::compareTo, BigDecimal.class).build())
+                    .containsExactlyInAnyOrderElementsOf(expected);
+            assertThat(cached.total()).isEqualByComparingTo(expected.stream()
+                    .map(CategorySumDto::sum).reduce(BigDecimal.ZERO, BigDecimal::add));
+        }
+        assertThat(misses()).isEqualTo(missesAfterWarmUp);
+    }
+
+    @Test
+    void monthlyRange_shouldMatchSqlPerMonth_andReuseCachedMonths() {
+        User user = createAndSaveUser(USER_EMAIL, Role.USER, userRepository);
+        UserDetailsImpl currentUser = new UserDetailsImpl(user);
+        List<Category> categories = List.of(categoryRepository.save(new Category(CATEGORY_NAME)),
+                categoryRepository.save(new Category("transport")));
+        Random random = new Random(11);
+        for (int i = 0; i < 60; i++) {
+            YearMonth month = SEPTEMBER.plusMonths(random.nextInt(2) * 2);
+            Category category = random.nextInt(5) == 0 ? null : categories.get(random.nextInt(categories.size()));
+            expenseService.addExpense(currentUser, new Expense(null, null,
+                    BigDecimal.valueOf(random.nextInt(10_000) + 1, 2),
+                    at(month.atDay(1 + random.nextInt(month.lengthOfMonth())), random.nextInt(24)), category,
+                    DESCRIPTION));
+        }
+        List<YearMonth> months = List.of(SEPTEMBER, SEPTEMBER.plusMonths(1), SEPTEMBER.plusMonths(2),
+                SEPTEMBER.plusMonths(3));
+
+        expenseService.getReportMonthly(Month.SEPTEMBER, SEPTEMBER.getYear(), currentUser);
+        double missesBefore = misses();
+        List<MonthlyReportDto> range = expenseService.getReportMonthlyRange(currentUser, SEPTEMBER, months.size());
+        assertThat(misses()).isEqualTo(missesBefore + 3);
+        assertThat(expenseService.getReportMonthlyRange(currentUser, SEPTEMBER, months.size()))
+                .usingRecursiveComparison().isEqualTo(range);
+        assertThat(misses()).isEqualTo(missesBefore + 3);
+
+        ReportSpec spec = ReportSpec.months(user.getId(), SEPTEMBER, months.get(months.size() - 1), ZONE,
+                ReportDimension.MONTH, ReportDimension.CATEGORY);
+        ReportResult raw = reportEngine.run(spec, false);
+        ReportResult rollup = reportEngine.run(spec, true);
+        assertThat(range).extracting(MonthlyReportDto::month).containsExactlyElementsOf(months);
+        for (MonthlyReportDto item : range) {
+            List<CategorySumDto> expected = sqlReport(user, item.month());
+            for (ExpensesReportDto report : List.of(item.report(), raw.categoryReport(List.of(item.month())),
+                    rollup.categoryReport(List.of(item.month())))) {
+                assertThat(report.byCategory())
+                        .as("month %s", item.month())
+                        .usingRecursiveFieldByFieldElementComparator(RecursiveComparisonConfiguration.builder()
+                                .withComparatorForType(BigDecimal::compareTo, BigDecimal.class).build())
+                        .containsExactlyInAnyOrderElementsOf(expected);
+                assertThat(report.total()).isEqualByComparingTo(expected.stream()
+                        .map(CategorySumDto::sum).reduce(BigDecimal.ZERO, BigDecimal::add));
+            }
+        }
+        assertThat(range.get(1).report().byCategory()).isEmpty();
+        assertThat(range.get(3).report().total()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void cachedReport_shouldUseNewName_afterCategoryRenamed() {
+        User user = createAndSaveUser(USER_EMAIL, Role.USER, userRepository);
+        UserDetailsImpl currentUser = new UserDetailsImpl(user);
+        Category category = categoryRepository.save(new Category(CATEGORY_NAME));
+        expenseService.addExpense(currentUser, new Expense(null, null, BigDecimal.TEN,
+                at(SEPTEMBER.atDay(1), 10), category, DESCRIPTION));
+        expenseService.getReportMonthly(Month.SEPTEMBER, SEPTEMBER.getYear(), currentUser);
+
+        category.setName("groceries");
+        categoryRepository.save(category);
+        expenseService.addExpense(currentUser, new Expense(null, null, BigDecimal.ONE,
+                at(SEPTEMBER.atDay(2), 10), category, DESCRIPTION));
+
+        ExpensesReportDto report = expenseService.getReportMonthly(Month.SEPTEMBER, SEPTEMBER.getYear(), currentUser);
+        assertThat(report.byCategory()).extracting(CategorySumDto::categoryName).containsExactly("groceries");
+        assertThat(report.total()).isEqualByComparingTo("11");
+    }
+}
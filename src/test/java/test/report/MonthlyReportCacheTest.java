@@ -0,0 +1,247 @@
+package test.report;
+
+import com.example.expensetracker.config.ExpenseReportProperties;
+import com.example.expensetracker.dto.CategorySumDto;
+import com.example.expensetracker.dto.ExpensesReportDto;
+import com.example.expensetracker.report.MonthlyReportCache;
+import com.example.expensetracker.report.ReportDimension;
+import com.example.expensetracker.repository.CategoryRepository;
+import com.example.expensetracker.rollup.DailyRollupDeltas;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import test.util.TestData;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static test.util.Constants.CATEGORY_NAME;
+import static test.util.Constants.ID_CATEGORY;
+import static test.util.Constants.ID_VALID;
+
+@ExtendWith(MockitoExtension.class)
+public class MonthlyReportCacheTest {
+
+    private static final YearMonth SEPTEMBER = YearMonth.of(2025, 9);
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private MonthlyReportCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new MonthlyReportCache(categoryRepository,
+                new ExpenseReportProperties(true, 100, 2, Duration.ofHours(1)), registry);
+        lenient().when(categoryRepository.findById(ID_CATEGORY)).thenReturn(Optional.of(TestData.category()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static Supplier<ExpensesReportDto> report(String... sums) {
+        return () -> {
+            List<CategorySumDto> items = Arrays.stream(sums)
+                    .map(sum -> new CategorySumDto(CATEGORY_NAME, new BigDecimal(sum)))
+                    .toList();
+            BigDecimal total = items.stream().map(CategorySumDto::sum).reduce(BigDecimal.ZERO, BigDecimal::add);
+            return new ExpensesReportDto(total, items);
+        };
+    }
+
+    private static DailyRollupDeltas added(LocalDate day, Long categoryId, String amount) {
+        DailyRollupDeltas deltas = new DailyRollupDeltas();
+        deltas.add(ID_VALID, day, categoryId, new BigDecimal(amount));
+        return deltas;
+    }
+
+    private static DailyRollupDeltas removed(LocalDate day, Long categoryId, String amount) {
+        DailyRollupDeltas deltas = new DailyRollupDeltas();
+        deltas.remove(ID_VALID, day, categoryId, new BigDecimal(amount));
+        return deltas;
+    }
+
+    private double counter(String name, String result) {
+        return result == null ? registry.get(name).counter().count()
+                : registry.get(name).tag("result", result).counter().count();
+    }
+
+    @Test
+    void get_shouldLoadOnceAndServeHitsFromMemory() {
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<ExpensesReportDto> loader = () -> {
+            loads.incrementAndGet();
+            return report("100").get();
+        };
+
+        cache.get(ID_VALID, SEPTEMBER, loader);
+        ExpensesReportDto result = cache.get(ID_VALID, SEPTEMBER, loader);
+
+        assertThat(loads).hasValue(1);
+        assertThat(result.total()).isEqualByComparingTo("100");
+        assertThat(counter("expenses.reports.monthly.cache.requests", "miss")).isEqualTo(1);
+        assertThat(counter("expenses.reports.monthly.cache.requests", "hit")).isEqualTo(1);
+    }
+
+    @Test
+    void record_shouldApplyDeltasToCachedMonthWithoutReload() {
+        cache.get(ID_VALID, SEPTEMBER, report("100"));
+
+        cache.record(added(SEPTEMBER.atDay(3), ID_CATEGORY, "25.50"));
+        cache.record(added(SEPTEMBER.atDay(4), null, "1000"));
+        cache.record(added(SEPTEMBER.plusMonths(1).atDay(1), ID_CATEGORY, "7"));
+
+        ExpensesReportDto result = cache.get(ID_VALID, SEPTEMBER, () -> {
+            throw new AssertionError("must not reload");
+        });
+        assertThat(result.total()).isEqualByComparingTo("1125.50");
+        assertThat(result.byCategory()).extracting(CategorySumDto::categoryName)
+                .containsExactlyInAnyOrder(CATEGORY_NAME, ReportDimension.UNCATEGORIZED);
+        assertThat(counter("expenses.reports.monthly.cache.deltas", null)).isEqualTo(2);
+    }
+
+    @Test
+    void record_shouldDropCategory_whenSumReachesZero() {
+        cache.get(ID_VALID, SEPTEMBER, report("100"));
+
+        cache.record(removed(SEPTEMBER.atDay(3), ID_CATEGORY, "100"));
+
+        ExpensesReportDto result = cache.get(ID_VALID, SEPTEMBER, report());
+        assertThat(result.byCategory()).isEmpty();
+        assertThat(result.total()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void record_shouldApplyOnlyAfterCommit() {
+        cache.get(ID_VALID, SEPTEMBER, report("100"));
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.record(added(SEPTEMBER.atDay(3), ID_CATEGORY, "10"));
+        assertThat(cache.get(ID_VALID, SEPTEMBER, report()).total()).isEqualByComparingTo("100");
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertThat(cache.get(ID_VALID, SEPTEMBER, report()).total()).isEqualByComparingTo("110");
+    }
+
+    @Test
+    void get_shouldNotCacheReport_whenDeltaAppliedWhileLoading() {
+        ExpensesReportDto first = cache.get(ID_VALID, SEPTEMBER, () -> {
+            cache.record(added(SEPTEMBER.atDay(3), ID_CATEGORY, "10"));
+            return report("100").get();
+        });
+
+        ExpensesReportDto second = cache.get(ID_VALID, SEPTEMBER, report("110"));
+
+        assertThat(first.total()).isEqualByComparingTo("100");
+        assertThat(second.total()).isEqualByComparingTo("110");
+        assertThat(counter("expenses.reports.monthly.cache.requests", "miss")).isEqualTo(2);
+    }
+
+    @Test
+    void get_shouldNotCacheReport_whenLoadedBetweenCommitAndAfterCommit() {
+        cache.get(ID_VALID, SEPTEMBER.plusMonths(1), report("1"));
+        TransactionSynchronizationManager.initSynchronization();
+        cache.record(added(SEPTEMBER.atDay(3), ID_CATEGORY, "10"));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // Строки уже закоммичены, afterCommit ещё не вызван.
+        ExpensesReportDto committed = cache.get(ID_VALID, SEPTEMBER, report("110"));
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertThat(committed.total()).isEqualByComparingTo("110");
+        assertThat(cache.get(ID_VALID, SEPTEMBER, report("110")).total()).isEqualByComparingTo("110");
+        assertThat(cache.get(ID_VALID, SEPTEMBER, report()).total()).isEqualByComparingTo("110");
+        assertThat(counter("expenses.reports.monthly.cache.requests", "miss")).isEqualTo(3);
+    }
+
+    @Test
+    void get_shouldCacheReport_afterRolledBackWriteCompletes() {
+        TransactionSynchronizationManager.initSynchronization();
+        cache.record(added(SEPTEMBER.atDay(3), ID_CATEGORY, "10"));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        cache.get(ID_VALID, SEPTEMBER, report("100"));
+
+        assertThat(cache.get(ID_VALID, SEPTEMBER, report()).total()).isEqualByComparingTo("100");
+    }
+
+    @Test
+    void categoryChanged_shouldEvictReportsAndCategoryName() {
+        cache.get(ID_VALID, SEPTEMBER, report("100"));
+        cache.record(added(SEPTEMBER.atDay(3), ID_CATEGORY, "10"));
+
+        cache.categoryChanged(ID_CATEGORY);
+        cache.get(ID_VALID, SEPTEMBER, report("110"));
+        cache.record(added(SEPTEMBER.atDay(4), ID_CATEGORY, "5"));
+
+        assertThat(cache.get(ID_VALID, SEPTEMBER, report()).total()).isEqualByComparingTo("115");
+        assertThat(counter("expenses.reports.monthly.cache.requests", "miss")).isEqualTo(2);
+        verify(categoryRepository, times(2)).findById(ID_CATEGORY);
+    }
+
+    @Test
+    void get_shouldEvictLeastRecentlyReadMonth_whenUserLimitReached() {
+        cache.get(ID_VALID, SEPTEMBER, report("1"));
+        cache.get(ID_VALID, SEPTEMBER.plusMonths(1), report("2"));
+        cache.get(ID_VALID, SEPTEMBER, report("1"));
+        cache.get(ID_VALID, SEPTEMBER.plusMonths(2), report("3"));
+
+        cache.get(ID_VALID, SEPTEMBER, report("1"));
+        cache.get(ID_VALID, SEPTEMBER.plusMonths(1), report("2"));
+
+        assertThat(counter("expenses.reports.monthly.cache.requests", "hit")).isEqualTo(2);
+        assertThat(counter("expenses.reports.monthly.cache.requests", "miss")).isEqualTo(4);
+    }
+
+    @Test
+    void getAll_shouldLoadOnlyMissingMonthsInOneCall() {
+        cache.get(ID_VALID, SEPTEMBER.plusMonths(1), report("2"));
+        List<List<YearMonth>> loads = new ArrayList<>();
+
+        Map<YearMonth, ExpensesReportDto> result = cache.getAll(ID_VALID,
+                List.of(SEPTEMBER, SEPTEMBER.plusMonths(1), SEPTEMBER.plusMonths(2)), missing -> {
+                    loads.add(missing);
+                    return Map.of(SEPTEMBER, report("1").get(), SEPTEMBER.plusMonths(1), report("99").get(),
+                            SEPTEMBER.plusMonths(2), report().get());
+                });
+
+        assertThat(loads).containsExactly(List.of(SEPTEMBER, SEPTEMBER.plusMonths(2)));
+        assertThat(result).containsOnlyKeys(SEPTEMBER, SEPTEMBER.plusMonths(1), SEPTEMBER.plusMonths(2));
+        assertThat(result.keySet()).containsExactly(SEPTEMBER, SEPTEMBER.plusMonths(1), SEPTEMBER.plusMonths(2));
+        assertThat(result.get(SEPTEMBER.plusMonths(1)).total()).isEqualByComparingTo("2");
+        assertThat(result.get(SEPTEMBER.plusMonths(2)).byCategory()).isEmpty();
+        assertThat(cache.get(ID_VALID, SEPTEMBER.plusMonths(2), report("3")).total()).isEqualByComparingTo("0");
+        assertThat(counter("expenses.reports.monthly.cache.requests", "hit")).isEqualTo(2);
+        assertThat(counter("expenses.reports.monthly.cache.requests", "miss")).isEqualTo(3);
+    }
+}
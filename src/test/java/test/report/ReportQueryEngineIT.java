@@ -0,0 +1,169 @@
+package test.report;
+
+import com.example.expensetracker.ExpenseTrackerApplication;
+import com.example.expensetracker.details.UserDetailsImpl;
+import com.example.expensetracker.dto.CategorySumDto;
+import com.example.expensetracker.dto.ExpensesReportDto;
+import com.example.expensetracker.model.Category;
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.Role;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.report.ReportDimension;
+import com.example.expensetracker.report.ReportQueryEngine;
+import com.example.expensetracker.report.ReportResult;
+import com.example.expensetracker.report.ReportRow;
+import com.example.expensetracker.report.ReportSpec;
+import com.example.expensetracker.repository.CategoryRepository;
+import com.example.expensetracker.repository.ExpenseRepository;
+import com.example.expensetracker.repository.UserRepository;
+import com.example.expensetracker.service.ExpenseService;
+import org.assertj.core.api.recursive.comparison.RecursiveComparisonConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static test.util.Constants.*;
+import static test.util.TestUtils.createAndSaveUser;
+
+/**
+ * Сверяет отчёты {@link ReportQueryEngine} по expenses и по дневным агрегатам с JPQL-запросами по expenses.
+ */
+@SpringBootTest(classes = {ExpenseTrackerApplication.class})
+@ActiveProfiles("test")
+public class ReportQueryEngineIT {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    private static final RecursiveComparisonConfiguration BY_VALUE = RecursiveComparisonConfiguration.builder()
+            .withComparatorForType(BigDecimal::compareTo, BigDecimal.class).build();
+
+    @Autowired
+    private ReportQueryEngine reportEngine;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static Instant at(LocalDateTime time) {
+        return time.atZone(ZONE).toInstant();
+    }
+
+    @Test
+    void categoryReport_shouldMatchJpql_forFullAndPartialDays() {
+        User user = createAndSaveUser(USER_EMAIL, Role.USER, userRepository);
+        UserDetailsImpl currentUser = new UserDetailsImpl(user);
+        Category food = categoryRepository.save(new Category(CATEGORY_NAME));
+        LocalDate day = LocalDate.of(2025, 9, 10);
+        for (int hour = 0; hour < 24; hour += 5) {
+            expenseService.addExpense(currentUser, new Expense(null, null, new BigDecimal(hour + 1),
+                    at(day.atTime(hour, 30)), hour % 2 == 0 ? food : null, DESCRIPTION));
+            expenseService.addExpense(currentUser, new Expense(null, null, BigDecimal.ONE,
+                    at(day.plusDays(1).atTime(hour, 0)), food, DESCRIPTION));
+        }
+
+        List<List<LocalDateTime>> periods = List.of(
+                List.of(day.atStartOfDay(), day.plusDays(2).atStartOfDay().minusNanos(1)),
+                List.of(day.atTime(6, 0), day.plusDays(1).atTime(10, 0)),
+                List.of(day.atTime(5, 30), day.atTime(15, 30)),
+                List.of(day.minusDays(3).atStartOfDay(), day.plusDays(1).atStartOfDay()));
+        for (List<LocalDateTime> period : periods) {
+            Instant from = at(period.get(0));
+            Instant to = at(period.get(1));
+            ReportSpec spec = ReportSpec.between(user.getId(), from, to, ReportDimension.CATEGORY);
+            List<CategorySumDto> expected = expenseRepository.sumByCategoryForUserBetween(user.getId(), from, to);
+            for (boolean fromRollup : List.of(false, true)) {
+                ExpensesReportDto report = reportEngine.run(spec, fromRollup).categoryReport(List.of());
+                assertThat(report.byCategory())
+                        .as("period %s, rollup %s", period, fromRollup)
+                        .usingRecursiveFieldByFieldElementComparator(BY_VALUE)
+                        .containsExactlyInAnyOrderElementsOf(expected);
+                assertThat(report.total())
+                        .isEqualByComparingTo(expenseRepository.totalForUserBetween(user.getId(), from, to));
+            }
+        }
+    }
+
+    @Test
+    void rollupReport_shouldReturnGroupsSubtotalsAndGrandTotalInOneResult() {
+        User user = createAndSaveUser(USER_EMAIL, Role.USER, userRepository);
+        UserDetailsImpl currentUser = new UserDetailsImpl(user);
+        Category food = categoryRepository.save(new Category(CATEGORY_NAME));
+        LocalDate september = LocalDate.of(2025, 9, 1);
+        expenseService.addExpense(currentUser, new Expense(null, null, new BigDecimal("10.00"),
+                at(september.atTime(9, 0)), food, DESCRIPTION));
+        expenseService.addExpense(currentUser, new Expense(null, null, new BigDecimal("2.50"),
+                at(september.plusDays(3).atTime(9, 0)), null, DESCRIPTION));
+        expenseService.addExpense(currentUser, new Expense(null, null, new BigDecimal("4.00"),
+                at(september.plusMonths(1).atTime(23, 0)), food, DESCRIPTION));
+        Expense deleted = expenseService.addExpense(currentUser, new Expense(null, null, new BigDecimal("8.00"),
+                at(september.plusMonths(2).atTime(12, 0)), food, DESCRIPTION));
+        expenseService.deleteExpense(currentUser, deleted.getId());
+
+        ReportSpec spec = ReportSpec.months(user.getId(), YearMonth.of(2025, 9), YearMonth.of(2025, 11), ZONE,
+                ReportDimension.MONTH, ReportDimension.CATEGORY);
+        for (boolean fromRollup : List.of(false, true)) {
+            ReportResult result = reportEngine.run(spec, fromRollup);
+
+            assertThat(result.rows())
+                    .as("rollup %s", fromRollup)
+                    .extracting(ReportRow::keys, row -> row.amount().setScale(2), ReportRow::count)
+                    .containsExactly(
+                            tuple(List.of(YearMonth.of(2025, 9), CATEGORY_NAME), new BigDecimal("10.00"), 1L),
+                            tuple(List.of(YearMonth.of(2025, 9), ReportDimension.UNCATEGORIZED),
+                                    new BigDecimal("2.50"), 1L),
+                            tuple(List.of(YearMonth.of(2025, 9)), new BigDecimal("12.50"), 2L),
+                            tuple(List.of(YearMonth.of(2025, 10), CATEGORY_NAME), new BigDecimal("4.00"), 1L),
+                            tuple(List.of(YearMonth.of(2025, 10)), new BigDecimal("4.00"), 1L),
+                            tuple(List.of(), new BigDecimal("16.50"), 3L));
+        }
+    }
+
+    @Test
+    void dayReport_shouldApplyCategoryFilter() {
+        User user = createAndSaveUser(USER_EMAIL, Role.USER, userRepository);
+        UserDetailsImpl currentUser = new UserDetailsImpl(user);
+        Category food = categoryRepository.save(new Category(CATEGORY_NAME));
+        Category rent = categoryRepository.save(new Category("rent"));
+        LocalDate day = LocalDate.of(2025, 9, 10);
+        for (int i = 0; i < 6; i++) {
+            Category category = i % 3 == 0 ? food : i % 3 == 1 ? rent : null;
+            expenseService.addExpense(currentUser, new Expense(null, null, new BigDecimal(i + 1),
+                    at(day.plusDays(i % 2).atTime(12, 0)), category, DESCRIPTION));
+        }
+
+        ReportSpec spec = ReportSpec.between(user.getId(), at(day.atStartOfDay()), at(day.plusDays(2).atTime(6, 0)),
+                ReportDimension.DAY).withCategories(List.of(food.getId()));
+        for (boolean fromRollup : List.of(false, true)) {
+            ReportResult result = reportEngine.run(spec, fromRollup);
+
+            assertThat(result.rows(1))
+                    .extracting(row -> row.keys().get(0), row -> row.amount().setScale(2))
+                    .containsExactly(tuple(day, new BigDecimal("1.00")),
+                            tuple(day.plusDays(1), new BigDecimal("4.00")));
+            assertThat(result.total()).isEqualByComparingTo(jdbcTemplate.queryForObject(
+                    "SELECT SUM(amount) FROM expenses WHERE category_id = ?", BigDecimal.class, food.getId()));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package test.report;
+
+import com.example.expensetracker.dto.CategorySumDto;
+import com.example.expensetracker.dto.ExpensesReportDto;
+import com.example.expensetracker.report.ReportDimension;
+import com.example.expensetracker.report.ReportResult;
+import com.example.expensetracker.report.ReportRow;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static test.util.Constants.CATEGORY_NAME;
+
+public class ReportResultTest {
+
+    private static final YearMonth SEPTEMBER = YearMonth.of(2025, 9);
+    private static final YearMonth OCTOBER = YearMonth.of(2025, 10);
+
+    private static ReportRow row(String amount, long count, Object... keys) {
+        return new ReportRow(List.of(keys), new BigDecimal(amount), count);
+    }
+
+    private final ReportResult result = new ReportResult(List.of(ReportDimension.MONTH, ReportDimension.CATEGORY),
+            List.of(row("10", 2, SEPTEMBER, CATEGORY_NAME),
+                    row("2.50", 1, SEPTEMBER, ReportDimension.UNCATEGORIZED),
+                    row("12.50", 3, SEPTEMBER),
+                    row("4", 1, OCTOBER, CATEGORY_NAME),
+                    row("4", 1, OCTOBER),
+                    row("16.50", 4)));
+
+    @Test
+    void rows_shouldSplitByGroupingDepth() {
+        assertThat(result.rows(0)).extracting(ReportRow::amount).containsExactly(new BigDecimal("16.50"));
+        assertThat(result.rows(1)).extracting(row -> row.keys().get(0)).containsExactly(SEPTEMBER, OCTOBER);
+        assertThat(result.rows(2)).hasSize(3);
+        assertThat(result.total()).isEqualByComparingTo("16.50");
+    }
+
+    @Test
+    void categoryReport_shouldUseSubtotalAndChildrenOfGroup() {
+        ExpensesReportDto september = result.categoryReport(List.of(SEPTEMBER));
+
+        assertThat(september.total()).isEqualByComparingTo("12.50");
+        assertThat(september.byCategory()).extracting(CategorySumDto::categoryName, CategorySumDto::sum)
+                .containsExactly(tuple(CATEGORY_NAME, new BigDecimal("10")),
+                        tuple(ReportDimension.UNCATEGORIZED, new BigDecimal("2.50")));
+    }
+
+    @Test
+    void categoryReport_shouldBeEmpty_whenGroupHasNoExpenses() {
+        ExpensesReportDto november = result.categoryReport(List.of(OCTOBER.plusMonths(1)));
+
+        assertThat(november.total()).isEqualByComparingTo("0");
+        assertThat(november.byCategory()).isEmpty();
+    }
+
+    @Test
+    void categoryReport_shouldFail_whenNextDimensionIsNotCategory() {
+        assertThrows(IllegalStateException.class, () -> result.categoryReport(List.of()));
+    }
+}
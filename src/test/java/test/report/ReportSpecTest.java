@@ -0,0 +1,75 @@
+package test.report;
+
+import com.example.expensetracker.report.ReportDimension;
+import com.example.expensetracker.report.ReportSpec;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static test.util.Constants.ID_VALID;
+
+public class ReportSpecTest {
+
+    @Test
+    void between_shouldTurnInclusiveEndIntoExclusiveMicrosecondBound() {
+        Instant from = Instant.parse("2025-09-01T00:00:00Z");
+
+        ReportSpec spec = ReportSpec.between(ID_VALID, from, Instant.parse("2025-09-30T23:59:59.999999999Z"),
+                ReportDimension.CATEGORY);
+
+        assertThat(spec.from()).isEqualTo(from);
+        assertThat(spec.to()).isEqualTo(Instant.parse("2025-10-01T00:00:00Z"));
+        assertThat(spec.groupBy()).containsExactly(ReportDimension.CATEGORY);
+        assertThat(spec.categoryIds()).isEmpty();
+    }
+
+    @Test
+    void between_shouldCoverSingleInstant_whenFromEqualsTo() {
+        Instant at = Instant.parse("2025-09-01T10:00:00Z");
+
+        ReportSpec spec = ReportSpec.between(ID_VALID, at, at);
+
+        assertThat(spec.to()).isEqualTo(at.plusNanos(1_000));
+    }
+
+    @Test
+    void months_shouldCoverWholeMonthsInZone() {
+        ReportSpec spec = ReportSpec.months(ID_VALID, YearMonth.of(2025, 11), YearMonth.of(2026, 1),
+                ZoneOffset.ofHours(3), ReportDimension.MONTH, ReportDimension.CATEGORY);
+
+        assertThat(spec.from()).isEqualTo(Instant.parse("2025-10-31T21:00:00Z"));
+        assertThat(spec.to()).isEqualTo(Instant.parse("2026-01-31T21:00:00Z"));
+        assertThat(spec.groupBy()).containsExactly(ReportDimension.MONTH, ReportDimension.CATEGORY);
+    }
+
+    @Test
+    void withCategories_shouldKeepPeriodAndDimensions() {
+        ReportSpec spec = ReportSpec.months(ID_VALID, YearMonth.of(2025, 9), YearMonth.of(2025, 9), ZoneOffset.UTC,
+                ReportDimension.DAY).withCategories(List.of(1L, 2L));
+
+        assertThat(spec.categoryIds()).isEqualTo(Set.of(1L, 2L));
+        assertThat(spec.groupBy()).containsExactly(ReportDimension.DAY);
+    }
+
+    @Test
+    void constructor_shouldRejectInvertedPeriod() {
+        Instant now = Instant.now();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new ReportSpec(ID_VALID, now, now.minusSeconds(1), List.of(), Set.of()));
+    }
+
+    @Test
+    void constructor_shouldRejectRepeatedDimension() {
+        Instant now = Instant.now();
+
+        assertThrows(IllegalArgumentException.class, () -> new ReportSpec(ID_VALID, now, now,
+                List.of(ReportDimension.MONTH, ReportDimension.MONTH), Set.of()));
+    }
+}
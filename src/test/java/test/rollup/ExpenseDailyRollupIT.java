@@ -0,0 +1,113 @@
+package test.rollup;
+
+import com.example.expensetracker.ExpenseTrackerApplication;
+import com.example.expensetracker.details.UserDetailsImpl;
+import com.example.expensetracker.dto.ExpenseRequestDto;
+import com.example.expensetracker.imports.ExpenseImportFormat;
+import com.example.expensetracker.imports.ExpenseImportService;
+import com.example.expensetracker.model.Category;
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.RecurringTransaction;
+import com.example.expensetracker.model.Role;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.repository.CategoryRepository;
+import com.example.expensetracker.repository.RecurringTransactionRepository;
+import com.example.expensetracker.repository.UserRepository;
+import com.example.expensetracker.service.ExpenseService;
+import com.example.expensetracker.service.RecurringTransactionServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static test.util.Constants.*;
+import static test.util.TestUtils.createAndSaveUser;
+
+/**
+ * Сверяет expense_daily_rollup с расчётом по сырым строкам expenses после всех путей записи.
+ */
+@SpringBootTest(classes = {ExpenseTrackerApplication.class})
+@ActiveProfiles("test")
+public class ExpenseDailyRollupIT {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ExpenseImportService importService;
+
+    @Autowired
+    private RecurringTransactionServiceImpl recurringService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private RecurringTransactionRepository recurringRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static Instant at(LocalDateTime time) {
+        return time.atZone(ZONE).toInstant();
+    }
+
+    @Test
+    void rollup_shouldMatchExpenses_afterEveryWritePath() {
+        User user = createAndSaveUser(USER_EMAIL, Role.USER, userRepository);
+        UserDetailsImpl currentUser = new UserDetailsImpl(user);
+        Category food = categoryRepository.save(new Category(CATEGORY_NAME));
+        LocalDate day = LocalDate.of(2025, 9, 10);
+
+        Expense single = expenseService.addExpense(currentUser, new Expense(null, null, new BigDecimal("10.00"),
+                at(day.atTime(9, 0)), food, DESCRIPTION));
+        expenseService.addExpense(currentUser, new Expense(null, null, new BigDecimal("2.50"),
+                at(day.atTime(23, 59)), null, DESCRIPTION));
+        expenseService.addExpenses(currentUser, List.of(
+                new ExpenseRequestDto(new BigDecimal("4.00"), at(day.atTime(12, 0)), food.getId(), DESCRIPTION),
+                new ExpenseRequestDto(new BigDecimal("6.00"), at(day.plusDays(1).atStartOfDay()), food.getId(),
+                        DESCRIPTION)));
+        importService.importExpenses(currentUser, ExpenseImportFormat.CSV, new ByteArrayInputStream("""
+                amount,occurred_at,category,description
+                7,%s,food,
+                3,%s,,
+                """.formatted(at(day.atTime(15, 0)), at(day.plusDays(2).atTime(8, 0)))
+                .getBytes(StandardCharsets.UTF_8)));
+        recurringRepository.save(new RecurringTransaction(new BigDecimal("1.00"), DESCRIPTION, food, user, 30,
+                LocalDate.now()));
+        recurringService.processRecurringTransactions();
+        expenseService.deleteExpense(currentUser, single.getId());
+
+        Integer mismatches = jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM (
+                    (SELECT user_id, day, category_id, amount, expense_count FROM expense_daily_rollup
+                     WHERE expense_count <> 0
+                     EXCEPT
+                     SELECT user_id, occurred_at::date, category_id, SUM(amount), COUNT(*) FROM expenses
+                     GROUP BY user_id, occurred_at::date, category_id)
+                    UNION ALL
+                    (SELECT user_id, occurred_at::date, category_id, SUM(amount), COUNT(*) FROM expenses
+                     GROUP BY user_id, occurred_at::date, category_id
+                     EXCEPT
+                     SELECT user_id, day, category_id, amount, expense_count FROM expense_daily_rollup)
+                ) diff
+                """, Integer.class);
+        assertThat(mismatches).isZero();
+    }
+}
@@ -0,0 +1,29 @@
+package test.search;
+
+import com.example.expensetracker.search.ExpenseSearchCursor;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ExpenseSearchCursorTest {
+
+    @Test
+    void decode_shouldRestoreEncodedCursor_withAndWithoutScore() {
+        ExpenseSearchCursor relevance = new ExpenseSearchCursor(1.2345678f, 1_756_720_800_000L, 42);
+        ExpenseSearchCursor byDate = new ExpenseSearchCursor(null, 1_756_720_800_000L, 42);
+
+        assertThat(ExpenseSearchCursor.decode(relevance.encode())).isEqualTo(relevance);
+        assertThat(ExpenseSearchCursor.decode(byDate.encode())).isEqualTo(byDate);
+        assertThat(relevance.searchAfter()).containsExactly(1.2345678f, 1_756_720_800_000L, 42L);
+        assertThat(byDate.searchAfter()).isEqualTo(List.of(1_756_720_800_000L, 42L));
+    }
+
+    @Test
+    void decode_shouldRejectMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> ExpenseSearchCursor.decode("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> ExpenseSearchCursor.decode("MXwy"));
+    }
+}
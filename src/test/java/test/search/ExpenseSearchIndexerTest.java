@@ -0,0 +1,175 @@
+package test.search;
+
+import com.example.expensetracker.config.ExpenseSearchProperties;
+import com.example.expensetracker.dto.ExpenseReindexResultDto;
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.search.ExpenseDocument;
+import com.example.expensetracker.search.ExpenseSearchIndex;
+import com.example.expensetracker.search.ExpenseSearchIndexer;
+import com.example.expensetracker.search.ExpenseSearchRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import test.util.TestData;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static test.util.Constants.DESCRIPTION;
+import static test.util.Constants.ID_VALID;
+
+@ExtendWith(MockitoExtension.class)
+public class ExpenseSearchIndexerTest {
+
+    @Mock
+    private ExpenseSearchIndex index;
+
+    @Mock
+    private ExpenseSearchRepository repository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private ExpenseSearchIndexer indexer;
+
+    @BeforeEach
+    void setUp() {
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (indexer != null && indexer.isRunning()) {
+            indexer.stop();
+        }
+    }
+
+    private ExpenseSearchIndexer indexer(int capacity) {
+        indexer = new ExpenseSearchIndexer(index, repository, transactionTemplate,
+                new ExpenseSearchProperties(capacity, 10, Duration.ofMillis(20), Duration.ofMillis(50), 2, 100),
+                registry);
+        return indexer;
+    }
+
+    private static Expense expense(long id) {
+        Expense expense = TestData.expense();
+        expense.setId(id);
+        expense.setUser(TestData.user());
+        return expense;
+    }
+
+    @Test
+    void indexed_shouldWriteDocumentsAndDeletesInBatches() {
+        when(index.exists()).thenReturn(true);
+        ExpenseSearchIndexer indexer = indexer(100);
+        indexer.added(List.of(expense(1), expense(2)));
+        indexer.removed(expense(3));
+
+        indexer.start();
+
+        verify(index, timeout(5_000)).index(argThat(documents -> documents.size() == 2
+                && documents.get(0).getUserId().equals(ID_VALID)
+                && documents.get(1).getDescription().equals(DESCRIPTION)));
+        verify(index, timeout(5_000)).delete(List.of("3"));
+        indexer.stop();
+        assertThat(registry.get("expenses.search.indexed").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void offer_shouldDropChangesWhenQueueFull_andReindexUserLater() {
+        when(index.exists()).thenReturn(true);
+        ExpenseSearchIndexer indexer = indexer(1);
+        indexer.added(List.of(expense(1), expense(2)));
+
+        assertThat(indexer.depth()).isEqualTo(1);
+        assertThat(registry.get("expenses.search.dropped").counter().count()).isEqualTo(1);
+        assertThat(registry.get("expenses.search.dirty.users").gauge().value()).isEqualTo(1);
+
+        indexer.start();
+
+        verify(index, timeout(5_000)).deleteUser(ID_VALID);
+        verify(repository, timeout(5_000)).stream(eq(ID_VALID), any());
+    }
+
+    @Test
+    void write_shouldMarkUsersForReindex_whenElasticsearchFails() {
+        when(index.exists()).thenReturn(true);
+        doThrow(new IllegalStateException("boom")).doNothing().when(index).index(anyList());
+        ExpenseSearchIndexer indexer = indexer(100);
+        indexer.added(List.of(expense(1)));
+
+        indexer.start();
+
+        verify(index, timeout(5_000)).deleteUser(ID_VALID);
+        assertThat(registry.get("expenses.search.failed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void start_shouldBuildIndex_whenAliasIsMissing() {
+        IndexCoordinates version = IndexCoordinates.of("expenses-1");
+        when(index.exists()).thenReturn(false);
+        when(index.createVersion()).thenReturn(version);
+        List<Integer> chunks = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> chunks.add(invocation.<List<?>>getArgument(0).size()))
+                .when(index).index(anyList(), eq(version));
+        doAnswer(invocation -> {
+            Consumer<ExpenseDocument> consumer = invocation.getArgument(1);
+            for (long id = 1; id <= 3; id++) {
+                consumer.accept(new ExpenseDocument(id, ID_VALID, null, 100, Instant.now(), DESCRIPTION));
+            }
+            return null;
+        }).when(repository).stream(isNull(), any());
+
+        indexer(100).start();
+
+        verify(index, timeout(5_000)).switchTo(version);
+        assertThat(chunks).containsExactly(2, 1);
+    }
+
+    @Test
+    void rebuild_shouldSwitchAliasToNewVersion_andDropIt_whenLoadFails() throws Exception {
+        IndexCoordinates version = IndexCoordinates.of("expenses-2");
+        lenient().when(index.exists()).thenReturn(true);
+        when(index.createVersion()).thenReturn(version);
+        ExpenseSearchIndexer indexer = indexer(100);
+        indexer.start();
+
+        ExpenseReindexResultDto result = indexer.rebuild().get(5, TimeUnit.SECONDS);
+
+        assertThat(result.index()).isEqualTo("expenses-2");
+        assertThat(result.documents()).isZero();
+        verify(index).switchTo(version);
+
+        doThrow(new IllegalStateException("boom")).when(repository).stream(isNull(), any());
+        assertThat(indexer.rebuild()).failsWithin(5, TimeUnit.SECONDS);
+        verify(index).drop(version);
+    }
+}
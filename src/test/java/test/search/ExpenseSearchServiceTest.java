@@ -0,0 +1,147 @@
+package test.search;
+
+import com.example.expensetracker.details.UserDetailsImpl;
+import com.example.expensetracker.dto.ExpenseDto;
+import com.example.expensetracker.dto.ExpensePageDto;
+import com.example.expensetracker.dto.ExpenseSearchRequestDto;
+import com.example.expensetracker.model.Category;
+import com.example.expensetracker.repository.CategoryRepository;
+import com.example.expensetracker.search.ExpenseDocument;
+import com.example.expensetracker.search.ExpenseSearchCursor;
+import com.example.expensetracker.search.ExpenseSearchIndex;
+import com.example.expensetracker.search.ExpenseSearchService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import test.util.TestData;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static test.util.Constants.CATEGORY_NAME;
+import static test.util.Constants.DESCRIPTION;
+import static test.util.Constants.ID_CATEGORY;
+import static test.util.Constants.ID_VALID;
+
+@ExtendWith(MockitoExtension.class)
+public class ExpenseSearchServiceTest {
+
+    private static final Instant OCCURRED_AT = Instant.parse("2025-09-01T10:00:00Z");
+
+    @Mock
+    private ExpenseSearchIndex index;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @InjectMocks
+    private ExpenseSearchService searchService;
+
+    private final UserDetailsImpl currentUser = new UserDetailsImpl(TestData.user());
+
+    @Test
+    void search_shouldFilterByUserCategoryAndPeriod_andSortByRelevance() {
+        stubHits(List.of());
+        ExpenseSearchRequestDto request = new ExpenseSearchRequestDto();
+        request.setQ("  кофе  ");
+        request.setCategoryId(ID_CATEGORY);
+        request.setFrom(OCCURRED_AT);
+        request.setTo(OCCURRED_AT.plusSeconds(86_400));
+        request.setLimit(10);
+
+        ExpensePageDto page = searchService.search(currentUser, request);
+
+        NativeQuery query = capturedQuery();
+        String json = query.getQuery().toString();
+        assertThat(json).contains("\"userId\":{\"value\":" + ID_VALID)
+                .contains("\"categoryId\":{\"value\":" + ID_CATEGORY)
+                .contains("\"gte\":\"" + OCCURRED_AT.toEpochMilli() + "\"")
+                .contains("\"lte\":\"" + OCCURRED_AT.plusSeconds(86_400).toEpochMilli() + "\"")
+                .contains("\"query\":\"кофе\"");
+        assertThat(query.getSortOptions()).hasSize(3);
+        assertThat(query.getSortOptions().get(0).isScore()).isTrue();
+        assertThat(query.getMaxResults()).isEqualTo(11);
+        assertThat(query.getSearchAfter()).isNull();
+        assertThat(page.items()).isEmpty();
+        assertThat(page.nextCursor()).isNull();
+        verifyNoInteractions(categoryRepository);
+    }
+
+    @Test
+    void search_shouldReturnCursorOfLastItem_whenMoreHitsThanLimit() {
+        stubHits(List.of(hit(3, ID_CATEGORY), hit(2, null), hit(1, ID_CATEGORY)));
+        Category category = TestData.category();
+        when(categoryRepository.findAllById(Set.of(ID_CATEGORY))).thenReturn(List.of(category));
+        ExpenseSearchRequestDto request = new ExpenseSearchRequestDto();
+        request.setLimit(2);
+
+        ExpensePageDto page = searchService.search(currentUser, request);
+
+        assertThat(capturedQuery().getSortOptions()).hasSize(2);
+        assertThat(page.items()).extracting(ExpenseDto::id, ExpenseDto::categoryName)
+                .containsExactly(tuple(3L, CATEGORY_NAME), tuple(2L, null));
+        assertThat(page.items().get(0).amount()).isEqualByComparingTo("12.34");
+        assertThat(page.items().get(0).description()).isEqualTo(DESCRIPTION);
+        assertThat(ExpenseSearchCursor.decode(page.nextCursor()))
+                .isEqualTo(new ExpenseSearchCursor(null, OCCURRED_AT.toEpochMilli(), 2));
+    }
+
+    @Test
+    void search_shouldContinueAfterCursor() {
+        stubHits(List.of());
+        ExpenseSearchRequestDto request = new ExpenseSearchRequestDto();
+        request.setQ("кофе");
+        request.setCursor(new ExpenseSearchCursor(0.5f, OCCURRED_AT.toEpochMilli(), 7).encode());
+
+        searchService.search(currentUser, request);
+
+        assertThat(capturedQuery().getSearchAfter()).containsExactly(0.5f, OCCURRED_AT.toEpochMilli(), 7L);
+    }
+
+    @Test
+    void search_shouldRejectCursor_whenSortDoesNotMatch() {
+        ExpenseSearchRequestDto request = new ExpenseSearchRequestDto();
+        request.setCursor(new ExpenseSearchCursor(0.5f, OCCURRED_AT.toEpochMilli(), 7).encode());
+
+        assertThrows(IllegalArgumentException.class, () -> searchService.search(currentUser, request));
+        verifyNoInteractions(index);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubHits(List<SearchHit<ExpenseDocument>> hits) {
+        SearchHits<ExpenseDocument> searchHits = mock(SearchHits.class);
+        when(searchHits.getSearchHits()).thenReturn(new ArrayList<>(hits));
+        when(index.search(any())).thenReturn(searchHits);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SearchHit<ExpenseDocument> hit(long id, Long categoryId) {
+        SearchHit<ExpenseDocument> hit = mock(SearchHit.class);
+        lenient().when(hit.getContent()).thenReturn(new ExpenseDocument(id, ID_VALID, categoryId, 1234, OCCURRED_AT,
+                DESCRIPTION));
+        return hit;
+    }
+
+    private NativeQuery capturedQuery() {
+        ArgumentCaptor<NativeQuery> captor = ArgumentCaptor.forClass(NativeQuery.class);
+        verify(index).search(captor.capture());
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,44 @@
+package test.series;
+
+import com.example.expensetracker.series.ExpenseSeriesGranularity;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExpenseSeriesGranularityTest {
+
+    private static final LocalDate WEDNESDAY = LocalDate.of(2025, 9, 17);
+
+    @Test
+    void truncate_shouldAlignWithPostgresDateTrunc() {
+        assertThat(ExpenseSeriesGranularity.DAY.truncate(WEDNESDAY)).isEqualTo(WEDNESDAY);
+        assertThat(ExpenseSeriesGranularity.WEEK.truncate(WEDNESDAY)).isEqualTo(LocalDate.of(2025, 9, 15));
+        assertThat(ExpenseSeriesGranularity.WEEK.truncate(LocalDate.of(2025, 9, 15)))
+                .isEqualTo(LocalDate.of(2025, 9, 15));
+        assertThat(ExpenseSeriesGranularity.MONTH.truncate(WEDNESDAY)).isEqualTo(LocalDate.of(2025, 9, 1));
+    }
+
+    @Test
+    void buckets_shouldCoverPartialFirstAndLastBuckets() {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2026, 1, 1);
+        assertThat(ExpenseSeriesGranularity.DAY.buckets(from, to)).isEqualTo(365);
+        assertThat(ExpenseSeriesGranularity.WEEK.buckets(from, to)).isEqualTo(53);
+        assertThat(ExpenseSeriesGranularity.MONTH.buckets(from, to)).isEqualTo(12);
+        assertThat(ExpenseSeriesGranularity.MONTH.buckets(WEDNESDAY, WEDNESDAY.plusDays(1))).isEqualTo(1);
+        assertThat(ExpenseSeriesGranularity.WEEK.buckets(WEDNESDAY, WEDNESDAY.plusDays(6))).isEqualTo(2);
+    }
+
+    @Test
+    void index_shouldBeInverseOfPlus() {
+        for (ExpenseSeriesGranularity granularity : ExpenseSeriesGranularity.values()) {
+            LocalDate first = granularity.truncate(WEDNESDAY);
+            for (int i = 0; i < 400; i += 37) {
+                assertThat(granularity.index(first, granularity.plus(first, i))).as("%s %d", granularity, i)
+                        .isEqualTo(i);
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package test.series;
+
+import com.example.expensetracker.ExpenseTrackerApplication;
+import com.example.expensetracker.details.UserDetailsImpl;
+import com.example.expensetracker.dto.ExpenseSeriesDto;
+import com.example.expensetracker.dto.ExpenseSeriesRequestDto;
+import com.example.expensetracker.model.Category;
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.Role;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.repository.CategoryRepository;
+import com.example.expensetracker.repository.UserRepository;
+import com.example.expensetracker.series.ExpenseSeriesGranularity;
+import com.example.expensetracker.series.ExpenseSeriesRepository;
+import com.example.expensetracker.series.ExpenseSeriesService;
+import com.example.expensetracker.service.ExpenseService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static test.util.Constants.*;
+import static test.util.TestUtils.createAndSaveUser;
+
+/**
+ * Сверяет ряды из дневных агрегатов и из сырых строк с рядом, посчитанным в памяти по добавленным расходам.
+ */
+@SpringBootTest(classes = {ExpenseTrackerApplication.class})
+@ActiveProfiles("test")
+public class ExpenseSeriesIT {
+
+    private static final LocalDate FROM = LocalDate.of(2025, 8, 13);
+    private static final LocalDate TO = LocalDate.of(2025, 11, 5);
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ExpenseSeriesService seriesService;
+
+    @Autowired
+    private ExpenseSeriesRepository seriesRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private static long[][] expected(List<Expense> expenses, ExpenseSeriesGranularity granularity, Long categoryId) {
+        LocalDate first = granularity.truncate(FROM);
+        int size = (int) granularity.buckets(FROM, TO);
+        long[] cents = new long[size];
+        long[] counts = new long[size];
+        for (Expense expense : expenses) {
+            LocalDate day = LocalDate.ofInstant(expense.getOccurredAt(), ZONE);
+            Long category = expense.getCategory() == null ? null : expense.getCategory().getId();
+            if (day.isBefore(FROM) || !day.isBefore(TO) || (categoryId != null && !categoryId.equals(category))) {
+                continue;
+            }
+            int index = granularity.index(first, granularity.truncate(day));
+            cents[index] += expense.getAmount().movePointRight(2).longValueExact();
+            counts[index]++;
+        }
+        return new long[][]{cents, counts};
+    }
+
+    @Test
+    void series_shouldMatchExpensesForEveryGranularityAndSource() {
+        User user = createAndSaveUser(USER_EMAIL, Role.USER, userRepository);
+        UserDetailsImpl currentUser = new UserDetailsImpl(user);
+        List<Category> categories = List.of(categoryRepository.save(new Category(CATEGORY_NAME)),
+                categoryRepository.save(new Category("transport")));
+        Random random = new Random(5);
+        List<Expense> added = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            LocalDate day = FROM.minusDays(10).plusDays(random.nextInt(110));
+            if (day.getMonthValue() == 9 && day.getDayOfMonth() > 20) {
+                continue;
+            }
+            Category category = random.nextInt(4) == 0 ? null : categories.get(random.nextInt(categories.size()));
+            added.add(expenseService.addExpense(currentUser, new Expense(null, null,
+                    BigDecimal.valueOf(random.nextInt(10_000) + 1, 2),
+                    day.atTime(random.nextInt(24), random.nextInt(60)).atZone(ZONE).toInstant(), category,
+                    DESCRIPTION)));
+        }
+
+        for (ExpenseSeriesGranularity granularity : ExpenseSeriesGranularity.values()) {
+            for (Long categoryId : Arrays.asList(null, categories.get(1).getId())) {
+                long[][] expected = expected(added, granularity, categoryId);
+                for (boolean fromRollup : List.of(true, false)) {
+                    ExpenseSeriesDto series = seriesRepository.load(user.getId(), FROM, TO, granularity, categoryId,
+                            fromRollup);
+                    assertThat(series.firstBucket()).isEqualTo(granularity.truncate(FROM));
+                    assertThat(series.cents()).as("%s %s rollup=%s", granularity, categoryId, fromRollup)
+                            .containsExactly(expected[0]);
+                    assertThat(series.counts()).as("%s %s rollup=%s", granularity, categoryId, fromRollup)
+                            .containsExactly(expected[1]);
+                }
+            }
+        }
+
+        ExpenseSeriesDto daily = seriesRepository.load(user.getId(), FROM, TO, ExpenseSeriesGranularity.DAY, null,
+                true);
+        int gap = ExpenseSeriesGranularity.DAY.index(FROM, LocalDate.of(2025, 9, 25));
+        assertThat(daily.size()).isEqualTo(84);
+        assertThat(daily.cents()[gap]).isZero();
+        assertThat(daily.counts()[gap]).isZero();
+    }
+
+    @Test
+    void series_shouldThrowException_whenTooManyBuckets() {
+        User user = createAndSaveUser(USER_EMAIL, Role.USER, userRepository);
+        ExpenseSeriesRequestDto request = new ExpenseSeriesRequestDto();
+        request.setFrom(LocalDate.of(2000, 1, 1));
+        request.setTo(LocalDate.of(2025, 1, 1));
+        request.setGranularity(ExpenseSeriesGranularity.DAY);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> seriesService.series(new UserDetailsImpl(user), request));
+
+        request.setGranularity(ExpenseSeriesGranularity.MONTH);
+        assertThat(seriesService.series(new UserDetailsImpl(user), request).size()).isEqualTo(300);
+    }
+}
@@ -0,0 +1,47 @@
+package test.series;
+
+import com.example.expensetracker.dto.ExpenseSeriesDto;
+import com.example.expensetracker.series.ExpenseSeriesGranularity;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExpenseSeriesSerializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void serialize_shouldWriteDenseParallelArrays() throws Exception {
+        LocalDate from = LocalDate.of(2025, 9, 17);
+        ExpenseSeriesDto series = new ExpenseSeriesDto(from, LocalDate.of(2025, 10, 1),
+                ExpenseSeriesGranularity.WEEK, 7L, LocalDate.of(2025, 9, 15),
+                new long[]{1250, 0, 5}, new long[]{2, 0, 1});
+
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(series));
+
+        assertThat(json.get("granularity").asText()).isEqualTo("WEEK");
+        assertThat(json.get("from").asText()).isEqualTo("2025-09-17");
+        assertThat(json.get("to").asText()).isEqualTo("2025-10-01");
+        assertThat(json.get("categoryId").asLong()).isEqualTo(7L);
+        assertThat(json.get("buckets")).extracting(JsonNode::asText)
+                .containsExactly("2025-09-15", "2025-09-22", "2025-09-29");
+        assertThat(json.get("amounts")).extracting(JsonNode::doubleValue).containsExactly(12.5, 0.0, 0.05);
+        assertThat(json.get("counts")).extracting(JsonNode::asLong).containsExactly(2L, 0L, 1L);
+    }
+
+    @Test
+    void serialize_shouldWriteNullCategory_whenNotFiltered() throws Exception {
+        LocalDate day = LocalDate.of(2025, 9, 1);
+        ExpenseSeriesDto series = new ExpenseSeriesDto(day, day.plusDays(1), ExpenseSeriesGranularity.DAY, null, day,
+                new long[]{0}, new long[]{0});
+
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(series));
+
+        assertThat(json.get("categoryId").isNull()).isTrue();
+        assertThat(json.get("buckets")).hasSize(1);
+    }
+}
@@ -1,14 +1,40 @@
 package test.service;
 
+import com.example.expensetracker.budget.BudgetService;
+import com.example.expensetracker.config.ExpenseIngestProperties;
 import com.example.expensetracker.details.UserDetailsImpl;
+import com.example.expensetracker.dto.BudgetDto;
 import com.example.expensetracker.dto.CategorySumDto;
+import com.example.expensetracker.dto.ExpenseAddedDto;
+import com.example.expensetracker.dto.ExpenseFilterDto;
+import com.example.expensetracker.dto.ExpensePageDto;
+import com.example.expensetracker.dto.ExpenseRequestDto;
+import com.example.expensetracker.dto.ExpensesReportDto;
+import com.example.expensetracker.dto.MonthlyReportDto;
+import com.example.expensetracker.exception.ExpenseQueueFullException;
+import com.example.expensetracker.ingest.ExpenseIngestQueue;
+import com.example.expensetracker.ingest.QueuedExpense;
+import com.example.expensetracker.listing.ExpenseCursor;
+import com.example.expensetracker.listing.ExpenseListingRepository;
+import com.example.expensetracker.mapper.ExpenseMapper;
+import com.example.expensetracker.model.Category;
 import com.example.expensetracker.model.Expense;
 import com.example.expensetracker.model.Month;
 import com.example.expensetracker.model.User;
+import com.example.expensetracker.money.Money;
+import com.example.expensetracker.report.MonthlyReportCache;
+import com.example.expensetracker.report.ReportDimension;
+import com.example.expensetracker.report.ReportQueryEngine;
+import com.example.expensetracker.report.ReportResult;
+import com.example.expensetracker.report.ReportRow;
+import com.example.expensetracker.report.ReportSpec;
+import com.example.expensetracker.repository.CategoryRepository;
 import com.example.expensetracker.repository.ExpenseRepository;
 import com.example.expensetracker.repository.UserRepository;
+import com.example.expensetracker.snapshot.ExpenseSnapshotCache;
 import com.example.expensetracker.service.ExpenseServiceImpl;
-import com.example.expensetracker.service.UserService;
+import com.example.expensetracker.totals.TotalExpensesAccumulator;
+import com.example.expensetracker.write.ExpenseWriteEvents;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -19,9 +45,20 @@ import test.util.TestData;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -29,6 +66,7 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static test.util.Constants.AMOUNT;
 import static test.util.Constants.CATEGORY_NAME;
+import static test.util.Constants.DESCRIPTION;
 
 @ExtendWith(MockitoExtension.class)
 public class ExpenseServiceImplTest {
@@ -40,28 +78,71 @@ public class ExpenseServiceImplTest {
     private UserRepository userRepository;
 
     @Mock
-    private UserService userService;
+    private TotalExpensesAccumulator totalExpensesAccumulator;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private ExpenseMapper expenseMapper;
+
+    @Mock
+    private ExpenseIngestQueue ingestQueue;
+
+    @Mock
+    private ExpenseIngestProperties ingestProperties;
+
+    @Mock
+    private ExpenseWriteEvents writeEvents;
+
+    @Mock
+    private MonthlyReportCache monthlyReportCache;
+
+    @Mock
+    private ExpenseListingRepository listingRepository;
+
+    @Mock
+    private ExpenseSnapshotCache snapshotCache;
+
+    @Mock
+    private ReportQueryEngine reportEngine;
+
+    @Mock
+    private BudgetService budgetService;
 
     @InjectMocks
     private ExpenseServiceImpl expenseService;
 
+    private void stubReportCacheMiss() {
+        when(monthlyReportCache.get(any(), any(), any())).thenAnswer(invocation ->
+                invocation.<Supplier<ExpensesReportDto>>getArgument(2).get());
+    }
+
+    private static ReportResult categoryResult(String category, String amount) {
+        return new ReportResult(List.of(ReportDimension.CATEGORY), List.of(
+                new ReportRow(List.of(category), new BigDecimal(amount), 1),
+                new ReportRow(List.of(), new BigDecimal(amount), 1)));
+    }
+
     @Test
     void getReport_shouldReturnExpensesForPeriod() {
         User user = TestData.user();
         UserDetailsImpl currentUser = new UserDetailsImpl(user);
         Instant from = Instant.now();
         Instant to = Instant.now();
-        when(expenseRepository.sumByCategoryForUserBetween(user.getId(), from, to)).thenReturn(List.of(
-                new CategorySumDto(CATEGORY_NAME, new BigDecimal("500")),
-                new CategorySumDto("drink", new BigDecimal("300"))));
-        when(expenseRepository.totalForUserBetween(user.getId(), from, to)).thenReturn(new BigDecimal("800"));
+        ReportSpec spec = ReportSpec.between(user.getId(), from, to, ReportDimension.CATEGORY);
+        when(reportEngine.run(spec)).thenReturn(new ReportResult(List.of(ReportDimension.CATEGORY), List.of(
+                new ReportRow(List.of(CATEGORY_NAME), new BigDecimal("500"), 2),
+                new ReportRow(List.of(ReportDimension.UNCATEGORIZED), new BigDecimal("300"), 1),
+                new ReportRow(List.of(), new BigDecimal("800"), 3))));
 
         var result = expenseService.getReport(currentUser, from, to);
 
         assertThat(result.total()).isEqualByComparingTo("800");
-        assertThat(result.byCategory()).hasSize(2);
-        verify(expenseRepository).sumByCategoryForUserBetween(user.getId(), from, to);
-        verify(expenseRepository).totalForUserBetween(user.getId(), from, to);
+        assertThat(result.byCategory()).extracting(CategorySumDto::categoryName)
+                .containsExactly(CATEGORY_NAME, ReportDimension.UNCATEGORIZED);
+        verify(reportEngine).run(spec);
+        verifyNoInteractions(expenseRepository);
     }
 
     @Test
@@ -76,7 +157,9 @@ public class ExpenseServiceImplTest {
         var result = expenseService.addExpense(currentUser, expense);
 
         assertThat(result.getAmount()).isEqualByComparingTo(new BigDecimal(AMOUNT));
-        verify(userService).clearTotalExpensesCache(anyLong());
+        verify(writeEvents).added(expense);
+        verify(totalExpensesAccumulator).add(user.getId(), expense.getAmount());
+        verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
@@ -91,7 +174,164 @@ public class ExpenseServiceImplTest {
 
         assertThat(ex.getMessage()).isNotBlank();
         verify(expenseRepository, never()).save(any());
-        verify(userService, never()).clearTotalExpensesCache(anyLong());
+        verify(totalExpensesAccumulator, never()).add(any(), any(BigDecimal.class));
+    }
+
+    @Test
+    void addExpenseRequest_shouldReturnSavedExpenseWithProjectedBudget() {
+        User user = TestData.user();
+        UserDetailsImpl currentUser = new UserDetailsImpl(user);
+        Category category = TestData.category();
+        ExpenseRequestDto dto = TestData.expenseRequestDto(category.getId());
+        BudgetDto budget = new BudgetDto(category.getId(), CATEGORY_NAME, YearMonth.now(), new BigDecimal("400.00"),
+                new BigDecimal("500.00"), new BigDecimal("-100.00"), true);
+        when(categoryRepository.findById(category.getId())).thenReturn(Optional.of(category));
+        when(budgetService.projected(user.getId(), category, dto.amount(), dto.occurredAt()))
+                .thenReturn(Optional.of(budget));
+        when(expenseMapper.fromRequest(dto, category)).thenReturn(
+                new Expense(null, null, dto.amount(), dto.occurredAt(), category, DESCRIPTION));
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(expenseRepository.save(any(Expense.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ExpenseAddedDto result = expenseService.addExpense(currentUser, dto);
+
+        assertThat(result.budget()).isEqualTo(budget);
+        assertThat(result.expense().categoryName()).isEqualTo(CATEGORY_NAME);
+        assertThat(result.expense().amount()).isEqualByComparingTo(new BigDecimal(AMOUNT));
+        verify(writeEvents).added(any(Expense.class));
+        verify(totalExpensesAccumulator).add(user.getId(), dto.amount());
+    }
+
+    @Test
+    void addExpenseRequest_shouldThrowException_whenCategoryNotFound() {
+        UserDetailsImpl currentUser = new UserDetailsImpl(TestData.user());
+        ExpenseRequestDto dto = TestData.expenseRequestDto();
+        when(categoryRepository.findById(dto.categoryId())).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> expenseService.addExpense(currentUser, dto));
+
+        verify(expenseRepository, never()).save(any());
+        verifyNoInteractions(budgetService);
+    }
+
+    @Test
+    void addExpenses_shouldSaveAllAndApplyOneDelta_whenUserAndCategoriesExist() {
+        User user = TestData.user();
+        UserDetailsImpl currentUser = new UserDetailsImpl(user);
+        Category category = TestData.category();
+        List<ExpenseRequestDto> requests = List.of(TestData.expenseRequestDto(category.getId()),
+                TestData.expenseRequestDto(category.getId()), TestData.expenseRequestDto(null));
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(categoryRepository.findAllById(Set.of(category.getId()))).thenReturn(List.of(category));
+        when(expenseMapper.fromRequest(any(ExpenseRequestDto.class), any())).thenAnswer(invocation -> {
+            ExpenseRequestDto dto = invocation.getArgument(0);
+            return new Expense(null, null, dto.amount(), dto.occurredAt(), invocation.getArgument(1), DESCRIPTION);
+        });
+
+        var result = expenseService.addExpenses(currentUser, requests);
+
+        assertThat(result.saved()).isEqualTo(3);
+        assertThat(result.total()).isEqualByComparingTo(new BigDecimal(AMOUNT * 3));
+        verify(userRepository).findById(user.getId());
+        verify(categoryRepository).findAllById(Set.of(category.getId()));
+        verify(expenseRepository).saveAll(argThat(list -> {
+            List<Expense> expenses = new ArrayList<>();
+            list.forEach(expenses::add);
+            return expenses.size() == 3 && expenses.stream().allMatch(e -> e.getUser() == user);
+        }));
+        verify(totalExpensesAccumulator, times(1)).add(user.getId(), Money.of(new BigDecimal(AMOUNT * 3)));
+    }
+
+    @Test
+    void addExpenses_shouldNotQueryCategories_whenAllUncategorized() {
+        User user = TestData.user();
+        UserDetailsImpl currentUser = new UserDetailsImpl(user);
+        List<ExpenseRequestDto> requests = List.of(TestData.expenseRequestDto(null));
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(expenseMapper.fromRequest(any(ExpenseRequestDto.class), isNull())).thenReturn(TestData.expense());
+
+        var result = expenseService.addExpenses(currentUser, requests);
+
+        assertThat(result.saved()).isEqualTo(1);
+        verify(categoryRepository, never()).findAllById(any());
+        verify(expenseRepository).saveAll(anyList());
+    }
+
+    @Test
+    void addExpenses_shouldThrowException_whenCategoryNotFound() {
+        User user = TestData.user();
+        UserDetailsImpl currentUser = new UserDetailsImpl(user);
+        List<ExpenseRequestDto> requests = List.of(TestData.expenseRequestDto());
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(categoryRepository.findAllById(anySet())).thenReturn(List.of());
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> expenseService.addExpenses(currentUser, requests));
+
+        assertThat(ex.getMessage()).isEqualTo("Category not found");
+        verify(expenseRepository, never()).saveAll(any());
+        verify(totalExpensesAccumulator, never()).add(any(), any(Money.class));
+    }
+
+    @Test
+    void addExpenses_shouldThrowException_whenUserNotFound() {
+        User user = TestData.user();
+        UserDetailsImpl currentUser = new UserDetailsImpl(user);
+        List<ExpenseRequestDto> requests = List.of(TestData.expenseRequestDto());
+        when(userRepository.findById(user.getId())).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> expenseService.addExpenses(currentUser, requests));
+
+        verify(expenseRepository, never()).saveAll(any());
+        verify(totalExpensesAccumulator, never()).add(any(), any(Money.class));
+    }
+
+    @Test
+    void queueExpense_shouldSubmitWithoutWaiting_whenAwaitCommitDisabled() {
+        User user = TestData.user();
+        UserDetailsImpl currentUser = new UserDetailsImpl(user);
+        ExpenseRequestDto dto = TestData.expenseRequestDto();
+        when(categoryRepository.existsById(dto.categoryId())).thenReturn(true);
+        when(ingestQueue.submit(any(QueuedExpense.class))).thenReturn(new CompletableFuture<>());
+
+        expenseService.queueExpense(currentUser, dto);
+
+        verify(ingestQueue).submit(argThat(queued -> queued.userId().equals(user.getId()) && queued.request() == dto));
+        verifyNoInteractions(expenseRepository);
+    }
+
+    @Test
+    void queueExpense_shouldRethrowWriteError_whenAwaitCommitEnabled() {
+        UserDetailsImpl currentUser = new UserDetailsImpl(TestData.user());
+        ExpenseRequestDto dto = TestData.expenseRequestDto(null);
+        when(ingestProperties.awaitCommit()).thenReturn(true);
+        when(ingestQueue.submit(any(QueuedExpense.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("write failed")));
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> expenseService.queueExpense(currentUser, dto));
+
+        assertThat(ex.getMessage()).isEqualTo("write failed");
+    }
+
+    @Test
+    void queueExpense_shouldThrowException_whenCategoryNotFound() {
+        UserDetailsImpl currentUser = new UserDetailsImpl(TestData.user());
+        ExpenseRequestDto dto = TestData.expenseRequestDto();
+        when(categoryRepository.existsById(dto.categoryId())).thenReturn(false);
+
+        assertThrows(IllegalArgumentException.class, () -> expenseService.queueExpense(currentUser, dto));
+
+        verifyNoInteractions(ingestQueue);
+    }
+
+    @Test
+    void queueExpense_shouldPropagateBackpressure_whenQueueFull() {
+        UserDetailsImpl currentUser = new UserDetailsImpl(TestData.user());
+        ExpenseRequestDto dto = TestData.expenseRequestDto(null);
+        when(ingestQueue.submit(any(QueuedExpense.class))).thenThrow(new ExpenseQueueFullException("full"));
+
+        assertThrows(ExpenseQueueFullException.class, () -> expenseService.queueExpense(currentUser, dto));
     }
 
     @Test
@@ -104,9 +344,10 @@ public class ExpenseServiceImplTest {
 
         expenseService.deleteExpense(currentUser, expense.getId());
 
-        verify(userRepository).save(any(User.class));
+        verify(userRepository, never()).save(any(User.class));
         verify(expenseRepository).delete(any(Expense.class));
-        verify(userService).clearTotalExpensesCache(anyLong());
+        verify(writeEvents).removed(expense);
+        verify(totalExpensesAccumulator).add(user.getId(), expense.getAmount().negate());
     }
 
     @Test
@@ -122,7 +363,7 @@ public class ExpenseServiceImplTest {
         assertThat(ex.getMessage()).isNotBlank();
         verify(userRepository, never()).save(any(User.class));
         verify(expenseRepository, never()).delete(any(Expense.class));
-        verify(userService, never()).clearTotalExpensesCache(anyLong());
+        verify(totalExpensesAccumulator, never()).add(any(), any(Money.class));
     }
 
     @Test
@@ -140,31 +381,126 @@ public class ExpenseServiceImplTest {
         assertThat(ex.getMessage()).isNotBlank();
         verify(userRepository, never()).save(any(User.class));
         verify(expenseRepository, never()).delete(any(Expense.class));
-        verify(userService, never()).clearTotalExpensesCache(anyLong());
+        verify(totalExpensesAccumulator, never()).add(any(), any(Money.class));
     }
 
     @Test
     void getReportMonthly_shouldReturnExpensesForMonth_whenUserExists() {
+        stubReportCacheMiss();
         Month september = Month.SEPTEMBER;
         Integer year = 2025;
         User user = TestData.user();
         UserDetailsImpl currentUser = new UserDetailsImpl(user);
-        CategorySumDto categorySumDto = new CategorySumDto(CATEGORY_NAME, new BigDecimal(AMOUNT));
-        List<CategorySumDto> items = List.of(categorySumDto);
+        ReportSpec spec = ReportSpec.months(user.getId(), YearMonth.of(2025, 9), YearMonth.of(2025, 9),
+                ZoneId.systemDefault(), ReportDimension.CATEGORY);
         when(userRepository.findByEmail(currentUser.getUsername())).thenReturn(Optional.of(user));
-        when(expenseRepository.getMonthlyReport(eq(user), any(), any())).thenReturn(items);
+        when(reportEngine.run(spec)).thenReturn(categoryResult(CATEGORY_NAME, String.valueOf(AMOUNT)));
 
         var result = expenseService.getReportMonthly(september, year, currentUser);
 
         assertThat(result.total()).isEqualByComparingTo(new BigDecimal(AMOUNT));
         assertThat(result.byCategory().get(0)).extracting(CategorySumDto::categoryName, CategorySumDto::sum)
-                .containsExactly(categorySumDto.categoryName(), categorySumDto.sum());
+                .containsExactly(CATEGORY_NAME, new BigDecimal(AMOUNT));
         verify(userRepository).findByEmail(currentUser.getUsername());
-        verify(expenseRepository).getMonthlyReport(eq(user), any(), any());
+        verify(reportEngine).run(spec);
+    }
+
+    @Test
+    void getReport_shouldReadSnapshot_whenSnapshotEnabled() {
+        User user = TestData.user();
+        UserDetailsImpl currentUser = new UserDetailsImpl(user);
+        Instant from = Instant.now();
+        Instant to = Instant.now();
+        ExpensesReportDto report = new ExpensesReportDto(new BigDecimal("500"),
+                List.of(new CategorySumDto(CATEGORY_NAME, new BigDecimal("500"))));
+        when(snapshotCache.isEnabled()).thenReturn(true);
+        when(snapshotCache.report(user.getId(), from, to)).thenReturn(report);
+
+        var result = expenseService.getReport(currentUser, from, to);
+
+        assertThat(result).isSameAs(report);
+        verifyNoInteractions(reportEngine);
+    }
+
+    @Test
+    void getReportMonthly_shouldNotQueryDatabase_whenReportCached() {
+        User user = TestData.user();
+        UserDetailsImpl currentUser = new UserDetailsImpl(user);
+        ExpensesReportDto cached = new ExpensesReportDto(new BigDecimal(AMOUNT),
+                List.of(new CategorySumDto(CATEGORY_NAME, new BigDecimal(AMOUNT))));
+        when(monthlyReportCache.get(eq(user.getId()), eq(YearMonth.of(2025, 9)), any())).thenReturn(cached);
+
+        var result = expenseService.getReportMonthly(Month.SEPTEMBER, 2025, currentUser);
+
+        assertThat(result).isSameAs(cached);
+        verifyNoInteractions(userRepository, reportEngine);
+    }
+
+    @Test
+    void getReportMonthlyRange_shouldLoadMissingMonthsWithOneQuery() {
+        User user = TestData.user();
+        UserDetailsImpl currentUser = new UserDetailsImpl(user);
+        YearMonth september = YearMonth.of(2025, 9);
+        ExpensesReportDto cached = new ExpensesReportDto(new BigDecimal(AMOUNT),
+                List.of(new CategorySumDto(CATEGORY_NAME, new BigDecimal(AMOUNT))));
+        ReportSpec spec = ReportSpec.months(user.getId(), september.plusMonths(1), september.plusMonths(2),
+                ZoneId.systemDefault(), ReportDimension.MONTH, ReportDimension.CATEGORY);
+        when(reportEngine.run(spec)).thenReturn(new ReportResult(
+                List.of(ReportDimension.MONTH, ReportDimension.CATEGORY), List.of(
+                new ReportRow(List.of(september.plusMonths(1), CATEGORY_NAME), new BigDecimal("2.50"), 1),
+                new ReportRow(List.of(september.plusMonths(1)), new BigDecimal("2.50"), 1),
+                new ReportRow(List.of(), new BigDecimal("2.50"), 1))));
+        when(monthlyReportCache.getAll(eq(user.getId()),
+                eq(List.of(september, september.plusMonths(1), september.plusMonths(2))), any()))
+                .thenAnswer(invocation -> {
+                    Map<YearMonth, ExpensesReportDto> loaded = invocation
+                            .<Function<List<YearMonth>, Map<YearMonth, ExpensesReportDto>>>getArgument(2)
+                            .apply(List.of(september.plusMonths(1), september.plusMonths(2)));
+                    Map<YearMonth, ExpensesReportDto> result = new LinkedHashMap<>();
+                    result.put(september, cached);
+                    result.putAll(new TreeMap<>(loaded));
+                    return result;
+                });
+
+        var result = expenseService.getReportMonthlyRange(currentUser, september, 3);
+
+        assertThat(result).extracting(MonthlyReportDto::month)
+                .containsExactly(september, september.plusMonths(1), september.plusMonths(2));
+        assertThat(result.get(0).report()).isSameAs(cached);
+        assertThat(result.get(1).report().total()).isEqualByComparingTo("2.50");
+        assertThat(result.get(1).report().byCategory()).extracting(CategorySumDto::categoryName)
+                .containsExactly(CATEGORY_NAME);
+        assertThat(result.get(2).report()).isEqualTo(new ExpensesReportDto(BigDecimal.ZERO, List.of()));
+        verify(reportEngine).run(spec);
+        verifyNoInteractions(userRepository, expenseRepository);
+    }
+
+    @Test
+    void listExpenses_shouldDecodeCursorAndDelegateToListing() {
+        User user = TestData.user();
+        UserDetailsImpl currentUser = new UserDetailsImpl(user);
+        ExpenseCursor cursor = new ExpenseCursor(LocalDateTime.of(2025, 9, 1, 10, 0), 100L);
+        ExpenseFilterDto filter = new ExpenseFilterDto();
+        filter.setCursor(cursor.encode());
+        ExpensePageDto page = new ExpensePageDto(List.of(), null);
+        when(listingRepository.findPage(user.getId(), filter, cursor)).thenReturn(page);
+
+        assertThat(expenseService.listExpenses(currentUser, filter)).isSameAs(page);
+    }
+
+    @Test
+    void listExpenses_shouldThrowException_whenCursorInvalid() {
+        ExpenseFilterDto filter = new ExpenseFilterDto();
+        filter.setCursor("broken");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> expenseService.listExpenses(new UserDetailsImpl(TestData.user()), filter));
+        verifyNoInteractions(listingRepository);
     }
 
     @Test
     void getReportMonthly_shouldReturnExpensesForMonth_whenUserNotFound() {
+        stubReportCacheMiss();
         Month september = Month.SEPTEMBER;
         Integer year = 2025;
         User user = TestData.user();
@@ -176,26 +512,28 @@ public class ExpenseServiceImplTest {
 
         assertThat(ex.getMessage()).isEqualTo("User not found");
         verify(userRepository).findByEmail(currentUser.getUsername());
-        verify(expenseRepository, never()).getMonthlyReport(any(), any(), any());
+        verifyNoInteractions(reportEngine);
     }
 
     @Test
     void getReportMonthly_shouldReturnExpensesForMonth_whenUserExistsAndYearIsNull() {
+        stubReportCacheMiss();
         Month september = Month.SEPTEMBER;
         User user = TestData.user();
         UserDetailsImpl currentUser = new UserDetailsImpl(user);
-        CategorySumDto categorySumDto = new CategorySumDto(CATEGORY_NAME, new BigDecimal(AMOUNT));
-        List<CategorySumDto> items = List.of(categorySumDto);
+        YearMonth month = YearMonth.of(LocalDate.now().getYear(), 9);
+        ReportSpec spec = ReportSpec.months(user.getId(), month, month, ZoneId.systemDefault(),
+                ReportDimension.CATEGORY);
         when(userRepository.findByEmail(currentUser.getUsername())).thenReturn(Optional.of(user));
-        when(expenseRepository.getMonthlyReport(eq(user), any(), any())).thenReturn(items);
+        when(reportEngine.run(spec)).thenReturn(categoryResult(CATEGORY_NAME, String.valueOf(AMOUNT)));
 
         var result = expenseService.getReportMonthly(september, null, currentUser);
 
         assertThat(result.total()).isEqualByComparingTo(new BigDecimal(AMOUNT));
         assertThat(result.byCategory().get(0)).extracting(CategorySumDto::categoryName, CategorySumDto::sum)
-                .containsExactly(categorySumDto.categoryName(), categorySumDto.sum());
+                .containsExactly(CATEGORY_NAME, new BigDecimal(AMOUNT));
         verify(userRepository).findByEmail(currentUser.getUsername());
-        verify(expenseRepository).getMonthlyReport(eq(user), any(), any());
+        verify(reportEngine).run(spec);
     }
 }
 
@@ -1,28 +1,35 @@
 package test.service;
 
 import com.example.expensetracker.details.UserDetailsImpl;
+import com.example.expensetracker.dto.RecurringCatchUpDto;
+import com.example.expensetracker.dto.RecurringForecastDto;
 import com.example.expensetracker.dto.RecurringTransactionDto;
 import com.example.expensetracker.dto.RecurringTransactionRequestDto;
 import com.example.expensetracker.exception.UserNotFoundByIdException;
+import com.example.expensetracker.forecast.RecurringForecastCache;
 import com.example.expensetracker.mapper.RecurringTransactionMapper;
 import com.example.expensetracker.model.Category;
-import com.example.expensetracker.model.Expense;
 import com.example.expensetracker.model.RecurringTransaction;
 import com.example.expensetracker.model.User;
+import com.example.expensetracker.recurring.RecurringCatchUpPlan;
+import com.example.expensetracker.recurring.RecurringDueTimer;
+import com.example.expensetracker.recurring.RecurringRunResult;
+import com.example.expensetracker.recurring.RecurringTransactionProcessor;
 import com.example.expensetracker.repository.CategoryRepository;
-import com.example.expensetracker.repository.ExpenseRepository;
 import com.example.expensetracker.repository.RecurringTransactionRepository;
 import com.example.expensetracker.repository.UserRepository;
 import com.example.expensetracker.service.RecurringTransactionServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import test.util.TestData;
 
 import java.math.BigDecimal;
+import java.time.Clock;
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Optional;
 
@@ -35,11 +42,12 @@ import static test.util.Constants.*;
 @ExtendWith(MockitoExtension.class)
 public class RecurringTransactionServiceImplTest {
 
-    @Mock
-    private RecurringTransactionRepository recurringRepo;
+    private static final LocalDate TODAY = LocalDate.of(2025, 9, 1);
+    private static final Clock CLOCK = Clock.fixed(TODAY.atStartOfDay(ZoneId.of("Europe/Moscow")).toInstant(),
+            ZoneId.of("Europe/Moscow"));
 
     @Mock
-    private ExpenseRepository expenseRepo;
+    private RecurringTransactionRepository recurringRepo;
 
     @Mock
     private UserRepository userRepo;
@@ -50,22 +58,57 @@ public class RecurringTransactionServiceImplTest {
     @Mock
     private CategoryRepository categoryRepo;
 
-    @InjectMocks
+    @Mock
+    private RecurringTransactionProcessor processor;
+
+    @Mock
+    private RecurringDueTimer dueTimer;
+
+    @Mock
+    private RecurringForecastCache forecastCache;
+
     private RecurringTransactionServiceImpl recurringTransactionServiceImpl;
 
+    @BeforeEach
+    void setUp() {
+        recurringTransactionServiceImpl = new RecurringTransactionServiceImpl(recurringRepo, userRepo, categoryRepo,
+                mapper, processor, dueTimer, forecastCache, CLOCK);
+    }
+
     @Test
-    void processRecurringTransactions_shouldCreateNewTransactionAndUpdateDate() {
-        RecurringTransaction recurring = TestData.recurringTransaction();
-        List<RecurringTransaction> list = List.of(recurring);
-        when(recurringRepo.findAllByNextExecutionDateLessThanEqual(any(LocalDate.class))).thenReturn(list);
+    void processRecurringTransactions_shouldProcessRulesDueToday() {
+        recurringTransactionServiceImpl.processRecurringTransactions();
+
+        verify(processor).process(TODAY);
+    }
+
+    @Test
+    void processRecurringTransactions_shouldSkip_whenTimerRuns() {
+        when(dueTimer.isRunning()).thenReturn(true);
 
         recurringTransactionServiceImpl.processRecurringTransactions();
 
-        assertThat(recurring.getNextExecutionDate()).isAfter(LocalDate.now());
-        assertThat(recurring.getAmount()).isEqualByComparingTo(new BigDecimal(AMOUNT));
-        verify(recurringRepo).findAllByNextExecutionDateLessThanEqual(any());
-        verify(expenseRepo).save(any(Expense.class));
-        verify(recurringRepo).save(any(RecurringTransaction.class));
+        verifyNoInteractions(processor);
+    }
+
+    @Test
+    void catchUp_shouldOnlyReportPlan_whenDryRun() {
+        when(processor.planCatchUp(TODAY)).thenReturn(new RecurringCatchUpPlan(2, 9));
+
+        RecurringCatchUpDto result = recurringTransactionServiceImpl.catchUp(true);
+
+        assertThat(result).isEqualTo(new RecurringCatchUpDto(true, 2, 9, 0, 0));
+        verify(processor, never()).catchUp(any());
+    }
+
+    @Test
+    void catchUp_shouldRunCatchUpPass() {
+        when(processor.planCatchUp(TODAY)).thenReturn(new RecurringCatchUpPlan(2, 9));
+        when(processor.catchUp(TODAY)).thenReturn(new RecurringRunResult(9, 0, 1));
+
+        RecurringCatchUpDto result = recurringTransactionServiceImpl.catchUp(false);
+
+        assertThat(result).isEqualTo(new RecurringCatchUpDto(false, 2, 9, 9, 0));
     }
 
     @Test
@@ -127,6 +170,8 @@ public class RecurringTransactionServiceImplTest {
         verify(userRepo).findByEmail(currentUser.getUsername());
         verify(categoryRepo).findById(requestDto.categoryId());
         verify(mapper).toDto(entity);
+        verify(dueTimer).scheduled(entity.getId(), entity.getNextExecutionDate());
+        verify(forecastCache).invalidate(List.of(user.getId()));
     }
 
     @Test
@@ -177,6 +222,8 @@ public class RecurringTransactionServiceImplTest {
         verify(recurringRepo).findById(id);
         verify(recurringRepo).save(entity);
         verify(mapper).toDto(entity);
+        verify(dueTimer).cancelled(id);
+        verify(forecastCache).invalidate(List.of(entity.getUser().getId()));
     }
 
     @Test
@@ -210,5 +257,16 @@ public class RecurringTransactionServiceImplTest {
         verify(recurringRepo, never()).save(any());
         verify(mapper, never()).toDto(any());
     }
-}
 
+    @Test
+    void forecast_shouldReturnCachedForecastOfCurrentUser() {
+        User user = TestData.user();
+        UserDetailsImpl currentUser = new UserDetailsImpl(user);
+        RecurringForecastDto forecast = new RecurringForecastDto(TODAY, TODAY, BigDecimal.ZERO, 0,
+                List.of());
+        when(userRepo.findByEmail(currentUser.getUsername())).thenReturn(Optional.of(user));
+        when(forecastCache.get(user.getId(), TODAY, 12)).thenReturn(forecast);
+
+        assertThat(recurringTransactionServiceImpl.forecast(currentUser, 12)).isSameAs(forecast);
+    }
+}
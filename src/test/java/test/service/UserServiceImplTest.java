@@ -6,11 +6,14 @@ import com.example.expensetracker.logging.audit.AuditService;
 import com.example.expensetracker.model.User;
 import com.example.expensetracker.repository.UserRepository;
 import com.example.expensetracker.service.UserServiceImpl;
+import com.example.expensetracker.totals.TotalExpensesAccumulator;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -37,6 +40,9 @@ public class UserServiceImplTest {
     @Mock
     private AuditService auditService;
 
+    @Spy
+    private TotalExpensesAccumulator totalExpensesAccumulator = new TotalExpensesAccumulator(new ConcurrentMapCacheManager());
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -138,6 +144,20 @@ public class UserServiceImplTest {
         verify(userRepository).findById(id);
     }
 
+    @Test
+    void getTotalExpenses_shouldIncludePendingDeltas() {
+        User user = TestData.user();
+        user.setTotalExpenses(new BigDecimal("500"));
+        Long id = user.getId();
+        when(userRepository.findById(id)).thenReturn(Optional.of(user));
+        totalExpensesAccumulator.add(id, new BigDecimal("120.50"));
+        totalExpensesAccumulator.add(id, new BigDecimal("-20.50"));
+
+        var result = userService.getTotalExpenses(id);
+
+        assertThat(result).isEqualByComparingTo("600");
+    }
+
     @Test
     void clearTotalExpensesCache_shouldExecuteWithoutError() {
         userService.clearTotalExpensesCache(1L);
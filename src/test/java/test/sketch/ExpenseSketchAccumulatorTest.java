@@ -0,0 +1,203 @@
+package test.sketch;
+
+import com.example.expensetracker.config.ExpenseSketchProperties;
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.sketch.ExpenseSketchAccumulator;
+import com.example.expensetracker.sketch.ExpenseSketchRepository;
+import com.example.expensetracker.sketch.SketchKey;
+import com.example.expensetracker.sketch.SketchSamples;
+import com.tdunning.math.stats.MergingDigest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import test.util.TestData;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ExpenseSketchAccumulatorTest {
+
+    private static final YearMonth SEPTEMBER = YearMonth.of(2025, 9);
+
+    private final ExpenseSketchAccumulator accumulator =
+            new ExpenseSketchAccumulator(new ExpenseSketchProperties(100, Duration.ofSeconds(5), 100, 100));
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static Expense expense(String amount, LocalDate day) {
+        Expense expense = TestData.expense();
+        expense.setUser(TestData.user());
+        expense.setAmount(new BigDecimal(amount));
+        expense.setOccurredAt(day.atTime(12, 0).atZone(ZoneId.systemDefault()).toInstant());
+        return expense;
+    }
+
+    private static SketchKey key(Expense expense, YearMonth month) {
+        return new SketchKey(expense.getUser().getId(), expense.getCategory().getId(), month);
+    }
+
+    private Map<SketchKey, MergingDigest> drain() {
+        Map<SketchKey, MergingDigest> drained = new HashMap<>();
+        accumulator.flush(drained::putAll);
+        return drained;
+    }
+
+    @Test
+    void record_shouldGroupByUserCategoryAndMonth() {
+        Expense first = expense("10", SEPTEMBER.atDay(1));
+        Expense second = expense("30", SEPTEMBER.atEndOfMonth());
+        Expense october = expense("20", SEPTEMBER.plusMonths(1).atDay(1));
+
+        accumulator.added(List.of(first, second, october));
+
+        Map<SketchKey, MergingDigest> drained = drain();
+        assertThat(drained).containsOnlyKeys(key(first, SEPTEMBER), key(first, SEPTEMBER.plusMonths(1)));
+        MergingDigest september = drained.get(key(first, SEPTEMBER));
+        assertThat(september.size()).isEqualTo(2);
+        assertThat(september.getMin()).isEqualTo(10);
+        assertThat(september.getMax()).isEqualTo(30);
+        assertThat(drain()).isEmpty();
+    }
+
+    @Test
+    void record_shouldApplyOnlyAfterCommit() {
+        Expense expense = expense("10", SEPTEMBER.atDay(1));
+        TransactionSynchronizationManager.initSynchronization();
+
+        accumulator.added(List.of(expense));
+        assertThat(accumulator.withPending(expense.getUser().getId(), Map::of)).isEmpty();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(accumulator.withPending(expense.getUser().getId(), Map::of)).containsOnlyKeys(
+                key(expense, SEPTEMBER));
+    }
+
+    @Test
+    void record_shouldAddWeightedSamples() {
+        SketchKey key = new SketchKey(1L, null, SEPTEMBER);
+        SketchSamples samples = new SketchSamples();
+        samples.add(key, new BigDecimal("5"), 3);
+        samples.add(key, new BigDecimal("9"));
+
+        accumulator.record(samples);
+        accumulator.record(new SketchSamples());
+
+        Map<SketchKey, MergingDigest> drained = drain();
+        assertThat(drained).containsOnlyKeys(key);
+        assertThat(drained.get(key).size()).isEqualTo(4);
+        assertThat(drained.get(key).quantile(0.5)).isEqualTo(5);
+    }
+
+    @Test
+    void withPending_shouldMergePendingIntoPersistedSketches() {
+        Expense expense = expense("50", SEPTEMBER.atDay(1));
+        accumulator.added(List.of(expense));
+        MergingDigest persisted = accumulator.newSketch();
+        persisted.add(1);
+        persisted.add(2);
+
+        Map<SketchKey, MergingDigest> sketches = accumulator.withPending(expense.getUser().getId(),
+                () -> Map.of(key(expense, SEPTEMBER), persisted));
+
+        MergingDigest merged = sketches.get(key(expense, SEPTEMBER));
+        assertThat(merged.size()).isEqualTo(3);
+        assertThat(merged.getMax()).isEqualTo(50);
+        assertThat(accumulator.withPending(expense.getUser().getId() + 1, Map::of)).isEmpty();
+    }
+
+    @Test
+    void flush_shouldReturnSketches_whenWriterFails() {
+        Expense expense = expense("10", SEPTEMBER.atDay(1));
+        accumulator.added(List.of(expense));
+
+        assertThrows(IllegalStateException.class, () -> accumulator.flush(drained -> {
+            throw new IllegalStateException("db down");
+        }));
+        accumulator.added(List.of(expense("20", SEPTEMBER.atDay(2))));
+
+        assertThat(drain().get(key(expense, SEPTEMBER)).size()).isEqualTo(2);
+    }
+
+    @Test
+    void rebuild_shouldReplaceStaleUserAndDropPendingValues() {
+        Expense expense = expense("10", SEPTEMBER.atDay(1));
+        Long userId = expense.getUser().getId();
+        accumulator.added(List.of(expense));
+        accumulator.removed(expense);
+        MergingDigest rebuiltSketch = accumulator.newSketch();
+        Map<Long, Map<SketchKey, MergingDigest>> written = new HashMap<>();
+
+        int rebuilt = accumulator.rebuild(10, id -> Map.of(key(expense, SEPTEMBER), rebuiltSketch), written::put);
+
+        assertThat(rebuilt).isEqualTo(1);
+        assertThat(written).containsOnlyKeys(userId);
+        assertThat(written.get(userId)).containsEntry(key(expense, SEPTEMBER), rebuiltSketch);
+        assertThat(accumulator.withPending(userId, Map::of)).isEmpty();
+        assertThat(accumulator.rebuild(10, id -> Map.of(), written::put)).isZero();
+    }
+
+    @Test
+    void rebuild_shouldKeepUserStale_whenWriteStartedDuringRebuild() {
+        Expense expense = expense("10", SEPTEMBER.atDay(1));
+        Long userId = expense.getUser().getId();
+        accumulator.markStale(List.of(userId));
+        List<Long> written = new ArrayList<>();
+
+        int rebuilt = accumulator.rebuild(10, id -> {
+            TransactionSynchronizationManager.initSynchronization();
+            accumulator.added(List.of(expense));
+            return Map.of();
+        }, (id, sketches) -> written.add(id));
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> {
+            sync.afterCommit();
+            sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        });
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThat(rebuilt).isZero();
+        assertThat(written).isEmpty();
+        assertThat(accumulator.rebuild(10, id -> Map.of(), (id, sketches) -> written.add(id))).isEqualTo(1);
+        assertThat(written).containsExactly(userId);
+    }
+
+    @Test
+    void encode_shouldRoundTripMergedSketch() {
+        List<MergingDigest> months = new ArrayList<>();
+        for (int month = 0; month < 12; month++) {
+            MergingDigest sketch = accumulator.newSketch();
+            for (int i = 1; i <= 1_000; i++) {
+                sketch.add(i + month * 1_000);
+            }
+            months.add(ExpenseSketchRepository.decode(ExpenseSketchRepository.encode(sketch)));
+        }
+        MergingDigest year = accumulator.newSketch();
+        months.forEach(year::add);
+
+        byte[] bytes = ExpenseSketchRepository.encode(year);
+        MergingDigest decoded = ExpenseSketchRepository.decode(bytes);
+
+        assertThat(bytes.length).isLessThan(1_024);
+        assertThat(decoded.size()).isEqualTo(12_000);
+        assertThat(decoded.quantile(0.5)).isCloseTo(6_000, offset(120.0));
+        assertThat(decoded.quantile(0.99)).isCloseTo(11_880, offset(12.0));
+        assertThat(decoded.getMin()).isEqualTo(1);
+        assertThat(decoded.getMax()).isEqualTo(12_000);
+    }
+}
@@ -0,0 +1,237 @@
+package test.sketch;
+
+import com.example.expensetracker.ExpenseTrackerApplication;
+import com.example.expensetracker.details.UserDetailsImpl;
+import com.example.expensetracker.dto.CategoryDistributionDto;
+import com.example.expensetracker.dto.ExpenseDistributionDto;
+import com.example.expensetracker.dto.ExpenseDistributionRequestDto;
+import com.example.expensetracker.dto.ExpenseRequestDto;
+import com.example.expensetracker.imports.ExpenseImportFormat;
+import com.example.expensetracker.imports.ExpenseImportService;
+import com.example.expensetracker.model.Category;
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.RecurringTransaction;
+import com.example.expensetracker.model.Role;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.recurring.RecurringTransactionProcessor;
+import com.example.expensetracker.repository.CategoryRepository;
+import com.example.expensetracker.repository.RecurringTransactionRepository;
+import com.example.expensetracker.repository.UserRepository;
+import com.example.expensetracker.service.ExpenseService;
+import com.example.expensetracker.service.RecurringTransactionService;
+import com.example.expensetracker.sketch.ExpenseDistributionService;
+import com.example.expensetracker.sketch.ExpenseSketchFlusher;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+import static test.util.Constants.*;
+import static test.util.TestUtils.createAndSaveUser;
+
+/**
+ * Сверяет приближённые квантили из скетчей с точным рангом по expenses.
+ */
+@SpringBootTest(classes = {ExpenseTrackerApplication.class})
+@ActiveProfiles("test")
+public class ExpenseSketchIT {
+
+    private static final YearMonth FIRST = YearMonth.of(2025, 6);
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private RecurringTransactionService recurringService;
+
+    @Autowired
+    private RecurringTransactionRepository recurringRepository;
+
+    @Autowired
+    private RecurringTransactionProcessor processor;
+
+    @Autowired
+    private ExpenseImportService importService;
+
+    @Autowired
+    private ExpenseDistributionService distributionService;
+
+    @Autowired
+    private ExpenseSketchFlusher flusher;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private double rank(Long userId, Long categoryId, BigDecimal value) {
+        return jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FILTER (WHERE amount <= ?)::float8 / COUNT(*) FROM expenses
+                WHERE user_id = ? AND category_id IS NOT DISTINCT FROM ? AND occurred_at >= ? AND occurred_at < ?
+                """, Double.class, value, userId, categoryId, FIRST.atDay(1).atStartOfDay(),
+                FIRST.plusMonths(3).atDay(1).atStartOfDay());
+    }
+
+    private static ExpenseDistributionRequestDto months(YearMonth from, YearMonth to) {
+        ExpenseDistributionRequestDto request = new ExpenseDistributionRequestDto();
+        request.setFrom(from);
+        request.setTo(to);
+        return request;
+    }
+
+    @Test
+    void distribution_shouldApproximateExactQuantilesAcrossMergedMonths() {
+        User user = createAndSaveUser(USER_EMAIL, Role.USER, userRepository);
+        UserDetailsImpl currentUser = new UserDetailsImpl(user);
+        List<Category> categories = List.of(categoryRepository.save(new Category(CATEGORY_NAME)),
+                categoryRepository.save(new Category("transport")));
+        Random random = new Random(3);
+        for (int batch = 0; batch < 6; batch++) {
+            List<ExpenseRequestDto> requests = new ArrayList<>();
+            for (int i = 0; i < 1_000; i++) {
+                YearMonth month = FIRST.plusMonths(random.nextInt(3));
+                Long categoryId = random.nextInt(5) == 0 ? null : categories.get(random.nextInt(2)).getId();
+                BigDecimal amount = BigDecimal.valueOf(Math.round(Math.exp(random.nextGaussian() * 1.2 + 7)) + 1, 2);
+                requests.add(new ExpenseRequestDto(amount, month.atDay(1 + random.nextInt(28)).atTime(12, 0)
+                        .atZone(ZONE).toInstant(), categoryId, DESCRIPTION));
+            }
+            expenseService.addExpenses(currentUser, requests);
+            if (batch % 2 == 0) {
+                flusher.flush();
+            }
+        }
+        expenseService.addExpense(currentUser, new Expense(null, null, new BigDecimal("123456.78"),
+                FIRST.atDay(15).atTime(9, 0).atZone(ZONE).toInstant(), categories.get(0), DESCRIPTION));
+
+        ExpenseDistributionDto distribution = distributionService.distribution(currentUser,
+                months(FIRST, FIRST.plusMonths(2)));
+
+        assertThat(distribution.categories()).hasSize(3);
+        for (CategoryDistributionDto category : distribution.categories()) {
+            Long exactCount = jdbcTemplate.queryForObject("""
+                    SELECT COUNT(*) FROM expenses WHERE user_id = ? AND category_id IS NOT DISTINCT FROM ?
+                    """, Long.class, user.getId(), category.categoryId());
+            BigDecimal[] minMax = jdbcTemplate.queryForObject("""
+                    SELECT MIN(amount), MAX(amount) FROM expenses
+                    WHERE user_id = ? AND category_id IS NOT DISTINCT FROM ?
+                    """, (rs, n) -> new BigDecimal[]{rs.getBigDecimal(1), rs.getBigDecimal(2)},
+                    user.getId(), category.categoryId());
+            assertThat(category.count()).isEqualTo(exactCount);
+            assertThat(category.min()).isEqualByComparingTo(minMax[0]);
+            assertThat(category.max()).isEqualByComparingTo(minMax[1]);
+            assertThat(rank(user.getId(), category.categoryId(), category.p50())).as("p50 %s", category.categoryName())
+                    .isCloseTo(0.5, offset(0.02));
+            assertThat(rank(user.getId(), category.categoryId(), category.p90())).as("p90 %s", category.categoryName())
+                    .isCloseTo(0.9, offset(0.01));
+            assertThat(rank(user.getId(), category.categoryId(), category.p99())).as("p99 %s", category.categoryName())
+                    .isCloseTo(0.99, offset(0.005));
+        }
+        assertThat(distribution.categories()).extracting(CategoryDistributionDto::categoryName)
+                .contains(CATEGORY_NAME, "transport", null);
+
+        flusher.flush();
+        Integer largest = jdbcTemplate.queryForObject(
+                "SELECT MAX(octet_length(sketch)) FROM expense_quantile_sketches", Integer.class);
+        assertThat(largest).isLessThan(1_024);
+        ExpenseDistributionRequestDto june = months(FIRST, FIRST);
+        june.setCategoryId(categories.get(0).getId());
+        assertThat(distributionService.distribution(currentUser, june).categories()).singleElement()
+                .satisfies(category -> assertThat(category.max()).isEqualByComparingTo("123456.78"));
+    }
+
+    @Test
+    void distribution_shouldIncludeRecurringExpenses() {
+        User user = createAndSaveUser(USER_EMAIL, Role.USER, userRepository);
+        Category category = categoryRepository.save(new Category(CATEGORY_NAME));
+        recurringRepository.save(new RecurringTransaction(new BigDecimal("42.00"), DESCRIPTION, category, user, 30,
+                LocalDate.now()));
+
+        recurringService.processRecurringTransactions();
+
+        YearMonth now = YearMonth.now();
+        assertThat(distributionService.distribution(new UserDetailsImpl(user), months(now, now)).categories())
+                .singleElement()
+                .satisfies(item -> {
+                    assertThat(item.count()).isEqualTo(1);
+                    assertThat(item.p50()).isEqualByComparingTo("42.00");
+                });
+    }
+
+    @Test
+    void distribution_shouldIncludeCaughtUpRecurringExpenses() {
+        User user = createAndSaveUser(USER_EMAIL, Role.USER, userRepository);
+        Category category = categoryRepository.save(new Category(CATEGORY_NAME));
+        LocalDate today = LocalDate.of(2025, 9, 10);
+        recurringRepository.save(new RecurringTransaction(new BigDecimal("7.00"), DESCRIPTION, category, user, 1,
+                today.minusDays(4)));
+        recurringRepository.save(new RecurringTransaction(new BigDecimal("70.00"), DESCRIPTION, category, user, 1,
+                today));
+
+        processor.catchUp(today);
+
+        YearMonth september = YearMonth.from(today);
+        assertThat(distributionService.distribution(new UserDetailsImpl(user), months(september, september))
+                .categories())
+                .singleElement()
+                .satisfies(item -> {
+                    assertThat(item.count()).isEqualTo(6);
+                    assertThat(item.min()).isEqualByComparingTo("7.00");
+                    assertThat(item.max()).isEqualByComparingTo("70.00");
+                    assertThat(item.p50()).isEqualByComparingTo("7.00");
+                });
+    }
+
+    @Test
+    void distribution_shouldFollowImportsAndDeletes() {
+        User user = createAndSaveUser(USER_EMAIL, Role.USER, userRepository);
+        UserDetailsImpl currentUser = new UserDetailsImpl(user);
+        Category category = categoryRepository.save(new Category(CATEGORY_NAME));
+        List<Expense> added = new ArrayList<>();
+        for (String amount : List.of("10.00", "20.00", "30.00")) {
+            added.add(expenseService.addExpense(currentUser, new Expense(null, null, new BigDecimal(amount),
+                    FIRST.atDay(10).atTime(12, 0).atZone(ZONE).toInstant(), category, DESCRIPTION)));
+        }
+        flusher.flush();
+
+        importService.importExpenses(currentUser, ExpenseImportFormat.CSV, new ByteArrayInputStream("""
+                amount,occurred_at,category,description
+                40.00,%s,%s,
+                """.formatted(FIRST.atDay(11).atTime(12, 0).atZone(ZONE).toInstant(), CATEGORY_NAME)
+                .getBytes(StandardCharsets.UTF_8)));
+        assertThat(distributionService.distribution(currentUser, months(FIRST, FIRST)).categories()).singleElement()
+                .satisfies(item -> {
+                    assertThat(item.count()).isEqualTo(4);
+                    assertThat(item.max()).isEqualByComparingTo("40.00");
+                });
+
+        expenseService.deleteExpense(currentUser, added.get(0).getId());
+        flusher.flush();
+
+        assertThat(distributionService.distribution(currentUser, months(FIRST, FIRST)).categories()).singleElement()
+                .satisfies(item -> {
+                    assertThat(item.count()).isEqualTo(3);
+                    assertThat(item.min()).isEqualByComparingTo("20.00");
+                });
+        assertThat(flusher.rebuildAll()).isPositive();
+        assertThat(distributionService.distribution(currentUser, months(FIRST, FIRST)).categories()).singleElement()
+                .satisfies(item -> assertThat(item.count()).isEqualTo(3));
+    }
+}
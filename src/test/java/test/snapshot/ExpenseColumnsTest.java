@@ -0,0 +1,92 @@
+package test.snapshot;
+
+import com.example.expensetracker.dto.CategorySumDto;
+import com.example.expensetracker.dto.ExpensesReportDto;
+import com.example.expensetracker.snapshot.ExpenseColumns;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExpenseColumnsTest {
+
+    private static final Instant T0 = Instant.parse("2025-09-01T10:00:00Z");
+
+    private static long at(int minutes) {
+        return ExpenseColumns.micros(T0.plusSeconds(minutes * 60L));
+    }
+
+    @Test
+    void report_shouldIncludeBothBoundsAndGroupByCategoryName() {
+        ExpenseColumns columns = new ExpenseColumns();
+        columns.add(at(0), 100, 1L, "food");
+        columns.add(at(10), 250, null, null);
+        columns.add(at(20), 300, 2L, "food");
+        columns.add(at(30), 400, 3L, "drink");
+        columns.add(at(40), 999, 3L, "drink");
+
+        ExpensesReportDto report = columns.report(T0, T0.plusSeconds(30 * 60));
+
+        assertThat(report.total()).isEqualByComparingTo("10.50");
+        assertThat(report.byCategory()).containsExactlyInAnyOrder(
+                new CategorySumDto("food", new BigDecimal("4.00")),
+                new CategorySumDto("UNCATEGORIZED", new BigDecimal("2.50")),
+                new CategorySumDto("drink", new BigDecimal("4.00")));
+    }
+
+    @Test
+    void report_shouldOmitCategoriesWithoutExpensesInPeriod() {
+        ExpenseColumns columns = new ExpenseColumns();
+        columns.add(at(0), 100, 1L, "food");
+        columns.add(at(60), 200, 2L, "drink");
+
+        ExpensesReportDto report = columns.report(T0.plusSeconds(1), T0.plusSeconds(3600));
+
+        assertThat(report.byCategory()).containsExactly(new CategorySumDto("drink", new BigDecimal("2.00")));
+        assertThat(columns.report(T0.plusSeconds(1), T0.plusSeconds(2)).total()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void add_shouldKeepTimeOrder_whenExpenseIsOlderThanLast() {
+        ExpenseColumns columns = new ExpenseColumns(1);
+        for (int i = 0; i < 100; i += 2) {
+            columns.add(at(i), 1, null, null);
+        }
+        columns.add(at(5), 1000, 1L, "food");
+
+        assertThat(columns.size()).isEqualTo(51);
+        assertThat(columns.report(T0, T0.plusSeconds(4 * 60)).total()).isEqualByComparingTo("0.03");
+        assertThat(columns.report(T0.plusSeconds(5 * 60), T0.plusSeconds(5 * 60)).total())
+                .isEqualByComparingTo("10.00");
+    }
+
+    @Test
+    void remove_shouldDeleteOneMatchingExpense() {
+        ExpenseColumns columns = new ExpenseColumns();
+        columns.add(at(0), 100, 1L, "food");
+        columns.add(at(0), 100, 1L, "food");
+        columns.add(at(0), 100, null, null);
+
+        assertThat(columns.remove(at(0), 100, 1L)).isTrue();
+        assertThat(columns.remove(at(0), 100, 2L)).isFalse();
+        assertThat(columns.remove(at(0), 200, null)).isFalse();
+
+        assertThat(columns.size()).isEqualTo(2);
+        assertThat(columns.report(T0, T0).byCategory()).containsExactlyInAnyOrder(
+                new CategorySumDto("UNCATEGORIZED", new BigDecimal("1.00")),
+                new CategorySumDto("food", new BigDecimal("1.00")));
+    }
+
+    @Test
+    void micros_shouldRoundNanosLikeJdbcDriver() {
+        Instant instant = Instant.parse("2025-09-01T10:00:00.000001499Z");
+
+        assertThat(ExpenseColumns.micros(instant)).isEqualTo(ExpenseColumns.micros(instant.minusNanos(499)));
+        assertThat(ExpenseColumns.micros(instant.plusNanos(1)))
+                .isEqualTo(ExpenseColumns.micros(instant.minusNanos(499)) + 1);
+        assertThat(ExpenseColumns.micros(Instant.parse("2025-09-01T10:00:00.999999500Z")))
+                .isEqualTo(ExpenseColumns.micros(Instant.parse("2025-09-01T10:00:01Z")));
+    }
+}
@@ -0,0 +1,146 @@
+package test.snapshot;
+
+import com.example.expensetracker.config.ExpenseSnapshotProperties;
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.snapshot.ExpenseColumns;
+import com.example.expensetracker.snapshot.ExpenseSnapshotCache;
+import com.example.expensetracker.snapshot.ExpenseSnapshotRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+import test.util.TestData;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ExpenseSnapshotCacheTest {
+
+    private static final Instant FROM = Instant.parse("2025-09-01T00:00:00Z");
+    private static final Instant TO = Instant.parse("2025-10-01T00:00:00Z");
+
+    @Mock
+    private ExpenseSnapshotRepository repository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ExpenseSnapshotCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ExpenseSnapshotCache(repository, new TransactionTemplate(transactionManager),
+                new ExpenseSnapshotProperties(true, DataSize.ofMegabytes(1), 100), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private Expense expense(String amount) {
+        Expense expense = TestData.expense();
+        expense.setUser(TestData.user());
+        expense.setCategory(TestData.category());
+        expense.setAmount(new BigDecimal(amount));
+        expense.setOccurredAt(FROM.plusSeconds(3600));
+        return expense;
+    }
+
+    @Test
+    void report_shouldBuildOnceAndApplyCommittedChanges() {
+        Long userId = TestData.user().getId();
+        when(repository.load(userId)).thenReturn(new ExpenseColumns());
+        cache.report(userId, FROM, TO);
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.added(List.of(expense("10.00"), expense("5.50")));
+        assertThat(cache.report(userId, FROM, TO).total()).isEqualByComparingTo("0");
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        cache.removed(expense("5.50"));
+
+        assertThat(cache.report(userId, FROM, TO).total()).isEqualByComparingTo("10.00");
+        verify(repository).load(userId);
+    }
+
+    @Test
+    void added_shouldBeDiscarded_whenTransactionRolledBack() {
+        Long userId = TestData.user().getId();
+        when(repository.load(userId)).thenReturn(new ExpenseColumns());
+        cache.report(userId, FROM, TO);
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.added(List.of(expense("10.00")));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(cache.report(userId, FROM, TO).total()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void report_shouldNotKeepSnapshot_whenBuiltDuringUncommittedWrite() {
+        Long userId = TestData.user().getId();
+        when(repository.load(userId)).thenAnswer(invocation -> new ExpenseColumns());
+        TransactionSynchronizationManager.initSynchronization();
+        cache.added(List.of(expense("10.00")));
+
+        cache.report(userId, FROM, TO);
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        cache.report(userId, FROM, TO);
+        cache.report(userId, FROM, TO);
+
+        verify(repository, times(2)).load(userId);
+    }
+
+    @Test
+    void invalidate_shouldDropSnapshot() {
+        Long userId = TestData.user().getId();
+        when(repository.load(userId)).thenAnswer(invocation -> new ExpenseColumns());
+        cache.report(userId, FROM, TO);
+
+        cache.invalidate(Set.of(userId));
+        cache.report(userId, FROM, TO);
+
+        verify(repository, times(2)).load(userId);
+    }
+
+    @Test
+    void categoryChanged_shouldDropAllSnapshots_afterCommit() {
+        Long userId = TestData.user().getId();
+        when(repository.load(userId)).thenAnswer(invocation -> new ExpenseColumns());
+        cache.report(userId, FROM, TO);
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.categoryChanged(TestData.category().getId());
+        cache.report(userId, FROM, TO);
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        cache.report(userId, FROM, TO);
+
+        verify(repository, times(2)).load(userId);
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+}
@@ -0,0 +1,141 @@
+package test.snapshot;
+
+import com.example.expensetracker.ExpenseTrackerApplication;
+import com.example.expensetracker.details.UserDetailsImpl;
+import com.example.expensetracker.dto.CategorySumDto;
+import com.example.expensetracker.dto.ExpenseRequestDto;
+import com.example.expensetracker.dto.ExpensesReportDto;
+import com.example.expensetracker.imports.ExpenseImportFormat;
+import com.example.expensetracker.imports.ExpenseImportService;
+import com.example.expensetracker.model.Category;
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.Role;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.repository.CategoryRepository;
+import com.example.expensetracker.repository.ExpenseRepository;
+import com.example.expensetracker.repository.UserRepository;
+import com.example.expensetracker.service.ExpenseService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.assertj.core.api.recursive.comparison.RecursiveComparisonConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static test.util.Constants.*;
+import static test.util.TestUtils.createAndSaveUser;
+
+/**
+ * Сверяет отчёты по колоночному снимку, дописанному после записей, с JPQL-отчётом по expenses.
+ */
+@SpringBootTest(classes = {ExpenseTrackerApplication.class}, properties = "app.expenses.snapshot.enabled=true")
+@ActiveProfiles("test")
+public class ExpenseSnapshotIT {
+
+    private static final Instant START = Instant.parse("2025-09-01T00:00:00Z");
+    private static final long PERIOD_SECONDS = 60L * 24 * 3600;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ExpenseImportService importService;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private double misses() {
+        return meterRegistry.get("expenses.snapshot.requests").tag("result", "miss").counter().count();
+    }
+
+    private Instant randomInstant(Random random) {
+        return START.plusSeconds(random.nextLong(PERIOD_SECONDS)).plusNanos(random.nextInt(1_000_000_000));
+    }
+
+    private void assertMatchesJpql(UserDetailsImpl currentUser, Instant from, Instant to) {
+        Long userId = currentUser.getDomainUser().getId();
+        ExpensesReportDto report = expenseService.getReport(currentUser, from, to);
+        List<CategorySumDto> expected = expenseRepository.sumByCategoryForUserBetween(userId, from, to);
+        assertThat(report.byCategory())
+                .as("[%s, %s]", from, to)
+                .usingRecursiveFieldByFieldElementComparator(RecursiveComparisonConfiguration.builder()
+                        .withComparatorForType(BigDecimal::compareTo, BigDecimal.class).build())
+                .containsExactlyInAnyOrderElementsOf(expected);
+        assertThat(report.total()).isEqualByComparingTo(expenseRepository.totalForUserBetween(userId, from, to));
+    }
+
+    @Test
+    void snapshotReport_shouldMatchJpql_afterWrites() {
+        User user = createAndSaveUser(USER_EMAIL, Role.USER, userRepository);
+        UserDetailsImpl currentUser = new UserDetailsImpl(user);
+        List<Category> categories = List.of(categoryRepository.save(new Category(CATEGORY_NAME)),
+                categoryRepository.save(new Category("transport")),
+                categoryRepository.save(new Category("rent")));
+        Random random = new Random(11);
+
+        List<Expense> added = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            added.add(expenseService.addExpense(currentUser, new Expense(null, null,
+                    BigDecimal.valueOf(random.nextInt(10_000) + 1, 2), randomInstant(random),
+                    categories.get(random.nextInt(categories.size())), DESCRIPTION)));
+        }
+        assertMatchesJpql(currentUser, START, START.plusSeconds(PERIOD_SECONDS));
+        double missesAfterBuild = misses();
+
+        for (int i = 0; i < 40; i++) {
+            Category category = random.nextInt(5) == 0 ? null : categories.get(random.nextInt(categories.size()));
+            added.add(expenseService.addExpense(currentUser, new Expense(null, null,
+                    BigDecimal.valueOf(random.nextInt(10_000) + 1, 2), randomInstant(random), category,
+                    DESCRIPTION)));
+        }
+        for (int i = 0; i < added.size(); i += 4) {
+            expenseService.deleteExpense(currentUser, added.get(i).getId());
+        }
+        expenseService.addExpenses(currentUser, List.of(
+                new ExpenseRequestDto(new BigDecimal("3.30"), randomInstant(random), categories.get(2).getId(),
+                        DESCRIPTION),
+                new ExpenseRequestDto(new BigDecimal("4.40"), randomInstant(random), null, DESCRIPTION)));
+
+        Expense boundary = added.get(1);
+        assertMatchesJpql(currentUser, boundary.getOccurredAt(), boundary.getOccurredAt());
+        for (int i = 0; i < 20; i++) {
+            Instant a = randomInstant(random);
+            Instant b = randomInstant(random);
+            assertMatchesJpql(currentUser, a.isBefore(b) ? a : b, a.isBefore(b) ? b : a);
+        }
+        assertThat(misses()).isEqualTo(missesAfterBuild);
+
+        importService.importExpenses(currentUser, ExpenseImportFormat.CSV, new ByteArrayInputStream("""
+                amount,occurred_at,category,description
+                5.55,%s,rent,
+                """.formatted(START.plusSeconds(3600)).getBytes(StandardCharsets.UTF_8)));
+
+        assertMatchesJpql(currentUser, START, START.plusSeconds(PERIOD_SECONDS));
+        assertThat(misses()).isEqualTo(missesAfterBuild + 1);
+
+        Category renamed = categories.get(1);
+        renamed.setName("commute");
+        categoryRepository.save(renamed);
+
+        assertMatchesJpql(currentUser, START, START.plusSeconds(PERIOD_SECONDS));
+        assertThat(misses()).isEqualTo(missesAfterBuild + 2);
+    }
+}
@@ -0,0 +1,52 @@
+package test.suggest;
+
+import com.example.expensetracker.suggest.DescriptionPrefixIndex;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DescriptionPrefixIndexTest {
+
+    @Test
+    void suggest_shouldMatchPrefixIgnoringCase_andRankByFrequencyThenRecency() {
+        DescriptionPrefixIndex index = new DescriptionPrefixIndex(10);
+        index.add("Кофе");
+        index.add("Коммуналка");
+        index.add("кофе ");
+        index.add("Корм   коту");
+        index.add("Аренда");
+
+        assertThat(index.suggest("КО", 10)).containsExactly("кофе", "Корм коту", "Коммуналка");
+        assertThat(index.suggest("  корм к", 10)).containsExactly("Корм коту");
+        assertThat(index.suggest("ко", 2)).containsExactly("кофе", "Корм коту");
+        assertThat(index.suggest("такси", 10)).isEmpty();
+        assertThat(index.suggest(" ", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    void add_shouldEvictRarestOldestDescription_whenFull() {
+        DescriptionPrefixIndex index = new DescriptionPrefixIndex(2);
+        index.add("Аренда");
+        index.add("Аренда");
+        index.add("Абонемент");
+        index.add("Аптека");
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.suggest("а", 10)).containsExactly("Аренда", "Аптека");
+    }
+
+    @Test
+    void remove_shouldDropDescription_whenLastExpenseRemoved() {
+        DescriptionPrefixIndex index = new DescriptionPrefixIndex(10);
+        index.add("Такси");
+        index.add("Такси");
+        index.add(null);
+
+        index.remove("такси");
+        assertThat(index.suggest("т", 10)).containsExactly("Такси");
+        index.remove("Такси");
+        assertThat(index.suggest("т", 10)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+}
@@ -0,0 +1,130 @@
+package test.suggest;
+
+import com.example.expensetracker.config.ExpenseSuggestProperties;
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.suggest.DescriptionPrefixIndex;
+import com.example.expensetracker.suggest.DescriptionSuggestCache;
+import com.example.expensetracker.suggest.DescriptionSuggestRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+import test.util.TestData;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class DescriptionSuggestCacheTest {
+
+    private static final int RECENT = 100;
+    private static final int MAX_DESCRIPTIONS = 50;
+
+    @Mock
+    private DescriptionSuggestRepository repository;
+
+    private DescriptionSuggestCache cache;
+
+    private final Long userId = TestData.user().getId();
+
+    @BeforeEach
+    void setUp() {
+        cache = new DescriptionSuggestCache(repository,
+                new ExpenseSuggestProperties(RECENT, MAX_DESCRIPTIONS, DataSize.ofMegabytes(1)),
+                new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static Expense expense(String description) {
+        Expense expense = TestData.expense();
+        expense.setUser(TestData.user());
+        expense.setDescription(description);
+        return expense;
+    }
+
+    private static DescriptionPrefixIndex index(String... descriptions) {
+        DescriptionPrefixIndex index = new DescriptionPrefixIndex(MAX_DESCRIPTIONS);
+        for (String description : descriptions) {
+            index.add(description);
+        }
+        return index;
+    }
+
+    @Test
+    void suggest_shouldBuildOnceAndApplyCommittedChanges() {
+        when(repository.load(userId, RECENT, MAX_DESCRIPTIONS)).thenReturn(index("Кофе"));
+        assertThat(cache.suggest(userId, "к", 10)).containsExactly("Кофе");
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.added(List.of(expense("Кино"), expense("Кино"), expense(null)));
+        assertThat(cache.suggest(userId, "к", 10)).containsExactly("Кофе");
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        cache.removed(expense("Кофе"));
+
+        assertThat(cache.suggest(userId, "к", 10)).containsExactly("Кино");
+        verify(repository).load(userId, RECENT, MAX_DESCRIPTIONS);
+    }
+
+    @Test
+    void added_shouldBeDiscarded_whenTransactionRolledBack() {
+        when(repository.load(userId, RECENT, MAX_DESCRIPTIONS)).thenReturn(index());
+        cache.suggest(userId, "к", 10);
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.added(List.of(expense("Кино")));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(cache.suggest(userId, "к", 10)).isEmpty();
+    }
+
+    @Test
+    void suggest_shouldNotKeepIndex_whenBuiltDuringUncommittedWrite() {
+        when(repository.load(userId, RECENT, MAX_DESCRIPTIONS)).thenAnswer(invocation -> index());
+        TransactionSynchronizationManager.initSynchronization();
+        cache.added(List.of(expense("Кино")));
+
+        cache.suggest(userId, "к", 10);
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        cache.suggest(userId, "к", 10);
+        cache.suggest(userId, "к", 10);
+
+        verify(repository, times(2)).load(userId, RECENT, MAX_DESCRIPTIONS);
+    }
+
+    @Test
+    void invalidate_shouldDropIndex() {
+        when(repository.load(userId, RECENT, MAX_DESCRIPTIONS)).thenAnswer(invocation -> index());
+        cache.suggest(userId, "к", 10);
+
+        cache.invalidate(Set.of(userId));
+        cache.suggest(userId, "к", 10);
+
+        verify(repository, times(2)).load(userId, RECENT, MAX_DESCRIPTIONS);
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+}
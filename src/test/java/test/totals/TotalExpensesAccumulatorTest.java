@@ -0,0 +1,91 @@
+package test.totals;
+
+import com.example.expensetracker.totals.TotalExpensesAccumulator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static test.util.Constants.ID_VALID;
+
+public class TotalExpensesAccumulatorTest {
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+    private final TotalExpensesAccumulator accumulator = new TotalExpensesAccumulator(cacheManager);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void add_shouldAccumulateConcurrentDeltasWithoutLoss() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 10_000; i++) {
+            executor.submit(() -> accumulator.add(ID_VALID, new BigDecimal("0.01")));
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(accumulator.pending(ID_VALID)).isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    void add_shouldApplyAfterCommitAndEvictCache_whenInTransaction() {
+        cacheManager.getCache("totalExpenses").put(ID_VALID, BigDecimal.ONE);
+        TransactionSynchronizationManager.initSynchronization();
+
+        accumulator.add(ID_VALID, BigDecimal.TEN);
+
+        assertThat(accumulator.pending(ID_VALID)).isZero();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(accumulator.pending(ID_VALID)).isEqualByComparingTo("10");
+        assertThat(cacheManager.getCache("totalExpenses").get(ID_VALID)).isNull();
+    }
+
+    @Test
+    void flush_shouldDrainDeltasIntoWriter() {
+        accumulator.add(ID_VALID, new BigDecimal("5.25"));
+        accumulator.add(2L, new BigDecimal("-1"));
+        Map<Long, BigDecimal> written = new HashMap<>();
+
+        int users = accumulator.flush(written::putAll);
+
+        assertThat(users).isEqualTo(2);
+        assertThat(written.get(ID_VALID)).isEqualByComparingTo("5.25");
+        assertThat(written.get(2L)).isEqualByComparingTo("-1");
+        assertThat(accumulator.pending(ID_VALID)).isZero();
+        assertThat(accumulator.flush(written::putAll)).isZero();
+    }
+
+    @Test
+    void flush_shouldKeepDeltas_whenWriterFails() {
+        accumulator.add(ID_VALID, BigDecimal.TEN);
+
+        assertThrows(IllegalStateException.class, () -> accumulator.flush(deltas -> {
+            throw new IllegalStateException("db down");
+        }));
+
+        assertThat(accumulator.pending(ID_VALID)).isEqualByComparingTo("10");
+    }
+
+    @Test
+    void withPending_shouldAddPendingToPersistedValue() {
+        accumulator.add(ID_VALID, new BigDecimal("2.50"));
+
+        assertThat(accumulator.withPending(ID_VALID, () -> BigDecimal.TEN)).isEqualByComparingTo("12.50");
+        assertThat(accumulator.withPending(2L, () -> BigDecimal.TEN)).isEqualByComparingTo("10");
+    }
+}
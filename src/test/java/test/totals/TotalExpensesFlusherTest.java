@@ -0,0 +1,111 @@
+package test.totals;
+
+import com.example.expensetracker.config.ExpenseTotalsProperties;
+import com.example.expensetracker.totals.TotalExpensesAccumulator;
+import com.example.expensetracker.totals.TotalExpensesFlusher;
+import com.example.expensetracker.totals.TotalExpensesRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static test.util.Constants.ID_VALID;
+
+@ExtendWith(MockitoExtension.class)
+public class TotalExpensesFlusherTest {
+
+    @Mock
+    private TotalExpensesRepository repository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final TotalExpensesAccumulator accumulator = new TotalExpensesAccumulator(new ConcurrentMapCacheManager());
+
+    private TotalExpensesFlusher flusher;
+
+    @BeforeEach
+    void setUp() {
+        flusher = new TotalExpensesFlusher(accumulator, repository, transactionTemplate,
+                new ExpenseTotalsProperties(Duration.ofSeconds(1), true));
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void flush_shouldApplyDeltasInOneBatch() {
+        accumulator.add(ID_VALID, BigDecimal.TEN);
+        accumulator.add(2L, BigDecimal.ONE);
+
+        flusher.flush();
+
+        verify(repository, times(1)).applyDeltas(argThat(deltas -> deltas.size() == 2));
+        assertThat(accumulator.pending(ID_VALID)).isZero();
+    }
+
+    @Test
+    void flush_shouldNotTouchDb_whenNothingPending() {
+        flusher.flush();
+
+        verifyNoInteractions(repository, transactionTemplate);
+    }
+
+    @Test
+    void flush_shouldRetainDeltas_whenDbFails() {
+        accumulator.add(ID_VALID, BigDecimal.TEN);
+        when(repository.applyDeltas(any())).thenThrow(new DataAccessResourceFailureException("down"));
+
+        flusher.flush();
+
+        assertThat(accumulator.pending(ID_VALID)).isEqualByComparingTo("10");
+    }
+
+    @Test
+    void afterSingletonsInstantiated_shouldReconcileFromExpenses() {
+        when(repository.tryLockRecompute()).thenReturn(true);
+
+        flusher.afterSingletonsInstantiated();
+
+        verify(repository).recomputeAll();
+    }
+
+    @Test
+    void reconcile_shouldFlushPendingDeltas_beforeRecomputing() {
+        accumulator.add(ID_VALID, BigDecimal.TEN);
+        when(repository.tryLockRecompute()).thenReturn(true);
+        when(repository.recomputeAll()).thenReturn(3);
+
+        int users = flusher.reconcile();
+
+        assertThat(users).isEqualTo(3);
+        var order = inOrder(repository);
+        order.verify(repository).applyDeltas(any());
+        order.verify(repository).recomputeAll();
+        assertThat(accumulator.pending(ID_VALID)).isZero();
+    }
+
+    @Test
+    void reconcile_shouldSkipRecompute_whenAnotherInstanceHoldsLock() {
+        when(repository.tryLockRecompute()).thenReturn(false);
+
+        assertThat(flusher.reconcile()).isEqualTo(-1);
+
+        verify(repository, never()).recomputeAll();
+    }
+}
@@ -0,0 +1,45 @@
+package test.tx;
+
+import com.example.expensetracker.tx.AfterCommit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AfterCommitTest {
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void run_shouldRunImmediately_outsideTransaction() {
+        List<String> events = new ArrayList<>();
+
+        AfterCommit.run(() -> events.add("commit"), () -> events.add("finish"));
+
+        assertThat(events).containsExactly("commit", "finish");
+    }
+
+    @Test
+    void run_shouldWaitForCommit_andSkipActionOnRollback() {
+        List<String> events = new ArrayList<>();
+        TransactionSynchronizationManager.initSynchronization();
+
+        AfterCommit.run(() -> events.add("commit"));
+        AfterCommit.run(() -> events.add("commit"), () -> events.add("finish"));
+        assertThat(events).isEmpty();
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertThat(events).containsExactly("finish");
+    }
+}
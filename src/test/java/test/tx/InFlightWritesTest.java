@@ -0,0 +1,72 @@
+package test.tx;
+
+import com.example.expensetracker.tx.InFlightWrites;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static test.util.Constants.ID_VALID;
+
+public class InFlightWritesTest {
+
+    private final InFlightWrites writes = new InFlightWrites();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private List<TransactionSynchronization> writeInTransaction(List<Long> applied) {
+        TransactionSynchronizationManager.initSynchronization();
+        writes.write(Set.of(ID_VALID), applied::add);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        return synchronizations;
+    }
+
+    @Test
+    void putIfQuiet_shouldPut_whenNoWriteStarted() {
+        long stamp = writes.stamp(ID_VALID);
+
+        assertThat(writes.putIfQuiet(ID_VALID, stamp, () -> { })).isTrue();
+    }
+
+    @Test
+    void putIfQuiet_shouldReject_whenWriteStartedDuringLoad() {
+        long stamp = writes.stamp(ID_VALID);
+        writeInTransaction(new ArrayList<>());
+
+        assertThat(writes.putIfQuiet(ID_VALID, stamp, () -> { })).isFalse();
+    }
+
+    @Test
+    void stamp_shouldRejectLoad_untilWriteCompletes() {
+        List<Long> applied = new ArrayList<>();
+        List<TransactionSynchronization> synchronizations = writeInTransaction(applied);
+
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertThat(writes.putIfQuiet(ID_VALID, writes.stamp(ID_VALID), () -> { })).isFalse();
+
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertThat(applied).containsExactly(ID_VALID);
+        assertThat(writes.putIfQuiet(ID_VALID, writes.stamp(ID_VALID), () -> { })).isTrue();
+    }
+
+    @Test
+    void write_shouldApplyImmediately_outsideTransaction() {
+        List<Long> applied = new ArrayList<>();
+
+        writes.write(Set.of(ID_VALID), applied::add);
+
+        assertThat(applied).containsExactly(ID_VALID);
+        assertThat(writes.putIfQuiet(ID_VALID, writes.stamp(ID_VALID), () -> { })).isTrue();
+    }
+}
@@ -25,13 +25,30 @@ public final class Constants {
     public static final String API_ADMIN_USERS = "/api/admin/users";
     public static final String API_ADMIN_USERS_CREATE_MODERATOR = "/api/admin/users/create/moderator";
     public static final String API_ADMIN_USERS_CREATE_ADMINISTRATOR = "/api/admin/users/create/administrator";
+    public static final String API_ADMIN_ANALYTICS_CATEGORIES = "/api/admin/analytics/spending/categories";
+    public static final String API_ADMIN_ANALYTICS_MONTHS = "/api/admin/analytics/spending/months";
+    public static final String API_ADMIN_SEARCH_REINDEX = "/api/admin/search/reindex";
+    public static final String API_ADMIN_RECURRING_CATCH_UP = "/api/admin/recurring/catch-up";
+    public static final String API_ADMIN_TOTALS_RECONCILE = "/api/admin/totals/reconcile";
     public static final String API_USERS_ME = "/api/users/me";
     public static final String API_USERS_CHANGE_PASSWORD = "/api/users/change-password";
+    public static final String API_EXPENSES = "/api/expenses";
+    public static final String API_EXPENSES_EXPORT = "/api/expenses/export";
     public static final String API_EXPENSES_REPORT = "/api/expenses/report";
     public static final String API_EXPENSES_TOTAL = "/api/expenses/total";
     public static final String API_EXPENSES_STATS_MONTHLY = "/api/expenses/stats/monthly";
+    public static final String API_EXPENSES_STATS_MONTHLY_RANGE = "/api/expenses/stats/monthly/range";
+    public static final String API_EXPENSES_STATS_SERIES = "/api/expenses/stats/series";
+    public static final String API_EXPENSES_STATS_DISTRIBUTION = "/api/expenses/stats/distribution";
+    public static final String API_EXPENSES_BATCH = "/api/expenses/batch";
+    public static final String API_EXPENSES_QUEUE = "/api/expenses/queue";
+    public static final String API_EXPENSES_IMPORT = "/api/expenses/import";
+    public static final String API_EXPENSES_SEARCH = "/api/expenses/search";
+    public static final String API_EXPENSES_SUGGESTIONS = "/api/expenses/suggestions";
+    public static final String API_BUDGETS = "/api/budgets";
     public static final String API_RECURRING_TRANSACTION = "/api/recurring-transaction";
     public static final String API_RECURRING_TRANSACTION_CREATE = "/api/recurring-transaction/create";
+    public static final String API_RECURRING_TRANSACTION_FORECAST = "/api/recurring-transaction/forecast";
     public static final String API_MODERATOR_USERS = "/api/moderator/users";
     
     
@@ -7,6 +7,7 @@ import com.example.expensetracker.logging.applog.AppLogLevel;
 import com.example.expensetracker.logging.audit.AuditAction;
 import com.example.expensetracker.logging.audit.AuditDto;
 import com.example.expensetracker.model.*;
+import com.example.expensetracker.recurring.Recurrence;
 import com.example.expensetracker.repository.UserRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -44,6 +45,14 @@ public class TestData {
                 DESCRIPTION);
     }
 
+    public static ExpenseRequestDto expenseRequestDto(Long categoryId) {
+        return new ExpenseRequestDto(new BigDecimal(AMOUNT), Instant.now(), categoryId, DESCRIPTION);
+    }
+
+    public static ExpenseRequestDto expenseRequestDto() {
+        return expenseRequestDto(ID_CATEGORY);
+    }
+
     public static RecurringTransaction recurringTransaction() {
         RecurringTransaction res = new RecurringTransaction();
         res.setId(ID_TRANSACTION);
@@ -208,7 +217,8 @@ public class TestData {
                 CATEGORY_NAME,
                 INTERVAL_DAYS,
                 LocalDate.now().minusDays(1),
-                true
+                true,
+                dailyRecurrenceDto()
         );
     }
 
@@ -221,10 +231,19 @@ public class TestData {
                 CATEGORY_NAME,
                 INTERVAL_DAYS,
                 LocalDate.now().minusDays(1),
-                false
+                false,
+                dailyRecurrenceDto()
         );
     }
 
+    public static RecurrenceDto dailyRecurrenceDto() {
+        return new RecurrenceDto(RecurrenceFrequency.DAILY, Set.of(), null, null, null, 0);
+    }
+
+    public static Recurrence dailyRecurrence(int intervalDays, LocalDate nextExecutionDate) {
+        return new Recurrence(RecurrenceFrequency.DAILY, intervalDays, 0, 0, nextExecutionDate, null, Long.MAX_VALUE);
+    }
+
     public static RecurringTransactionRequestDto recurringTransactionRequestDto() {
         return new RecurringTransactionRequestDto(
                 new BigDecimal(AMOUNT),
@@ -0,0 +1,90 @@
+package test.write;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.money.MoneySum;
+import com.example.expensetracker.rollup.DailyRollupDeltas;
+import com.example.expensetracker.rollup.DailyRollupKey;
+import com.example.expensetracker.write.ExpenseWriteEvents;
+import com.example.expensetracker.write.ExpenseWriteListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import test.util.TestData;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static test.util.Constants.AMOUNT;
+
+@ExtendWith(MockitoExtension.class)
+public class ExpenseWriteEventsTest {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    @Mock
+    private ExpenseWriteListener first;
+
+    @Mock
+    private ExpenseWriteListener second;
+
+    private ExpenseWriteEvents writeEvents;
+
+    @BeforeEach
+    void setUp() {
+        writeEvents = new ExpenseWriteEvents(List.of(first, second));
+    }
+
+    @Test
+    void addedAndRemoved_shouldProduceOppositeDeltas() {
+        Expense expense = TestData.expense();
+        expense.setUser(TestData.user());
+        ArgumentCaptor<DailyRollupDeltas> captor = ArgumentCaptor.forClass(DailyRollupDeltas.class);
+
+        writeEvents.added(List.of(expense, expense));
+        writeEvents.removed(expense);
+
+        verify(first, times(2)).record(captor.capture());
+        DailyRollupKey key = new DailyRollupKey(expense.getUser().getId(),
+                LocalDate.ofInstant(expense.getOccurredAt(), ZONE),
+                expense.getCategory() == null ? null : expense.getCategory().getId());
+        MoneySum added = captor.getAllValues().get(0).asMap().get(key);
+        MoneySum removed = captor.getAllValues().get(1).asMap().get(key);
+        assertThat(added.amount()).isEqualByComparingTo(new BigDecimal(AMOUNT * 2));
+        assertThat(added.count()).isEqualTo(2);
+        assertThat(removed.amount()).isEqualByComparingTo(new BigDecimal(AMOUNT).negate());
+        assertThat(removed.count()).isEqualTo(-1);
+        for (ExpenseWriteListener listener : List.of(first, second)) {
+            verify(listener, times(2)).record(any());
+            verify(listener).added(List.of(expense, expense));
+            verify(listener).removed(expense);
+            verify(listener, never()).invalidate(any());
+        }
+    }
+
+    @Test
+    void apply_shouldInvalidateAffectedUsers() {
+        DailyRollupDeltas deltas = new DailyRollupDeltas();
+        deltas.add(1L, LocalDate.of(2025, 9, 1), null, BigDecimal.TEN);
+        deltas.add(2L, LocalDate.of(2025, 9, 1), 5L, BigDecimal.ONE);
+        deltas.add(2L, LocalDate.of(2025, 9, 2), 5L, BigDecimal.ONE);
+
+        writeEvents.apply(deltas);
+
+        for (ExpenseWriteListener listener : List.of(first, second)) {
+            verify(listener).record(deltas);
+            verify(listener).invalidate(Set.of(1L, 2L));
+            verify(listener, never()).added(any());
+        }
+    }
+}